@@ -25,6 +25,8 @@ import androidx.work.WorkerParameters;
 
 import com.espressif.cloudapi.AlexaApiManager;
 
+import java.io.IOException;
+
 public class AlexaLinkingWorker extends Worker {
 
     private static final String TAG = AlexaLinkingWorker.class.getSimpleName();
@@ -58,6 +60,21 @@ public class AlexaLinkingWorker extends Worker {
             } else if (type.equals(AppConstants.EVENT_GET_STATUS)) {
                 success = apiManager.getStatus();
                 Log.d(TAG, "Get Status : " + success);
+
+            } else if (type.equals(AppConstants.EVENT_REFRESH_TOKEN)) {
+                // Refresh token before it expires and update cached link status.
+                try {
+                    success = apiManager.refreshToken();
+                } catch (IOException e) {
+                    // Next refresh is scheduled only after successful refresh, so retry instead of failing the chain.
+                    e.printStackTrace();
+                    Log.e(TAG, "Refresh token failed, it will be retried");
+                    return Result.retry();
+                }
+                if (success) {
+                    apiManager.getStatus();
+                }
+                Log.d(TAG, "Refresh token : result : " + success);
             }
         }
         if (success) {
@@ -31,10 +31,12 @@ public class AppConstants {
 
     public static final String ESP_PREFERENCES = "Esp_Preferences";
     public static final String PREF_FILE_WIFI_NETWORKS = "wifi_networks";
+    public static final String PREF_FILE_PENDING_EVENTS = "pending_events";
     public static final String ESP_DATABASE_NAME = "esp_db";
     public static final String NODE_TABLE = "node_table";
     public static final String GROUP_TABLE = "group_table";
     public static final String NOTIFICATION_TABLE = "notification_table";
+    public static final String OUTBOX_TABLE = "outbox_table";
     public static final String MDNS_SERVICE_TYPE = "_esp_local_ctrl._tcp.";
     public static final String LOCAL_CONTROL_ENDPOINT = "esp_local_ctrl/control";
     public static final String LOCAL_SESSION_ENDPOINT = "esp_local_ctrl/session";
@@ -48,12 +50,15 @@ public class AppConstants {
         EVENT_ADD_DEVICE_TIME_OUT,
         EVENT_DEVICE_STATUS_UPDATE,
         EVENT_STATE_CHANGE_UPDATE,
-        EVENT_LOCAL_DEVICE_UPDATE
+        EVENT_LOCAL_DEVICE_UPDATE,
+        EVENT_PROVISIONING_UPDATE
     }
 
     public static final String CURRENT_VERSION = "v1";
     public static final String PATH_SEPARATOR = "/";
     public static final String HEADER_AUTHORIZATION = "Authorization";
+    public static final String HEADER_IF_NONE_MATCH = "If-None-Match";
+    public static final String HEADER_ETAG = "ETag";
 
     // Cloud API End point Urls
     public static final String URL_LOGIN = BuildConfig.BASE_URL + AppConstants.PATH_SEPARATOR
@@ -204,6 +209,8 @@ public class AppConstants {
     public static final String KEY_CLAIM_VERIFY_RESPONSE = "claim_verify_response";
     public static final String KEY_CLAIM_INIT_RESPONSE = "claim_initiate_response";
     public static final String KEY_REQ_ID = "request_id";
+    public static final String KEY_REQ_IDS = "request_ids";
+    public static final String KEY_QUEUED_NODE_IDS = "queued_node_ids";
     public static final String KEY_REQ_STATUS = "request_status";
     public static final String KEY_REQ_TIME = "request_timestamp";
     public static final String KEY_REQ_CONFIRMED = "confirmed";
@@ -238,6 +245,7 @@ public class AppConstants {
     public static final String KEY_TITLE = "title";
     public static final String KEY_BODY = "body";
     public static final String KEY_EVENT_DATA_PAYLOAD = "event_data_payload";
+    public static final String KEY_PENDING_EVENTS = "pending_events";
     public static final String KEY_NOTIFICATION_MSG = "notification_msg";
     public static final String KEY_PAYLOAD = "payload";
     public static final String KEY_LOCAL_CONTROL = "Local Control";
@@ -295,16 +303,23 @@ public class AppConstants {
     public static final String CHANNEL_ALERT = "notify_alert_id";
     public static final String CHANNEL_NODE_SHARING = "notify_node_sharing_id";
 
+    public static final String NOTIFICATION_WORK_NAME = "notification_events";
+
     public static final String ACTION_ACCEPT = "com.espressif.rainmaker.ACTION_ACCEPT";
     public static final String ACTION_DECLINE = "com.espressif.rainmaker.ACTION_DECLINE";
 
     public static final String ALEXA_PACKAGE_NAME = "com.amazon.dee.app";
     public static final String KEY_ALEXA_ACCESS_TOKEN = "alexa_access_token";
     public static final String KEY_ALEXA_REFRESH_TOKEN = "alexa_refresh_token";
+    public static final String KEY_ALEXA_TOKEN_EXPIRY = "alexa_token_expiry";
+    public static final String KEY_ALEXA_LINK_STATUS = "alexa_link_status";
+    public static final String KEY_EXPIRES_IN = "expires_in";
+    public static final String ALEXA_TOKEN_REFRESH_WORK_NAME = "alexa_token_refresh";
 
     public static final String EVENT_ENABLE_SKILL = "enable_skill";
     public static final String EVENT_DISABLE_SKILL = "disable_skill";
     public static final String EVENT_GET_STATUS = "get_status";
+    public static final String EVENT_REFRESH_TOKEN = "refresh_token";
 
     // Constants for Alexa account linking
     public static final String ALEXA_API_ENDPOINTS_URL = "https://api.amazonalexa.com/v1/alexaApiEndpoint";
@@ -313,4 +328,14 @@ public class AppConstants {
     public static final String LWA_URL = "https://www.amazon.com/ap/oa";
     public static final String LWA_SCOPE = "alexa::skills:account_linking";
     public static final String STATE = "temp"; // Place holder string
+
+    // Constants for outbox of pending writes
+    public static final String OUTBOX_WORK_NAME = "outbox_replay";
+    public static final String KEY_WRITE_TYPE = "write_type";
+    public static final String KEY_TARGET_ID = "target_id";
+    public static final String KEY_COLLAPSE_KEY = "collapse_key";
+    public static final String KEY_WRITE_BODY = "write_body";
+    public static final int WRITE_TYPE_PARAM = 1;
+    public static final int WRITE_TYPE_SCHEDULE = 2;
+    public static final int WRITE_TYPE_GROUP = 3;
 }
@@ -0,0 +1,172 @@
+// Copyright 2021 Espressif Systems (Shanghai) PTE LTD
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.espressif;
+
+import android.bluetooth.BluetoothDevice;
+
+import com.espressif.ui.models.BleDevice;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * This class aggregates BLE scan results.
+ * One entry is kept for each device (by its address) with its signal strength and time when it was last seen,
+ * so that UI can be refreshed at fixed interval instead of on every scan result.
+ * <p>
+ * Devices are ranked by prefix match (devices whose name starts with given prefix come first)
+ * and then by signal strength. Devices not seen for {@link #STALE_DEVICE_TIMEOUT} are removed.
+ * <p>
+ * RSSI of scan results jitters by few dBm, so RSSI of each device is smoothed (exponential moving average)
+ * and RSSI of the device used for ranking is updated only when smoothed value moves by
+ * {@link #RSSI_CHANGE_THRESHOLD} or more. This keeps rows from jumping while user is about to tap them.
+ */
+public class BleScanAggregator {
+
+    public static final long STALE_DEVICE_TIMEOUT = 10000;
+
+    // Weight of new scan result in smoothed RSSI.
+    private static final double RSSI_SMOOTHING_FACTOR = 0.25;
+    private static final int RSSI_CHANGE_THRESHOLD = 4;
+
+    private final HashMap<String, BleDevice> devices = new HashMap<>();
+    private final HashMap<String, Double> smoothedRssiMap = new HashMap<>();
+    private final String namePrefix;
+    private boolean isChanged = false;
+
+    private final Comparator<BleDevice> rankComparator = new Comparator<BleDevice>() {
+
+        @Override
+        public int compare(BleDevice d1, BleDevice d2) {
+
+            boolean isMatch1 = isPrefixMatch(d1.getName());
+            boolean isMatch2 = isPrefixMatch(d2.getName());
+
+            if (isMatch1 != isMatch2) {
+                return isMatch1 ? -1 : 1;
+            }
+            if (d1.getRssi() != d2.getRssi()) {
+                return d2.getRssi() - d1.getRssi();
+            }
+            String name1 = d1.getName() == null ? "" : d1.getName();
+            String name2 = d2.getName() == null ? "" : d2.getName();
+            return name1.compareToIgnoreCase(name2);
+        }
+    };
+
+    public BleScanAggregator(String namePrefix) {
+        this.namePrefix = namePrefix;
+    }
+
+    /**
+     * Add or update scan result of the device.
+     *
+     * @param device      Bluetooth device.
+     * @param name        Device name from scan record.
+     * @param serviceUuid Service UUID from scan record.
+     * @param rssi        RSSI of the scan result.
+     * @param now         Current time (elapsed realtime).
+     */
+    public synchronized void onScanResult(BluetoothDevice device, String name, String serviceUuid, int rssi, long now) {
+        onScanResult(device.getAddress(), device, name, serviceUuid, rssi, now);
+    }
+
+    synchronized void onScanResult(String address, BluetoothDevice device, String name, String serviceUuid, int rssi, long now) {
+
+        BleDevice bleDevice = devices.get(address);
+
+        if (bleDevice == null) {
+            bleDevice = new BleDevice();
+            bleDevice.setBluetoothDevice(device);
+            bleDevice.setRssi(rssi);
+            devices.put(address, bleDevice);
+            smoothedRssiMap.put(address, (double) rssi);
+            isChanged = true;
+        }
+
+        if (name != null && !name.isEmpty() && !name.equals(bleDevice.getName())) {
+            bleDevice.setName(name);
+            isChanged = true;
+        }
+        if (serviceUuid != null && !serviceUuid.isEmpty()) {
+            bleDevice.setServiceUuid(serviceUuid);
+        }
+
+        double smoothedRssi = smoothedRssiMap.get(address);
+        smoothedRssi += RSSI_SMOOTHING_FACTOR * (rssi - smoothedRssi);
+        smoothedRssiMap.put(address, smoothedRssi);
+
+        if (Math.abs(smoothedRssi - bleDevice.getRssi()) >= RSSI_CHANGE_THRESHOLD) {
+            bleDevice.setRssi((int) Math.round(smoothedRssi));
+            isChanged = true;
+        }
+        bleDevice.setLastSeenTime(now);
+    }
+
+    /**
+     * Remove devices which are not seen for {@link #STALE_DEVICE_TIMEOUT}.
+     *
+     * @param now Current time (elapsed realtime).
+     */
+    public synchronized void removeStaleDevices(long now) {
+
+        Iterator<Map.Entry<String, BleDevice>> itr = devices.entrySet().iterator();
+
+        while (itr.hasNext()) {
+            Map.Entry<String, BleDevice> entry = itr.next();
+            if (now - entry.getValue().getLastSeenTime() > STALE_DEVICE_TIMEOUT) {
+                smoothedRssiMap.remove(entry.getKey());
+                itr.remove();
+                isChanged = true;
+            }
+        }
+    }
+
+    /**
+     * @return Returns true if device list is changed after last call of {@link #getRankedDevices()}.
+     */
+    public synchronized boolean isChanged() {
+        return isChanged;
+    }
+
+    /**
+     * @return Returns devices in ranked order.
+     */
+    public synchronized ArrayList<BleDevice> getRankedDevices() {
+
+        ArrayList<BleDevice> rankedDevices = new ArrayList<>(devices.values());
+        Collections.sort(rankedDevices, rankComparator);
+        isChanged = false;
+        return rankedDevices;
+    }
+
+    public synchronized int getDeviceCount() {
+        return devices.size();
+    }
+
+    public synchronized void clear() {
+        devices.clear();
+        smoothedRssiMap.clear();
+        isChanged = true;
+    }
+
+    private boolean isPrefixMatch(String name) {
+        return namePrefix != null && !namePrefix.isEmpty() && name != null && name.startsWith(namePrefix);
+    }
+}
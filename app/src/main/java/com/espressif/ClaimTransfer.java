@@ -0,0 +1,206 @@
+// Copyright 2021 Espressif Systems (Shanghai) PTE LTD
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.espressif;
+
+import android.os.SystemClock;
+
+import com.espressif.provisioning.ESPConstants;
+import com.google.protobuf.ByteString;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+
+/**
+ * This class keeps transfer state of assisted claiming.
+ * CSR received from device and certificate sent to device are kept as bytes, and certificate chunks are
+ * sent as slices of one ByteString so that no copy of certificate is created for each chunk.
+ * <p>
+ * Chunk size of certificate starts from chunk size used by device for CSR (which is known to work on the transport)
+ * and it is doubled after each successful chunk till max chunk size of the transport.
+ * If chunk bigger than last successful chunk fails (transport error or error status in response of device),
+ * same offset is sent again with last successful chunk size.
+ */
+public class ClaimTransfer {
+
+    private static final String TAG = ClaimTransfer.class.getSimpleName();
+
+    // Max attribute value length of BLE is 512 bytes, some bytes are kept for protobuf framing of payload.
+    private static final int MAX_CHUNK_SIZE_BLE = 480;
+    private static final int MAX_CHUNK_SIZE_SOFTAP = 4096;
+    private static final int DEFAULT_CHUNK_SIZE = 200;
+
+    private final int maxChunkSize;
+    private int chunkSizeLimit;
+
+    private ByteArrayOutputStream csrBuffer = new ByteArrayOutputStream();
+    private int csrTotalLen;
+    private int csrChunkCount;
+    private long csrStartTime;
+    private long csrEndTime;
+
+    private ByteString certificate = ByteString.EMPTY;
+    private int certOffset;
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+    private int lastSuccessfulChunkSize;
+    private int currentChunkLen;
+    private int certChunkCount;
+    private int retryCount;
+    private long certStartTime;
+    private long certEndTime;
+
+    public ClaimTransfer(ESPConstants.TransportType transportType) {
+
+        if (transportType == ESPConstants.TransportType.TRANSPORT_SOFTAP) {
+            maxChunkSize = MAX_CHUNK_SIZE_SOFTAP;
+        } else {
+            maxChunkSize = MAX_CHUNK_SIZE_BLE;
+        }
+    }
+
+    /**
+     * Append CSR chunk received from device.
+     *
+     * @param payload  Payload of the chunk.
+     * @param offset   Offset of the chunk.
+     * @param totalLen Total length of CSR.
+     * @return Returns true if complete CSR is received.
+     */
+    public boolean appendCsrChunk(ByteString payload, int offset, int totalLen) {
+
+        if (offset == 0) {
+            csrBuffer = new ByteArrayOutputStream(totalLen);
+            csrTotalLen = totalLen;
+            csrChunkCount = 0;
+            csrStartTime = SystemClock.elapsedRealtime();
+
+            // Chunk size of device is used as starting chunk size for certificate.
+            if (payload.size() > 0) {
+                chunkSize = Math.min(payload.size(), maxChunkSize);
+            }
+        }
+
+        try {
+            payload.writeTo(csrBuffer);
+        } catch (IOException e) {
+            // ByteArrayOutputStream does not throw IOException.
+            e.printStackTrace();
+        }
+        csrChunkCount++;
+        EspLog.d(TAG, () -> "Received CSR Length till now : " + csrBuffer.size() + " and total length : " + csrTotalLen);
+
+        if (csrBuffer.size() >= csrTotalLen) {
+            csrEndTime = SystemClock.elapsedRealtime();
+            EspLog.d(TAG, () -> "CSR received, " + getThroughputInfo(csrBuffer.size(), csrChunkCount, csrEndTime - csrStartTime));
+            return true;
+        }
+        return false;
+    }
+
+    public String getCsr() {
+        return new String(csrBuffer.toByteArray(), Charset.forName("UTF-8"));
+    }
+
+    /**
+     * Set certificate received from cloud. It resets the transfer of certificate.
+     *
+     * @param certificateData Certificate.
+     */
+    public void setCertificate(String certificateData) {
+        certificate = ByteString.copyFromUtf8(certificateData == null ? "" : certificateData);
+        certOffset = 0;
+        certChunkCount = 0;
+        retryCount = 0;
+        lastSuccessfulChunkSize = 0;
+        chunkSizeLimit = maxChunkSize;
+        certStartTime = SystemClock.elapsedRealtime();
+    }
+
+    public int getCertificateOffset() {
+        return certOffset;
+    }
+
+    public int getCertificateLength() {
+        return certificate.size();
+    }
+
+    /**
+     * Get next chunk of certificate to be sent.
+     *
+     * @return Slice of certificate starting at current offset.
+     */
+    public ByteString getNextCertificateChunk() {
+        currentChunkLen = Math.min(chunkSize, certificate.size() - certOffset);
+        EspLog.d(TAG, () -> "Certificate chunk, offset : " + certOffset + ", length : " + currentChunkLen);
+        return certificate.substring(certOffset, certOffset + currentChunkLen);
+    }
+
+    /**
+     * Move to next chunk after device accepts current chunk.
+     *
+     * @return Returns true if complete certificate is sent.
+     */
+    public boolean onCertificateChunkSent() {
+
+        certOffset += currentChunkLen;
+        certChunkCount++;
+        lastSuccessfulChunkSize = Math.max(lastSuccessfulChunkSize, currentChunkLen);
+
+        if (certOffset >= certificate.size()) {
+            certEndTime = SystemClock.elapsedRealtime();
+            EspLog.d(TAG, () -> "Certificate sent, " + getThroughputInfo(certificate.size(), certChunkCount, certEndTime - certStartTime));
+            return true;
+        }
+
+        if (currentChunkLen == chunkSize && chunkSize < chunkSizeLimit) {
+            chunkSize = Math.min(chunkSize * 2, chunkSizeLimit);
+        }
+        return false;
+    }
+
+    /**
+     * Decide whether failed chunk should be sent again with smaller chunk size.
+     *
+     * @return Returns true if same offset should be sent again.
+     */
+    public boolean onCertificateChunkFailed() {
+
+        if (lastSuccessfulChunkSize > 0 && currentChunkLen > lastSuccessfulChunkSize) {
+            EspLog.e(TAG, "Chunk of " + currentChunkLen + " bytes failed, retry with " + lastSuccessfulChunkSize + " bytes");
+            // Do not grow chunk size again for this transfer.
+            chunkSize = lastSuccessfulChunkSize;
+            chunkSizeLimit = lastSuccessfulChunkSize;
+            retryCount++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return Returns summary of the claiming transfer to be displayed or logged.
+     */
+    public String getTransferSummary() {
+        return "CSR : " + getThroughputInfo(csrBuffer.size(), csrChunkCount, csrEndTime - csrStartTime)
+                + " | Certificate : " + getThroughputInfo(certificate.size(), certChunkCount, certEndTime - certStartTime)
+                + ", retries : " + retryCount;
+    }
+
+    private String getThroughputInfo(int bytes, int chunks, long timeMs) {
+
+        long bytesPerSec = timeMs > 0 ? (bytes * 1000L) / timeMs : bytes;
+        return bytes + " bytes in " + chunks + " chunks, " + timeMs + " ms (" + bytesPerSec + " B/s)";
+    }
+}
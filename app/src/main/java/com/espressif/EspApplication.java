@@ -27,8 +27,12 @@ import android.util.Log;
 
 import androidx.annotation.NonNull;
 
+import com.espressif.cloudapi.AlexaApiManager;
 import com.espressif.cloudapi.ApiManager;
 import com.espressif.cloudapi.ApiResponseListener;
+import com.espressif.cloudapi.ConditionalRequestStore;
+import com.espressif.cloudapi.SharingRepository;
+import com.espressif.cloudapi.WriteOutbox;
 import com.espressif.db.EspDatabase;
 import com.espressif.local_control.LocalControlApiManager;
 import com.espressif.local_control.EspLocalDevice;
@@ -40,6 +44,7 @@ import com.espressif.ui.activities.ConsentActivity;
 import com.espressif.ui.models.EspNode;
 import com.espressif.ui.models.Group;
 import com.espressif.ui.models.Param;
+import com.espressif.ui.models.ParamMetadata;
 import com.espressif.ui.models.Schedule;
 import com.espressif.ui.models.Service;
 import com.espressif.ui.models.UpdateEvent;
@@ -142,6 +147,10 @@ public class EspApplication extends Application {
                 break;
 
             case GET_DATA_SUCCESS:
+                // Writes left from last session are sent once cloud is reachable again.
+                if (WriteOutbox.getInstance(this).hasPendingWrites()) {
+                    WriteOutbox.getInstance(this).scheduleReplay();
+                }
             case NO_INTERNET:
                 appState = newState;
                 EventBus.getDefault().post(new UpdateEvent(AppConstants.UpdateEventType.EVENT_STATE_CHANGE_UPDATE));
@@ -211,6 +220,13 @@ public class EspApplication extends Application {
         scheduleMap.clear();
         localDeviceMap.clear();
         groupMap.clear();
+        ConditionalRequestStore.getInstance().clear();
+        WriteOutbox.getInstance(this).clear();
+        ParamMetadata.clearPool();
+        NodeSchemaRegistry.getInstance().clear();
+        GroupIndex.getInstance().clear();
+        ProvisioningPipeline.getInstance(this).clear();
+        SharingRepository.getInstance(this).clear();
     }
 
     public void registerDeviceToken() {
@@ -308,6 +324,14 @@ public class EspApplication extends Application {
         scheduleMap.clear();
         localDeviceMap.clear();
         groupMap.clear();
+        ConditionalRequestStore.getInstance().clear();
+        WriteOutbox.getInstance(this).clear();
+        ParamMetadata.clearPool();
+        NodeSchemaRegistry.getInstance().clear();
+        GroupIndex.getInstance().clear();
+        ProvisioningPipeline.getInstance(this).clear();
+        SharingRepository.getInstance(this).clear();
+        AlexaApiManager.getInstance(this).clear();
 
         SharedPreferences.Editor editor = appPreferences.edit();
         editor.clear();
@@ -518,6 +542,7 @@ public class EspApplication extends Application {
     public void removeNodeInformation(String nodeId) {
         nodeMap.remove(nodeId);
         localDeviceMap.remove(nodeId);
+        ConditionalRequestStore.getInstance().invalidate(nodeId);
     }
 
     /**
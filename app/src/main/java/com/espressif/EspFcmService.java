@@ -16,18 +16,9 @@ package com.espressif;
 
 import android.util.Log;
 
-import androidx.work.Data;
-import androidx.work.OneTimeWorkRequest;
-import androidx.work.WorkManager;
-
-import com.espressif.ui.models.NotificationEvent;
 import com.google.firebase.messaging.FirebaseMessagingService;
 import com.google.firebase.messaging.RemoteMessage;
 
-import org.json.JSONException;
-import org.json.JSONObject;
-
-import java.util.HashMap;
 import java.util.Map;
 
 public class EspFcmService extends FirebaseMessagingService {
@@ -57,31 +48,8 @@ public class EspFcmService extends FirebaseMessagingService {
         Log.e(TAG, "remoteMessage : " + remoteMessage.getData().toString());
 
         if (eventPayload != null) {
-
-            try {
-                JSONObject eventDataJson = new JSONObject(eventPayload);
-                String eventType = eventDataJson.optString(AppConstants.KEY_EVENT_TYPE);
-                JSONObject jsonEventData = eventDataJson.optJSONObject(AppConstants.KEY_EVENT_DATA);
-                NotificationEvent notificationEvent = new NotificationEvent();
-                notificationEvent.setEventType(eventType);
-                notificationEvent.setEventVersion(eventDataJson.optString(AppConstants.KEY_EVENT_VERSION));
-                notificationEvent.setEventId(eventDataJson.optString(AppConstants.KEY_ID));
-                notificationEvent.setEventData(jsonEventData.toString());
-                notificationEvent.setEventDescription(eventDataJson.optString(AppConstants.KEY_DESCRIPTION));
-                notificationEvent.setTimestamp(eventDataJson.optLong(AppConstants.KEY_TIMESTAMP));
-                Log.e(TAG, "Event type : " + eventType);
-                Data data = new Data.Builder()
-                        .putString(AppConstants.KEY_TITLE, title)
-                        .putString(AppConstants.KEY_EVENT_DATA_PAYLOAD, eventPayload)
-                        .build();
-                OneTimeWorkRequest workRequest = new OneTimeWorkRequest.Builder(NotificationWorker.class)
-                        .setInputData(data)
-                        .build();
-                WorkManager.getInstance().enqueue(workRequest);
-
-            } catch (JSONException e) {
-                e.printStackTrace();
-            }
+            // Events are processed in batches, so that burst of events does not start one work for each event.
+            NotificationEventQueue.getInstance(getApplicationContext()).add(title, eventPayload);
         }
     }
 }
@@ -0,0 +1,158 @@
+// Copyright 2021 Espressif Systems (Shanghai) PTE LTD
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.espressif;
+
+import android.text.format.DateFormat;
+import android.util.Log;
+
+import com.espressif.rainmaker.BuildConfig;
+
+import java.util.ArrayDeque;
+
+/**
+ * Logging facade used by cloud API, local control and notification handling code.
+ * <p>
+ * Minimum log level comes from BuildConfig.LOG_LEVEL, which is a compile time constant per build type,
+ * so calls below that level return without doing anything and blocks guarded by {@link #DEBUG} are removed
+ * by the compiler. Arguments are still evaluated by the caller, so messages built by concatenation
+ * should be passed as {@link MessageSupplier} to build them only if the level is enabled.
+ * <p>
+ * Last {@link #BUFFER_CAPACITY} logged messages are also kept in memory, for diagnostics.
+ */
+public final class EspLog {
+
+    public static final boolean VERBOSE = BuildConfig.LOG_LEVEL <= Log.VERBOSE;
+    public static final boolean DEBUG = BuildConfig.LOG_LEVEL <= Log.DEBUG;
+    public static final boolean INFO = BuildConfig.LOG_LEVEL <= Log.INFO;
+    public static final boolean WARN = BuildConfig.LOG_LEVEL <= Log.WARN;
+
+    private static final int BUFFER_CAPACITY = 200;
+    private static final int MAX_BUFFERED_MESSAGE_LENGTH = 512;
+    private static final String LEVEL_CHARS = "??VDIWEA";
+
+    private static final ArrayDeque<String> buffer = new ArrayDeque<>(BUFFER_CAPACITY);
+
+    /**
+     * Builds log message lazily.
+     */
+    public interface MessageSupplier {
+        String get();
+    }
+
+    private EspLog() {
+    }
+
+    public static void v(String tag, String msg) {
+        if (VERBOSE) {
+            log(Log.VERBOSE, tag, msg, null);
+        }
+    }
+
+    public static void d(String tag, String msg) {
+        if (DEBUG) {
+            log(Log.DEBUG, tag, msg, null);
+        }
+    }
+
+    public static void d(String tag, MessageSupplier supplier) {
+        if (DEBUG) {
+            log(Log.DEBUG, tag, supplier.get(), null);
+        }
+    }
+
+    public static void i(String tag, String msg) {
+        if (INFO) {
+            log(Log.INFO, tag, msg, null);
+        }
+    }
+
+    public static void i(String tag, MessageSupplier supplier) {
+        if (INFO) {
+            log(Log.INFO, tag, supplier.get(), null);
+        }
+    }
+
+    public static void w(String tag, String msg) {
+        if (WARN) {
+            log(Log.WARN, tag, msg, null);
+        }
+    }
+
+    public static void w(String tag, MessageSupplier supplier) {
+        if (WARN) {
+            log(Log.WARN, tag, supplier.get(), null);
+        }
+    }
+
+    public static void e(String tag, String msg) {
+        log(Log.ERROR, tag, msg, null);
+    }
+
+    public static void e(String tag, String msg, Throwable tr) {
+        log(Log.ERROR, tag, msg, tr);
+    }
+
+    public static void e(String tag, MessageSupplier supplier) {
+        log(Log.ERROR, tag, supplier.get(), null);
+    }
+
+    /**
+     * @return Returns messages kept in memory, oldest first, one message per line.
+     */
+    public static String getBufferedLogs() {
+
+        StringBuilder logs = new StringBuilder();
+
+        synchronized (buffer) {
+            for (String line : buffer) {
+                logs.append(line).append('\n');
+            }
+        }
+        return logs.toString();
+    }
+
+    public static void clearBufferedLogs() {
+        synchronized (buffer) {
+            buffer.clear();
+        }
+    }
+
+    private static void log(int priority, String tag, String msg, Throwable tr) {
+
+        if (msg == null) {
+            msg = "null";
+        }
+        if (tr != null) {
+            Log.println(priority, tag, msg + '\n' + Log.getStackTraceString(tr));
+            msg = msg + " : " + tr;
+        } else {
+            Log.println(priority, tag, msg);
+        }
+
+        if (msg.length() > MAX_BUFFERED_MESSAGE_LENGTH) {
+            msg = msg.substring(0, MAX_BUFFERED_MESSAGE_LENGTH) + "...";
+        }
+        String line = DateFormat.format("MM-dd HH:mm:ss", System.currentTimeMillis()) + " "
+                + LEVEL_CHARS.charAt(priority) + "/" + tag + ": " + msg;
+
+        synchronized (buffer) {
+            if (buffer.size() >= BUFFER_CAPACITY) {
+                buffer.pollFirst();
+            }
+            buffer.addLast(line);
+        }
+    }
+}
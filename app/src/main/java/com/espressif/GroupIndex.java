@@ -0,0 +1,325 @@
+// Copyright 2021 Espressif Systems (Shanghai) PTE LTD
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.espressif;
+
+import android.text.TextUtils;
+
+import com.espressif.ui.models.Device;
+import com.espressif.ui.models.EspNode;
+import com.espressif.ui.models.Group;
+import com.espressif.ui.models.Param;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * This class keeps devices list and aggregate state (devices on, nodes online) of each group,
+ * so that group pages do not scan all nodes on every bind.
+ * <p>
+ * Entries are built on first access and kept till they become stale.
+ * An entry becomes stale when group object is replaced in group map, when any of its nodes is replaced / removed
+ * from node map or when devices of any of its nodes are replaced (node config is parsed again).
+ * Aggregate state is updated in place when {@link #onNodeChanged(String)} is called for param values or status
+ * of a node. Reverse index of node id to group keys is used to find the entries which contain the node.
+ */
+public class GroupIndex {
+
+    private static GroupIndex groupIndex;
+
+    // Key of the entry for the "All devices" page which has no group id.
+    private static final String KEY_ALL_DEVICES = "";
+
+    private final HashMap<String, GroupState> groupStates = new HashMap<>();
+    // Node id and keys of the group entries which contain the node. "All devices" entry is not kept here.
+    private final HashMap<String, HashSet<String>> nodeToGroups = new HashMap<>();
+
+    /**
+     * Materialized devices and aggregate state of one group.
+     * Nodes with single device are displayed as device and nodes with multiple devices are displayed as node.
+     */
+    public static class GroupState {
+
+        private Group group;
+        private LinkedHashMap<String, NodeEntry> nodeEntries = new LinkedHashMap<>();
+        private ArrayList<Device> devices = new ArrayList<>();
+        private ArrayList<EspNode> nodes = new ArrayList<>();
+        private int deviceCount;
+        private int onCount;
+        private int onlineCount;
+
+        public ArrayList<Device> getDevices() {
+            return new ArrayList<>(devices);
+        }
+
+        public ArrayList<EspNode> getNodes() {
+            return new ArrayList<>(nodes);
+        }
+
+        public int getNodeCount() {
+            return nodeEntries.size();
+        }
+
+        public int getDeviceCount() {
+            return deviceCount;
+        }
+
+        public int getOnCount() {
+            return onCount;
+        }
+
+        public int getOnlineCount() {
+            return onlineCount;
+        }
+
+        private void addAggregate(NodeEntry entry) {
+            onCount += entry.onCount;
+            onlineCount += entry.isOnline ? 1 : 0;
+        }
+
+        private void removeAggregate(NodeEntry entry) {
+            onCount -= entry.onCount;
+            onlineCount -= entry.isOnline ? 1 : 0;
+        }
+    }
+
+    /**
+     * Node of the group as it was when entry was built, with its share of aggregate state.
+     */
+    private static class NodeEntry {
+
+        private final EspNode node;
+        private final ArrayList<Device> devices;
+        private int onCount;
+        private boolean isOnline;
+
+        NodeEntry(EspNode node) {
+            this.node = node;
+            this.devices = node == null ? null : node.getDevices();
+        }
+
+        void updateAggregate() {
+
+            onCount = 0;
+            isOnline = node != null && node.isOnline();
+
+            if (devices != null) {
+                for (Device device : devices) {
+                    if (isDeviceOn(device)) {
+                        onCount++;
+                    }
+                }
+            }
+        }
+    }
+
+    public static synchronized GroupIndex getInstance() {
+
+        if (groupIndex == null) {
+            groupIndex = new GroupIndex();
+        }
+        return groupIndex;
+    }
+
+    private GroupIndex() {
+    }
+
+    /**
+     * Get devices and aggregate state of the group. Group without group id is treated as "All devices" group.
+     * Cost of this method is proportional to number of nodes in the group.
+     *
+     * @param group   Group.
+     * @param nodeMap Node map of the application.
+     * @return Returns state of the group.
+     */
+    public synchronized GroupState getGroupState(Group group, Map<String, EspNode> nodeMap) {
+
+        String key = getKey(group);
+        GroupState state = groupStates.get(key);
+
+        if (state == null || state.group != group || isStale(state, key, nodeMap)) {
+
+            if (state != null) {
+                removeFromReverseIndex(key, state);
+            }
+            state = buildState(group, key, nodeMap);
+            groupStates.put(key, state);
+            addToReverseIndex(key, state);
+        }
+        return state;
+    }
+
+    /**
+     * Update aggregate state of all groups of the node. This should be called when param values or status
+     * of the node are changed. Cost of this method is proportional to number of devices of the node
+     * and number of its groups.
+     *
+     * @param nodeId Node id.
+     */
+    public synchronized void onNodeChanged(String nodeId) {
+
+        HashSet<String> groupKeys = nodeToGroups.get(nodeId);
+        if (groupKeys != null) {
+            for (String key : groupKeys) {
+                updateAggregate(groupStates.get(key), nodeId);
+            }
+        }
+        updateAggregate(groupStates.get(KEY_ALL_DEVICES), nodeId);
+    }
+
+    /**
+     * Remove entry of the group. This should be called when group is removed.
+     *
+     * @param groupId Group id.
+     */
+    public synchronized void onGroupRemoved(String groupId) {
+
+        if (TextUtils.isEmpty(groupId)) {
+            return;
+        }
+        GroupState state = groupStates.remove(groupId);
+        if (state != null) {
+            removeFromReverseIndex(groupId, state);
+        }
+    }
+
+    public synchronized void clear() {
+        groupStates.clear();
+        nodeToGroups.clear();
+    }
+
+    private String getKey(Group group) {
+        return TextUtils.isEmpty(group.getGroupId()) ? KEY_ALL_DEVICES : group.getGroupId();
+    }
+
+    private boolean isStale(GroupState state, String key, Map<String, EspNode> nodeMap) {
+
+        if (KEY_ALL_DEVICES.equals(key) && state.nodeEntries.size() != nodeMap.size()) {
+            return true;
+        }
+
+        for (Map.Entry<String, NodeEntry> entry : state.nodeEntries.entrySet()) {
+
+            EspNode node = nodeMap.get(entry.getKey());
+            NodeEntry nodeEntry = entry.getValue();
+
+            if (node != nodeEntry.node || (node != null && node.getDevices() != nodeEntry.devices)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private GroupState buildState(Group group, String key, Map<String, EspNode> nodeMap) {
+
+        GroupState state = new GroupState();
+        state.group = group;
+        ArrayList<String> nodeIds = new ArrayList<>();
+
+        if (KEY_ALL_DEVICES.equals(key)) {
+            nodeIds.addAll(nodeMap.keySet());
+        } else if (group.getNodeList() != null) {
+            nodeIds.addAll(group.getNodeList());
+        }
+
+        for (String nodeId : nodeIds) {
+
+            if (state.nodeEntries.containsKey(nodeId)) {
+                continue;
+            }
+
+            EspNode node = nodeMap.get(nodeId);
+            NodeEntry nodeEntry = new NodeEntry(node);
+            nodeEntry.updateAggregate();
+            state.nodeEntries.put(nodeId, nodeEntry);
+            state.addAggregate(nodeEntry);
+
+            ArrayList<Device> nodeDevices = nodeEntry.devices;
+            if (nodeDevices == null) {
+                continue;
+            }
+
+            state.deviceCount += nodeDevices.size();
+
+            if (nodeDevices.size() == 1) {
+                state.devices.addAll(nodeDevices);
+            } else if (nodeDevices.size() > 1) {
+                state.nodes.add(node);
+            }
+        }
+        return state;
+    }
+
+    private void updateAggregate(GroupState state, String nodeId) {
+
+        if (state == null) {
+            return;
+        }
+
+        NodeEntry nodeEntry = state.nodeEntries.get(nodeId);
+        if (nodeEntry != null) {
+            state.removeAggregate(nodeEntry);
+            nodeEntry.updateAggregate();
+            state.addAggregate(nodeEntry);
+        }
+    }
+
+    private static boolean isDeviceOn(Device device) {
+
+        String primaryParamName = device.getPrimaryParamName();
+        if (TextUtils.isEmpty(primaryParamName) || device.getParams() == null) {
+            return false;
+        }
+
+        for (Param param : device.getParams()) {
+            if (param != null && primaryParamName.equals(param.getName())) {
+                return AppConstants.UI_TYPE_TOGGLE.equalsIgnoreCase(param.getUiType()) && param.getSwitchStatus();
+            }
+        }
+        return false;
+    }
+
+    private void addToReverseIndex(String key, GroupState state) {
+
+        if (KEY_ALL_DEVICES.equals(key)) {
+            return;
+        }
+
+        for (String nodeId : state.nodeEntries.keySet()) {
+            HashSet<String> groupKeys = nodeToGroups.get(nodeId);
+            if (groupKeys == null) {
+                groupKeys = new HashSet<>();
+                nodeToGroups.put(nodeId, groupKeys);
+            }
+            groupKeys.add(key);
+        }
+    }
+
+    private void removeFromReverseIndex(String key, GroupState state) {
+
+        for (String nodeId : state.nodeEntries.keySet()) {
+            HashSet<String> groupKeys = nodeToGroups.get(nodeId);
+            if (groupKeys != null) {
+                groupKeys.remove(key);
+                if (groupKeys.isEmpty()) {
+                    nodeToGroups.remove(nodeId);
+                }
+            }
+        }
+    }
+}
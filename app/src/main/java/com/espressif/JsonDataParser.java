@@ -15,12 +15,13 @@
 package com.espressif;
 
 import android.text.TextUtils;
-import android.util.Log;
 
+import com.espressif.cloudapi.ConditionalRequestStore;
 import com.espressif.ui.models.Action;
 import com.espressif.ui.models.Device;
 import com.espressif.ui.models.EspNode;
 import com.espressif.ui.models.Param;
+import com.espressif.ui.models.ParamMetadata;
 import com.espressif.ui.models.Schedule;
 import com.espressif.ui.models.Service;
 
@@ -30,7 +31,6 @@ import org.json.JSONObject;
 
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.Iterator;
 
 public class JsonDataParser {
 
@@ -44,91 +44,7 @@ public class JsonDataParser {
      * @param param      Param object in which values to be set.
      */
     public static void setDeviceParamValue(JSONObject deviceJson, Device device, Param param) {
-
-        String dataType = param.getDataType();
-        String paramName = param.getName();
-
-        if (AppConstants.UI_TYPE_SLIDER.equalsIgnoreCase(param.getUiType()) || AppConstants.UI_TYPE_HUE_SLIDER.equalsIgnoreCase(param.getUiType())) {
-
-            String labelValue = "";
-
-            if (dataType.equalsIgnoreCase("int") || dataType.equalsIgnoreCase("integer")) {
-
-                int value = deviceJson.optInt(paramName);
-                labelValue = String.valueOf(value);
-                param.setLabelValue(labelValue);
-                param.setValue(value);
-
-            } else if (dataType.equalsIgnoreCase("float") || dataType.equalsIgnoreCase("double")) {
-
-                double value = deviceJson.optDouble(paramName);
-                labelValue = String.valueOf(value);
-                param.setLabelValue(labelValue);
-                param.setValue(value);
-
-            } else {
-
-                labelValue = deviceJson.optString(paramName);
-                param.setLabelValue(labelValue);
-            }
-        } else if (AppConstants.UI_TYPE_TOGGLE.equalsIgnoreCase(param.getUiType())) {
-
-            boolean value = deviceJson.optBoolean(paramName);
-            param.setSwitchStatus(value);
-
-        } else if (AppConstants.UI_TYPE_TRIGGER.equalsIgnoreCase(param.getUiType())) {
-
-            boolean value = deviceJson.optBoolean(paramName);
-            param.setSwitchStatus(value);
-
-        } else if (AppConstants.UI_TYPE_DROP_DOWN.equalsIgnoreCase(param.getUiType())) {
-
-            String labelValue = "";
-
-            if (dataType.equalsIgnoreCase("int") || dataType.equalsIgnoreCase("integer")) {
-                int value = deviceJson.optInt(paramName);
-                labelValue = String.valueOf(value);
-                param.setLabelValue(labelValue);
-                param.setValue(value);
-            } else {
-                labelValue = deviceJson.optString(paramName);
-                param.setLabelValue(labelValue);
-            }
-        } else {
-
-            String labelValue = "";
-
-            if (dataType.equalsIgnoreCase("bool") || dataType.equalsIgnoreCase("boolean")) {
-
-                boolean value = deviceJson.optBoolean(paramName);
-                if (value) {
-                    param.setLabelValue("true");
-                } else {
-                    param.setLabelValue("false");
-                }
-
-            } else if (dataType.equalsIgnoreCase("int") || dataType.equalsIgnoreCase("integer")) {
-
-                int value = deviceJson.optInt(paramName);
-                labelValue = String.valueOf(value);
-                param.setLabelValue(labelValue);
-
-            } else if (dataType.equalsIgnoreCase("float") || dataType.equalsIgnoreCase("double")) {
-
-                double value = deviceJson.optDouble(paramName);
-                labelValue = String.valueOf(value);
-                param.setLabelValue(labelValue);
-
-            } else {
-
-                labelValue = deviceJson.optString(paramName);
-                param.setLabelValue(labelValue);
-
-                if (param.getParamType().equals(AppConstants.PARAM_TYPE_NAME)) {
-                    device.setUserVisibleName(labelValue);
-                }
-            }
-        }
+        param.getDecoder().decode(deviceJson, device, param);
     }
 
     public static EspNode setNodeConfig(EspNode espNode, JSONObject nodeConfigJson) {
@@ -140,6 +56,9 @@ public class JsonDataParser {
             return null;
         }
 
+        // Node data is changed, so cached validators of this node are no longer valid.
+        ConditionalRequestStore.getInstance().invalidate(nodeId);
+
         if (espNode == null) {
             espNode = new EspNode(nodeId);
         }
@@ -154,11 +73,59 @@ public class JsonDataParser {
             espNode.setFwVersion(infoObj.optString(AppConstants.KEY_FW_VERSION));
             espNode.setNodeType(infoObj.optString(AppConstants.KEY_TYPE));
         } else {
-            Log.d(TAG, "Info object is null");
+            EspLog.d(TAG, () -> "Info object is null for node : " + nodeId);
         }
 
-        // Devices
+        // Devices and services are same for all nodes which have same config, so parse them only once.
         JSONArray devicesJsonArray = nodeConfigJson.optJSONArray(AppConstants.KEY_DEVICES);
+        JSONArray servicesJsonArray = nodeConfigJson.optJSONArray(AppConstants.KEY_SERVICES);
+        NodeSchemaRegistry schemaRegistry = NodeSchemaRegistry.getInstance();
+        String schemaKey = NodeSchemaRegistry.getSchemaKey(espNode.getConfigVersion(), devicesJsonArray, servicesJsonArray);
+        NodeSchemaRegistry.NodeSchema schema = schemaRegistry.get(schemaKey);
+
+        if (schema == null) {
+            schema = new NodeSchemaRegistry.NodeSchema(parseDevices(nodeId, devicesJsonArray),
+                    parseServices(nodeId, servicesJsonArray));
+            schemaRegistry.put(schemaKey, schema);
+        }
+
+        ArrayList<Device> devices = schema.createDevices(nodeId);
+        espNode.setDevices(devices);
+        espNode.setServices(schema.createServices(nodeId));
+
+        // Attributes
+        JSONArray nodeAttributesJson = infoObj.optJSONArray(AppConstants.KEY_ATTRIBUTES);
+        ArrayList<Param> nodeAttributes = new ArrayList<>();
+
+        if (nodeAttributesJson != null) {
+
+            for (int j = 0; j < nodeAttributesJson.length(); j++) {
+
+                JSONObject attrObj = nodeAttributesJson.optJSONObject(j);
+                Param param = new Param();
+                param.setName(attrObj.optString(AppConstants.KEY_NAME));
+                param.setLabelValue(attrObj.optString(AppConstants.KEY_VALUE));
+                nodeAttributes.add(param);
+            }
+        }
+        espNode.setAttributes(nodeAttributes);
+
+        // Node Params values
+        JSONObject paramsJson = nodeConfigJson.optJSONObject(AppConstants.KEY_PARAMS);
+        if (paramsJson != null) {
+            setDeviceParamValues(devices, paramsJson);
+        }
+
+        // Node Status
+        JSONObject statusJson = nodeConfigJson.optJSONObject(AppConstants.KEY_STATUS);
+        if (statusJson != null) {
+            setNodeStatus(espNode, statusJson);
+        }
+        return espNode;
+    }
+
+    private static ArrayList<Device> parseDevices(String nodeId, JSONArray devicesJsonArray) {
+
         ArrayList<Device> devices = new ArrayList<>();
 
         if (devicesJsonArray != null) {
@@ -189,15 +156,15 @@ public class JsonDataParser {
                         params.add(param);
 
                         JSONArray propertiesJson = paraObj.optJSONArray(AppConstants.KEY_PROPERTIES);
-                        ArrayList<String> properties = new ArrayList<>();
+                        int propertyFlags = 0;
 
                         if (propertiesJson != null) {
                             for (int k = 0; k < propertiesJson.length(); k++) {
 
-                                properties.add(propertiesJson.optString(k));
+                                propertyFlags |= ParamMetadata.getPropertyFlag(propertiesJson.optString(k));
                             }
                         }
-                        param.setProperties(properties);
+                        param.setPropertyFlags(propertyFlags);
 
                         JSONObject boundsJson = paraObj.optJSONObject(AppConstants.KEY_BOUNDS);
 
@@ -216,6 +183,7 @@ public class JsonDataParser {
                             }
                         }
                         param.setValidStrings(validVals);
+                        param.internMetadata();
                     }
                 }
 
@@ -230,6 +198,7 @@ public class JsonDataParser {
                         param.setName(attrObj.optString(AppConstants.KEY_NAME));
                         param.setDataType(attrObj.optString(AppConstants.KEY_DATA_TYPE));
                         param.setLabelValue(attrObj.optString(AppConstants.KEY_VALUE));
+                        param.internMetadata();
                         params.add(param);
                     }
                 }
@@ -238,10 +207,11 @@ public class JsonDataParser {
                 devices.add(device);
             }
         }
-        espNode.setDevices(devices);
+        return devices;
+    }
+
+    private static ArrayList<Service> parseServices(String nodeId, JSONArray servicesJsonArray) {
 
-        // Services
-        JSONArray servicesJsonArray = nodeConfigJson.optJSONArray(AppConstants.KEY_SERVICES);
         ArrayList<Service> services = new ArrayList<>();
 
         if (servicesJsonArray != null) {
@@ -269,339 +239,319 @@ public class JsonDataParser {
                         params.add(param);
 
                         JSONArray propertiesJson = paraObj.optJSONArray(AppConstants.KEY_PROPERTIES);
-                        ArrayList<String> properties = new ArrayList<>();
+                        int propertyFlags = 0;
 
                         if (propertiesJson != null) {
                             for (int k = 0; k < propertiesJson.length(); k++) {
 
-                                properties.add(propertiesJson.optString(k));
+                                propertyFlags |= ParamMetadata.getPropertyFlag(propertiesJson.optString(k));
                             }
                         }
-                        param.setProperties(properties);
+                        param.setPropertyFlags(propertyFlags);
+                        param.internMetadata();
                     }
                 }
                 service.setParams(params);
                 services.add(service);
             }
         }
-        espNode.setServices(services);
-
-        // Attributes
-        JSONArray nodeAttributesJson = infoObj.optJSONArray(AppConstants.KEY_ATTRIBUTES);
-        ArrayList<Param> nodeAttributes = new ArrayList<>();
+        return services;
+    }
 
-        if (nodeAttributesJson != null) {
+    /**
+     * This method is used to set schedules of the node received from cloud.
+     * Actions of this node are added to existing schedules (if any) which have same id, name, enabled state and triggers.
+     *
+     * @param scheduleMap  Schedules map in which schedules to be set.
+     * @param nodeId       Node id.
+     * @param devices      Devices of the node.
+     * @param scheduleJson Schedule service JSON of node params.
+     * @return Keys of the schedules of this node.
+     */
+    public static ArrayList<String> setSchedules(HashMap<String, Schedule> scheduleMap, String nodeId,
+                                                 ArrayList<Device> devices, JSONObject scheduleJson) {
 
-            for (int j = 0; j < nodeAttributesJson.length(); j++) {
+        ArrayList<String> scheduleKeys = new ArrayList<>();
+        JSONArray scheduleArrayJson = scheduleJson.optJSONArray(AppConstants.KEY_SCHEDULES);
 
-                JSONObject attrObj = nodeAttributesJson.optJSONObject(j);
-                Param param = new Param();
-                param.setName(attrObj.optString(AppConstants.KEY_NAME));
-                param.setLabelValue(attrObj.optString(AppConstants.KEY_VALUE));
-                nodeAttributes.add(param);
-            }
+        if (scheduleArrayJson == null || devices == null) {
+            return scheduleKeys;
         }
-        espNode.setAttributes(nodeAttributes);
-
-        // Node Params values
-        JSONObject paramsJson = nodeConfigJson.optJSONObject(AppConstants.KEY_PARAMS);
-        if (paramsJson != null) {
-
-            for (int i = 0; i < devices.size(); i++) {
-
-                ArrayList<Param> params = devices.get(i).getParams();
-                String deviceName = devices.get(i).getDeviceName();
-                JSONObject deviceJson = paramsJson.optJSONObject(deviceName);
 
-                if (deviceJson != null) {
+        for (int index = 0; index < scheduleArrayJson.length(); index++) {
 
-                    for (int j = 0; j < params.size(); j++) {
-
-                        Param param = params.get(j);
-                        String key = param.getName();
+            JSONObject schJson = scheduleArrayJson.optJSONObject(index);
+            if (schJson == null) {
+                continue;
+            }
 
-                        if (!param.isDynamicParam()) {
-                            continue;
-                        }
+            String scheduleId = schJson.optString(AppConstants.KEY_ID);
+            if (TextUtils.isEmpty(scheduleId)) {
+                continue;
+            }
 
-                        if (deviceJson.has(key)) {
-                            setDeviceParamValue(deviceJson, devices.get(i), param);
-                        }
-                    }
-                } else {
-                    Log.e(TAG, "Device JSON is null");
+            String name = schJson.optString(AppConstants.KEY_NAME);
+            boolean isEnabled = schJson.optBoolean(AppConstants.KEY_ENABLED);
+            HashMap<String, Integer> triggers = new HashMap<>();
+            StringBuilder keyBuilder = new StringBuilder(scheduleId).append("_").append(name).append("_").append(isEnabled);
+            JSONArray triggerArray = schJson.optJSONArray(AppConstants.KEY_TRIGGERS);
+
+            if (triggerArray != null) {
+                for (int t = 0; t < triggerArray.length(); t++) {
+                    JSONObject triggerJson = triggerArray.optJSONObject(t);
+                    int days = triggerJson.optInt(AppConstants.KEY_DAYS);
+                    int mins = triggerJson.optInt(AppConstants.KEY_MINUTES);
+                    triggers.put(AppConstants.KEY_DAYS, days);
+                    triggers.put(AppConstants.KEY_MINUTES, mins);
+                    keyBuilder.append("_").append(days).append("_").append(mins);
                 }
             }
-        }
 
-        // Node Status
-        JSONObject statusJson = nodeConfigJson.optJSONObject(AppConstants.KEY_STATUS);
-        if (statusJson != null) {
+            String key = keyBuilder.toString();
+            Schedule schedule = scheduleMap.get(key);
+            if (schedule == null) {
+                schedule = new Schedule();
+            }
+
+            schedule.setId(scheduleId);
+            schedule.setName(name);
+            schedule.setEnabled(isEnabled);
+            schedule.setTriggers(triggers);
+            EspLog.d(TAG, () -> "=============== Schedule : " + name + " ===============");
+
+            // Actions
+            JSONObject actionsSchJson = schJson.optJSONObject(AppConstants.KEY_ACTION);
 
-            JSONObject connectivityObject = statusJson.optJSONObject(AppConstants.KEY_CONNECTIVITY);
+            if (actionsSchJson != null) {
 
-            if (connectivityObject != null) {
+                for (int deviceIndex = 0; deviceIndex < devices.size(); deviceIndex++) {
 
-                boolean nodeStatus = connectivityObject.optBoolean(AppConstants.KEY_CONNECTED);
-                long timestamp = connectivityObject.optLong(AppConstants.KEY_TIMESTAMP);
-                espNode.setTimeStampOfStatus(timestamp);
+                    Device device = devices.get(deviceIndex);
+                    String deviceName = device.getDeviceName();
+                    JSONObject deviceAction = actionsSchJson.optJSONObject(deviceName);
 
-                if (espNode.isOnline() != nodeStatus) {
-                    espNode.setOnline(nodeStatus);
+                    if (deviceAction != null) {
+                        schedule.putAction(getScheduleAction(schedule, nodeId, device, deviceAction));
+                    }
                 }
-            } else {
-                Log.e(TAG, "Connectivity object is null");
             }
+            scheduleMap.put(key, schedule);
+            scheduleKeys.add(key);
         }
-        return espNode;
+        return scheduleKeys;
     }
 
-    public static void setAllParams(EspApplication espAppContext, EspNode node, JSONObject paramsJson) {
-
-        String nodeId = node.getNodeId();
-        ArrayList<Device> devices = node.getDevices();
-        ArrayList<Service> services = node.getServices();
-        JSONObject scheduleJson = paramsJson.optJSONObject(AppConstants.KEY_SCHEDULE);
-        JSONObject timeJson = paramsJson.optJSONObject(AppConstants.KEY_TIME);
-        JSONObject localControlJson = paramsJson.optJSONObject(AppConstants.KEY_LOCAL_CONTROL);
-
-        if (devices != null) {
-            for (int i = 0; i < devices.size(); i++) {
+    private static Action getScheduleAction(Schedule schedule, String nodeId, Device device, JSONObject deviceAction) {
 
-                ArrayList<Param> params = devices.get(i).getParams();
-                String deviceName = devices.get(i).getDeviceName();
-                JSONObject deviceJson = paramsJson.optJSONObject(deviceName);
+        Action action = schedule.getAction(nodeId, device.getDeviceName());
+        Device actionDevice;
 
-                if (deviceJson != null) {
+        if (action == null) {
+            action = new Action();
+            action.setNodeId(nodeId);
+            actionDevice = new Device(device);
+            actionDevice.setSelectedState(1);
+            action.setDevice(actionDevice);
+        } else {
+            actionDevice = action.getDevice();
+        }
 
-                    for (int j = 0; j < params.size(); j++) {
+        ArrayList<Param> params = device.getParams();
+        ArrayList<Param> actionParams = new ArrayList<>();
 
-                        Param param = params.get(j);
-                        String key = param.getName();
+        if (params != null) {
 
-                        if (!param.isDynamicParam()) {
-                            continue;
-                        }
+            for (Param p : params) {
 
-                        if (deviceJson.has(key)) {
-                            setDeviceParamValue(deviceJson, devices.get(i), param);
-                        }
-                    }
-                } else {
-                    Log.e(TAG, "Device JSON is not available");
+                if (!p.isDynamicParam()) {
+                    continue;
+                } else if (AppConstants.PARAM_TYPE_NAME.equals(p.getParamType())) {
+                    continue;
+                } else if (!p.isWritable()) {
+                    continue;
                 }
+                actionParams.add(new Param(p));
             }
         }
+        actionDevice.setParams(actionParams);
 
-        // Schedules
-        if (scheduleJson != null) {
-
-            JSONArray scheduleArrayJson = scheduleJson.optJSONArray(AppConstants.KEY_SCHEDULES);
-
-            if (scheduleArrayJson != null) {
+        for (int paramIndex = 0; paramIndex < actionParams.size(); paramIndex++) {
 
-                for (int index = 0; index < scheduleArrayJson.length(); index++) {
+            Param p = actionParams.get(paramIndex);
 
-                    JSONObject schJson = null;
-                    try {
-                        schJson = scheduleArrayJson.getJSONObject(index);
-                    } catch (JSONException e) {
-                        e.printStackTrace();
-                    }
-                    String scheduleId = schJson.optString(AppConstants.KEY_ID);
-                    String key = scheduleId;
-
-                    if (!TextUtils.isEmpty(scheduleId)) {
-
-                        String name = schJson.optString(AppConstants.KEY_NAME);
-                        key = key + "_" + name + "_" + schJson.optBoolean(AppConstants.KEY_ENABLED);
-
-                        HashMap<String, Integer> triggers = new HashMap<>();
-                        JSONArray triggerArray = schJson.optJSONArray(AppConstants.KEY_TRIGGERS);
-                        for (int t = 0; t < triggerArray.length(); t++) {
-                            JSONObject triggerJson = triggerArray.optJSONObject(t);
-                            int days = triggerJson.optInt(AppConstants.KEY_DAYS);
-                            int mins = triggerJson.optInt(AppConstants.KEY_MINUTES);
-                            triggers.put(AppConstants.KEY_DAYS, days);
-                            triggers.put(AppConstants.KEY_MINUTES, mins);
-                            key = key + "_" + days + "_" + mins;
-                        }
+            if (deviceAction.has(p.getName())) {
+                p.setSelected(true);
+                setDeviceParamValue(deviceAction, device, p);
+            } else {
+                actionDevice.setSelectedState(2); // Partially selected
+            }
+        }
+        return action;
+    }
 
-                        Schedule schedule = espAppContext.scheduleMap.get(key);
-                        if (schedule == null) {
-                            schedule = new Schedule();
-                        }
+    /**
+     * This method is used to set all param values of the node received from cloud, local device or notification.
+     *
+     * @param espAppContext Application instance.
+     * @param node          Node object.
+     * @param paramsJson    JSON data of node params.
+     */
+    public static void setAllParams(EspApplication espAppContext, EspNode node, JSONObject paramsJson) {
 
-                        schedule.setId(scheduleId);
-                        schedule.setName(schJson.optString(AppConstants.KEY_NAME));
-                        schedule.setEnabled(schJson.optBoolean(AppConstants.KEY_ENABLED));
-                        schedule.setTriggers(triggers);
-                        Log.d(TAG, "=============== Schedule : " + schedule.getName() + " ===============");
+        if (espAppContext.scheduleMap == null) {
+            espAppContext.scheduleMap = new HashMap<>();
+        }
+        setNodeParams(node, paramsJson, espAppContext.scheduleMap, false);
+    }
 
-                        // Actions
-                        JSONObject actionsSchJson = schJson.optJSONObject(AppConstants.KEY_ACTION);
+    /**
+     * This method is used to apply node params JSON on node state.
+     * All sources of param values (get nodes, get params, local control and notifications) use this method,
+     * so that there is only one implementation of param and schedule parsing.
+     *
+     * @param node               Node object.
+     * @param paramsJson         JSON data of node params.
+     * @param scheduleMap        Schedules map in which schedules of the node to be set.
+     *                           Schedules are not parsed if it is null.
+     * @param ignoreDeviceParams True if device param values should not be changed.
+     *                           (e.g. Node is available on local network and its values are received from device.)
+     * @return Keys of the schedules of this node.
+     */
+    public static ArrayList<String> setNodeParams(EspNode node, JSONObject paramsJson, HashMap<String, Schedule> scheduleMap,
+                                                  boolean ignoreDeviceParams) {
 
-                        if (actionsSchJson != null) {
+        String nodeId = node.getNodeId();
+        ConditionalRequestStore.getInstance().invalidate(nodeId);
+        ArrayList<Device> devices = node.getDevices();
+        ArrayList<Service> services = node.getServices();
+        ArrayList<String> scheduleKeys = null;
 
-                            ArrayList<Action> actions = schedule.getActions();
-                            if (actions == null) {
-                                actions = new ArrayList<>();
-                                schedule.setActions(actions);
-                            }
+        if (!ignoreDeviceParams) {
+            setDeviceParamValues(devices, paramsJson);
+        } else {
+            EspLog.d(TAG, () -> "Ignore param values for local node :" + nodeId);
+        }
 
-                            for (int deviceIndex = 0; deviceIndex < devices.size(); deviceIndex++) {
+        // Schedules
+        JSONObject scheduleJson = paramsJson.optJSONObject(AppConstants.KEY_SCHEDULE);
+        if (scheduleJson != null) {
+            if (scheduleMap != null) {
+                scheduleKeys = setSchedules(scheduleMap, nodeId, devices, scheduleJson);
+            }
+        } else {
+            EspLog.d(TAG, () -> "Schedule JSON is not available for node : " + nodeId);
+        }
 
-                                Device d = new Device(devices.get(deviceIndex));
-                                ArrayList<Param> params = d.getParams();
-                                String deviceName = d.getDeviceName();
-                                JSONObject deviceAction = actionsSchJson.optJSONObject(deviceName);
+        // Timezone
+        JSONObject timeJson = paramsJson.optJSONObject(AppConstants.KEY_TIME);
+        if (timeJson != null) {
+            setServiceParamValues(services, AppConstants.SERVICE_TYPE_TIME, timeJson);
+        } else {
+            EspLog.d(TAG, () -> "Time JSON is not available for node : " + nodeId);
+        }
 
-                                if (deviceAction != null) {
+        // Local control
+        JSONObject localControlJson = paramsJson.optJSONObject(AppConstants.KEY_LOCAL_CONTROL);
+        if (localControlJson != null) {
+            setServiceParamValues(services, AppConstants.SERVICE_TYPE_LOCAL_CONTROL, localControlJson);
+        } else {
+            EspLog.d(TAG, () -> "Local control JSON is not available for node : " + nodeId);
+        }
+        GroupIndex.getInstance().onNodeChanged(nodeId);
+        return scheduleKeys != null ? scheduleKeys : new ArrayList<String>();
+    }
 
-                                    Action action = null;
-                                    Device actionDevice = null;
-                                    int actionIndex = -1;
+    /**
+     * This method is used to set values of dynamic params of all devices.
+     *
+     * @param devices    Devices of the node.
+     * @param paramsJson JSON data of node params.
+     */
+    public static void setDeviceParamValues(ArrayList<Device> devices, JSONObject paramsJson) {
 
-                                    for (int aIndex = 0; aIndex < actions.size(); aIndex++) {
+        if (devices == null) {
+            return;
+        }
 
-                                        Action a = actions.get(aIndex);
-                                        if (a.getDevice().getNodeId().equals(nodeId) && deviceName.equals(a.getDevice().getDeviceName())) {
-                                            action = actions.get(aIndex);
-                                            actionIndex = aIndex;
-                                        }
-                                    }
+        for (int i = 0; i < devices.size(); i++) {
 
-                                    if (action == null) {
-                                        action = new Action();
-                                        action.setNodeId(nodeId);
+            Device device = devices.get(i);
+            JSONObject deviceJson = paramsJson.optJSONObject(device.getDeviceName());
 
-                                        for (int k = 0; k < devices.size(); k++) {
+            if (deviceJson == null) {
+                EspLog.d(TAG, () -> "Device JSON is not available for device : " + device.getDeviceName());
+                continue;
+            }
 
-                                            if (devices.get(k).getNodeId().equals(nodeId) && devices.get(k).getDeviceName().equals(deviceName)) {
-                                                actionDevice = new Device(devices.get(k));
-                                                actionDevice.setSelectedState(1);
-                                                break;
-                                            }
-                                        }
+            ArrayList<Param> params = device.getParams();
+            for (int j = 0; j < params.size(); j++) {
 
-                                        if (actionDevice == null) {
-                                            actionDevice = new Device(nodeId);
-                                        }
-                                        action.setDevice(actionDevice);
-                                    } else {
-                                        actionDevice = action.getDevice();
-                                    }
+                Param param = params.get(j);
 
-                                    ArrayList<Param> actionParams = new ArrayList<>();
-                                    if (params != null) {
+                if (param.isDynamicParam() && deviceJson.has(param.getName())) {
+                    setDeviceParamValue(deviceJson, device, param);
+                }
+            }
+        }
+    }
 
-                                        Iterator<Param> iterator = params.iterator();
-                                        while (iterator.hasNext()) {
-                                            Param p = iterator.next();
-                                            actionParams.add(new Param(p));
-                                        }
+    /**
+     * This method is used to set node connectivity status.
+     *
+     * @param node       Node object.
+     * @param statusJson Status JSON received from cloud.
+     */
+    public static void setNodeStatus(EspNode node, JSONObject statusJson) {
 
-                                        Iterator itr = actionParams.iterator();
+        JSONObject connectivityObject = statusJson.optJSONObject(AppConstants.KEY_CONNECTIVITY);
 
-                                        while (itr.hasNext()) {
+        if (connectivityObject != null) {
 
-                                            Param p = (Param) itr.next();
+            boolean nodeStatus = connectivityObject.optBoolean(AppConstants.KEY_CONNECTED);
+            long timestamp = connectivityObject.optLong(AppConstants.KEY_TIMESTAMP);
+            node.setTimeStampOfStatus(timestamp);
 
-                                            if (!p.isDynamicParam()) {
-                                                itr.remove();
-                                            } else if (p.getParamType() != null && p.getParamType().equals(AppConstants.PARAM_TYPE_NAME)) {
-                                                itr.remove();
-                                            } else if (!p.getProperties().contains(AppConstants.KEY_PROPERTY_WRITE)) {
-                                                itr.remove();
-                                            }
-                                        }
-                                    }
-                                    actionDevice.setParams(actionParams);
+            if (node.isOnline() != nodeStatus) {
+                node.setOnline(nodeStatus);
+                GroupIndex.getInstance().onNodeChanged(node.getNodeId());
+            }
+        } else {
+            EspLog.d(TAG, () -> "Connectivity object is null for node : " + node.getNodeId());
+        }
+    }
 
-                                    for (int paramIndex = 0; paramIndex < actionParams.size(); paramIndex++) {
+    private static void setServiceParamValues(ArrayList<Service> services, String serviceType, JSONObject serviceJson) {
 
-                                        Param p = actionParams.get(paramIndex);
-                                        String paramName = p.getName();
+        if (services == null) {
+            return;
+        }
 
-                                        if (deviceAction.has(paramName)) {
+        for (int serviceIdx = 0; serviceIdx < services.size(); serviceIdx++) {
 
-                                            p.setSelected(true);
-                                            setDeviceParamValue(deviceAction, devices.get(deviceIndex), p);
-                                        }
-                                    }
+            Service service = services.get(serviceIdx);
+            ArrayList<Param> serviceParams = service.getParams();
 
-                                    for (int paramIndex = 0; paramIndex < actionParams.size(); paramIndex++) {
+            if (!serviceType.equals(service.getType()) || serviceParams == null) {
+                continue;
+            }
 
-                                        if (!actionParams.get(paramIndex).isSelected()) {
-                                            actionDevice.setSelectedState(2); // Partially selected
-                                        }
-                                    }
+            for (int paramIdx = 0; paramIdx < serviceParams.size(); paramIdx++) {
 
-                                    if (actionIndex == -1) {
-                                        actions.add(action);
-                                    } else {
-                                        actions.set(actionIndex, action);
-                                    }
-                                    schedule.setActions(actions);
+                Param serviceParam = serviceParams.get(paramIdx);
+                String dataType = serviceParam.getDataType();
 
-                                }
-                            }
-                        }
-                        espAppContext.scheduleMap.put(key, schedule);
-                    }
+                if (TextUtils.isEmpty(dataType)) {
+                    continue;
                 }
-            }
-        } else {
-            Log.e(TAG, "Schedule JSON is not available");
-        }
-
-        // Timezone
-        if (timeJson != null && services != null) {
-            for (int serviceIdx = 0; serviceIdx < services.size(); serviceIdx++) {
-                Service service = services.get(serviceIdx);
-                if (AppConstants.SERVICE_TYPE_TIME.equals(service.getType())) {
-                    ArrayList<Param> timeParams = service.getParams();
-                    if (timeParams != null) {
-                        for (int paramIdx = 0; paramIdx < timeParams.size(); paramIdx++) {
-                            Param timeParam = timeParams.get(paramIdx);
-                            String dataType = timeParam.getDataType();
-                            if (!TextUtils.isEmpty(dataType)) {
-                                if (dataType.equalsIgnoreCase("string")) {
-                                    timeParam.setLabelValue(timeJson.optString(timeParam.getName()));
-                                }
-                            }
-                        }
-                    }
+                if (dataType.equalsIgnoreCase("string")) {
+                    serviceParam.setLabelValue(serviceJson.optString(serviceParam.getName()));
                 }
-            }
-        } else {
-            Log.e(TAG, "Time JSON is not available");
-        }
-
-        // Local control
-        if (localControlJson != null && services != null) {
-            for (int serviceIdx = 0; serviceIdx < services.size(); serviceIdx++) {
-                Service service = services.get(serviceIdx);
-                if (AppConstants.SERVICE_TYPE_LOCAL_CONTROL.equals(service.getType())) {
-                    ArrayList<Param> localParams = service.getParams();
-                    if (localParams != null) {
-                        for (int paramIdx = 0; paramIdx < localParams.size(); paramIdx++) {
-                            Param localParam = localParams.get(paramIdx);
-                            String dataType = localParam.getDataType();
-                            if (!TextUtils.isEmpty(dataType)) {
-                                if (dataType.equalsIgnoreCase("string")) {
-                                    localParam.setLabelValue(localControlJson.optString(localParam.getName()));
-                                }
-                                if (dataType.equalsIgnoreCase("int") || dataType.equalsIgnoreCase("integer")) {
-                                    localParam.setValue(localControlJson.optInt(localParam.getName()));
-                                }
-                            }
-                        }
-                    }
+                // Time service has only string params, so int values are set for local control service only.
+                if (AppConstants.SERVICE_TYPE_LOCAL_CONTROL.equals(serviceType)
+                        && (dataType.equalsIgnoreCase("int") || dataType.equalsIgnoreCase("integer"))) {
+                    serviceParam.setValue(serviceJson.optInt(serviceParam.getName()));
                 }
             }
-        } else {
-            Log.e(TAG, "Local control JSON is not available");
         }
     }
 }
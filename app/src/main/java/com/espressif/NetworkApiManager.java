@@ -20,6 +20,7 @@ import android.util.Log;
 
 import com.espressif.cloudapi.ApiManager;
 import com.espressif.cloudapi.ApiResponseListener;
+import com.espressif.cloudapi.ConditionalRequestStore;
 import com.espressif.local_control.LocalControlApiManager;
 import com.google.gson.JsonObject;
 
@@ -53,8 +54,12 @@ public class NetworkApiManager {
      */
     public void updateParamValue(final String nodeId, final JsonObject body, final ApiResponseListener listener) {
 
-        if (espApp.localDeviceMap.containsKey(nodeId)) {
+        boolean isLocal = espApp.localDeviceMap.containsKey(nodeId);
+        RequestMetrics.getInstance().recordPath(isLocal);
 
+        if (isLocal) {
+
+            ConditionalRequestStore.getInstance().invalidate(nodeId);
             localControlApiManager.updateParamValue(nodeId, body, new ApiResponseListener() {
 
                 @Override
@@ -67,6 +72,7 @@ public class NetworkApiManager {
                     Log.e(TAG, "Error : " + exception.getMessage());
                     Log.e(TAG, "Removing Node id : " + nodeId);
                     espApp.localDeviceMap.remove(nodeId);
+                    RequestMetrics.getInstance().recordLocalFallback();
                     updateParamValue(nodeId, body, listener);
                 }
 
@@ -75,6 +81,7 @@ public class NetworkApiManager {
                     Log.e(TAG, "Error : " + exception.getMessage());
                     Log.e(TAG, "Removing Node id : " + nodeId);
                     espApp.localDeviceMap.remove(nodeId);
+                    RequestMetrics.getInstance().recordLocalFallback();
                     updateParamValue(nodeId, body, listener);
                 }
             });
@@ -92,7 +99,10 @@ public class NetworkApiManager {
      */
     public void getParamsValues(final String nodeId, final ApiResponseListener listener) {
 
-        if (espApp.localDeviceMap.containsKey(nodeId)) {
+        boolean isLocal = espApp.localDeviceMap.containsKey(nodeId);
+        RequestMetrics.getInstance().recordPath(isLocal);
+
+        if (isLocal) {
 
             localControlApiManager.getParamsValues(nodeId, new ApiResponseListener() {
 
@@ -106,6 +116,7 @@ public class NetworkApiManager {
                     Log.e(TAG, "Error : " + exception.getMessage());
                     Log.e(TAG, "Removing Node id : " + nodeId);
                     espApp.localDeviceMap.remove(nodeId);
+                    RequestMetrics.getInstance().recordLocalFallback();
                     getParamsValues(nodeId, listener);
                 }
 
@@ -114,6 +125,7 @@ public class NetworkApiManager {
                     Log.e(TAG, "Error : " + exception.getMessage());
                     Log.e(TAG, "Removing Node id : " + nodeId);
                     espApp.localDeviceMap.remove(nodeId);
+                    RequestMetrics.getInstance().recordLocalFallback();
                     getParamsValues(nodeId, listener);
                 }
             });
@@ -131,7 +143,10 @@ public class NetworkApiManager {
      */
     public void getNodeDetails(final String nodeId, final ApiResponseListener listener) {
 
-        if (espApp.localDeviceMap.containsKey(nodeId)) {
+        boolean isLocal = espApp.localDeviceMap.containsKey(nodeId);
+        RequestMetrics.getInstance().recordPath(isLocal);
+
+        if (isLocal) {
 
             localControlApiManager.getNodeDetails(nodeId, new ApiResponseListener() {
 
@@ -145,6 +160,7 @@ public class NetworkApiManager {
                     Log.e(TAG, "Error : " + exception.getMessage());
                     Log.e(TAG, "Removing Node id : " + nodeId);
                     espApp.localDeviceMap.remove(nodeId);
+                    RequestMetrics.getInstance().recordLocalFallback();
                     getParamsValues(nodeId, listener);
                 }
 
@@ -153,6 +169,7 @@ public class NetworkApiManager {
                     Log.e(TAG, "Error : " + exception.getMessage());
                     Log.e(TAG, "Removing Node id : " + nodeId);
                     espApp.localDeviceMap.remove(nodeId);
+                    RequestMetrics.getInstance().recordLocalFallback();
                     getParamsValues(nodeId, listener);
                 }
             });
@@ -0,0 +1,190 @@
+// Copyright 2021 Espressif Systems (Shanghai) PTE LTD
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.espressif;
+
+import com.espressif.cloudapi.ApiManager;
+import com.espressif.db.EspDatabase;
+import com.espressif.ui.models.EspNode;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.Iterator;
+
+/**
+ * This class applies data received in events (FCM notifications) on in-memory and stored node state.
+ * Node details are requested from cloud only if node is not available in memory or in local storage.
+ */
+public class NodeEventApplier {
+
+    private static final String TAG = NodeEventApplier.class.getSimpleName();
+
+    /**
+     * Result of applying connectivity status of the event.
+     */
+    public enum ConnectivityResult {
+        APPLIED,
+        STALE,
+        NODE_NOT_AVAILABLE
+    }
+
+    private EspApplication espApp;
+    private EspDatabase espDatabase;
+
+    public NodeEventApplier(EspApplication espApp) {
+        this.espApp = espApp;
+        espDatabase = EspDatabase.getInstance(espApp);
+    }
+
+    /**
+     * Get node from node map. If it is not available in memory, it is loaded from local storage.
+     *
+     * @param nodeId Node id.
+     * @return Returns node or null if node is not available locally.
+     */
+    public EspNode getNode(String nodeId) {
+
+        EspNode node = espApp.nodeMap.get(nodeId);
+        if (node != null) {
+            return node;
+        }
+
+        node = espDatabase.getNodeDao().getNode(nodeId);
+        if (node == null || node.getConfigData() == null) {
+            EspLog.d(TAG, () -> "Node is not available locally : " + nodeId);
+            return null;
+        }
+
+        try {
+            node = JsonDataParser.setNodeConfig(node, new JSONObject(node.getConfigData()));
+            if (node == null) {
+                return null;
+            }
+            if (node.getParamData() != null) {
+                JsonDataParser.setAllParams(espApp, node, new JSONObject(node.getParamData()));
+            }
+            espApp.nodeMap.put(nodeId, node);
+            EspLog.d(TAG, () -> "Node loaded from local storage : " + nodeId);
+            return node;
+
+        } catch (JSONException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Get node details from cloud. This is a blocking call.
+     *
+     * @param nodeId Node id.
+     * @return Returns node or null if node details are not received.
+     */
+    public EspNode refreshNode(String nodeId) {
+        ApiManager.getInstance(espApp).getNodeDetails(nodeId);
+        return espApp.nodeMap.get(nodeId);
+    }
+
+    /**
+     * Get node from memory or local storage, and from cloud only if it is not available locally.
+     *
+     * @param nodeId Node id.
+     * @return Returns node or null if node is not available.
+     */
+    public EspNode getOrRefreshNode(String nodeId) {
+
+        EspNode node = getNode(nodeId);
+        if (node == null) {
+            node = refreshNode(nodeId);
+        }
+        return node;
+    }
+
+    /**
+     * Apply connectivity status received in event on in-memory node.
+     * Events older than current status of the node are ignored.
+     * Connectivity status is not stored in local storage, it is received again with node details from cloud.
+     *
+     * @param nodeId           Node id.
+     * @param connectivityJson Connectivity JSON of the event.
+     * @return Returns {@link ConnectivityResult#STALE} if event is older than current status of the node.
+     */
+    public ConnectivityResult applyConnectivity(String nodeId, JSONObject connectivityJson) {
+
+        EspNode node = getNode(nodeId);
+        if (node == null) {
+            return ConnectivityResult.NODE_NOT_AVAILABLE;
+        }
+
+        boolean nodeStatus = connectivityJson.optBoolean(AppConstants.KEY_CONNECTED);
+        long timestamp = connectivityJson.optLong(AppConstants.KEY_TIMESTAMP);
+
+        if (timestamp < node.getTimeStampOfStatus()) {
+            EspLog.d(TAG, () -> "Ignore old connectivity status for node : " + nodeId);
+            return ConnectivityResult.STALE;
+        }
+
+        node.setTimeStampOfStatus(timestamp);
+        node.setOnline(nodeStatus);
+        GroupIndex.getInstance().onNodeChanged(nodeId);
+        return ConnectivityResult.APPLIED;
+    }
+
+    /**
+     * Apply param values received in event on the node and store them in local storage.
+     *
+     * @param nodeId     Node id.
+     * @param paramsJson Params JSON of the event.
+     * @return Returns true if node is available.
+     */
+    public boolean applyParams(String nodeId, JSONObject paramsJson) {
+
+        EspNode node = getNode(nodeId);
+        if (node == null) {
+            return false;
+        }
+
+        JsonDataParser.setAllParams(espApp, node, paramsJson);
+
+        try {
+            JSONObject storedParams = node.getParamData() != null ? new JSONObject(node.getParamData()) : new JSONObject();
+            Iterator<String> keys = paramsJson.keys();
+
+            while (keys.hasNext()) {
+
+                String key = keys.next();
+                Object value = paramsJson.get(key);
+                JSONObject storedJson = storedParams.optJSONObject(key);
+
+                if (value instanceof JSONObject && storedJson != null) {
+                    JSONObject valueJson = (JSONObject) value;
+                    Iterator<String> paramKeys = valueJson.keys();
+                    while (paramKeys.hasNext()) {
+                        String paramKey = paramKeys.next();
+                        storedJson.put(paramKey, valueJson.get(paramKey));
+                    }
+                } else {
+                    storedParams.put(key, value);
+                }
+            }
+            node.setParamData(storedParams.toString());
+            espDatabase.getNodeDao().insertOrUpdate(node);
+
+        } catch (JSONException e) {
+            e.printStackTrace();
+        }
+        return true;
+    }
+}
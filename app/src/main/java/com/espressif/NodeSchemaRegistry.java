@@ -0,0 +1,155 @@
+// Copyright 2021 Espressif Systems (Shanghai) PTE LTD
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.espressif;
+
+import com.espressif.ui.models.Device;
+import com.espressif.ui.models.Param;
+import com.espressif.ui.models.Service;
+
+import org.json.JSONArray;
+
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * This class keeps parsed devices and services definitions of node config.
+ * Nodes with same firmware have same definitions, so definitions are parsed once for each
+ * config version and content hash, and each node gets its own copy of devices / params which share
+ * the param definitions and hold only values of that node.
+ */
+public class NodeSchemaRegistry {
+
+    private static NodeSchemaRegistry registry;
+
+    private final HashMap<String, NodeSchema> schemas = new HashMap<>();
+
+    /**
+     * Devices and services definitions of a node. These objects are never given to UI and never modified.
+     */
+    static class NodeSchema {
+
+        private final ArrayList<Device> devices;
+        private final ArrayList<Service> services;
+
+        NodeSchema(ArrayList<Device> devices, ArrayList<Service> services) {
+            this.devices = devices;
+            this.services = services;
+        }
+
+        ArrayList<Device> createDevices(String nodeId) {
+
+            ArrayList<Device> nodeDevices = new ArrayList<>(devices.size());
+
+            for (Device schemaDevice : devices) {
+                Device device = new Device(nodeId);
+                device.setDeviceName(schemaDevice.getDeviceName());
+                device.setUserVisibleName(schemaDevice.getUserVisibleName());
+                device.setDeviceType(schemaDevice.getDeviceType());
+                device.setPrimaryParamName(schemaDevice.getPrimaryParamName());
+                device.setParams(copyParams(schemaDevice.getParams()));
+                nodeDevices.add(device);
+            }
+            return nodeDevices;
+        }
+
+        ArrayList<Service> createServices(String nodeId) {
+
+            ArrayList<Service> nodeServices = new ArrayList<>(services.size());
+
+            for (Service schemaService : services) {
+                Service service = new Service(nodeId);
+                service.setName(schemaService.getName());
+                service.setType(schemaService.getType());
+                service.setParams(copyParams(schemaService.getParams()));
+                nodeServices.add(service);
+            }
+            return nodeServices;
+        }
+
+        private ArrayList<Param> copyParams(ArrayList<Param> schemaParams) {
+
+            ArrayList<Param> params = new ArrayList<>(schemaParams.size());
+            for (Param param : schemaParams) {
+                params.add(new Param(param));
+            }
+            return params;
+        }
+    }
+
+    public static synchronized NodeSchemaRegistry getInstance() {
+
+        if (registry == null) {
+            registry = new NodeSchemaRegistry();
+        }
+        return registry;
+    }
+
+    private NodeSchemaRegistry() {
+    }
+
+    synchronized NodeSchema get(String key) {
+
+        if (key == null) {
+            return null;
+        }
+        return schemas.get(key);
+    }
+
+    synchronized void put(String key, NodeSchema schema) {
+
+        if (key != null) {
+            schemas.put(key, schema);
+        }
+    }
+
+    public synchronized void clear() {
+        schemas.clear();
+    }
+
+    /**
+     * Get key of node schema.
+     *
+     * @param configVersion     Config version of the node.
+     * @param devicesJsonArray  Devices JSON of node config.
+     * @param servicesJsonArray Services JSON of node config.
+     * @return Key of the schema. Returns null if hash is not available.
+     */
+    static String getSchemaKey(String configVersion, JSONArray devicesJsonArray, JSONArray servicesJsonArray) {
+
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            if (devicesJsonArray != null) {
+                digest.update(devicesJsonArray.toString().getBytes(Charset.forName("UTF-8")));
+            }
+            digest.update((byte) 0);
+            if (servicesJsonArray != null) {
+                digest.update(servicesJsonArray.toString().getBytes(Charset.forName("UTF-8")));
+            }
+
+            StringBuilder key = new StringBuilder(configVersion).append("_");
+            for (byte b : digest.digest()) {
+                key.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return key.toString();
+
+        } catch (NoSuchAlgorithmException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+// Copyright 2021 Espressif Systems (Shanghai) PTE LTD
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.espressif;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import androidx.work.ExistingWorkPolicy;
+import androidx.work.OneTimeWorkRequest;
+import androidx.work.WorkManager;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Queue of events received from FCM which are not yet processed.
+ * Events received within {@link #BATCH_WINDOW_MS} are processed together by one {@link NotificationWorker}.
+ * Queue is also kept in shared preferences so that events are not lost if app process is killed
+ * before the work runs or while it processes them.
+ */
+public class NotificationEventQueue {
+
+    private static final String TAG = NotificationEventQueue.class.getSimpleName();
+
+    private static final long BATCH_WINDOW_MS = 2000;
+
+    private static NotificationEventQueue eventQueue;
+
+    private Context context;
+    private SharedPreferences sharedPreferences;
+    private JSONArray pendingEvents;
+    private boolean isWorkScheduled;
+
+    /**
+     * Event received from FCM.
+     */
+    static class QueuedEvent {
+
+        String title;
+        String eventPayload;
+
+        QueuedEvent(String title, String eventPayload) {
+            this.title = title;
+            this.eventPayload = eventPayload;
+        }
+    }
+
+    public static synchronized NotificationEventQueue getInstance(Context context) {
+
+        if (eventQueue == null) {
+            eventQueue = new NotificationEventQueue(context.getApplicationContext());
+        }
+        return eventQueue;
+    }
+
+    private NotificationEventQueue(Context context) {
+
+        this.context = context;
+        sharedPreferences = context.getSharedPreferences(AppConstants.PREF_FILE_PENDING_EVENTS, Context.MODE_PRIVATE);
+        pendingEvents = new JSONArray();
+
+        String storedEvents = sharedPreferences.getString(AppConstants.KEY_PENDING_EVENTS, null);
+        if (storedEvents != null) {
+            try {
+                pendingEvents = new JSONArray(storedEvents);
+            } catch (JSONException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Add event in the queue and schedule the work to process it, if it is not scheduled already.
+     *
+     * @param title        Title of the notification.
+     * @param eventPayload Event data payload received from FCM.
+     */
+    public synchronized void add(String title, String eventPayload) {
+
+        try {
+            JSONObject eventJson = new JSONObject();
+            eventJson.put(AppConstants.KEY_TITLE, title);
+            eventJson.put(AppConstants.KEY_EVENT_DATA_PAYLOAD, eventPayload);
+            pendingEvents.put(eventJson);
+            sharedPreferences.edit().putString(AppConstants.KEY_PENDING_EVENTS, pendingEvents.toString()).apply();
+        } catch (JSONException e) {
+            e.printStackTrace();
+            return;
+        }
+
+        if (!isWorkScheduled) {
+
+            isWorkScheduled = true;
+            OneTimeWorkRequest workRequest = new OneTimeWorkRequest.Builder(NotificationWorker.class)
+                    .setInitialDelay(BATCH_WINDOW_MS, TimeUnit.MILLISECONDS)
+                    .build();
+
+            // If work is running, new work will start after it, to process events received meanwhile.
+            WorkManager.getInstance(context).enqueueUniqueWork(AppConstants.NOTIFICATION_WORK_NAME,
+                    ExistingWorkPolicy.APPEND_OR_REPLACE, workRequest);
+        }
+        EspLog.d(TAG, () -> "Pending events : " + pendingEvents.length());
+    }
+
+    /**
+     * Get all pending events. Events are kept in the queue (and in shared preferences) till they are removed
+     * by {@link #remove(int)} after processing, so that they are processed again if app process is killed
+     * in between. Events added after this call are processed by next work.
+     *
+     * @return List of events in the order they were received.
+     */
+    synchronized ArrayList<QueuedEvent> getPendingEvents() {
+
+        ArrayList<QueuedEvent> events = new ArrayList<>();
+        JSONArray validEvents = new JSONArray();
+
+        for (int i = 0; i < pendingEvents.length(); i++) {
+            JSONObject eventJson = pendingEvents.optJSONObject(i);
+            if (eventJson != null) {
+                events.add(new QueuedEvent(eventJson.optString(AppConstants.KEY_TITLE),
+                        eventJson.optString(AppConstants.KEY_EVENT_DATA_PAYLOAD)));
+                validEvents.put(eventJson);
+            }
+        }
+
+        // Events which can not be read are dropped, so that count of returned events matches start of the queue.
+        pendingEvents = validEvents;
+        isWorkScheduled = false;
+        return events;
+    }
+
+    /**
+     * Remove processed events from the start of the queue.
+     *
+     * @param count Number of events received from {@link #getPendingEvents()} which are processed.
+     */
+    synchronized void remove(int count) {
+
+        JSONArray remainingEvents = new JSONArray();
+        for (int i = count; i < pendingEvents.length(); i++) {
+            remainingEvents.put(pendingEvents.opt(i));
+        }
+        pendingEvents = remainingEvents;
+
+        if (pendingEvents.length() == 0) {
+            sharedPreferences.edit().remove(AppConstants.KEY_PENDING_EVENTS).apply();
+        } else {
+            sharedPreferences.edit().putString(AppConstants.KEY_PENDING_EVENTS, pendingEvents.toString()).apply();
+        }
+    }
+}
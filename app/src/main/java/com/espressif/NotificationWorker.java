@@ -6,27 +6,23 @@ import android.content.Context;
 import android.content.Intent;
 import android.media.RingtoneManager;
 import android.net.Uri;
-import android.os.Bundle;
 import android.text.TextUtils;
-import android.util.Log;
 
 import androidx.annotation.NonNull;
 import androidx.core.app.NotificationCompat;
 import androidx.core.app.NotificationManagerCompat;
-import androidx.work.Data;
 import androidx.work.Worker;
 import androidx.work.WorkerParameters;
 
 import com.espressif.cloudapi.ApiManager;
-import com.espressif.cloudapi.ApiResponseListener;
 import com.espressif.db.EspDatabase;
+import com.espressif.db.NotificationDao;
 import com.espressif.rainmaker.BuildConfig;
 import com.espressif.rainmaker.R;
 import com.espressif.ui.activities.NotificationsActivity;
 import com.espressif.ui.activities.SplashActivity;
 import com.espressif.ui.models.Device;
 import com.espressif.ui.models.EspNode;
-import com.espressif.ui.models.Group;
 import com.espressif.ui.models.NotificationEvent;
 import com.espressif.ui.models.Param;
 import com.espressif.ui.models.UpdateEvent;
@@ -37,32 +33,138 @@ import org.json.JSONException;
 import org.json.JSONObject;
 
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.concurrent.TimeUnit;
 
 public class NotificationWorker extends Worker {
 
     private static final String TAG = NotificationWorker.class.getSimpleName();
 
+    // If more nodes change connectivity in one batch, single summary notification is displayed.
+    private static final int MAX_CONNECTIVITY_NOTIFICATIONS = 3;
+
     private EspApplication espApp;
+    private NodeEventApplier nodeEventApplier;
     private static int notificationId = 0;
 
+    // Collected while processing one batch of events.
+    private ArrayList<NotificationEvent> eventsToStore;
+    private LinkedHashSet<AppConstants.UpdateEventType> updateEvents;
+    private LinkedHashMap<String, ConnectivityNotification> connectivityNotifications;
+
+    /**
+     * Event received from FCM with its parsed data.
+     */
+    private static class EventItem {
+
+        String title;
+        String eventType;
+        NotificationEvent notificationEvent;
+        JSONObject eventData;
+    }
+
+    /**
+     * Latest connectivity notification of a node.
+     */
+    private static class ConnectivityNotification {
+
+        String title;
+        String message;
+        boolean isConnected;
+
+        ConnectivityNotification(String title, String message, boolean isConnected) {
+            this.title = title;
+            this.message = message;
+            this.isConnected = isConnected;
+        }
+    }
+
     public NotificationWorker(@NonNull Context context, @NonNull WorkerParameters workerParams) {
         super(context, workerParams);
         espApp = (EspApplication) getApplicationContext();
+        nodeEventApplier = new NodeEventApplier(espApp);
     }
 
     @NonNull
     @Override
     public Result doWork() {
 
-        Log.d(TAG, "Do Notification Work");
-        Data data = getInputData();
-        String title = data.getString(AppConstants.KEY_TITLE);
-        String eventPayload = data.getString(AppConstants.KEY_EVENT_DATA_PAYLOAD);
+        NotificationEventQueue eventQueue = NotificationEventQueue.getInstance(espApp);
+        ArrayList<NotificationEventQueue.QueuedEvent> queuedEvents = eventQueue.getPendingEvents();
+        EspLog.d(TAG, () -> "Do Notification Work, Number of events : " + queuedEvents.size());
+
+        eventsToStore = new ArrayList<>();
+        updateEvents = new LinkedHashSet<>();
+        connectivityNotifications = new LinkedHashMap<>();
+
+        ArrayList<EventItem> eventItems = new ArrayList<>();
+        HashSet<String> addedNodeIds = new HashSet<>();
+        HashSet<String> paramNodeIds = new HashSet<>();
+        HashSet<String> localNodeIds = new HashSet<>();
+
+        for (NotificationEventQueue.QueuedEvent queuedEvent : queuedEvents) {
+
+            EventItem eventItem = parseEvent(queuedEvent);
+            if (eventItem != null) {
+                eventItems.add(eventItem);
+                collectNodeIds(eventItem, addedNodeIds, paramNodeIds, localNodeIds);
+            }
+        }
+
+        // Get node details only once for all events of this batch.
+        prepareNodes(addedNodeIds, paramNodeIds, localNodeIds);
+
+        for (EventItem eventItem : eventItems) {
+            processEvent(eventItem);
+        }
+
+        sendConnectivityNotifications();
+
+        if (eventsToStore.size() > 0) {
+            NotificationDao notificationDao = EspDatabase.getInstance(espApp).getNotificationDao();
+            notificationDao.insertAll(eventsToStore);
+            EspLog.d(TAG, () -> eventsToStore.size() + " notification(s) inserted in database");
+            compactNotifications(notificationDao);
+        }
+        // Events are removed only after they are applied and stored.
+        eventQueue.remove(queuedEvents.size());
+
+        // Send events for UI update
+        for (AppConstants.UpdateEventType updateEventType : updateEvents) {
+            EventBus.getDefault().post(new UpdateEvent(updateEventType));
+        }
+        return Result.success();
+    }
+
+    /**
+     * Apply retention policy to notification history.
+     * Notifications older than retention days and notifications above max count are deleted.
+     */
+    private void compactNotifications(NotificationDao notificationDao) {
+
+        if (BuildConfig.NOTIFICATION_RETENTION_DAYS > 0) {
+            long minTimestamp = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(BuildConfig.NOTIFICATION_RETENTION_DAYS);
+            notificationDao.deleteOlderThan(minTimestamp);
+        }
+        if (BuildConfig.MAX_NOTIFICATION_COUNT > 0) {
+            notificationDao.trimToCount(BuildConfig.MAX_NOTIFICATION_COUNT);
+        }
+    }
+
+    private EventItem parseEvent(NotificationEventQueue.QueuedEvent queuedEvent) {
 
         try {
-            JSONObject eventDataJson = new JSONObject(eventPayload);
+            JSONObject eventDataJson = new JSONObject(queuedEvent.eventPayload);
             String eventType = eventDataJson.optString(AppConstants.KEY_EVENT_TYPE);
             JSONObject jsonEventData = eventDataJson.optJSONObject(AppConstants.KEY_EVENT_DATA);
+            EspLog.d(TAG, () -> "Event type : " + eventType);
+
+            if (TextUtils.isEmpty(eventType) || jsonEventData == null) {
+                return null;
+            }
+
             NotificationEvent notificationEvent = new NotificationEvent();
             notificationEvent.setEventType(eventType);
             notificationEvent.setEventVersion(eventDataJson.optString(AppConstants.KEY_EVENT_VERSION));
@@ -70,70 +172,142 @@ public class NotificationWorker extends Worker {
             notificationEvent.setEventData(jsonEventData.toString());
             notificationEvent.setEventDescription(eventDataJson.optString(AppConstants.KEY_DESCRIPTION));
             notificationEvent.setTimestamp(eventDataJson.optLong(AppConstants.KEY_TIMESTAMP));
-            Log.e(TAG, "Event type : " + eventType);
 
-            if (!TextUtils.isEmpty(eventType)) {
+            EventItem eventItem = new EventItem();
+            eventItem.title = queuedEvent.title;
+            eventItem.eventType = eventType;
+            eventItem.notificationEvent = notificationEvent;
+            eventItem.eventData = jsonEventData;
+            return eventItem;
 
-                if (jsonEventData != null) {
+        } catch (JSONException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
 
-                    if (AppConstants.EVENT_NODE_CONNECTED.equals(eventType)
-                            || AppConstants.EVENT_NODE_DISCONNECTED.equals(eventType)) {
+    /**
+     * Collect ids of the nodes for which node details are required to process the event.
+     * Added nodes are always requested from cloud. Config of the node is required to apply param values,
+     * so those nodes are requested from cloud only if they are not available locally.
+     * Connectivity and sharing events carry enough data and only use local node details for device names.
+     */
+    private void collectNodeIds(EventItem eventItem, HashSet<String> addedNodeIds,
+                                HashSet<String> paramNodeIds, HashSet<String> localNodeIds) {
 
-                        processConnectivityEvent(title, notificationEvent, jsonEventData);
+        String eventType = eventItem.eventType;
+        JSONObject jsonEventData = eventItem.eventData;
 
-                    } else if (AppConstants.EVENT_NODE_ADDED.equals(eventType)) {
+        if (AppConstants.EVENT_NODE_CONNECTED.equals(eventType)
+                || AppConstants.EVENT_NODE_DISCONNECTED.equals(eventType)) {
 
-                        processNodeAddedEvent(title, notificationEvent, jsonEventData);
+            localNodeIds.add(jsonEventData.optString(AppConstants.KEY_NODE_ID));
 
-                    } else if (AppConstants.EVENT_NODE_REMOVED.equals(eventType)) {
+        } else if (AppConstants.EVENT_NODE_PARAM_MODIFIED.equals(eventType)) {
 
-                        processNodeRemovedEvent(title, notificationEvent, jsonEventData);
+            paramNodeIds.add(jsonEventData.optString(AppConstants.KEY_NODE_ID));
 
-                    } else if (AppConstants.EVENT_NODE_SHARING_ADD.equals(eventType)) {
+        } else if (AppConstants.EVENT_ALERT.equals(eventType)) {
 
-                        processSharingAddEvent(title, notificationEvent, jsonEventData);
+            // Node details are not required if alert string is available.
+            JSONObject payloadJson = getJson(jsonEventData.optString(AppConstants.KEY_MESSAGE_BODY));
+            if (payloadJson != null && TextUtils.isEmpty(payloadJson.optString(AppConstants.KEY_ALERT_STRING))) {
+                paramNodeIds.add(jsonEventData.optString(AppConstants.KEY_NODE_ID));
+            }
 
-                    } else if (AppConstants.EVENT_NODE_PARAM_MODIFIED.equals(eventType)) {
+        } else if (AppConstants.EVENT_NODE_ADDED.equals(eventType)) {
 
-                        String nodeId = jsonEventData.optString(AppConstants.KEY_NODE_ID);
-                        String payload = jsonEventData.optString(AppConstants.KEY_PAYLOAD);
-                        Log.d(TAG, "Node Id : " + nodeId);
-                        Log.d(TAG, "Payload : " + payload);
-                        JSONObject payloadJson = null;
-                        try {
-                            payloadJson = new JSONObject(payload);
-                        } catch (JSONException e) {
-                            e.printStackTrace();
-                        }
+            addNodeIds(jsonEventData.optJSONArray(AppConstants.KEY_NODES), addedNodeIds);
 
-                        if (!espApp.nodeMap.containsKey(nodeId)) {
-                            ApiManager.getInstance(espApp).getNodeDetails(nodeId);
-                        }
+        } else if (AppConstants.EVENT_NODE_SHARING_ADD.equals(eventType)
+                && jsonEventData.has(AppConstants.KEY_REQ_ACCEPT)) {
 
-                        if (!espApp.nodeMap.containsKey(nodeId)) {
-                            loadDataFromLocalStorage();
-                        }
+            addNodeIds(jsonEventData.optJSONArray(AppConstants.KEY_NODES), localNodeIds);
+        }
+    }
 
-                        if (payloadJson != null && espApp.nodeMap.containsKey(nodeId)) {
-                            EspNode node = espApp.nodeMap.get(nodeId);
-                            JsonDataParser.setAllParams(espApp, node, payloadJson);
-                            // Send event for UI update
-                            EventBus.getDefault().post(new UpdateEvent(AppConstants.UpdateEventType.EVENT_DEVICE_STATUS_UPDATE));
-                        }
-                    } else if (AppConstants.EVENT_ALERT.equals(eventType)) {
-                        processAlertEvent(title, notificationEvent, jsonEventData);
-                    } else {
-                        sendNotification(title, notificationEvent.getEventDescription(), AppConstants.CHANNEL_ALERT);
-                    }
-                }
+    private void addNodeIds(JSONArray nodeJsonArray, HashSet<String> nodeIds) {
+
+        if (nodeJsonArray != null) {
+            for (int nodeIndex = 0; nodeIndex < nodeJsonArray.length(); nodeIndex++) {
+                nodeIds.add(nodeJsonArray.optString(nodeIndex));
             }
+        }
+    }
 
-        } catch (JSONException e) {
-            e.printStackTrace();
+    /**
+     * Get node details from cloud only for newly added nodes and for the nodes which are not available locally,
+     * but their param values are to be applied. Other nodes are loaded from local storage if required.
+     */
+    private void prepareNodes(HashSet<String> addedNodeIds, HashSet<String> paramNodeIds, HashSet<String> localNodeIds) {
+
+        for (String nodeId : addedNodeIds) {
+            nodeEventApplier.refreshNode(nodeId);
         }
 
+        for (String nodeId : paramNodeIds) {
+            if (!TextUtils.isEmpty(nodeId) && !addedNodeIds.contains(nodeId)) {
+                nodeEventApplier.getOrRefreshNode(nodeId);
+            }
+        }
 
-        return Result.success();
+        for (String nodeId : localNodeIds) {
+            if (!TextUtils.isEmpty(nodeId)) {
+                nodeEventApplier.getNode(nodeId);
+            }
+        }
+    }
+
+    private void processEvent(EventItem eventItem) {
+
+        String title = eventItem.title;
+        String eventType = eventItem.eventType;
+        NotificationEvent notificationEvent = eventItem.notificationEvent;
+        JSONObject jsonEventData = eventItem.eventData;
+
+        if (AppConstants.EVENT_NODE_CONNECTED.equals(eventType)
+                || AppConstants.EVENT_NODE_DISCONNECTED.equals(eventType)) {
+
+            processConnectivityEvent(title, notificationEvent, jsonEventData);
+
+        } else if (AppConstants.EVENT_NODE_ADDED.equals(eventType)) {
+
+            processNodeAddedEvent(title, notificationEvent, jsonEventData);
+
+        } else if (AppConstants.EVENT_NODE_REMOVED.equals(eventType)) {
+
+            processNodeRemovedEvent(title, notificationEvent, jsonEventData);
+
+        } else if (AppConstants.EVENT_NODE_SHARING_ADD.equals(eventType)) {
+
+            processSharingAddEvent(title, notificationEvent, jsonEventData);
+
+        } else if (AppConstants.EVENT_NODE_PARAM_MODIFIED.equals(eventType)) {
+
+            String nodeId = jsonEventData.optString(AppConstants.KEY_NODE_ID);
+            String payload = jsonEventData.optString(AppConstants.KEY_PAYLOAD);
+            EspLog.d(TAG, () -> "Node Id : " + nodeId);
+            EspLog.d(TAG, () -> "Payload : " + payload);
+            JSONObject payloadJson = getJson(payload);
+
+            if (payloadJson != null && nodeEventApplier.applyParams(nodeId, payloadJson)) {
+                updateEvents.add(AppConstants.UpdateEventType.EVENT_DEVICE_STATUS_UPDATE);
+            }
+        } else if (AppConstants.EVENT_ALERT.equals(eventType)) {
+            processAlertEvent(title, notificationEvent, jsonEventData);
+        } else {
+            sendNotification(title, notificationEvent.getEventDescription(), AppConstants.CHANNEL_ALERT);
+        }
+    }
+
+    private JSONObject getJson(String data) {
+
+        try {
+            return new JSONObject(data);
+        } catch (JSONException e) {
+            e.printStackTrace();
+            return null;
+        }
     }
 
     // Event type - Node connected / disconnected
@@ -143,27 +317,22 @@ public class NotificationWorker extends Worker {
         EspApplication espApp = (EspApplication) getApplicationContext();
         JSONObject connectivityJson = jsonEventData.optJSONObject(AppConstants.KEY_CONNECTIVITY);
         String nodeId = jsonEventData.optString(AppConstants.KEY_NODE_ID);
-        Log.d(TAG, "Node Id : " + nodeId);
+        EspLog.d(TAG, () -> "Node Id : " + nodeId);
         StringBuilder msgBuilder = new StringBuilder();
 
         if (connectivityJson != null) {
 
-            boolean nodeStatus = connectivityJson.optBoolean(AppConstants.KEY_CONNECTED);
-            long timestamp = connectivityJson.optLong(AppConstants.KEY_TIMESTAMP);
+            NodeEventApplier.ConnectivityResult result = nodeEventApplier.applyConnectivity(nodeId, connectivityJson);
 
-            if (!espApp.nodeMap.containsKey(nodeId)) {
-                ApiManager.getInstance(espApp).getNodeDetails(nodeId);
+            if (result == NodeEventApplier.ConnectivityResult.STALE) {
+                // Node has newer status already, so this event must not be notified or replace newer notification.
+                EspLog.d(TAG, () -> "Connectivity event is older than current status of node : " + nodeId);
+                return;
             }
 
-            if (!espApp.nodeMap.containsKey(nodeId)) {
-                loadDataFromLocalStorage();
-            }
-
-            if (espApp.nodeMap.containsKey(nodeId)) {
+            if (result == NodeEventApplier.ConnectivityResult.APPLIED) {
 
                 EspNode node = espApp.nodeMap.get(nodeId);
-                node.setTimeStampOfStatus(timestamp);
-                node.setOnline(nodeStatus);
                 ArrayList<Device> devices = node.getDevices();
                 ArrayList<String> deviceNames = new ArrayList<>();
                 if (devices != null) {
@@ -199,10 +368,10 @@ public class NotificationWorker extends Worker {
                     }
                 }
             } else {
-                Log.e(TAG, "Node id is not available for this event.");
+                EspLog.e(TAG, "Node id is not available for this event.");
             }
         } else {
-            Log.e(TAG, "Connectivity object is null");
+            EspLog.e(TAG, "Connectivity object is null");
         }
 
         if (TextUtils.isEmpty(msgBuilder.toString())) {
@@ -213,15 +382,51 @@ public class NotificationWorker extends Worker {
             }
         }
         notificationEvent.setNotificationMsg(msgBuilder.toString());
-        EspDatabase.getInstance(espApp).getNotificationDao().insertOrUpdate(notificationEvent);
-        Log.d(TAG, "Connectivity Notification inserted in database");
+        eventsToStore.add(notificationEvent);
+
+        // Only latest connectivity change of the node is notified.
+        boolean isConnected = AppConstants.EVENT_NODE_CONNECTED.equals(notificationEvent.getEventType());
+        connectivityNotifications.remove(nodeId);
+        connectivityNotifications.put(nodeId, new ConnectivityNotification(title, msgBuilder.toString(), isConnected));
+
+        if (isConnected) {
+            updateEvents.add(AppConstants.UpdateEventType.EVENT_DEVICE_ONLINE);
+        } else {
+            updateEvents.add(AppConstants.UpdateEventType.EVENT_DEVICE_OFFLINE);
+        }
+    }
+
+    private void sendConnectivityNotifications() {
 
-        if (AppConstants.EVENT_NODE_CONNECTED.equals(notificationEvent.getEventType())) {
-            sendNotification(title, msgBuilder.toString(), AppConstants.CHANNEL_NODE_ONLINE_ID);
-            EventBus.getDefault().post(new UpdateEvent(AppConstants.UpdateEventType.EVENT_DEVICE_ONLINE));
+        if (connectivityNotifications.size() <= MAX_CONNECTIVITY_NOTIFICATIONS) {
+
+            for (ConnectivityNotification notification : connectivityNotifications.values()) {
+                if (notification.isConnected) {
+                    sendNotification(notification.title, notification.message, AppConstants.CHANNEL_NODE_ONLINE_ID);
+                } else {
+                    sendNotification(notification.title, notification.message, AppConstants.CHANNEL_NODE_OFFLINE_ID);
+                }
+            }
         } else {
-            sendNotification(title, msgBuilder.toString(), AppConstants.CHANNEL_NODE_OFFLINE_ID);
-            EventBus.getDefault().post(new UpdateEvent(AppConstants.UpdateEventType.EVENT_DEVICE_OFFLINE));
+
+            int onlineCount = 0, offlineCount = 0;
+            String title = null;
+
+            for (ConnectivityNotification notification : connectivityNotifications.values()) {
+                if (notification.isConnected) {
+                    onlineCount++;
+                } else {
+                    offlineCount++;
+                }
+                title = notification.title;
+            }
+
+            String msg = espApp.getString(R.string.notify_nodes_connectivity_changed, onlineCount, offlineCount);
+            if (offlineCount > 0) {
+                sendNotification(title, msg, AppConstants.CHANNEL_NODE_OFFLINE_ID);
+            } else {
+                sendNotification(title, msg, AppConstants.CHANNEL_NODE_ONLINE_ID);
+            }
         }
     }
 
@@ -231,122 +436,53 @@ public class NotificationWorker extends Worker {
 
         EspApplication espApp = (EspApplication) getApplicationContext();
         StringBuilder msgBuilder = new StringBuilder();
-        // If it is more than one node then called API to get all nodes instead of getting specific nodes.
         JSONArray nodeJsonArray = jsonEventData.optJSONArray(AppConstants.KEY_NODES);
-        if (nodeJsonArray != null && nodeJsonArray.length() > 0) {
-
-            if (nodeJsonArray.length() == 1) {
-
-                String nodeId = nodeJsonArray.optString(0);
-                ApiManager.getInstance(espApp).getNodeDetails(nodeId);
 
-                if (!espApp.nodeMap.containsKey(nodeId)) {
-                    loadDataFromLocalStorage();
-                }
+        if (nodeJsonArray != null && nodeJsonArray.length() > 0) {
 
+            // Node details are already received in prepareNodes.
+            ArrayList<String> deviceNames = new ArrayList<>();
+            for (int nodeIndex = 0; nodeIndex < nodeJsonArray.length(); nodeIndex++) {
+                String nodeId = nodeJsonArray.optString(nodeIndex);
+                // Complete pending add node request of this node, if any, without waiting for its status check.
+                ApiManager.getInstance(espApp).onNodeAddedEvent(nodeId);
                 if (espApp.nodeMap.containsKey(nodeId)) {
-                    ArrayList<String> deviceNames = new ArrayList<>();
                     ArrayList<Device> devices = espApp.nodeMap.get(nodeId).getDevices();
                     if (devices != null) {
                         for (int deviceIndex = 0; deviceIndex < devices.size(); deviceIndex++) {
                             deviceNames.add(devices.get(deviceIndex).getUserVisibleName());
                         }
                     }
-
-                    if (deviceNames.size() > 0) {
-
-                        if (deviceNames.size() == 1) {
-                            msgBuilder.append(deviceNames.get(0));
-                            msgBuilder.append(" is added.");
-                        } else {
-                            for (int i = 0; i < deviceNames.size(); i++) {
-
-                                if (i != 0) {
-                                    msgBuilder.append(",");
-                                    msgBuilder.append(" ");
-                                }
-                                msgBuilder.append(deviceNames.get(i));
-                            }
-                            msgBuilder.append(" are added.");
-                        }
-                    }
-                }
-
-                if (TextUtils.isEmpty(msgBuilder.toString())) {
-                    msgBuilder.append(espApp.getString(R.string.notify_node_added));
                 }
+            }
 
-                notificationEvent.setNotificationMsg(msgBuilder.toString());
-                EspDatabase.getInstance(espApp).getNotificationDao().insertOrUpdate(notificationEvent);
-                Log.d(TAG, "Node added Notification inserted in database");
-                sendNotification(title, msgBuilder.toString(), AppConstants.CHANNEL_NODE_ADDED);
-                EventBus.getDefault().post(new UpdateEvent(AppConstants.UpdateEventType.EVENT_DEVICE_STATUS_UPDATE));
-
-            } else {
-                ApiManager.getInstance(espApp).getNodes(new ApiResponseListener() {
-                    @Override
-                    public void onSuccess(Bundle data) {
-                        ArrayList<String> deviceNames = new ArrayList<>();
-                        for (int nodeIndex = 0; nodeIndex < nodeJsonArray.length(); nodeIndex++) {
-                            String nodeId = nodeJsonArray.optString(nodeIndex);
-                            if (espApp.nodeMap.containsKey(nodeId)) {
-                                ArrayList<Device> devices = espApp.nodeMap.get(nodeId).getDevices();
-                                if (devices != null) {
-                                    for (int deviceIndex = 0; deviceIndex < devices.size(); deviceIndex++) {
-                                        deviceNames.add(devices.get(deviceIndex).getUserVisibleName());
-                                    }
-                                }
-                            }
-                        }
-
-                        if (deviceNames.size() > 0) {
+            if (deviceNames.size() > 0) {
 
-                            if (deviceNames.size() == 1) {
-                                msgBuilder.append(deviceNames.get(0));
-                                msgBuilder.append(" is added.");
-                            } else {
-                                for (int i = 0; i < deviceNames.size(); i++) {
-
-                                    if (i != 0) {
-                                        msgBuilder.append(",");
-                                        msgBuilder.append(" ");
-                                    }
-                                    msgBuilder.append(deviceNames.get(i));
-                                }
-                                msgBuilder.append(" are added.");
-                            }
-                        }
+                if (deviceNames.size() == 1) {
+                    msgBuilder.append(deviceNames.get(0));
+                    msgBuilder.append(" is added.");
+                } else {
+                    for (int i = 0; i < deviceNames.size(); i++) {
 
-                        if (TextUtils.isEmpty(msgBuilder.toString())) {
-                            msgBuilder.append(espApp.getString(R.string.notify_node_added));
+                        if (i != 0) {
+                            msgBuilder.append(",");
+                            msgBuilder.append(" ");
                         }
-                        EventBus.getDefault().post(new UpdateEvent(AppConstants.UpdateEventType.EVENT_DEVICE_STATUS_UPDATE));
-                    }
-
-                    @Override
-                    public void onResponseFailure(Exception exception) {
-                        msgBuilder.append(espApp.getString(R.string.notify_node_added));
-                        notificationEvent.setNotificationMsg(msgBuilder.toString());
-                        EspDatabase.getInstance(espApp).getNotificationDao().insertOrUpdate(notificationEvent);
-                        Log.d(TAG, "Node added Notification inserted in database");
-                        sendNotification(title, msgBuilder.toString(), AppConstants.CHANNEL_NODE_ADDED);
-                        EventBus.getDefault().post(new UpdateEvent(AppConstants.UpdateEventType.EVENT_DEVICE_STATUS_UPDATE));
-                    }
-
-                    @Override
-                    public void onNetworkFailure(Exception exception) {
-                        msgBuilder.append(espApp.getString(R.string.notify_node_added));
-                        notificationEvent.setNotificationMsg(msgBuilder.toString());
-                        EspDatabase.getInstance(espApp).getNotificationDao().insertOrUpdate(notificationEvent);
-                        Log.d(TAG, "Node added Notification inserted in database");
-                        sendNotification(title, msgBuilder.toString(), AppConstants.CHANNEL_NODE_ADDED);
-                        EventBus.getDefault().post(new UpdateEvent(AppConstants.UpdateEventType.EVENT_DEVICE_STATUS_UPDATE));
+                        msgBuilder.append(deviceNames.get(i));
                     }
-                });
+                    msgBuilder.append(" are added.");
+                }
             }
-        }
 
+            if (TextUtils.isEmpty(msgBuilder.toString())) {
+                msgBuilder.append(espApp.getString(R.string.notify_node_added));
+            }
 
+            notificationEvent.setNotificationMsg(msgBuilder.toString());
+            eventsToStore.add(notificationEvent);
+            sendNotification(title, msgBuilder.toString(), AppConstants.CHANNEL_NODE_ADDED);
+            updateEvents.add(AppConstants.UpdateEventType.EVENT_DEVICE_STATUS_UPDATE);
+        }
     }
 
     // Event type - Node removed
@@ -396,10 +532,9 @@ public class NotificationWorker extends Worker {
             msgBuilder.append(espApp.getString(R.string.notify_node_removed));
         }
         notificationEvent.setNotificationMsg(msgBuilder.toString());
-        EspDatabase.getInstance(espApp).getNotificationDao().insertOrUpdate(notificationEvent);
-        Log.d(TAG, "Node removed Notification inserted in database");
+        eventsToStore.add(notificationEvent);
         sendNotification(title, msgBuilder.toString(), AppConstants.CHANNEL_NODE_REMOVED);
-        EventBus.getDefault().post(new UpdateEvent(AppConstants.UpdateEventType.EVENT_DEVICE_STATUS_UPDATE));
+        updateEvents.add(AppConstants.UpdateEventType.EVENT_DEVICE_STATUS_UPDATE);
     }
 
     // Event type - Node sharing add
@@ -473,22 +608,21 @@ public class NotificationWorker extends Worker {
                 msgBuilder.append(" ");
                 msgBuilder.append("Tap to accept or decline.");
 
-                Log.d(TAG, "Notification msg string  : " + msgBuilder.toString());
+                EspLog.d(TAG, () -> "Notification msg string  : " + msgBuilder);
                 sendSharingRequestNotification(title, msgBuilder.toString(), requestId);
             }
 
         } else {
 
             // Comment details case
-            Log.d(TAG, "Secondary User : " + secondaryUserName);
+            EspLog.d(TAG, () -> "Secondary User : " + secondaryUserName);
             JSONArray nodeJsonArray = jsonEventData.optJSONArray(AppConstants.KEY_NODES);
             ArrayList<String> deviceNames = new ArrayList<>();
-            loadDataFromLocalStorage();
 
             if (nodeJsonArray != null && nodeJsonArray.length() > 0) {
                 for (int nodeIndex = 0; nodeIndex < nodeJsonArray.length(); nodeIndex++) {
                     String nodeId = nodeJsonArray.optString(nodeIndex);
-                    Log.d(TAG, "Node Id : " + nodeId);
+                    EspLog.d(TAG, () -> "Node Id : " + nodeId);
                     if (espApp.nodeMap.containsKey(nodeId)) {
                         ArrayList<Device> devices = espApp.nodeMap.get(nodeId).getDevices();
                         if (devices != null) {
@@ -535,10 +669,9 @@ public class NotificationWorker extends Worker {
                 }
             }
 
-            Log.d(TAG, "Notification msg string  : " + msgBuilder.toString());
+            EspLog.d(TAG, () -> "Notification msg string  : " + msgBuilder);
             notificationEvent.setNotificationMsg(msgBuilder.toString());
-            EspDatabase.getInstance(espApp).getNotificationDao().insertOrUpdate(notificationEvent);
-            Log.d(TAG, "Node sharing add Notification inserted in database");
+            eventsToStore.add(notificationEvent);
             sendSharingNotificationForPrimaryUser(title, msgBuilder.toString());
         }
     }
@@ -573,7 +706,7 @@ public class NotificationWorker extends Worker {
 
     private void sendSharingRequestNotification(String title, String contentText, String reqId) {
 
-        Log.d(TAG, "Display sharing notification with request id : " + reqId);
+        EspLog.d(TAG, () -> "Display sharing notification with request id : " + reqId);
         Intent intent = new Intent(espApp, NotificationsActivity.class);
         intent.addFlags(Intent.FLAG_ACTIVITY_CLEAR_TOP);
         PendingIntent contentIntent = PendingIntent.getActivity(espApp, 0 /* Request code */, intent,
@@ -630,8 +763,8 @@ public class NotificationWorker extends Worker {
         EspApplication espApp = (EspApplication) getApplicationContext();
         String nodeId = jsonEventData.optString(AppConstants.KEY_NODE_ID);
         String msgBody = jsonEventData.optString(AppConstants.KEY_MESSAGE_BODY);
-        Log.d(TAG, "Node Id : " + nodeId);
-        Log.d(TAG, "Message body : " + msgBody);
+        EspLog.d(TAG, () -> "Node Id : " + nodeId);
+        EspLog.d(TAG, () -> "Message body : " + msgBody);
         StringBuilder msgBuilder = new StringBuilder();
         JSONObject payloadJson = null;
 
@@ -643,20 +776,11 @@ public class NotificationWorker extends Worker {
 
         if (payloadJson != null) {
             String alertStr = payloadJson.optString(AppConstants.KEY_ALERT_STRING);
-            Log.e(TAG, "Alert string : " + alertStr);
+            EspLog.d(TAG, () -> "Alert string : " + alertStr);
             if (TextUtils.isEmpty(alertStr)) {
 
-                if (!espApp.nodeMap.containsKey(nodeId)) {
-                    ApiManager.getInstance(espApp).getNodeDetails(nodeId);
-                }
-
-                if (!espApp.nodeMap.containsKey(nodeId)) {
-                    loadDataFromLocalStorage();
-                }
-
-                if (espApp.nodeMap.containsKey(nodeId)) {
+                if (nodeEventApplier.applyParams(nodeId, payloadJson)) {
                     EspNode node = espApp.nodeMap.get(nodeId);
-                    JsonDataParser.setAllParams(espApp, node, payloadJson);
                     ArrayList<Device> devices = node.getDevices();
 
                     if (devices != null) {
@@ -700,7 +824,7 @@ public class NotificationWorker extends Worker {
                                     }
                                 }
                             } else {
-                                Log.e(TAG, "Device JSON is not available");
+                                EspLog.e(TAG, "Device JSON is not available");
                                 msgBuilder.append(espApp.getString(R.string.notify_node_alert));
                             }
                         }
@@ -718,11 +842,9 @@ public class NotificationWorker extends Worker {
         }
 
         notificationEvent.setNotificationMsg(msgBuilder.toString());
-        EspDatabase.getInstance(espApp).getNotificationDao().insertOrUpdate(notificationEvent);
-        Log.d(TAG, "Alert Notification inserted in database");
+        eventsToStore.add(notificationEvent);
         sendAlertNotification(title, msgBuilder.toString(), AppConstants.CHANNEL_ALERT);
-        // Send event for UI update
-        EventBus.getDefault().post(new UpdateEvent(AppConstants.UpdateEventType.EVENT_DEVICE_STATUS_UPDATE));
+        updateEvents.add(AppConstants.UpdateEventType.EVENT_DEVICE_STATUS_UPDATE);
     }
 
     private void sendAlertNotification(String title, String messageBody, String channelId) {
@@ -755,7 +877,7 @@ public class NotificationWorker extends Worker {
 
     private void sendNotification(String title, String messageBody, String channelId) {
 
-        Log.e(TAG, "Message : " + messageBody);
+        EspLog.d(TAG, () -> "Message : " + messageBody);
         Intent activityIntent = new Intent(espApp, SplashActivity.class);
         activityIntent.addFlags(Intent.FLAG_ACTIVITY_CLEAR_TOP | Intent.FLAG_ACTIVITY_SINGLE_TOP);
         PendingIntent contentIntent = PendingIntent.getActivity(espApp,
@@ -782,51 +904,4 @@ public class NotificationWorker extends Worker {
 
         notificationManager.notify(notificationId++, notification);
     }
-
-    private void loadDataFromLocalStorage() {
-
-        EspDatabase espDatabase = EspDatabase.getInstance(getApplicationContext());
-        ArrayList<EspNode> nodeList = (ArrayList<EspNode>) espDatabase.getNodeDao().getNodesFromStorage();
-
-        for (int nodeIndex = 0; nodeIndex < nodeList.size(); nodeIndex++) {
-
-            EspNode node = nodeList.get(nodeIndex);
-
-            if (node != null) {
-
-                String configData = node.getConfigData();
-                String paramData = node.getParamData();
-
-                if (configData != null) {
-                    try {
-                        node = JsonDataParser.setNodeConfig(node, new JSONObject(configData));
-                        if (paramData != null) {
-                            JSONObject paramsJson = new JSONObject(paramData);
-                            JsonDataParser.setAllParams(espApp, node, paramsJson);
-                        } else {
-                            Log.e(TAG, "Param configuration is not available.");
-                        }
-                        espApp.nodeMap.put(node.getNodeId(), node);
-
-                    } catch (JSONException e) {
-                        e.printStackTrace();
-                    }
-                } else {
-                    Log.e(TAG, "Node configuration is not available.");
-                }
-            }
-        }
-
-        if (BuildConfig.isNodeGroupingSupported) {
-            ArrayList<Group> groupList = (ArrayList<Group>) espDatabase.getGroupDao().getGroupsFromStorage();
-            for (int groupIndex = 0; groupIndex < groupList.size(); groupIndex++) {
-
-                Group group = groupList.get(groupIndex);
-                if (group != null) {
-                    espApp.groupMap.put(group.getGroupId(), group);
-                }
-            }
-        }
-        Log.d(TAG, "Node list size from local storage : " + espApp.nodeMap.size());
-    }
 }
@@ -0,0 +1,147 @@
+// Copyright 2021 Espressif Systems (Shanghai) PTE LTD
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.espressif;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import com.espressif.cloudapi.ApiManager;
+import com.espressif.cloudapi.WriteOutbox;
+import com.espressif.db.EspDatabase;
+import com.espressif.db.PendingWriteDao;
+import com.espressif.ui.models.PendingWrite;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.net.HttpURLConnection;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Worker to send writes stored in outbox.
+ * Consecutive param writes of same node are merged and sent in one request.
+ */
+public class OutboxWorker extends Worker {
+
+    private static final String TAG = OutboxWorker.class.getSimpleName();
+
+    public OutboxWorker(@NonNull Context context, @NonNull WorkerParameters workerParams) {
+        super(context, workerParams);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+
+        ApiManager apiManager = ApiManager.getInstance(getApplicationContext());
+        WriteOutbox writeOutbox = WriteOutbox.getInstance(getApplicationContext());
+        PendingWriteDao dao = EspDatabase.getInstance(getApplicationContext()).getPendingWriteDao();
+
+        // Count of direct writes is taken before reading pending writes, to find out direct writes sent after that.
+        HashMap<String, Long> directWriteCounts = writeOutbox.getDirectWriteCounts();
+        List<PendingWrite> writes = dao.getPendingWrites();
+        EspLog.d(TAG, "Pending writes : " + writes.size() + ", Attempt : " + getRunAttemptCount());
+
+        // Writes added while this work is running are sent in the same run.
+        while (!writes.isEmpty()) {
+
+            int index = 0;
+
+            while (index < writes.size()) {
+
+                PendingWrite write = writes.get(index);
+                ArrayList<PendingWrite> batch = new ArrayList<>();
+                JsonObject body = JsonParser.parseString(write.getBody()).getAsJsonObject();
+                batch.add(write);
+                index++;
+
+                if (write.getWriteType() == AppConstants.WRITE_TYPE_PARAM) {
+
+                    while (index < writes.size()) {
+
+                        PendingWrite nextWrite = writes.get(index);
+                        if (nextWrite.getWriteType() != AppConstants.WRITE_TYPE_PARAM
+                                || !nextWrite.getTargetId().equals(write.getTargetId())) {
+                            break;
+                        }
+                        mergeParams(body, JsonParser.parseString(nextWrite.getBody()).getAsJsonObject());
+                        batch.add(nextWrite);
+                        index++;
+                    }
+                }
+
+                String targetId = write.getTargetId();
+
+                synchronized (writeOutbox.getWriteLock(targetId)) {
+
+                    if (write.getWriteType() == AppConstants.WRITE_TYPE_PARAM
+                            && writeOutbox.getDirectWriteCount(targetId) != getCount(directWriteCounts, targetId)) {
+                        // Newer values are sent directly after pending writes were read. Pending writes of the node
+                        // which are not replaced by direct write are read again and sent in next iteration.
+                        EspLog.d(TAG, () -> "Skip pending writes of node, newer values are sent for : " + targetId);
+                        continue;
+                    }
+
+                    int responseCode = apiManager.sendPendingWrite(write.getWriteType(), targetId, body);
+
+                    if (responseCode == -1 || responseCode >= HttpURLConnection.HTTP_INTERNAL_ERROR
+                            || responseCode == HttpURLConnection.HTTP_UNAUTHORIZED
+                            || responseCode == HttpURLConnection.HTTP_FORBIDDEN) {
+                        // Keep remaining writes and try again later. Unauthorized request can succeed after sign in.
+                        EspLog.e(TAG, "Failed to send pending write, response code : " + responseCode);
+                        return Result.retry();
+                    }
+
+                    if (responseCode >= HttpURLConnection.HTTP_BAD_REQUEST) {
+                        EspLog.e(TAG, "Pending write is rejected by cloud, response code : " + responseCode);
+                    }
+                    dao.delete(batch);
+                }
+            }
+            directWriteCounts = writeOutbox.getDirectWriteCounts();
+            writes = dao.getPendingWrites();
+        }
+        return Result.success();
+    }
+
+    private long getCount(HashMap<String, Long> counts, String nodeId) {
+        Long count = counts.get(nodeId);
+        return count == null ? 0 : count;
+    }
+
+    private void mergeParams(JsonObject body, JsonObject newBody) {
+
+        for (Map.Entry<String, JsonElement> deviceEntry : newBody.entrySet()) {
+
+            JsonElement deviceValue = deviceEntry.getValue();
+            JsonElement existingValue = body.get(deviceEntry.getKey());
+
+            if (deviceValue.isJsonObject() && existingValue != null && existingValue.isJsonObject()) {
+                for (Map.Entry<String, JsonElement> paramEntry : deviceValue.getAsJsonObject().entrySet()) {
+                    existingValue.getAsJsonObject().add(paramEntry.getKey(), paramEntry.getValue());
+                }
+            } else {
+                body.add(deviceEntry.getKey(), deviceValue);
+            }
+        }
+    }
+}
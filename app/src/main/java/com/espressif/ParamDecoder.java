@@ -0,0 +1,157 @@
+// Copyright 2021 Espressif Systems (Shanghai) PTE LTD
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.espressif;
+
+import com.espressif.ui.models.Device;
+import com.espressif.ui.models.Param;
+
+import org.json.JSONObject;
+
+/**
+ * Decoder of param value received from cloud / local device.
+ * Decoder is resolved once from ui type, data type and param type of the param (when node config is parsed)
+ * and cached in {@link Param}, so that param values can be decoded without comparing type strings every time.
+ */
+public enum ParamDecoder {
+
+    /**
+     * Integer value used by slider / drop down. Value and label both are set.
+     */
+    INT_VALUE {
+        @Override
+        public void decode(JSONObject json, Device device, Param param) {
+            int value = json.optInt(param.getName());
+            param.setValue(value);
+            param.setNumericLabel(value, true);
+        }
+    },
+
+    /**
+     * Float value used by slider. Value and label both are set.
+     */
+    DOUBLE_VALUE {
+        @Override
+        public void decode(JSONObject json, Device device, Param param) {
+            double value = json.optDouble(param.getName());
+            param.setValue(value);
+            param.setNumericLabel(value, false);
+        }
+    },
+
+    /**
+     * Boolean value used by toggle / trigger.
+     */
+    SWITCH {
+        @Override
+        public void decode(JSONObject json, Device device, Param param) {
+            param.setSwitchStatus(json.optBoolean(param.getName()));
+        }
+    },
+
+    BOOLEAN_LABEL {
+        @Override
+        public void decode(JSONObject json, Device device, Param param) {
+            param.setLabelValue(json.optBoolean(param.getName()) ? "true" : "false");
+        }
+    },
+
+    INT_LABEL {
+        @Override
+        public void decode(JSONObject json, Device device, Param param) {
+            param.setNumericLabel(json.optInt(param.getName()), true);
+        }
+    },
+
+    DOUBLE_LABEL {
+        @Override
+        public void decode(JSONObject json, Device device, Param param) {
+            param.setNumericLabel(json.optDouble(param.getName()), false);
+        }
+    },
+
+    STRING_LABEL {
+        @Override
+        public void decode(JSONObject json, Device device, Param param) {
+            param.setLabelValue(json.optString(param.getName()));
+        }
+    },
+
+    /**
+     * Name param. Its value is also used as user visible name of the device.
+     */
+    NAME {
+        @Override
+        public void decode(JSONObject json, Device device, Param param) {
+            String labelValue = json.optString(param.getName());
+            param.setLabelValue(labelValue);
+            device.setUserVisibleName(labelValue);
+        }
+    };
+
+    public abstract void decode(JSONObject json, Device device, Param param);
+
+    /**
+     * Resolve decoder for given param from its ui type, data type and param type.
+     *
+     * @param param Param object.
+     * @return Decoder of the param value.
+     */
+    public static ParamDecoder forParam(Param param) {
+        return forTypes(param.getUiType(), param.getDataType(), param.getParamType());
+    }
+
+    /**
+     * Resolve decoder from param types.
+     *
+     * @param uiType    UI type of the param.
+     * @param dataType  Data type of the param.
+     * @param paramType Param type.
+     * @return Decoder of the param value.
+     */
+    public static ParamDecoder forTypes(String uiType, String dataType, String paramType) {
+
+        boolean isInt = "int".equalsIgnoreCase(dataType) || "integer".equalsIgnoreCase(dataType);
+        boolean isDouble = "float".equalsIgnoreCase(dataType) || "double".equalsIgnoreCase(dataType);
+
+        if (AppConstants.UI_TYPE_SLIDER.equalsIgnoreCase(uiType) || AppConstants.UI_TYPE_HUE_SLIDER.equalsIgnoreCase(uiType)) {
+
+            if (isInt) {
+                return INT_VALUE;
+            } else if (isDouble) {
+                return DOUBLE_VALUE;
+            }
+            return STRING_LABEL;
+
+        } else if (AppConstants.UI_TYPE_TOGGLE.equalsIgnoreCase(uiType) || AppConstants.UI_TYPE_TRIGGER.equalsIgnoreCase(uiType)) {
+
+            return SWITCH;
+
+        } else if (AppConstants.UI_TYPE_DROP_DOWN.equalsIgnoreCase(uiType)) {
+
+            return isInt ? INT_VALUE : STRING_LABEL;
+        }
+
+        if ("bool".equalsIgnoreCase(dataType) || "boolean".equalsIgnoreCase(dataType)) {
+            return BOOLEAN_LABEL;
+        } else if (isInt) {
+            return INT_LABEL;
+        } else if (isDouble) {
+            return DOUBLE_LABEL;
+        } else if (AppConstants.PARAM_TYPE_NAME.equals(paramType)) {
+            return NAME;
+        }
+        return STRING_LABEL;
+    }
+}
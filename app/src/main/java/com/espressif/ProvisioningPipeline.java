@@ -0,0 +1,512 @@
+// Copyright 2021 Espressif Systems (Shanghai) PTE LTD
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.espressif;
+
+import android.content.Context;
+import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.text.TextUtils;
+
+import com.espressif.cloudapi.ApiManager;
+import com.espressif.cloudapi.ApiResponseListener;
+import com.espressif.ui.models.EspNode;
+import com.espressif.ui.models.Param;
+import com.espressif.ui.models.ProvisioningResult;
+import com.espressif.ui.models.Service;
+import com.espressif.ui.models.UpdateEvent;
+import com.google.gson.JsonObject;
+
+import org.greenrobot.eventbus.EventBus;
+import org.greenrobot.eventbus.Subscribe;
+import org.greenrobot.eventbus.ThreadMode;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.TimeZone;
+
+/**
+ * This class does cloud steps of provisioning (user-node association, its confirmation and node setup)
+ * for provisioned devices.
+ * Radio steps need connection with device, so those are done one device at a time by ProvisionActivity.
+ * Cloud steps of each device run independently here, so that user can provision next device
+ * while previous devices are getting confirmed in cloud.
+ * <p>
+ * {@link AppConstants.UpdateEventType#EVENT_PROVISIONING_UPDATE} event with node id is posted
+ * whenever state of any device changes.
+ */
+public class ProvisioningPipeline {
+
+    private static final String TAG = ProvisioningPipeline.class.getSimpleName();
+
+    private static final long ADD_DEVICE_REQ_TIME = 5000;
+    private static final int ADD_DEVICE_MAX_REQ_COUNT = 7;
+    private static final long NODE_STATUS_REQ_TIME = 35000;
+    private static final long NODE_STATUS_FIRST_REQ_DELAY = 1000;
+    private static final long NODE_STATUS_REQ_INTERVAL = 2000;
+
+    private static ProvisioningPipeline pipeline;
+
+    private final Cloud cloud;
+    private final Scheduler scheduler;
+    private final LinkedHashMap<String, DeviceTask> tasks = new LinkedHashMap<>();
+
+    /**
+     * Cloud calls used by cloud steps. Implemented with ApiManager and node map of the app.
+     */
+    interface Cloud {
+
+        void addNode(String nodeId, String secretKey, ApiResponseListener listener);
+
+        void getNodeDetails(String nodeId, ApiResponseListener listener);
+
+        void getNodeStatus(String nodeId, ApiResponseListener listener);
+
+        void updateParamValue(String nodeId, JsonObject body, ApiResponseListener listener);
+
+        /**
+         * @return Returns node as updated by the calls above, null if node is not available.
+         */
+        EspNode getNode(String nodeId);
+    }
+
+    /**
+     * Schedules delayed steps. Implemented with main thread handler.
+     */
+    interface Scheduler {
+
+        void postDelayed(Runnable runnable, long delayMillis);
+
+        void removeCallbacks(Runnable runnable);
+    }
+
+    public static synchronized ProvisioningPipeline getInstance(Context context) {
+
+        if (pipeline == null) {
+            pipeline = new ProvisioningPipeline(context);
+        }
+        return pipeline;
+    }
+
+    private ProvisioningPipeline(Context context) {
+        this(createCloud((EspApplication) context.getApplicationContext()), createScheduler());
+        EventBus.getDefault().register(this);
+    }
+
+    ProvisioningPipeline(Cloud cloud, Scheduler scheduler) {
+        this.cloud = cloud;
+        this.scheduler = scheduler;
+    }
+
+    private static Cloud createCloud(final EspApplication espApp) {
+
+        final ApiManager apiManager = ApiManager.getInstance(espApp);
+
+        return new Cloud() {
+
+            @Override
+            public void addNode(String nodeId, String secretKey, ApiResponseListener listener) {
+                apiManager.addNode(nodeId, secretKey, listener);
+            }
+
+            @Override
+            public void getNodeDetails(String nodeId, ApiResponseListener listener) {
+                apiManager.getNodeDetails(nodeId, listener);
+            }
+
+            @Override
+            public void getNodeStatus(String nodeId, ApiResponseListener listener) {
+                apiManager.getNodeStatus(nodeId, listener);
+            }
+
+            @Override
+            public void updateParamValue(String nodeId, JsonObject body, ApiResponseListener listener) {
+                apiManager.updateParamValue(nodeId, body, listener);
+            }
+
+            @Override
+            public EspNode getNode(String nodeId) {
+                return espApp.nodeMap.get(nodeId);
+            }
+        };
+    }
+
+    private static Scheduler createScheduler() {
+
+        final Handler handler = new Handler(Looper.getMainLooper());
+
+        return new Scheduler() {
+
+            @Override
+            public void postDelayed(Runnable runnable, long delayMillis) {
+                handler.postDelayed(runnable, delayMillis);
+            }
+
+            @Override
+            public void removeCallbacks(Runnable runnable) {
+                handler.removeCallbacks(runnable);
+            }
+        };
+    }
+
+    /**
+     * Start cloud steps for the device. Radio steps should be completed before calling this method.
+     * This method should be called on main thread.
+     *
+     * @param nodeId              Node id received from device.
+     * @param secretKey           Secret key sent to device for user-node association.
+     * @param deviceName          Name of the device to be displayed in results.
+     * @param isWiFiConfigApplied True if device has confirmed Wi-Fi connection.
+     */
+    public void startCloudSteps(String nodeId, String secretKey, String deviceName, boolean isWiFiConfigApplied) {
+
+        DeviceTask oldTask = tasks.remove(nodeId);
+        if (oldTask != null) {
+            oldTask.cancel();
+        }
+
+        DeviceTask task = new DeviceTask(new ProvisioningResult(nodeId, deviceName, isWiFiConfigApplied), secretKey);
+        tasks.put(nodeId, task);
+        EspLog.d(TAG, () -> "Start cloud steps for node : " + nodeId + ", devices in progress : " + getInProgressCount());
+        task.start();
+    }
+
+    public ProvisioningResult getResult(String nodeId) {
+        DeviceTask task = tasks.get(nodeId);
+        return task == null ? null : task.result;
+    }
+
+    /**
+     * @return Returns results of all devices of this session, in order of provisioning.
+     */
+    public ArrayList<ProvisioningResult> getResults() {
+
+        ArrayList<ProvisioningResult> results = new ArrayList<>();
+        for (DeviceTask task : tasks.values()) {
+            results.add(task.result);
+        }
+        return results;
+    }
+
+    public int getInProgressCount() {
+
+        int count = 0;
+        for (DeviceTask task : tasks.values()) {
+            if (!task.result.isCompleted()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Remove results of devices for which cloud steps are completed.
+     */
+    public void clearCompleted() {
+
+        ArrayList<String> completedNodes = new ArrayList<>();
+        for (DeviceTask task : tasks.values()) {
+            if (task.result.isCompleted()) {
+                completedNodes.add(task.result.getNodeId());
+            }
+        }
+        for (String nodeId : completedNodes) {
+            tasks.remove(nodeId);
+        }
+    }
+
+    /**
+     * Stop all cloud steps and remove results. This is called on logout.
+     */
+    public void clear() {
+
+        for (DeviceTask task : tasks.values()) {
+            task.cancel();
+        }
+        tasks.clear();
+    }
+
+    @Subscribe(threadMode = ThreadMode.MAIN)
+    public void onEvent(UpdateEvent event) {
+
+        switch (event.getEventType()) {
+
+            case EVENT_DEVICE_ADDED:
+            case EVENT_ADD_DEVICE_TIME_OUT:
+                String nodeId = event.getData() != null ? event.getData().getString(AppConstants.KEY_NODE_ID) : null;
+                onAssociationStatus(nodeId, event.getEventType() == AppConstants.UpdateEventType.EVENT_DEVICE_ADDED);
+                break;
+        }
+    }
+
+    /**
+     * @param nodeId  Node id of add node request, null if event is not for specific node.
+     * @param isAdded True if user-node association is confirmed, false if it is timed out.
+     */
+    void onAssociationStatus(String nodeId, boolean isAdded) {
+
+        for (DeviceTask task : new ArrayList<>(tasks.values())) {
+            if (nodeId == null || nodeId.isEmpty() || nodeId.equals(task.result.getNodeId())) {
+                task.onAssociationStatus(isAdded);
+            }
+        }
+    }
+
+    private void postUpdate(ProvisioningResult result) {
+
+        EspLog.d(TAG, () -> "Node : " + result.getNodeId() + ", state : " + result.getState());
+        Bundle data = new Bundle();
+        data.putString(AppConstants.KEY_NODE_ID, result.getNodeId());
+        UpdateEvent updateEvent = new UpdateEvent(AppConstants.UpdateEventType.EVENT_PROVISIONING_UPDATE);
+        updateEvent.setData(data);
+        EventBus.getDefault().post(updateEvent);
+    }
+
+    /**
+     * Cloud steps of one device.
+     */
+    private class DeviceTask {
+
+        private final ProvisioningResult result;
+        private final String secretKey;
+        private int addDeviceReqCount = 0;
+        private boolean isCancelled = false;
+
+        DeviceTask(ProvisioningResult result, String secretKey) {
+            this.result = result;
+            this.secretKey = secretKey;
+        }
+
+        void start() {
+            postUpdate(result);
+            scheduler.postDelayed(addDeviceTask, ADD_DEVICE_REQ_TIME);
+        }
+
+        void cancel() {
+            isCancelled = true;
+            scheduler.removeCallbacks(addDeviceTask);
+            scheduler.removeCallbacks(getNodeStatusTask);
+            scheduler.removeCallbacks(nodeStatusReqFailed);
+        }
+
+        private void setState(ProvisioningResult.State state) {
+            if (isCancelled) {
+                return;
+            }
+            result.setState(state);
+            postUpdate(result);
+        }
+
+        void onAssociationStatus(boolean isAdded) {
+
+            if (result.getState() != ProvisioningResult.State.CONFIRMING) {
+                return;
+            }
+
+            if (isAdded) {
+                setState(ProvisioningResult.State.SETTING_UP);
+                setupNode();
+            } else {
+                setState(ProvisioningResult.State.CONFIRM_FAILED);
+            }
+        }
+
+        private Runnable addDeviceTask = new Runnable() {
+
+            @Override
+            public void run() {
+
+                if (isCancelled) {
+                    return;
+                }
+                addDeviceReqCount++;
+                EspLog.d(TAG, () -> "Add device to cloud, node : " + result.getNodeId() + ", count : " + addDeviceReqCount);
+
+                cloud.addNode(result.getNodeId(), secretKey, new ApiResponseListener() {
+
+                    @Override
+                    public void onSuccess(Bundle data) {
+                        // ApiManager tracks the add node request and sends added or timed out event for it.
+                        setState(ProvisioningResult.State.CONFIRMING);
+                    }
+
+                    @Override
+                    public void onResponseFailure(Exception exception) {
+                        exception.printStackTrace();
+                        onAddDeviceFailed();
+                    }
+
+                    @Override
+                    public void onNetworkFailure(Exception exception) {
+                        exception.printStackTrace();
+                        onAddDeviceFailed();
+                    }
+                });
+            }
+        };
+
+        private void onAddDeviceFailed() {
+
+            if (addDeviceReqCount >= ADD_DEVICE_MAX_REQ_COUNT) {
+                setState(ProvisioningResult.State.ADD_FAILED);
+            } else if (!isCancelled) {
+                scheduler.postDelayed(addDeviceTask, ADD_DEVICE_REQ_TIME);
+            }
+        }
+
+        private void setupNode() {
+
+            scheduler.postDelayed(nodeStatusReqFailed, NODE_STATUS_REQ_TIME);
+
+            cloud.getNodeDetails(result.getNodeId(), new ApiResponseListener() {
+
+                @Override
+                public void onSuccess(Bundle data) {
+                    EspLog.d(TAG, "Get node details - success");
+                    scheduler.postDelayed(getNodeStatusTask, NODE_STATUS_FIRST_REQ_DELAY);
+                }
+
+                @Override
+                public void onResponseFailure(Exception exception) {
+                    EspLog.e(TAG, "Get node details - failure");
+                    scheduler.postDelayed(getNodeStatusTask, NODE_STATUS_FIRST_REQ_DELAY);
+                }
+
+                @Override
+                public void onNetworkFailure(Exception exception) {
+                    EspLog.e(TAG, "Get node details - failure");
+                    scheduler.postDelayed(getNodeStatusTask, NODE_STATUS_FIRST_REQ_DELAY);
+                }
+            });
+        }
+
+        private Runnable getNodeStatusTask = new Runnable() {
+
+            @Override
+            public void run() {
+
+                if (isCancelled || result.getState() != ProvisioningResult.State.SETTING_UP) {
+                    return;
+                }
+
+                cloud.getNodeStatus(result.getNodeId(), new ApiResponseListener() {
+
+                    @Override
+                    public void onSuccess(Bundle data) {
+
+                        EspNode espNode = cloud.getNode(result.getNodeId());
+
+                        if (espNode != null && espNode.isOnline()) {
+                            scheduler.removeCallbacks(nodeStatusReqFailed);
+                            sendTimeZone(espNode);
+                        } else {
+                            retryNodeStatus();
+                        }
+                    }
+
+                    @Override
+                    public void onResponseFailure(Exception exception) {
+                        retryNodeStatus();
+                    }
+
+                    @Override
+                    public void onNetworkFailure(Exception exception) {
+                        retryNodeStatus();
+                    }
+                });
+            }
+        };
+
+        private void retryNodeStatus() {
+            scheduler.removeCallbacks(getNodeStatusTask);
+            scheduler.postDelayed(getNodeStatusTask, NODE_STATUS_REQ_INTERVAL);
+        }
+
+        private Runnable nodeStatusReqFailed = new Runnable() {
+
+            @Override
+            public void run() {
+
+                EspLog.d(TAG, () -> "Stop node status polling for node : " + result.getNodeId() + ". Timeout");
+                scheduler.removeCallbacks(getNodeStatusTask);
+                if (result.getState() == ProvisioningResult.State.SETTING_UP) {
+                    setState(ProvisioningResult.State.DONE_WITH_WARNING);
+                }
+            }
+        };
+
+        private void sendTimeZone(EspNode espNode) {
+
+            String paramName = getTimeZoneParamName(espNode);
+
+            if (paramName == null) {
+                EspLog.e(TAG, "Time zone service is not available");
+                setState(ProvisioningResult.State.DONE);
+                return;
+            }
+
+            EspLog.d(TAG, "Time zone service is available");
+            String timeZoneId = TimeZone.getDefault().getID();
+            EspLog.d(TAG, () -> "Time zone id : " + timeZoneId);
+
+            JsonObject body = new JsonObject();
+            JsonObject jsonParam = new JsonObject();
+            jsonParam.addProperty(paramName, timeZoneId);
+            body.add(AppConstants.KEY_TIME, jsonParam);
+
+            cloud.updateParamValue(espNode.getNodeId(), body, new ApiResponseListener() {
+
+                @Override
+                public void onSuccess(Bundle data) {
+                    setState(ProvisioningResult.State.DONE);
+                }
+
+                @Override
+                public void onResponseFailure(Exception exception) {
+                    EspLog.e(TAG, "Failed to send time zone value");
+                    setState(ProvisioningResult.State.DONE_WITH_WARNING);
+                }
+
+                @Override
+                public void onNetworkFailure(Exception exception) {
+                    EspLog.e(TAG, "Failed to send time zone value");
+                    setState(ProvisioningResult.State.DONE_WITH_WARNING);
+                }
+            });
+        }
+
+        private String getTimeZoneParamName(EspNode espNode) {
+
+            ArrayList<Service> services = espNode.getServices();
+            if (services == null) {
+                return null;
+            }
+
+            for (Service service : services) {
+
+                if (!TextUtils.isEmpty(service.getType()) && service.getType().equals(AppConstants.SERVICE_TYPE_TIME)) {
+
+                    for (Param param : service.getParams()) {
+                        if (AppConstants.PARAM_TYPE_TZ.equals(param.getParamType())) {
+                            return param.getName();
+                        }
+                    }
+                }
+            }
+            return null;
+        }
+    }
+}
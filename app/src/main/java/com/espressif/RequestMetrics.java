@@ -0,0 +1,213 @@
+// Copyright 2021 Espressif Systems (Shanghai) PTE LTD
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.espressif;
+
+import android.os.SystemClock;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class collects metrics of requests sent to cloud and to local devices:
+ * latency histogram, payload sizes and error count of each endpoint, retries of each operation
+ * and number of requests sent on local network and cloud.
+ * <p>
+ * Cloud requests are recorded by an OkHttp interceptor and local requests by transport wrapper.
+ * Report is available as JSON from {@link #getReport()}.
+ */
+public class RequestMetrics {
+
+    // Limit of endpoints to keep memory bounded, other requests are recorded with OTHER_ENDPOINT.
+    private static final int MAX_ENDPOINTS = 100;
+    private static final String OTHER_ENDPOINT = "other";
+
+    public static final String KEY_UPTIME = "uptime_sec";
+    public static final String KEY_ENDPOINTS = "endpoints";
+    public static final String KEY_RETRIES = "retries";
+    public static final String KEY_PATH = "path";
+    public static final String KEY_LOCAL = "local";
+    public static final String KEY_CLOUD = "cloud";
+    public static final String KEY_LOCAL_FALLBACK = "local_fallback";
+    public static final String KEY_COUNT = "count";
+    public static final String KEY_ERRORS = "errors";
+    public static final String KEY_BYTES_SENT = "bytes_sent";
+    public static final String KEY_BYTES_RECEIVED = "bytes_received";
+    public static final String KEY_LATENCY_MS = "latency_ms";
+    public static final String KEY_MIN = "min";
+    public static final String KEY_MEAN = "mean";
+    public static final String KEY_P50 = "p50";
+    public static final String KEY_P90 = "p90";
+    public static final String KEY_P99 = "p99";
+    public static final String KEY_MAX = "max";
+
+    private static RequestMetrics metrics;
+
+    private final TreeMap<String, EndpointStats> endpointStats = new TreeMap<>();
+    private final TreeMap<String, Long> retries = new TreeMap<>();
+    private long localRequestCount, cloudRequestCount, localFallbackCount;
+    private long startTime = SystemClock.elapsedRealtime();
+
+    private static class EndpointStats {
+
+        LatencyHistogram latency = new LatencyHistogram();
+        long errorCount;
+        long bytesSent;
+        long bytesReceived;
+    }
+
+    public static synchronized RequestMetrics getInstance() {
+
+        if (metrics == null) {
+            metrics = new RequestMetrics();
+        }
+        return metrics;
+    }
+
+    private RequestMetrics() {
+    }
+
+    /**
+     * Record completed request.
+     *
+     * @param endpoint      Endpoint name, e.g. "GET /v1/user/nodes".
+     * @param latencyNanos  Time taken by the request.
+     * @param bytesSent     Size of request body. Negative if not known.
+     * @param bytesReceived Size of response body. Negative if not known.
+     * @param isError       True if request failed or error response is received.
+     */
+    public synchronized void recordRequest(String endpoint, long latencyNanos, long bytesSent, long bytesReceived,
+                                           boolean isError) {
+
+        EndpointStats stats = endpointStats.get(endpoint);
+
+        if (stats == null) {
+            if (endpointStats.size() >= MAX_ENDPOINTS) {
+                endpoint = OTHER_ENDPOINT;
+                stats = endpointStats.get(endpoint);
+            }
+            if (stats == null) {
+                stats = new EndpointStats();
+                endpointStats.put(endpoint, stats);
+            }
+        }
+
+        stats.latency.record(TimeUnit.NANOSECONDS.toMicros(latencyNanos));
+        if (isError) {
+            stats.errorCount++;
+        }
+        if (bytesSent > 0) {
+            stats.bytesSent += bytesSent;
+        }
+        if (bytesReceived > 0) {
+            stats.bytesReceived += bytesReceived;
+        }
+    }
+
+    /**
+     * Record retry of an operation (e.g. schedule update, token refresh).
+     */
+    public synchronized void recordRetry(String operation) {
+        Long count = retries.get(operation);
+        retries.put(operation, count == null ? 1 : count + 1);
+    }
+
+    /**
+     * Record whether request is sent on local network or to cloud.
+     */
+    public synchronized void recordPath(boolean isLocal) {
+        if (isLocal) {
+            localRequestCount++;
+        } else {
+            cloudRequestCount++;
+        }
+    }
+
+    /**
+     * Record request which failed on local network and is sent again to cloud.
+     */
+    public synchronized void recordLocalFallback() {
+        localFallbackCount++;
+    }
+
+    /**
+     * @return Returns report of all metrics recorded after app start or last reset.
+     */
+    public synchronized JSONObject getReport() {
+
+        JSONObject report = new JSONObject();
+
+        try {
+            report.put(KEY_UPTIME, TimeUnit.MILLISECONDS.toSeconds(SystemClock.elapsedRealtime() - startTime));
+
+            JSONObject pathJson = new JSONObject();
+            pathJson.put(KEY_LOCAL, localRequestCount);
+            pathJson.put(KEY_CLOUD, cloudRequestCount);
+            pathJson.put(KEY_LOCAL_FALLBACK, localFallbackCount);
+            report.put(KEY_PATH, pathJson);
+
+            JSONObject endpointsJson = new JSONObject();
+            for (Map.Entry<String, EndpointStats> entry : endpointStats.entrySet()) {
+
+                EndpointStats stats = entry.getValue();
+                LatencyHistogram latency = stats.latency;
+
+                JSONObject latencyJson = new JSONObject();
+                latencyJson.put(KEY_MIN, toMillis(latency.getMin()));
+                latencyJson.put(KEY_MEAN, toMillis(latency.getMean()));
+                latencyJson.put(KEY_P50, toMillis(latency.getValueAtPercentile(50)));
+                latencyJson.put(KEY_P90, toMillis(latency.getValueAtPercentile(90)));
+                latencyJson.put(KEY_P99, toMillis(latency.getValueAtPercentile(99)));
+                latencyJson.put(KEY_MAX, toMillis(latency.getMax()));
+
+                JSONObject endpointJson = new JSONObject();
+                endpointJson.put(KEY_COUNT, latency.getCount());
+                endpointJson.put(KEY_ERRORS, stats.errorCount);
+                endpointJson.put(KEY_BYTES_SENT, stats.bytesSent);
+                endpointJson.put(KEY_BYTES_RECEIVED, stats.bytesReceived);
+                endpointJson.put(KEY_LATENCY_MS, latencyJson);
+                endpointsJson.put(entry.getKey(), endpointJson);
+            }
+            report.put(KEY_ENDPOINTS, endpointsJson);
+
+            JSONObject retriesJson = new JSONObject();
+            for (Map.Entry<String, Long> entry : retries.entrySet()) {
+                retriesJson.put(entry.getKey(), entry.getValue());
+            }
+            report.put(KEY_RETRIES, retriesJson);
+
+        } catch (JSONException e) {
+            e.printStackTrace();
+        }
+        return report;
+    }
+
+    public synchronized void reset() {
+        endpointStats.clear();
+        retries.clear();
+        localRequestCount = 0;
+        cloudRequestCount = 0;
+        localFallbackCount = 0;
+        startTime = SystemClock.elapsedRealtime();
+    }
+
+    private static double toMillis(long micros) {
+        return Math.round(micros / 100.0) / 10.0;
+    }
+}
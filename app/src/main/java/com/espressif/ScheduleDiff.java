@@ -0,0 +1,325 @@
+// Copyright 2021 Espressif Systems (Shanghai) PTE LTD
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.espressif;
+
+import com.espressif.ui.models.Device;
+import com.espressif.ui.models.Param;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * This class compares edited schedule with its previous version and prepares schedule requests
+ * only for the nodes which are affected by the change.
+ * <p>
+ * New nodes of the schedule get "add" operation, nodes which are not part of schedule anymore get "remove" operation
+ * and other nodes get "edit" operation only if name, triggers or their actions are changed.
+ * Edit request contains only changed fields.
+ */
+public class ScheduleDiff {
+
+    private final String scheduleId;
+    // Schedule state of each node, as last sent to the node.
+    private final HashMap<String, NodeState> nodeStates = new HashMap<>();
+
+    private static class NodeState {
+
+        String name;
+        int days;
+        int minutes;
+        JsonObject action;
+
+        NodeState(String name, int days, int minutes, JsonObject action) {
+            this.name = name;
+            this.days = days;
+            this.minutes = minutes;
+            this.action = action;
+        }
+    }
+
+    /**
+     * Create diff for existing schedule.
+     *
+     * @param scheduleId  Schedule id.
+     * @param name        Name of the schedule before edit.
+     * @param days        Days trigger value before edit.
+     * @param minutes     Minutes trigger value before edit.
+     * @param nodeActions Actions JSON of each node before edit, received from {@link #getNodeActions(ArrayList)}.
+     */
+    public ScheduleDiff(String scheduleId, String name, int days, int minutes, HashMap<String, JsonObject> nodeActions) {
+
+        this.scheduleId = scheduleId;
+        for (Map.Entry<String, JsonObject> entry : nodeActions.entrySet()) {
+            nodeStates.put(entry.getKey(), new NodeState(name, days, minutes, entry.getValue()));
+        }
+    }
+
+    /**
+     * Create diff for new schedule. All nodes of new schedule get "add" operation.
+     *
+     * @param scheduleId Schedule id.
+     */
+    public ScheduleDiff(String scheduleId) {
+        this(scheduleId, null, -1, -1, new HashMap<String, JsonObject>());
+    }
+
+    /**
+     * Get schedule requests for edited schedule.
+     *
+     * @param newName        Name of the schedule.
+     * @param newDays        Days trigger value.
+     * @param newMinutes     Minutes trigger value.
+     * @param newNodeActions Actions JSON of each node, received from {@link #getNodeActions(ArrayList)}.
+     * @return Map of node id and request body. Nodes which are not affected are not available in map.
+     */
+    public HashMap<String, JsonObject> getUpdateRequests(String newName, int newDays, int newMinutes,
+                                                         HashMap<String, JsonObject> newNodeActions) {
+
+        HashMap<String, JsonObject> requests = new HashMap<>();
+
+        for (Map.Entry<String, JsonObject> entry : newNodeActions.entrySet()) {
+
+            String nodeId = entry.getKey();
+            JsonObject action = entry.getValue();
+            NodeState previousState = nodeStates.get(nodeId);
+            JsonObject scheduleJson = new JsonObject();
+            scheduleJson.addProperty(AppConstants.KEY_ID, scheduleId);
+
+            if (previousState == null) {
+
+                scheduleJson.addProperty(AppConstants.KEY_OPERATION, AppConstants.KEY_OPERATION_ADD);
+                scheduleJson.addProperty(AppConstants.KEY_NAME, newName);
+                scheduleJson.add(AppConstants.KEY_TRIGGERS, createTriggers(newDays, newMinutes));
+                scheduleJson.add(AppConstants.KEY_ACTION, action);
+
+            } else {
+
+                boolean isNameChanged = !equals(previousState.name, newName);
+                boolean isTriggerChanged = previousState.days != newDays || previousState.minutes != newMinutes;
+                boolean isActionChanged = !previousState.action.equals(action);
+
+                if (!isNameChanged && !isTriggerChanged && !isActionChanged) {
+                    continue;
+                }
+
+                scheduleJson.addProperty(AppConstants.KEY_OPERATION, AppConstants.KEY_OPERATION_EDIT);
+                if (isNameChanged) {
+                    scheduleJson.addProperty(AppConstants.KEY_NAME, newName);
+                }
+                if (isTriggerChanged) {
+                    scheduleJson.add(AppConstants.KEY_TRIGGERS, createTriggers(newDays, newMinutes));
+                }
+                if (isActionChanged) {
+                    scheduleJson.add(AppConstants.KEY_ACTION, action);
+                }
+            }
+            requests.put(nodeId, createRequestBody(scheduleJson));
+        }
+
+        // Nodes which don't have any action now.
+        for (String nodeId : nodeStates.keySet()) {
+            if (!newNodeActions.containsKey(nodeId)) {
+                requests.put(nodeId, createRemoveRequest());
+            }
+        }
+        return requests;
+    }
+
+    /**
+     * Update the base state of the nodes to which requests received from
+     * {@link #getUpdateRequests(String, int, int, HashMap)} are sent (or queued) successfully.
+     * Next call of getUpdateRequests prepares requests only for the remaining changes.
+     *
+     * @param updatedNodeIds Nodes for which request is successful.
+     * @param newName        Name of the schedule.
+     * @param newDays        Days trigger value.
+     * @param newMinutes     Minutes trigger value.
+     * @param newNodeActions Actions JSON of each node, same as given to getUpdateRequests.
+     */
+    public void onNodesUpdated(Collection<String> updatedNodeIds, String newName, int newDays, int newMinutes,
+                               HashMap<String, JsonObject> newNodeActions) {
+
+        for (String nodeId : updatedNodeIds) {
+
+            JsonObject action = newNodeActions.get(nodeId);
+            if (action == null) {
+                // Schedule is removed from the node.
+                nodeStates.remove(nodeId);
+            } else {
+                nodeStates.put(nodeId, new NodeState(newName, newDays, newMinutes, action));
+            }
+        }
+    }
+
+    /**
+     * Update the base state of the nodes from which schedule is removed successfully.
+     *
+     * @param removedNodeIds Nodes for which remove request is successful.
+     */
+    public void onNodesRemoved(Collection<String> removedNodeIds) {
+        for (String nodeId : removedNodeIds) {
+            nodeStates.remove(nodeId);
+        }
+    }
+
+    /**
+     * Get requests to remove schedule from all nodes of the schedule.
+     *
+     * @return Map of node id and request body.
+     */
+    public HashMap<String, JsonObject> getRemoveRequests() {
+
+        HashMap<String, JsonObject> requests = new HashMap<>();
+        for (String nodeId : nodeStates.keySet()) {
+            requests.put(nodeId, createRemoveRequest());
+        }
+        return requests;
+    }
+
+    /**
+     * Prepare actions JSON for each node from selected params of the devices.
+     *
+     * @param devices Action devices of the schedule.
+     * @return Map of node id and its actions JSON.
+     */
+    public static HashMap<String, JsonObject> getNodeActions(ArrayList<Device> devices) {
+
+        HashMap<String, JsonObject> nodeJsonActionsMap = new HashMap<>();
+
+        for (int i = 0; i < devices.size(); i++) {
+
+            Device device = devices.get(i);
+            JsonObject actionJsonBody = nodeJsonActionsMap.get(device.getNodeId());
+
+            if (actionJsonBody == null) {
+                actionJsonBody = new JsonObject();
+            }
+            JsonObject jsonParam = new JsonObject();
+            ArrayList<Param> params = device.getParams();
+
+            for (int j = 0; j < params.size(); j++) {
+
+                Param param = params.get(j);
+
+                if (param.isSelected()) {
+
+                    String dataType = param.getDataType();
+
+                    if (AppConstants.UI_TYPE_SLIDER.equalsIgnoreCase(param.getUiType())) {
+
+                        if (dataType.equalsIgnoreCase("int")
+                                || dataType.equalsIgnoreCase("integer")) {
+
+                            int max = param.getMaxBounds();
+                            int min = param.getMinBounds();
+
+                            if ((min < max)) {
+                                int value = (int) param.getValue();
+                                jsonParam.addProperty(param.getName(), value);
+                            } else {
+
+                                int value = Integer.parseInt(param.getLabelValue());
+                                jsonParam.addProperty(param.getName(), value);
+                            }
+                        } else if (dataType.equalsIgnoreCase("float")
+                                || dataType.equalsIgnoreCase("double")) {
+
+                            int max = param.getMaxBounds();
+                            int min = param.getMinBounds();
+
+                            if ((min < max)) {
+                                jsonParam.addProperty(param.getName(), param.getValue());
+                            } else {
+
+                                float value = Float.parseFloat(param.getLabelValue());
+                                jsonParam.addProperty(param.getName(), value);
+                            }
+                        }
+                    } else if (AppConstants.UI_TYPE_TRIGGER.equalsIgnoreCase(param.getUiType())
+                            && (dataType.equalsIgnoreCase("bool")
+                            || dataType.equalsIgnoreCase("boolean"))) {
+
+                        jsonParam.addProperty(param.getName(), true);
+
+                    } else {
+                        if (dataType.equalsIgnoreCase("bool")
+                                || dataType.equalsIgnoreCase("boolean")) {
+
+                            jsonParam.addProperty(param.getName(), param.getSwitchStatus());
+
+                        } else if (dataType.equalsIgnoreCase("int")
+                                || dataType.equalsIgnoreCase("integer")) {
+
+                            int value = (int) param.getValue();
+                            jsonParam.addProperty(param.getName(), value);
+
+                        } else if (dataType.equalsIgnoreCase("float")
+                                || dataType.equalsIgnoreCase("double")) {
+
+                            jsonParam.addProperty(param.getName(), param.getValue());
+
+                        } else if (dataType.equalsIgnoreCase("string")) {
+
+                            jsonParam.addProperty(param.getName(), param.getLabelValue());
+                        }
+                    }
+                }
+            }
+            actionJsonBody.add(device.getDeviceName(), jsonParam);
+            nodeJsonActionsMap.put(device.getNodeId(), actionJsonBody);
+        }
+        return nodeJsonActionsMap;
+    }
+
+    private JsonObject createRemoveRequest() {
+
+        JsonObject scheduleJson = new JsonObject();
+        scheduleJson.addProperty(AppConstants.KEY_ID, scheduleId);
+        scheduleJson.addProperty(AppConstants.KEY_OPERATION, AppConstants.KEY_OPERATION_REMOVE);
+        return createRequestBody(scheduleJson);
+    }
+
+    private static boolean equals(String s1, String s2) {
+        return s1 == null ? s2 == null : s1.equals(s2);
+    }
+
+    private static JsonArray createTriggers(int days, int minutes) {
+
+        JsonObject jsonTrigger = new JsonObject();
+        jsonTrigger.addProperty(AppConstants.KEY_DAYS, days);
+        jsonTrigger.addProperty(AppConstants.KEY_MINUTES, minutes);
+
+        JsonArray triggerArr = new JsonArray();
+        triggerArr.add(jsonTrigger);
+        return triggerArr;
+    }
+
+    private static JsonObject createRequestBody(JsonObject scheduleJson) {
+
+        JsonArray schArr = new JsonArray();
+        schArr.add(scheduleJson);
+
+        JsonObject finalBody = new JsonObject();
+        finalBody.add(AppConstants.KEY_SCHEDULES, schArr);
+
+        JsonObject body = new JsonObject();
+        body.add(AppConstants.KEY_SCHEDULE, finalBody);
+        return body;
+    }
+}
@@ -0,0 +1,224 @@
+// Copyright 2021 Espressif Systems (Shanghai) PTE LTD
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.espressif;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.SystemClock;
+import android.text.TextUtils;
+
+import com.espressif.provisioning.WiFiAccessPoint;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+
+/**
+ * This class keeps Wi-Fi scan results received from devices, per site, so that they can be displayed
+ * immediately for next device provisioned at same site while fresh scan is in progress.
+ * Site is identified by the Wi-Fi network to which phone was connected when provisioning started.
+ * If that network is not known, scan results are not cached.
+ * <p>
+ * It also keeps index of networks for which password is saved and recent signal strength of scanned networks,
+ * which is used to list saved and stronger networks first.
+ */
+public class WiFiScanCache {
+
+    public static final long SCAN_RESULT_TTL = 3 * 60 * 1000;
+    private static final int SIGNAL_HISTORY_SIZE = 5;
+    // SSID reported by WifiManager when phone is not connected or location permission is not granted.
+    private static final String UNKNOWN_SSID = "<unknown ssid>";
+
+    private static WiFiScanCache scanCache;
+
+    private SharedPreferences wifiNetworkPref;
+    private final HashMap<String, ScanEntry> scanEntries = new HashMap<>();
+    private final HashSet<String> savedNetworks = new HashSet<>();
+    // Signal history of networks, per site.
+    private final HashMap<String, HashMap<String, LinkedList<Integer>>> signalHistory = new HashMap<>();
+
+    private static class ScanEntry {
+
+        ArrayList<WiFiAccessPoint> accessPoints;
+        long scanTime;
+    }
+
+    public static synchronized WiFiScanCache getInstance(Context context) {
+
+        if (scanCache == null) {
+            scanCache = new WiFiScanCache(context);
+        }
+        return scanCache;
+    }
+
+    private WiFiScanCache(Context context) {
+        wifiNetworkPref = context.getApplicationContext().getSharedPreferences(AppConstants.PREF_FILE_WIFI_NETWORKS, Context.MODE_PRIVATE);
+        savedNetworks.addAll(wifiNetworkPref.getAll().keySet());
+    }
+
+    /**
+     * Get scan results of the site, if those are not older than {@link #SCAN_RESULT_TTL}.
+     *
+     * @param site SSID of the network to which phone was connected.
+     * @return Returns ranked list of access points or null if results are not available.
+     */
+    public synchronized ArrayList<WiFiAccessPoint> getScanResults(String site) {
+
+        if (!isKnownSite(site)) {
+            return null;
+        }
+
+        ScanEntry entry = scanEntries.get(site);
+
+        if (entry == null) {
+            return null;
+        }
+
+        if (SystemClock.elapsedRealtime() - entry.scanTime > SCAN_RESULT_TTL) {
+            scanEntries.remove(site);
+            return null;
+        }
+        return rank(site, entry.accessPoints);
+    }
+
+    /**
+     * Store scan results received from device and update signal history of networks.
+     * Results are not stored if site is not known.
+     *
+     * @param site         SSID of the network to which phone was connected.
+     * @param accessPoints Access points received from device.
+     * @return Returns ranked list of access points.
+     */
+    public synchronized ArrayList<WiFiAccessPoint> putScanResults(String site, ArrayList<WiFiAccessPoint> accessPoints) {
+
+        if (!isKnownSite(site)) {
+            return rank(site, accessPoints);
+        }
+
+        ScanEntry entry = new ScanEntry();
+        entry.accessPoints = new ArrayList<>(accessPoints);
+        entry.scanTime = SystemClock.elapsedRealtime();
+        scanEntries.put(site, entry);
+
+        HashMap<String, LinkedList<Integer>> siteHistory = signalHistory.get(site);
+        if (siteHistory == null) {
+            siteHistory = new HashMap<>();
+            signalHistory.put(site, siteHistory);
+        }
+
+        for (WiFiAccessPoint accessPoint : accessPoints) {
+
+            if (TextUtils.isEmpty(accessPoint.getWifiName())) {
+                continue;
+            }
+
+            LinkedList<Integer> history = siteHistory.get(accessPoint.getWifiName());
+            if (history == null) {
+                history = new LinkedList<>();
+                siteHistory.put(accessPoint.getWifiName(), history);
+            }
+            history.addLast(accessPoint.getRssi());
+            if (history.size() > SIGNAL_HISTORY_SIZE) {
+                history.removeFirst();
+            }
+        }
+        return rank(site, entry.accessPoints);
+    }
+
+    public synchronized boolean isSaved(String ssid) {
+        return savedNetworks.contains(ssid);
+    }
+
+    public synchronized String getSavedPassword(String ssid) {
+
+        if (!savedNetworks.contains(ssid)) {
+            return null;
+        }
+        return wifiNetworkPref.getString(ssid, "");
+    }
+
+    /**
+     * Save or remove password of the network.
+     *
+     * @param ssid     SSID of the network.
+     * @param password Password to be saved. Null to remove saved password.
+     */
+    public synchronized void setSavedPassword(String ssid, String password) {
+
+        if (TextUtils.isEmpty(ssid)) {
+            return;
+        }
+
+        SharedPreferences.Editor editor = wifiNetworkPref.edit();
+        if (password != null) {
+            editor.putString(ssid, password);
+            savedNetworks.add(ssid);
+        } else {
+            editor.remove(ssid);
+            savedNetworks.remove(ssid);
+        }
+        editor.apply();
+    }
+
+    public synchronized void clearScanResults() {
+        scanEntries.clear();
+        signalHistory.clear();
+    }
+
+    private ArrayList<WiFiAccessPoint> rank(String site, ArrayList<WiFiAccessPoint> accessPoints) {
+
+        final HashMap<String, LinkedList<Integer>> siteHistory = isKnownSite(site) ? signalHistory.get(site) : null;
+        ArrayList<WiFiAccessPoint> rankedList = new ArrayList<>(accessPoints);
+
+        Collections.sort(rankedList, new Comparator<WiFiAccessPoint>() {
+
+            @Override
+            public int compare(WiFiAccessPoint ap1, WiFiAccessPoint ap2) {
+
+                boolean isSaved1 = savedNetworks.contains(ap1.getWifiName());
+                boolean isSaved2 = savedNetworks.contains(ap2.getWifiName());
+
+                if (isSaved1 != isSaved2) {
+                    return isSaved1 ? -1 : 1;
+                }
+                return getAverageRssi(siteHistory, ap2.getWifiName(), ap2.getRssi())
+                        - getAverageRssi(siteHistory, ap1.getWifiName(), ap1.getRssi());
+            }
+        });
+        return rankedList;
+    }
+
+    private int getAverageRssi(HashMap<String, LinkedList<Integer>> siteHistory, String ssid, int rssi) {
+
+        LinkedList<Integer> history = siteHistory == null ? null : siteHistory.get(ssid);
+        if (history == null || history.isEmpty()) {
+            return rssi;
+        }
+
+        int sum = 0;
+        for (int value : history) {
+            sum += value;
+        }
+        return sum / history.size();
+    }
+
+    private boolean isKnownSite(String site) {
+        return !TextUtils.isEmpty(site) && !UNKNOWN_SSID.equals(site);
+    }
+}
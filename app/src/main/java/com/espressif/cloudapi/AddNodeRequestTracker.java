@@ -0,0 +1,146 @@
+// Copyright 2021 Espressif Systems (Shanghai) PTE LTD
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.espressif.cloudapi;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * This class keeps pending add node (user-node mapping) requests and decides when status of each request
+ * should be checked.
+ * <p>
+ * Status of a request is checked with exponential backoff, starting from {@link #INITIAL_CHECK_DELAY}.
+ * All requests which are due at a tick (or are going to be due shortly) are checked together,
+ * so that there is one timer for all pending requests.
+ * Request is completed when status is received from cloud or when node added event is received
+ * in push notification, whichever comes first.
+ */
+class AddNodeRequestTracker {
+
+    private static final long INITIAL_CHECK_DELAY = 2000;
+    private static final double BACKOFF_MULTIPLIER = 1.5;
+    private static final long MAX_CHECK_INTERVAL = 10000;
+    // Requests which are due within this window are checked in the same tick.
+    private static final long TICK_COALESCE_WINDOW = 1000;
+    // Request is considered as timed out if it is not confirmed in this time.
+    private static final long MAX_TRACKING_TIME = 120000;
+
+    /**
+     * Pending add node request.
+     */
+    static class Request {
+
+        final String nodeId;
+        final String requestId;
+        final long startTime;
+        long nextCheckTime;
+        int checkCount;
+
+        Request(String nodeId, String requestId, long now) {
+            this.nodeId = nodeId;
+            this.requestId = requestId;
+            this.startTime = now;
+            this.nextCheckTime = now + INITIAL_CHECK_DELAY;
+        }
+    }
+
+    // Map of node id and request.
+    private final LinkedHashMap<String, Request> requests = new LinkedHashMap<>();
+
+    synchronized void track(String nodeId, String requestId, long now) {
+        requests.put(nodeId, new Request(nodeId, requestId, now));
+    }
+
+    /**
+     * Complete the request of the node.
+     *
+     * @param nodeId Node id.
+     * @return Returns true if request was pending, false if it was already completed.
+     */
+    synchronized boolean complete(String nodeId) {
+        return requests.remove(nodeId) != null;
+    }
+
+    synchronized boolean isPending(String nodeId) {
+        return requests.containsKey(nodeId);
+    }
+
+    /**
+     * Get requests whose status should be checked now. Next check time of returned requests is moved as per backoff.
+     *
+     * @param now Current time (elapsed realtime).
+     * @return Requests to be checked.
+     */
+    synchronized ArrayList<Request> getDueRequests(long now) {
+
+        ArrayList<Request> dueRequests = new ArrayList<>();
+
+        for (Request request : requests.values()) {
+
+            if (request.nextCheckTime <= now + TICK_COALESCE_WINDOW) {
+                request.checkCount++;
+                long interval = (long) Math.min(INITIAL_CHECK_DELAY * Math.pow(BACKOFF_MULTIPLIER, request.checkCount), MAX_CHECK_INTERVAL);
+                request.nextCheckTime = now + interval;
+                dueRequests.add(request);
+            }
+        }
+        return dueRequests;
+    }
+
+    /**
+     * Remove requests which are pending for more than max tracking time.
+     *
+     * @param now Current time (elapsed realtime).
+     * @return Node ids of removed requests.
+     */
+    synchronized ArrayList<String> removeExpired(long now) {
+
+        ArrayList<String> expiredNodeIds = new ArrayList<>();
+        Iterator<Request> itr = requests.values().iterator();
+
+        while (itr.hasNext()) {
+            Request request = itr.next();
+            if (now - request.startTime >= MAX_TRACKING_TIME) {
+                expiredNodeIds.add(request.nodeId);
+                itr.remove();
+            }
+        }
+        return expiredNodeIds;
+    }
+
+    /**
+     * @param now Current time (elapsed realtime).
+     * @return Returns delay for next tick in milliseconds, -1 if there is no pending request.
+     */
+    synchronized long getNextTickDelay(long now) {
+
+        long nextTime = Long.MAX_VALUE;
+
+        for (Request request : requests.values()) {
+            nextTime = Math.min(nextTime, Math.min(request.nextCheckTime, request.startTime + MAX_TRACKING_TIME));
+        }
+
+        if (nextTime == Long.MAX_VALUE) {
+            return -1;
+        }
+        return Math.max(0, nextTime - now);
+    }
+
+    synchronized void clear() {
+        requests.clear();
+    }
+}
@@ -17,10 +17,9 @@ package com.espressif.cloudapi;
 import android.content.Context;
 
 import com.espressif.AppConstants;
+import com.espressif.EspLog;
 import com.espressif.rainmaker.BuildConfig;
 
-import java.util.concurrent.TimeUnit;
-
 import okhttp3.OkHttpClient;
 import okhttp3.logging.HttpLoggingInterceptor;
 import retrofit2.Retrofit;
@@ -32,24 +31,32 @@ import retrofit2.converter.gson.GsonConverterFactory;
  */
 public class AlexaApiClient {
 
+    private static final String TAG = AlexaApiClient.class.getSimpleName();
+
     private static Retrofit alexaApiClient = null;
 
-    static Retrofit getAlexaApiClient(Context context) {
+    static synchronized Retrofit getAlexaApiClient(Context context) {
+
+        if (alexaApiClient != null) {
+            return alexaApiClient;
+        }
 
         OkHttpClient okHttpClient = null;
         AlexaTokenAuthenticator authAuthenticator;
 
-        authAuthenticator = new AlexaTokenAuthenticator(context);
-        HttpLoggingInterceptor logging = new HttpLoggingInterceptor();
-        logging.setLevel(HttpLoggingInterceptor.Level.BODY);
+        authAuthenticator = new AlexaTokenAuthenticator(context.getApplicationContext());
 
-        okHttpClient = new OkHttpClient.Builder()
-                .authenticator(authAuthenticator)
-                .connectTimeout(15, TimeUnit.SECONDS)
-                .writeTimeout(15, TimeUnit.SECONDS)
-                .readTimeout(15, TimeUnit.SECONDS)
-                .addInterceptor(logging)
-                .build();
+        // Derive from shared client to reuse connection pool and dispatcher.
+        OkHttpClient.Builder builder = ApiClient.getBaseHttpClient(context).newBuilder()
+                .authenticator(authAuthenticator);
+
+        if (EspLog.DEBUG) {
+            // Bodies are not logged because they contain Alexa access and refresh tokens.
+            HttpLoggingInterceptor logging = new HttpLoggingInterceptor(message -> EspLog.d(TAG, message));
+            logging.setLevel(HttpLoggingInterceptor.Level.BASIC);
+            builder.addInterceptor(logging);
+        }
+        okHttpClient = builder.build();
 
         alexaApiClient = new Retrofit.Builder()
                 .baseUrl(AppConstants.ALEXA_API_ENDPOINTS_URL + AppConstants.PATH_SEPARATOR)
@@ -16,10 +16,20 @@ package com.espressif.cloudapi;
 
 import android.content.Context;
 import android.content.SharedPreferences;
+import android.os.Handler;
+import android.os.Looper;
 import android.text.TextUtils;
-import android.util.Log;
 
+import androidx.work.Constraints;
+import androidx.work.Data;
+import androidx.work.ExistingWorkPolicy;
+import androidx.work.NetworkType;
+import androidx.work.OneTimeWorkRequest;
+import androidx.work.WorkManager;
+
+import com.espressif.AlexaLinkingWorker;
 import com.espressif.AppConstants;
+import com.espressif.EspLog;
 import com.espressif.rainmaker.BuildConfig;
 import com.google.gson.JsonObject;
 
@@ -28,24 +38,44 @@ import org.json.JSONException;
 import org.json.JSONObject;
 
 import java.io.IOException;
+import java.net.HttpURLConnection;
 import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
 
+import io.reactivex.schedulers.Schedulers;
 import okhttp3.ResponseBody;
 import retrofit2.Call;
 import retrofit2.Callback;
 import retrofit2.Response;
 
+/**
+ * This class is used for Alexa app linking APIs.
+ * <p>
+ * Alexa access token is refreshed by one thread at a time; requests which fail while token is being refreshed
+ * use the new token instead of refreshing it again. Token is also refreshed in background, before it expires.
+ * Account link status is kept in preferences and it is valid till expiry of the access token,
+ * so that UI can be displayed without waiting for the status request.
+ */
 public class AlexaApiManager {
 
     public static final String TAG = AlexaApiManager.class.getSimpleName();
 
+    // Token is refreshed in background this much time before it expires.
+    private static final long TOKEN_REFRESH_MARGIN = 5 * 60 * 1000;
+    // Used if token response does not have expiry time.
+    private static final long DEFAULT_TOKEN_VALIDITY = 60 * 60 * 1000;
+
     private static AlexaApiManager apiManager;
 
     private static String accessToken, refreshToken;
+    private static long tokenExpiryTime;
 
+    private Context context;
+    private Handler handler;
     private AlexaApiInterface apiInterface;
     private SharedPreferences sharedPreferences;
     private ArrayList<String> endpoints = new ArrayList<>();
+    private final Object tokenLock = new Object();
 
     public static AlexaApiManager getInstance(Context context) {
 
@@ -56,10 +86,109 @@ public class AlexaApiManager {
     }
 
     private AlexaApiManager(Context context) {
+        this.context = context.getApplicationContext();
+        handler = new Handler(Looper.getMainLooper());
         apiInterface = AlexaApiClient.getAlexaApiClient(context).create(AlexaApiInterface.class);
         sharedPreferences = context.getSharedPreferences(AppConstants.ESP_PREFERENCES, Context.MODE_PRIVATE);
         accessToken = sharedPreferences.getString(AppConstants.KEY_ALEXA_ACCESS_TOKEN, "");
         refreshToken = sharedPreferences.getString(AppConstants.KEY_ALEXA_REFRESH_TOKEN, "");
+        tokenExpiryTime = sharedPreferences.getLong(AppConstants.KEY_ALEXA_TOKEN_EXPIRY, 0);
+    }
+
+    /**
+     * @return Returns true if access token is available and it is not going to expire in {@link #TOKEN_REFRESH_MARGIN}.
+     */
+    public boolean isTokenValid() {
+        return !TextUtils.isEmpty(accessToken)
+                && System.currentTimeMillis() < tokenExpiryTime - TOKEN_REFRESH_MARGIN;
+    }
+
+    /**
+     * @return Returns true if link status received from Alexa is available and access token is still valid.
+     */
+    public boolean isLinkStatusAvailable() {
+        return sharedPreferences.contains(AppConstants.KEY_ALEXA_LINK_STATUS) && isTokenValid();
+    }
+
+    /**
+     * @return Returns last link status received from Alexa.
+     */
+    public boolean isLinked() {
+        return sharedPreferences.getBoolean(AppConstants.KEY_ALEXA_LINK_STATUS, false);
+    }
+
+    private void setLinkStatus(boolean isLinked) {
+        SharedPreferences.Editor editor = sharedPreferences.edit();
+        editor.putBoolean(AppConstants.KEY_ALEXA_LINK_STATUS, isLinked);
+        editor.apply();
+    }
+
+    /**
+     * Store tokens received from Amazon and schedule background refresh of access token.
+     */
+    private void saveTokens(JSONObject jsonObject) throws JSONException {
+
+        accessToken = jsonObject.getString(AppConstants.KEY_ACCESS_TOKEN);
+        String newRefreshToken = jsonObject.optString(AppConstants.KEY_REFRESH_TOKEN);
+        if (!TextUtils.isEmpty(newRefreshToken)) {
+            refreshToken = newRefreshToken;
+        }
+
+        long expiresIn = jsonObject.optLong(AppConstants.KEY_EXPIRES_IN, 0);
+        tokenExpiryTime = System.currentTimeMillis() + (expiresIn > 0 ? TimeUnit.SECONDS.toMillis(expiresIn) : DEFAULT_TOKEN_VALIDITY);
+
+        SharedPreferences.Editor editor = sharedPreferences.edit();
+        editor.putString(AppConstants.KEY_ALEXA_ACCESS_TOKEN, accessToken);
+        editor.putString(AppConstants.KEY_ALEXA_REFRESH_TOKEN, refreshToken);
+        editor.putLong(AppConstants.KEY_ALEXA_TOKEN_EXPIRY, tokenExpiryTime);
+        editor.apply();
+        scheduleTokenRefresh();
+    }
+
+    /**
+     * Schedule the work to refresh access token (and link status) before token expires.
+     * Refresh is not scheduled if Alexa skill is known to be not linked.
+     */
+    private void scheduleTokenRefresh() {
+
+        if (TextUtils.isEmpty(refreshToken)
+                || (sharedPreferences.contains(AppConstants.KEY_ALEXA_LINK_STATUS) && !isLinked())) {
+            return;
+        }
+
+        long delay = Math.max(0, tokenExpiryTime - TOKEN_REFRESH_MARGIN - System.currentTimeMillis());
+        EspLog.d(TAG, () -> "Schedule Alexa token refresh after " + delay + " ms");
+
+        Constraints constraints = new Constraints.Builder()
+                .setRequiredNetworkType(NetworkType.CONNECTED)
+                .build();
+
+        Data inputData = new Data.Builder()
+                .putString(AppConstants.KEY_EVENT_TYPE, AppConstants.EVENT_REFRESH_TOKEN)
+                .build();
+
+        OneTimeWorkRequest workRequest = new OneTimeWorkRequest.Builder(AlexaLinkingWorker.class)
+                .setInputData(inputData)
+                .setConstraints(constraints)
+                .setInitialDelay(delay, TimeUnit.MILLISECONDS)
+                .build();
+
+        WorkManager.getInstance(context).enqueueUniqueWork(AppConstants.ALEXA_TOKEN_REFRESH_WORK_NAME,
+                ExistingWorkPolicy.REPLACE, workRequest);
+    }
+
+    /**
+     * Remove Alexa tokens and link status. It is used when user logs out.
+     */
+    public void clear() {
+
+        WorkManager.getInstance(context).cancelUniqueWork(AppConstants.ALEXA_TOKEN_REFRESH_WORK_NAME);
+        synchronized (tokenLock) {
+            accessToken = "";
+            refreshToken = "";
+            tokenExpiryTime = 0;
+        }
+        endpoints.clear();
     }
 
     public void getAlexaAccessToken(String redirectUri, String code, ApiResponseListener listener) {
@@ -73,23 +202,19 @@ public class AlexaApiManager {
 
             @Override
             public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
-                Log.d(TAG, "getAccessToken, Response code  : " + response.code());
+                EspLog.d(TAG, () -> "getAccessToken, Response code  : " + response.code());
 
                 try {
                     if (response.isSuccessful()) {
 
                         String jsonResponse = response.body().string();
-                        Log.d(TAG, "getAccessToken, Response : " + jsonResponse);
                         JSONObject jsonObject = new JSONObject(jsonResponse);
-                        accessToken = jsonObject.getString(AppConstants.KEY_ACCESS_TOKEN);
-                        refreshToken = jsonObject.getString(AppConstants.KEY_REFRESH_TOKEN);
-                        SharedPreferences.Editor editor = sharedPreferences.edit();
-                        editor.putString(AppConstants.KEY_ALEXA_ACCESS_TOKEN, accessToken);
-                        editor.putString(AppConstants.KEY_ALEXA_REFRESH_TOKEN, refreshToken);
-                        editor.apply();
+                        // Link status of previous token is not valid for new account.
+                        sharedPreferences.edit().remove(AppConstants.KEY_ALEXA_LINK_STATUS).apply();
+                        saveTokens(jsonObject);
                         listener.onSuccess(null);
                     } else {
-                        Log.e(TAG, "Get alexa access token failed");
+                        EspLog.e(TAG, "Get alexa access token failed");
                         listener.onResponseFailure(new RuntimeException());
                     }
                 } catch (IOException e) {
@@ -115,7 +240,7 @@ public class AlexaApiManager {
 
             @Override
             public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
-                Log.d(TAG, "getApiEndpoints, Response code  : " + response.code());
+                EspLog.d(TAG, () -> "getApiEndpoints, Response code  : " + response.code());
 
                 try {
                     if (response.isSuccessful()) {
@@ -126,11 +251,11 @@ public class AlexaApiManager {
                         for (int i = 0; i < endpointsArray.length(); i++) {
                             endpoints.add(endpointsArray.getString(i));
                         }
-                        Log.d(TAG, "getApiEndpoints, Response : " + jsonResponse);
+                        EspLog.d(TAG, () -> "getApiEndpoints, Response : " + jsonResponse);
                         listener.onSuccess(null);
                     } else {
                         String jsonErrResponse = response.errorBody().string();
-                        Log.e(TAG, "getApiEndpoints, Response : " + jsonErrResponse);
+                        EspLog.e(TAG, "getApiEndpoints, Response : " + jsonErrResponse);
                         listener.onResponseFailure(new RuntimeException("Failed to get endpoints."));
                     }
                 } catch (IOException e) {
@@ -147,48 +272,58 @@ public class AlexaApiManager {
         });
     }
 
-    public boolean getStatus() {
-
-        String header = "Bearer " + accessToken;
-        boolean isLinked = false, areEndpointsReceived = false;
-        Log.e(TAG, "Access token : " + accessToken);
+    /**
+     * Get Alexa API endpoints, if not available. This is a blocking call.
+     *
+     * @return Returns true if endpoints are available.
+     */
+    private boolean ensureEndpoints() {
 
-        if (endpoints.isEmpty()) {
+        if (!endpoints.isEmpty()) {
+            return true;
+        }
 
-            Log.e(TAG, "No endpoints available. Get endpoints...");
+        EspLog.d(TAG, "No endpoints available. Get endpoints...");
+        String header = "Bearer " + accessToken;
 
-            try {
-                Response<ResponseBody> response = apiInterface.getApiEndpoints(AppConstants.ALEXA_API_ENDPOINTS_URL, header).execute();
-                Log.d(TAG, "getApiEndpoints, Response code  : " + response.code());
+        try {
+            Response<ResponseBody> response = apiInterface.getApiEndpoints(AppConstants.ALEXA_API_ENDPOINTS_URL, header).execute();
+            EspLog.d(TAG, () -> "getApiEndpoints, Response code  : " + response.code());
 
-                if (response.isSuccessful()) {
+            if (response.isSuccessful()) {
 
-                    String jsonResponse = response.body().string();
-                    Log.e(TAG, "getApiEndpoints, Response : " + jsonResponse);
-                    endpoints.clear();
-                    JSONObject jsonObject = new JSONObject(jsonResponse);
-                    JSONArray endpointsArray = jsonObject.optJSONArray(AppConstants.KEY_ENDPOINTS);
-                    for (int i = 0; i < endpointsArray.length(); i++) {
-                        endpoints.add(endpointsArray.getString(i));
-                    }
-                    areEndpointsReceived = true;
+                String jsonResponse = response.body().string();
+                EspLog.d(TAG, () -> "getApiEndpoints, Response : " + jsonResponse);
+                endpoints.clear();
+                JSONObject jsonObject = new JSONObject(jsonResponse);
+                JSONArray endpointsArray = jsonObject.optJSONArray(AppConstants.KEY_ENDPOINTS);
+                for (int i = 0; i < endpointsArray.length(); i++) {
+                    endpoints.add(endpointsArray.getString(i));
                 }
-            } catch (IOException | JSONException e) {
-                e.printStackTrace();
+                return true;
             }
-        } else {
-            areEndpointsReceived = true;
+        } catch (IOException | JSONException e) {
+            e.printStackTrace();
         }
+        return false;
+    }
+
+    public boolean getStatus() {
 
-        if (!areEndpointsReceived) {
+        boolean isLinked = false, isStatusReceived = false;
+
+        if (!ensureEndpoints()) {
             return false;
         }
 
+        // Header is created after getting endpoints, as token may be refreshed by that request.
+        String header = "Bearer " + accessToken;
+
         for (int index = 0; index < endpoints.size(); index++) {
 
             String getStatusUrl = "https://" + endpoints.get(index) + "/v1/users/~current/skills/"
                     + BuildConfig.SKILL_ID + "/enablement";
-            Log.e(TAG, "getStatus, url : " + getStatusUrl);
+            EspLog.d(TAG, () -> "getStatus, url : " + getStatusUrl);
 
             try {
                 Response<ResponseBody> response = apiInterface.getStatus(getStatusUrl, header).execute();
@@ -196,7 +331,7 @@ public class AlexaApiManager {
                 if (response.isSuccessful()) {
 
                     String jsonResponse = response.body().string();
-                    Log.d(TAG, "getStatus, Response : " + jsonResponse);
+                    EspLog.d(TAG, () -> "getStatus, Response : " + jsonResponse);
                     JSONObject jsonObject = new JSONObject(jsonResponse);
                     String status = jsonObject.optString(AppConstants.KEY_STATUS);
 
@@ -206,15 +341,19 @@ public class AlexaApiManager {
                     JSONObject accountLinkJson = jsonObject.optJSONObject(AppConstants.KEY_ACCOUNTLINK);
                     String accountLinkStatus = accountLinkJson.optString(AppConstants.KEY_STATUS);
 
-                    Log.e(TAG, "Status : " + status);
-                    Log.e(TAG, "Skill ID : " + skillId);
-                    Log.e(TAG, "Account Link Status : " + accountLinkStatus);
+                    EspLog.d(TAG, () -> "Status : " + status);
+                    EspLog.d(TAG, () -> "Skill ID : " + skillId);
+                    EspLog.d(TAG, () -> "Account Link Status : " + accountLinkStatus);
 
                     if (!TextUtils.isEmpty(accountLinkStatus)
                             && accountLinkStatus.equalsIgnoreCase(AppConstants.KEY_STATUS_LINKED)) {
                         isLinked = true;
                     }
+                    isStatusReceived = true;
                     break;
+                } else if (response.code() == 404) {
+                    // Skill is not enabled for the user.
+                    isStatusReceived = true;
                 }
             } catch (IOException | JSONException e) {
                 e.printStackTrace();
@@ -224,14 +363,23 @@ public class AlexaApiManager {
                 }
             }
         }
+
+        if (isStatusReceived) {
+            setLinkStatus(isLinked);
+        }
         return isLinked;
     }
 
     public boolean enableAlexaSkill(String authCode) {
 
-        String header = "Bearer " + accessToken;
         boolean success = false;
 
+        if (!ensureEndpoints()) {
+            return false;
+        }
+
+        String header = "Bearer " + accessToken;
+
         JsonObject body = new JsonObject();
         body.addProperty(AppConstants.KEY_STAGE, BuildConfig.SKILL_STAGE);
         JsonObject accountLinkReqJson = new JsonObject();
@@ -244,21 +392,23 @@ public class AlexaApiManager {
 
             String url = "https://" + endpoints.get(index) + "/v1/users/~current/skills/"
                     + BuildConfig.SKILL_ID + "/enablement";
-            Log.e(TAG, "enableAlexaSkill, url : " + url);
+            EspLog.d(TAG, () -> "enableAlexaSkill, url : " + url);
 
             try {
                 Response<ResponseBody> response = apiInterface.enableAlexaSkill(url, header, body).execute();
-                Log.e(TAG, "enableAlexaSkill, response code : " + response.code());
+                EspLog.d(TAG, () -> "enableAlexaSkill, response code : " + response.code());
 
                 if (response.isSuccessful()) {
 
                     String jsonResponse = response.body().string();
-                    Log.d(TAG, "enableAlexaSkill, Response : " + jsonResponse);
+                    EspLog.d(TAG, () -> "enableAlexaSkill, Response : " + jsonResponse);
                     success = true;
+                    setLinkStatus(true);
+                    scheduleTokenRefresh();
                     break;
                 } else {
                     String jsonErrResponse = response.errorBody().string();
-                    Log.e(TAG, "Error response : " + jsonErrResponse);
+                    EspLog.e(TAG, "Error response : " + jsonErrResponse);
                 }
             } catch (IOException e) {
                 e.printStackTrace();
@@ -270,21 +420,28 @@ public class AlexaApiManager {
 
     public boolean disableAlexaSkill() {
 
-        String header = "Bearer " + accessToken;
         boolean success = false;
 
+        if (!ensureEndpoints()) {
+            return false;
+        }
+
+        String header = "Bearer " + accessToken;
+
         for (int index = 0; index < endpoints.size(); index++) {
 
             String url = "https://" + endpoints.get(index) + "/v1/users/~current/skills/"
                     + BuildConfig.SKILL_ID + "/enablement";
-            Log.e(TAG, "disableAlexaSkill, url : " + url);
+            EspLog.d(TAG, () -> "disableAlexaSkill, url : " + url);
 
             try {
                 Response<ResponseBody> response = apiInterface.disableAlexaSkill(url, header).execute();
-                Log.d(TAG, "disableAlexaSkill, Response code : " + response.code());
+                EspLog.d(TAG, () -> "disableAlexaSkill, Response code : " + response.code());
 
                 if (response.isSuccessful()) {
                     success = true;
+                    setLinkStatus(false);
+                    WorkManager.getInstance(context).cancelUniqueWork(AppConstants.ALEXA_TOKEN_REFRESH_WORK_NAME);
                     break;
                 }
             } catch (IOException e) {
@@ -294,85 +451,135 @@ public class AlexaApiManager {
         return success;
     }
 
-    public String getNewToken() {
+    /**
+     * Refresh access token. This is a blocking call, used for background refresh before token expires.
+     *
+     * @return Returns true if token is refreshed, false if refresh is rejected (user needs to link again).
+     * @throws IOException If Amazon server is not reachable or it returns server error. Refresh can be retried.
+     */
+    public boolean refreshToken() throws IOException {
 
-        String newAccessToken = "";
-        Log.e(TAG, "Getting new access token for alexa app linking");
+        synchronized (tokenLock) {
+            return !TextUtils.isEmpty(refreshAccessToken());
+        }
+    }
 
-        try {
-            Response<ResponseBody> response = apiInterface.getNewToken(AppConstants.ALEXA_REFRESH_TOKEN_URL,
-                    "application/x-www-form-urlencoded", AppConstants.KEY_REFRESH_TOKEN,
-                    BuildConfig.ALEXA_CLIENT_ID, refreshToken,
-                    BuildConfig.ALEXA_CLIENT_SECRET).execute();
+    /**
+     * Get new access token. This is a blocking call.
+     * Only one refresh request is sent at a time. If token is already refreshed after the given token was used,
+     * new token is returned without sending another request.
+     *
+     * @param failedToken Access token which was rejected. It can be null.
+     * @return Returns new access token or empty string if refresh failed.
+     */
+    public String getNewToken(String failedToken) {
+
+        synchronized (tokenLock) {
+
+            if (failedToken != null && !TextUtils.isEmpty(accessToken) && !accessToken.equals(failedToken)) {
+                EspLog.d(TAG, "Alexa access token is already refreshed");
+                return accessToken;
+            }
 
-            Log.e(TAG, "Get New Token, Response code : " + response.code());
-            if (response.isSuccessful()) {
-                String jsonResponse = response.body().string();
-                Log.e(TAG, "Get New Token, Response : " + jsonResponse);
-                JSONObject jsonObject = new JSONObject(jsonResponse);
-                accessToken = jsonObject.getString(AppConstants.KEY_ACCESS_TOKEN);
-                refreshToken = jsonObject.getString(AppConstants.KEY_REFRESH_TOKEN);
-                SharedPreferences.Editor editor = sharedPreferences.edit();
-                editor.putString(AppConstants.KEY_ALEXA_ACCESS_TOKEN, accessToken);
-                editor.putString(AppConstants.KEY_ALEXA_REFRESH_TOKEN, refreshToken);
-                editor.apply();
+            try {
+                String newAccessToken = refreshAccessToken();
+                return newAccessToken == null ? "" : newAccessToken;
+            } catch (IOException e) {
+                e.printStackTrace();
+                return "";
             }
-        } catch (IOException e) {
-            e.printStackTrace();
-        } catch (JSONException e) {
-            e.printStackTrace();
         }
-        return newAccessToken;
     }
 
-    public void getNewToken(ApiResponseListener listener) {
+    /**
+     * Get valid access token. Request is sent only if token is going to expire.
+     * Listener gets called on main thread.
+     *
+     * @param listener Listener to send success or failure.
+     */
+    public void getNewToken(final ApiResponseListener listener) {
+
+        if (isTokenValid()) {
+            EspLog.d(TAG, "Alexa access token is valid");
+            listener.onSuccess(null);
+            return;
+        }
 
-        Log.e(TAG, "Getting new access token for alexa app linking");
+        Schedulers.io().scheduleDirect(new Runnable() {
 
-        try {
-            apiInterface.getNewToken(AppConstants.ALEXA_REFRESH_TOKEN_URL, "application/x-www-form-urlencoded",
-                    AppConstants.KEY_REFRESH_TOKEN, BuildConfig.ALEXA_CLIENT_ID, refreshToken,
-                    BuildConfig.ALEXA_CLIENT_SECRET).enqueue(new Callback<ResponseBody>() {
+            @Override
+            public void run() {
 
-                @Override
-                public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
-                    Log.e(TAG, "Get new token, Response code  : " + response.code());
+                String newAccessToken = null;
+                Exception networkException = null;
 
+                synchronized (tokenLock) {
                     try {
-                        if (response.isSuccessful()) {
-
-                            String jsonResponse = response.body().string();
-                            Log.d(TAG, "get new AccessToken, Response : " + jsonResponse);
-                            JSONObject jsonObject = new JSONObject(jsonResponse);
-                            accessToken = jsonObject.getString(AppConstants.KEY_ACCESS_TOKEN);
-                            refreshToken = jsonObject.getString(AppConstants.KEY_REFRESH_TOKEN);
-                            SharedPreferences.Editor editor = sharedPreferences.edit();
-                            editor.putString(AppConstants.KEY_ALEXA_ACCESS_TOKEN, accessToken);
-                            editor.putString(AppConstants.KEY_ALEXA_REFRESH_TOKEN, refreshToken);
-                            editor.apply();
-                            listener.onSuccess(null);
-                        } else {
-                            String jsonErrResponse = response.errorBody().string();
-                            Log.e(TAG, "get new AccessToken, Response : " + jsonErrResponse);
-                            listener.onResponseFailure(new RuntimeException("Failed to get token"));
-                        }
+                        // Token may have been refreshed by other request while waiting.
+                        newAccessToken = isTokenValid() ? accessToken : refreshAccessToken();
                     } catch (IOException e) {
                         e.printStackTrace();
-                        listener.onResponseFailure(new RuntimeException("Failed to get token"));
-                    } catch (JSONException e) {
-                        e.printStackTrace();
-                        listener.onResponseFailure(new RuntimeException("Failed to get token"));
+                        networkException = e;
                     }
                 }
 
-                @Override
-                public void onFailure(Call<ResponseBody> call, Throwable t) {
-                    t.printStackTrace();
-                    listener.onNetworkFailure(new RuntimeException(t));
+                final String token = newAccessToken;
+                final Exception exception = networkException;
+
+                handler.post(new Runnable() {
+
+                    @Override
+                    public void run() {
+                        if (exception != null) {
+                            listener.onNetworkFailure(new RuntimeException(exception));
+                        } else if (TextUtils.isEmpty(token)) {
+                            listener.onResponseFailure(new RuntimeException("Failed to get token"));
+                        } else {
+                            listener.onSuccess(null);
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Send refresh token request. It should be called with token lock.
+     *
+     * @return Returns new access token or null if request is rejected.
+     * @throws IOException If Amazon server is not reachable or it returns server error.
+     */
+    private String refreshAccessToken() throws IOException {
+
+        EspLog.d(TAG, "Getting new access token for alexa app linking");
+
+        if (TextUtils.isEmpty(refreshToken)) {
+            return null;
+        }
+
+        Response<ResponseBody> response = apiInterface.getNewToken(AppConstants.ALEXA_REFRESH_TOKEN_URL,
+                "application/x-www-form-urlencoded", AppConstants.KEY_REFRESH_TOKEN,
+                BuildConfig.ALEXA_CLIENT_ID, refreshToken,
+                BuildConfig.ALEXA_CLIENT_SECRET).execute();
+
+        EspLog.d(TAG, () -> "Get New Token, Response code : " + response.code());
+
+        try {
+            if (response.isSuccessful()) {
+                String jsonResponse = response.body().string();
+                saveTokens(new JSONObject(jsonResponse));
+                return accessToken;
+            } else {
+                String jsonErrResponse = response.errorBody().string();
+                EspLog.e(TAG, "Get New Token, Response : " + jsonErrResponse);
+
+                if (response.code() >= HttpURLConnection.HTTP_INTERNAL_ERROR || response.code() == 429) {
+                    throw new IOException("Failed to get new token, response code : " + response.code());
                 }
-            });
-        } catch (Exception e) {
+            }
+        } catch (JSONException e) {
             e.printStackTrace();
         }
+        return null;
     }
 }
@@ -16,9 +16,10 @@ package com.espressif.cloudapi;
 
 import android.content.Context;
 import android.text.TextUtils;
-import android.util.Log;
 
 import com.espressif.AppConstants;
+import com.espressif.EspLog;
+import com.espressif.RequestMetrics;
 
 import okhttp3.Authenticator;
 import okhttp3.Request;
@@ -38,20 +39,31 @@ public class AlexaTokenAuthenticator implements Authenticator {
     @Override
     public Request authenticate(Route route, Response response) {
 
-        Log.d(TAG, "=============== Authenticate callback ===============");
-        Log.d(TAG, "Response code : " + response.code());
-        String newToken = AlexaApiManager.getInstance(context).getNewToken();
+        EspLog.d(TAG, "=============== Authenticate callback ===============");
+        EspLog.d(TAG, () -> "Response code : " + response.code());
+
+        if (response.priorResponse() != null) {
+            // Request is already retried with new token once, do not retry again.
+            EspLog.e(TAG, "Request is rejected again after token refresh");
+            return null;
+        }
+
+        String failedToken = response.request().header(AppConstants.HEADER_AUTHORIZATION);
+        if (failedToken != null && failedToken.startsWith("Bearer ")) {
+            failedToken = failedToken.substring("Bearer ".length());
+        }
+        String newToken = AlexaApiManager.getInstance(context).getNewToken(failedToken);
         String headerValue = "Bearer " + newToken;
 
-        if (!TextUtils.isEmpty(newToken)) {
-            Log.e(TAG, "Retrying with new token");
-            // Add new header to rejected request and retry it
-            return response.request().newBuilder()
-                    .header(AppConstants.HEADER_AUTHORIZATION, headerValue)
-                    .build();
-        } else {
-            // TODO
+        if (TextUtils.isEmpty(newToken)) {
             return null;
         }
+
+        EspLog.d(TAG, "Retrying with new token");
+        RequestMetrics.getInstance().recordRetry("alexa token refresh");
+        // Add new header to rejected request and retry it
+        return response.request().newBuilder()
+                .header(AppConstants.HEADER_AUTHORIZATION, headerValue)
+                .build();
     }
 }
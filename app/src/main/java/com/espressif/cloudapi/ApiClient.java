@@ -20,6 +20,7 @@ import com.espressif.AppConstants;
 import com.espressif.rainmaker.BuildConfig;
 import com.espressif.rainmaker.R;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.security.GeneralSecurityException;
@@ -38,24 +39,97 @@ import javax.net.ssl.TrustManager;
 import javax.net.ssl.TrustManagerFactory;
 import javax.net.ssl.X509TrustManager;
 
+import okhttp3.Cache;
+import okhttp3.ConnectionPool;
+import okhttp3.Interceptor;
 import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
 import retrofit2.Retrofit;
 import retrofit2.adapter.rxjava2.RxJava2CallAdapterFactory;
 import retrofit2.converter.gson.GsonConverterFactory;
 
 /**
  * This class represents Retrofit Client to call REST APIs.
+ * All clients created by the app share a single connection pool, dispatcher and response cache,
+ * so connections (and TLS sessions) to the cloud are reused across API managers.
  */
 public class ApiClient {
 
+    private static final String HTTP_CACHE_DIR = "http_cache";
+    private static final long HTTP_CACHE_SIZE = 10 * 1024 * 1024; // 10 MiB
+    private static final int MAX_IDLE_CONNECTIONS = 5;
+    private static final long KEEP_ALIVE_DURATION = 5; // Minutes
+    private static final int SUPPORTED_VERSIONS_MAX_AGE = 60 * 60; // Seconds
+
+    private static OkHttpClient baseHttpClient = null;
+    private static SSLContext sslContext = null;
     private static Retrofit retrofitClient = null;
 
-    static Retrofit getClient(Context context) {
+    static synchronized Retrofit getClient(Context context) {
+
+        if (retrofitClient != null) {
+            return retrofitClient;
+        }
+
+        OkHttpClient.Builder builder = getBaseHttpClient(context).newBuilder()
+                .authenticator(new TokenAuthenticator(context.getApplicationContext()));
+
+        SSLContext rainMakerSslContext = getSslContext(context);
+        if (rainMakerSslContext != null) {
+            builder.sslSocketFactory(rainMakerSslContext.getSocketFactory(), systemDefaultTrustManager());
+        }
+
+        retrofitClient = new Retrofit.Builder()
+                .baseUrl(BuildConfig.BASE_URL + AppConstants.PATH_SEPARATOR + AppConstants.CURRENT_VERSION + AppConstants.PATH_SEPARATOR)
+                .addConverterFactory(GsonConverterFactory.create())
+                .addCallAdapterFactory(RxJava2CallAdapterFactory.create())
+                .client(builder.build())
+                .build();
+
+        return retrofitClient;
+    }
+
+    /**
+     * Returns process wide OkHttpClient. Clients for individual APIs should be derived from this client
+     * using {@link OkHttpClient#newBuilder()} so that they share connection pool, dispatcher and cache.
+     *
+     * @param context Context.
+     * @return Shared OkHttpClient.
+     */
+    static synchronized OkHttpClient getBaseHttpClient(Context context) {
+
+        if (baseHttpClient == null) {
+
+            File cacheDir = new File(context.getApplicationContext().getCacheDir(), HTTP_CACHE_DIR);
+
+            baseHttpClient = new OkHttpClient.Builder()
+                    .connectionPool(new ConnectionPool(MAX_IDLE_CONNECTIONS, KEEP_ALIVE_DURATION, TimeUnit.MINUTES))
+                    .protocols(Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1))
+                    .cache(new Cache(cacheDir, HTTP_CACHE_SIZE))
+                    .addNetworkInterceptor(new CacheControlInterceptor())
+                    .addNetworkInterceptor(new MetricsInterceptor())
+                    .retryOnConnectionFailure(true)
+                    .connectTimeout(15, TimeUnit.SECONDS)
+                    .writeTimeout(15, TimeUnit.SECONDS)
+                    .readTimeout(15, TimeUnit.SECONDS)
+                    .build();
+        }
+        return baseHttpClient;
+    }
+
+    /**
+     * SSL context is created only once, so TLS sessions cached by it can be resumed for new connections.
+     */
+    private static SSLContext getSslContext(Context context) {
+
+        if (sslContext != null) {
+            return sslContext;
+        }
 
         InputStream cert = null;
         Certificate ca = null;
-        OkHttpClient okHttpClient = null;
-        TokenAuthenticator authAuthenticator;
 
         try {
 
@@ -68,7 +142,9 @@ public class ApiClient {
             e.printStackTrace();
         } finally {
             try {
-                cert.close();
+                if (cert != null) {
+                    cert.close();
+                }
             } catch (IOException e) {
                 e.printStackTrace();
             }
@@ -77,7 +153,6 @@ public class ApiClient {
         // creating a KeyStore containing our trusted CAs
         String keyStoreType = KeyStore.getDefaultType();
         KeyStore keyStore = null;
-        authAuthenticator = new TokenAuthenticator(context);
 
         try {
             keyStore = KeyStore.getInstance(keyStoreType);
@@ -89,18 +164,10 @@ public class ApiClient {
             TrustManagerFactory tmf = TrustManagerFactory.getInstance(tmfAlgorithm);
             tmf.init(keyStore);
 
-            // creating an SSLSocketFactory that uses our TrustManager
-            SSLContext sslContext = SSLContext.getInstance("TLS");
-            sslContext.init(null, tmf.getTrustManagers(), null);
-
-            // creating an OkHttpClient that uses our SSLSocketFactory
-            okHttpClient = new OkHttpClient.Builder()
-                    .authenticator(authAuthenticator)
-                    .sslSocketFactory(sslContext.getSocketFactory(), systemDefaultTrustManager())
-                    .connectTimeout(15, TimeUnit.SECONDS)
-                    .writeTimeout(15, TimeUnit.SECONDS)
-                    .readTimeout(15, TimeUnit.SECONDS)
-                    .build();
+            // creating an SSLContext that uses our TrustManager
+            SSLContext tlsContext = SSLContext.getInstance("TLS");
+            tlsContext.init(null, tmf.getTrustManagers(), null);
+            sslContext = tlsContext;
 
         } catch (KeyStoreException e) {
             e.printStackTrace();
@@ -113,15 +180,7 @@ public class ApiClient {
         } catch (KeyManagementException e) {
             e.printStackTrace();
         }
-
-        retrofitClient = new Retrofit.Builder()
-                .baseUrl(BuildConfig.BASE_URL + AppConstants.PATH_SEPARATOR + AppConstants.CURRENT_VERSION + AppConstants.PATH_SEPARATOR)
-                .addConverterFactory(GsonConverterFactory.create())
-                .addCallAdapterFactory(RxJava2CallAdapterFactory.create())
-                .client(okHttpClient)
-                .build();
-
-        return retrofitClient;
+        return sslContext;
     }
 
     private static X509TrustManager systemDefaultTrustManager() {
@@ -138,4 +197,30 @@ public class ApiClient {
             throw new AssertionError(); // The system has no TLS. Just give up.
         }
     }
+
+    /**
+     * Cloud does not send cache headers for static data like supported API versions.
+     * This interceptor marks such GET responses as cacheable so that they are served from disk cache.
+     */
+    private static class CacheControlInterceptor implements Interceptor {
+
+        @Override
+        public Response intercept(Chain chain) throws IOException {
+
+            Request request = chain.request();
+            Response response = chain.proceed(request);
+
+            if ("GET".equals(request.method())
+                    && response.isSuccessful()
+                    && response.header("Cache-Control") == null
+                    && request.url().toString().startsWith(AppConstants.URL_SUPPORTED_VERSIONS)) {
+
+                return response.newBuilder()
+                        .removeHeader("Pragma")
+                        .header("Cache-Control", "public, max-age=" + SUPPORTED_VERSIONS_MAX_AGE)
+                        .build();
+            }
+            return response;
+        }
+    }
 }
@@ -83,11 +83,13 @@ public interface ApiInterface {
 
     // Get Nodes
     @GET
-    Call<ResponseBody> getNodes(@Url String url, @Header(AppConstants.HEADER_AUTHORIZATION) String token, @Query(AppConstants.KEY_START_ID) String startId);
+    Call<ResponseBody> getNodes(@Url String url, @Header(AppConstants.HEADER_AUTHORIZATION) String token, @Query(AppConstants.KEY_START_ID) String startId,
+                                @Header(AppConstants.HEADER_IF_NONE_MATCH) String eTag);
 
     // Get Node Details
     @GET
-    Call<ResponseBody> getNode(@Url String url, @Header(AppConstants.HEADER_AUTHORIZATION) String token, @Query(AppConstants.KEY_NODE_ID) String nodeId);
+    Call<ResponseBody> getNode(@Url String url, @Header(AppConstants.HEADER_AUTHORIZATION) String token, @Query(AppConstants.KEY_NODE_ID) String nodeId,
+                               @Header(AppConstants.HEADER_IF_NONE_MATCH) String eTag);
 
     // Get Node Status
     @GET
@@ -105,7 +107,8 @@ public interface ApiInterface {
 
     // Get param values
     @GET
-    Call<ResponseBody> getParamValue(@Url String url, @Header(AppConstants.HEADER_AUTHORIZATION) String token, @Query(AppConstants.KEY_NODE_ID) String nodeId);
+    Call<ResponseBody> getParamValue(@Url String url, @Header(AppConstants.HEADER_AUTHORIZATION) String token, @Query(AppConstants.KEY_NODE_ID) String nodeId,
+                                     @Header(AppConstants.HEADER_IF_NONE_MATCH) String eTag);
 
     // Update param value
     @PUT
@@ -184,6 +187,15 @@ public interface ApiInterface {
     Call<ResponseBody> removeSharing(@Url String url, @Header(AppConstants.HEADER_AUTHORIZATION) String token,
                                      @Query(AppConstants.KEY_NODES) String nodes, @Query(AppConstants.KEY_USER_NAME) String userName);
 
+    // Share multiple nodes with the user
+    @PUT
+    Observable<ResponseBody> shareNodesWithUser(@Url String url, @Header(AppConstants.HEADER_AUTHORIZATION) String token, @Body JsonObject body);
+
+    // Remove the sharing of multiple nodes (comma separated node ids)
+    @DELETE
+    Observable<ResponseBody> removeSharingOfNodes(@Url String url, @Header(AppConstants.HEADER_AUTHORIZATION) String token,
+                                                  @Query(AppConstants.KEY_NODES) String nodes, @Query(AppConstants.KEY_USER_NAME) String userName);
+
     @POST
     Call<ResponseBody> registerDeviceToken(@Url String url, @Header(AppConstants.HEADER_AUTHORIZATION) String token,
                                            @Body JsonObject body);
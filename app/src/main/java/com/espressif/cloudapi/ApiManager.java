@@ -19,15 +19,18 @@ import android.content.Context;
 import android.content.SharedPreferences;
 import android.os.Bundle;
 import android.os.Handler;
+import android.os.SystemClock;
 import android.text.TextUtils;
-import android.util.Log;
 
 import com.auth0.android.jwt.Claim;
 import com.auth0.android.jwt.DecodeException;
 import com.auth0.android.jwt.JWT;
 import com.espressif.AppConstants;
 import com.espressif.EspApplication;
+import com.espressif.EspLog;
+import com.espressif.GroupIndex;
 import com.espressif.JsonDataParser;
+import com.espressif.RequestMetrics;
 import com.espressif.db.EspDatabase;
 import com.espressif.rainmaker.BuildConfig;
 import com.espressif.ui.models.Action;
@@ -35,9 +38,7 @@ import com.espressif.ui.models.ApiResponse;
 import com.espressif.ui.models.Device;
 import com.espressif.ui.models.EspNode;
 import com.espressif.ui.models.Group;
-import com.espressif.ui.models.Param;
 import com.espressif.ui.models.Schedule;
-import com.espressif.ui.models.Service;
 import com.espressif.ui.models.SharingRequest;
 import com.espressif.ui.models.UpdateEvent;
 import com.google.gson.JsonArray;
@@ -49,12 +50,21 @@ import org.json.JSONException;
 import org.json.JSONObject;
 
 import java.io.IOException;
+import java.net.HttpURLConnection;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
-import java.util.List;
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import io.reactivex.Observable;
 import io.reactivex.functions.Consumer;
@@ -63,13 +73,18 @@ import io.reactivex.schedulers.Schedulers;
 import okhttp3.ResponseBody;
 import retrofit2.Call;
 import retrofit2.Callback;
+import retrofit2.HttpException;
 import retrofit2.Response;
 
 public class ApiManager {
 
     private static final String TAG = ApiManager.class.getSimpleName();
 
-    private static final int REQ_STATUS_TIME = 5000;
+    private static final int SCHEDULE_UPDATE_CONCURRENCY = 4;
+    private static final int SCHEDULE_UPDATE_MAX_RETRIES = 2;
+    private static final int SCHEDULE_UPDATE_RETRY_DELAY_MS = 500;
+    private static final int SHARING_NODES_PER_REQUEST = 25;
+    private static final int SHARING_UPDATE_CONCURRENCY = 4;
 
     public static boolean isOAuthLogin;
     public static String userId = "";
@@ -77,7 +92,6 @@ public class ApiManager {
     private static String idToken = "";
     private static String accessToken = "";
     private static String refreshToken = "";
-    private static HashMap<String, String> requestIds = new HashMap<>(); // Map of node id and request id.
 
     private Context context;
     private EspApplication espApp;
@@ -85,8 +99,14 @@ public class ApiManager {
     private ApiInterface apiInterface;
     private EspDatabase espDatabase;
     private SharedPreferences sharedPreferences;
-    private static ArrayList<String> nodeIds = new ArrayList<>();
-    private static ArrayList<String> scheduleIds = new ArrayList<>();
+    private ConditionalRequestStore conditionalRequestStore;
+    private AddNodeRequestTracker addNodeRequestTracker = new AddNodeRequestTracker();
+    private NodeWriteQueue nodeWriteQueue;
+    private Random random = new Random();
+    private static HashSet<String> nodeIds = new HashSet<>();
+    private static HashSet<String> scheduleIds = new HashSet<>();
+    private static HashMap<String, Schedule> previousScheduleMap = new HashMap<>();
+    private static boolean isNodeStorageCleared;
 
     private static ApiManager apiManager;
 
@@ -105,12 +125,20 @@ public class ApiManager {
         espDatabase = EspDatabase.getInstance(context);
         apiInterface = ApiClient.getClient(context).create(ApiInterface.class);
         sharedPreferences = context.getSharedPreferences(AppConstants.ESP_PREFERENCES, Context.MODE_PRIVATE);
+        conditionalRequestStore = ConditionalRequestStore.getInstance();
+        nodeWriteQueue = new NodeWriteQueue(new Executor() {
+
+            @Override
+            public void execute(Runnable command) {
+                Schedulers.io().scheduleDirect(command);
+            }
+        });
         getTokenAndUserId();
     }
 
     public void login(final String userName, String password, final ApiResponseListener listener) {
 
-        Log.d(TAG, "Login...");
+        EspLog.d(TAG, "Login...");
         JsonObject body = new JsonObject();
         body.addProperty(AppConstants.KEY_USER_NAME, userName);
         body.addProperty(AppConstants.KEY_PASSWORD, password);
@@ -120,13 +148,12 @@ public class ApiManager {
             @Override
             public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
 
-                Log.d(TAG, "Login, Response code  : " + response.code());
+                EspLog.d(TAG, () -> "Login, Response code  : " + response.code());
 
                 try {
                     if (response.isSuccessful()) {
 
                         String jsonResponse = response.body().string();
-                        Log.d(TAG, " -- Auth Success : response : " + jsonResponse);
                         JSONObject jsonObject = new JSONObject(jsonResponse);
                         idToken = jsonObject.getString("idtoken");
                         accessToken = jsonObject.getString("accesstoken");
@@ -167,7 +194,7 @@ public class ApiManager {
 
     public void getOAuthToken(String code, final ApiResponseListener listener) {
 
-        Log.d(TAG, "Get OAuth Token");
+        EspLog.d(TAG, "Get OAuth Token");
         String url = BuildConfig.TOKEN_URL;
 
         try {
@@ -178,7 +205,7 @@ public class ApiManager {
                 @Override
                 public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
 
-                    Log.d(TAG, "Get OAuth Token, Response code  : " + response.code());
+                    EspLog.d(TAG, () -> "Get OAuth Token, Response code  : " + response.code());
                     try {
                         if (response.isSuccessful()) {
 
@@ -226,7 +253,7 @@ public class ApiManager {
 
     public void createUser(String email, String password, final ApiResponseListener listener) {
 
-        Log.d(TAG, "Create user...");
+        EspLog.d(TAG, "Create user...");
         JsonObject body = new JsonObject();
         body.addProperty(AppConstants.KEY_USER_NAME, email);
         body.addProperty(AppConstants.KEY_PASSWORD, password);
@@ -236,13 +263,13 @@ public class ApiManager {
             @Override
             public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
 
-                Log.d(TAG, "Create user, Response code  : " + response.code());
+                EspLog.d(TAG, () -> "Create user, Response code  : " + response.code());
 
                 try {
                     if (response.isSuccessful()) {
 
                         String jsonResponse = response.body().string();
-                        Log.e(TAG, "Response : " + jsonResponse);
+                        EspLog.d(TAG, () -> "Response : " + jsonResponse);
                         listener.onSuccess(null);
 
                     } else {
@@ -265,7 +292,7 @@ public class ApiManager {
 
     public void confirmUser(String email, String verificationCode, final ApiResponseListener listener) {
 
-        Log.d(TAG, "Confirm user...");
+        EspLog.d(TAG, "Confirm user...");
         JsonObject body = new JsonObject();
         body.addProperty(AppConstants.KEY_USER_NAME, email);
         body.addProperty(AppConstants.KEY_VERIFICATION_CODE, verificationCode);
@@ -275,13 +302,13 @@ public class ApiManager {
             @Override
             public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
 
-                Log.d(TAG, "Confirm user, Response code  : " + response.code());
+                EspLog.d(TAG, () -> "Confirm user, Response code  : " + response.code());
 
                 try {
                     if (response.isSuccessful()) {
 
                         String jsonResponse = response.body().string();
-                        Log.e(TAG, "Response : " + jsonResponse);
+                        EspLog.d(TAG, () -> "Response : " + jsonResponse);
                         listener.onSuccess(null);
 
                     } else {
@@ -304,20 +331,20 @@ public class ApiManager {
 
     public void deleteUserRequest(boolean request, final ApiResponseListener listener) {
 
-        Log.d(TAG, "Delete user request...");
+        EspLog.d(TAG, "Delete user request...");
 
         apiInterface.deleteUserRequest(AppConstants.URL_USER, accessToken, request).enqueue(new Callback<ResponseBody>() {
 
             @Override
             public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
 
-                Log.d(TAG, "Delete user request, Response code  : " + response.code());
+                EspLog.d(TAG, () -> "Delete user request, Response code  : " + response.code());
 
                 try {
                     if (response.isSuccessful()) {
 
                         String jsonResponse = response.body().string();
-                        Log.e(TAG, "Response : " + jsonResponse);
+                        EspLog.d(TAG, () -> "Response : " + jsonResponse);
                         listener.onSuccess(null);
 
                     } else {
@@ -340,20 +367,20 @@ public class ApiManager {
 
     public void deleteUserConfirm(String verificationCode, final ApiResponseListener listener) {
 
-        Log.d(TAG, "Delete user confirm...");
+        EspLog.d(TAG, "Delete user confirm...");
 
         apiInterface.deleteUserConfirm(AppConstants.URL_USER, accessToken, verificationCode).enqueue(new Callback<ResponseBody>() {
 
             @Override
             public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
 
-                Log.d(TAG, "Delete user confirm, Response code  : " + response.code());
+                EspLog.d(TAG, () -> "Delete user confirm, Response code  : " + response.code());
 
                 try {
                     if (response.isSuccessful()) {
 
                         String jsonResponse = response.body().string();
-                        Log.e(TAG, "Response : " + jsonResponse);
+                        EspLog.d(TAG, () -> "Response : " + jsonResponse);
                         listener.onSuccess(null);
 
                     } else {
@@ -376,7 +403,7 @@ public class ApiManager {
 
     public void forgotPassword(String email, final ApiResponseListener listener) {
 
-        Log.d(TAG, "Forgot password...");
+        EspLog.d(TAG, "Forgot password...");
         JsonObject body = new JsonObject();
         body.addProperty(AppConstants.KEY_USER_NAME, email);
 
@@ -385,13 +412,13 @@ public class ApiManager {
             @Override
             public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
 
-                Log.d(TAG, "Forgot password, Response code  : " + response.code());
+                EspLog.d(TAG, () -> "Forgot password, Response code  : " + response.code());
 
                 try {
                     if (response.isSuccessful()) {
 
                         String jsonResponse = response.body().string();
-                        Log.e(TAG, "Response : " + jsonResponse);
+                        EspLog.d(TAG, () -> "Response : " + jsonResponse);
                         listener.onSuccess(null);
 
                     } else {
@@ -414,7 +441,7 @@ public class ApiManager {
 
     public void resetPassword(String email, String newPassword, String verificationCode, final ApiResponseListener listener) {
 
-        Log.d(TAG, "Reset password...");
+        EspLog.d(TAG, "Reset password...");
         JsonObject body = new JsonObject();
         body.addProperty(AppConstants.KEY_USER_NAME, email);
         body.addProperty(AppConstants.KEY_PASSWORD, newPassword);
@@ -425,13 +452,13 @@ public class ApiManager {
             @Override
             public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
 
-                Log.d(TAG, "Reset password, Response code  : " + response.code());
+                EspLog.d(TAG, () -> "Reset password, Response code  : " + response.code());
 
                 try {
                     if (response.isSuccessful()) {
 
                         String jsonResponse = response.body().string();
-                        Log.e(TAG, "Response : " + jsonResponse);
+                        EspLog.d(TAG, () -> "Response : " + jsonResponse);
                         listener.onSuccess(null);
 
                     } else {
@@ -454,7 +481,7 @@ public class ApiManager {
 
     public void changePassword(String oldPassword, String newPassword, final ApiResponseListener listener) {
 
-        Log.d(TAG, "Change password...");
+        EspLog.d(TAG, "Change password...");
         JsonObject body = new JsonObject();
         body.addProperty(AppConstants.KEY_PASSWORD, oldPassword);
         body.addProperty(AppConstants.KEY_NEW_PASSWORD, newPassword);
@@ -464,13 +491,13 @@ public class ApiManager {
             @Override
             public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
 
-                Log.d(TAG, "Change password, Response code  : " + response.code());
+                EspLog.d(TAG, () -> "Change password, Response code  : " + response.code());
 
                 try {
                     if (response.isSuccessful()) {
 
                         String jsonResponse = response.body().string();
-                        Log.e(TAG, "Response : " + jsonResponse);
+                        EspLog.d(TAG, () -> "Response : " + jsonResponse);
                         listener.onSuccess(null);
 
                     } else {
@@ -529,14 +556,14 @@ public class ApiManager {
                 e.printStackTrace();
             }
             Date expiresAt = jwt.getExpiresAt();
-            Log.e(TAG, "==============>>>>>>>>>>> USER ID : " + userId);
-            Log.e(TAG, "Token expires At : " + expiresAt);
+            EspLog.d(TAG, () -> "==============>>>>>>>>>>> USER ID : " + userId);
+            EspLog.d(TAG, () -> "Token expires At : " + expiresAt);
         }
     }
 
     public String getNewToken() {
         String newAccToken = "";
-        Log.d(TAG, "Getting new access token ");
+        EspLog.d(TAG, "Getting new access token ");
         if (isOAuthLogin) {
             newAccToken = getNewTokenForOAuthUser();
         } else {
@@ -547,8 +574,8 @@ public class ApiManager {
 
     public String getNewTokenForCognitoUser() {
 
-        Log.d(TAG, "Get New Token For Cognito user");
-        Log.d(TAG, "Login...");
+        EspLog.d(TAG, "Get New Token For Cognito user");
+        EspLog.d(TAG, "Login...");
         JsonObject body = new JsonObject();
         body.addProperty(AppConstants.KEY_USER_NAME, userName);
         body.addProperty("refreshtoken", refreshToken);
@@ -559,7 +586,6 @@ public class ApiManager {
             if (response.isSuccessful()) {
 
                 String jsonResponse = response.body().string();
-                Log.d(TAG, " -- Auth Success : response : " + jsonResponse);
                 JSONObject jsonObject = null;
 
                 try {
@@ -593,7 +619,7 @@ public class ApiManager {
 
     public String getNewTokenForOAuthUser() {
 
-        Log.d(TAG, "Get New Token For OAuth User");
+        EspLog.d(TAG, "Get New Token For OAuth User");
         HashMap<String, String> body = new HashMap<>();
         body.put("user_name", userId);
         body.put("refreshtoken", refreshToken);
@@ -604,7 +630,6 @@ public class ApiManager {
             if (response.isSuccessful()) {
                 ResponseBody responseBody = response.body();
                 String jsonResponse = responseBody.string();
-                Log.e(TAG, "Response Body : " + jsonResponse);
                 JSONObject jsonObject = null;
                 try {
                     jsonObject = new JSONObject(jsonResponse);
@@ -634,19 +659,19 @@ public class ApiManager {
 
     public void logout(final ApiResponseListener listener) {
 
-        Log.d(TAG, "Logout...");
+        EspLog.d(TAG, "Logout...");
         apiInterface.logout(AppConstants.URL_LOGOUT).enqueue(new Callback<ResponseBody>() {
 
             @Override
             public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
 
-                Log.d(TAG, "Logout, Response code  : " + response.code());
+                EspLog.d(TAG, () -> "Logout, Response code  : " + response.code());
 
                 try {
                     if (response.isSuccessful()) {
 
                         String jsonResponse = response.body().string();
-                        Log.d(TAG, "Response : " + jsonResponse);
+                        EspLog.d(TAG, () -> "Response : " + jsonResponse);
                         listener.onSuccess(null);
                     } else {
                         String jsonErrResponse = response.errorBody().string();
@@ -673,7 +698,7 @@ public class ApiManager {
      */
     public void getSupportedVersions(final ApiResponseListener listener) {
 
-        Log.d(TAG, "Get Supported Versions");
+        EspLog.d(TAG, "Get Supported Versions");
 
         apiInterface.getSupportedVersions(AppConstants.URL_SUPPORTED_VERSIONS)
 
@@ -682,7 +707,7 @@ public class ApiManager {
                     @Override
                     public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
 
-                        Log.d(TAG, "Get Supported Versions, Response code  : " + response.code());
+                        EspLog.d(TAG, () -> "Get Supported Versions, Response code  : " + response.code());
 
                         try {
 
@@ -691,7 +716,7 @@ public class ApiManager {
                                 if (response.body() != null) {
 
                                     String jsonResponse = response.body().string();
-                                    Log.e(TAG, "onResponse Success : " + jsonResponse);
+                                    EspLog.d(TAG, () -> "onResponse Success : " + jsonResponse);
                                     JSONObject jsonObject = new JSONObject(jsonResponse);
                                     JSONArray jsonArray = jsonObject.optJSONArray(AppConstants.KEY_SUPPORTED_VERSIONS);
                                     ArrayList<String> supportedVersions = new ArrayList<>();
@@ -699,7 +724,7 @@ public class ApiManager {
                                     for (int i = 0; i < jsonArray.length(); i++) {
 
                                         String version = jsonArray.optString(i);
-                                        Log.d(TAG, "Supported Version : " + version);
+                                        EspLog.d(TAG, () -> "Supported Version : " + version);
                                         supportedVersions.add(version);
                                     }
 
@@ -710,7 +735,7 @@ public class ApiManager {
                                     listener.onSuccess(bundle);
 
                                 } else {
-                                    Log.e(TAG, "Response received : null");
+                                    EspLog.e(TAG, "Response received : null");
                                     listener.onResponseFailure(new RuntimeException("Failed to get Supported Versions"));
                                 }
 
@@ -729,7 +754,7 @@ public class ApiManager {
 
                     @Override
                     public void onFailure(Call<ResponseBody> call, Throwable t) {
-                        Log.e(TAG, "Error in receiving Supported Versions");
+                        EspLog.e(TAG, "Error in receiving Supported Versions");
                         t.printStackTrace();
                         listener.onNetworkFailure(new Exception(t));
                     }
@@ -743,352 +768,100 @@ public class ApiManager {
      */
     public void getNodes(final ApiResponseListener listener) {
 
-        Log.d(TAG, "Get Nodes");
+        EspLog.d(TAG, "Get Nodes");
         nodeIds.clear();
         scheduleIds.clear();
+        isNodeStorageCleared = false;
+        previousScheduleMap = espApp.scheduleMap != null ? espApp.scheduleMap : new HashMap<String, Schedule>();
         getNodesFromCloud("", listener);
     }
 
     private void getNodesFromCloud(final String startId, final ApiResponseListener listener) {
 
-        Log.d(TAG, "Get Nodes from cloud with start id : " + startId);
-        apiInterface.getNodes(AppConstants.URL_USER_NODES_DETAILS, accessToken, startId).enqueue(new Callback<ResponseBody>() {
+        EspLog.d(TAG, () -> "Get Nodes from cloud with start id : " + startId);
+        final String cacheKey = ConditionalRequestStore.keyForNodesPage(startId);
+        String eTag = canRestoreNodesPage(cacheKey) ? conditionalRequestStore.getETag(cacheKey) : null;
+
+        apiInterface.getNodes(AppConstants.URL_USER_NODES_DETAILS, accessToken, startId, eTag).enqueue(new Callback<ResponseBody>() {
 
             @Override
             public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
 
-                Log.d(TAG, "Get Nodes, Response code : " + response.code());
+                EspLog.d(TAG, () -> "Get Nodes, Response code : " + response.code());
 
                 try {
 
-                    if (response.isSuccessful()) {
+                    if (response.code() == HttpURLConnection.HTTP_NOT_MODIFIED) {
+
+                        EspLog.d(TAG, () -> "Nodes are not modified for start id : " + startId);
+                        if (canRestoreNodesPage(cacheKey)) {
+                            restoreNodesPage(startId, conditionalRequestStore.get(cacheKey), listener);
+                        } else {
+                            // Nodes of this page are removed meanwhile, get complete page again.
+                            conditionalRequestStore.remove(cacheKey);
+                            getNodesFromCloud(startId, listener);
+                        }
+
+                    } else if (response.isSuccessful()) {
 
                         if (response.body() != null) {
 
+                            String jsonResponse = response.body().string();
+                            byte[] contentHash = ConditionalRequestStore.hash(jsonResponse);
+
+                            if (conditionalRequestStore.isUnchanged(cacheKey, contentHash) && canRestoreNodesPage(cacheKey)) {
+
+                                EspLog.d(TAG, () -> "Nodes are not changed for start id : " + startId);
+                                conditionalRequestStore.update(cacheKey, response.headers().get(AppConstants.HEADER_ETAG), contentHash);
+                                restoreNodesPage(startId, conditionalRequestStore.get(cacheKey), listener);
+                                return;
+                            }
+
                             if (TextUtils.isEmpty(startId)) {
                                 espDatabase.getNodeDao().deleteAll();
-                                Log.d(TAG, "Delete all nodes from local storage.");
+                                isNodeStorageCleared = true;
+                                EspLog.d(TAG, "Delete all nodes from local storage.");
                             }
 
-                            String jsonResponse = response.body().string();
-                            Log.e(TAG, "onResponse Success : " + jsonResponse);
                             JSONObject jsonObject = new JSONObject(jsonResponse);
                             JSONArray nodeJsonArray = jsonObject.optJSONArray(AppConstants.KEY_NODE_DETAILS);
-                            HashMap<String, Schedule> scheduleMap = new HashMap<>();
+                            HashMap<String, Schedule> scheduleMap = getScheduleMapForPage(startId);
+                            ArrayList<String> pageNodeIds = new ArrayList<>();
+                            ArrayList<String> pageScheduleKeys = new ArrayList<>();
 
                             if (nodeJsonArray != null) {
 
-                                for (int nodeIndex = 0; nodeIndex < nodeJsonArray.length(); nodeIndex++) {
-
-                                    JSONObject nodeJson = nodeJsonArray.optJSONObject(nodeIndex);
-
-                                    if (nodeJson != null) {
-
-                                        // Node ID
-                                        String nodeId = nodeJson.optString(AppConstants.KEY_ID);
-                                        Log.d(TAG, "Node id : " + nodeId);
-                                        nodeIds.add(nodeId);
-                                        EspNode espNode;
-
-                                        if (espApp.nodeMap.get(nodeId) != null) {
-                                            espNode = espApp.nodeMap.get(nodeId);
-                                        } else {
-                                            espNode = new EspNode(nodeId);
-                                        }
-
-                                        // User role
-                                        String role = nodeJson.optString(AppConstants.KEY_ROLE);
-                                        espNode.setUserRole(role);
-
-                                        // Node Config
-                                        JSONObject configJson = nodeJson.optJSONObject(AppConstants.KEY_CONFIG);
-                                        if (configJson != null) {
-
-                                            // If node is available on local network then ignore configuration received from cloud.
-                                            if (!espApp.localDeviceMap.containsKey(nodeId)) {
-                                                espNode = JsonDataParser.setNodeConfig(espNode, configJson);
-                                            } else {
-                                                Log.d(TAG, "Ignore config values for local node :" + nodeId);
-                                            }
-
-                                            espNode.setOnline(true);
-                                            espNode.setConfigData(configJson.toString());
-                                            espApp.nodeMap.put(nodeId, espNode);
-                                        }
-
-                                        // Node Params values
-                                        JSONObject paramsJson = nodeJson.optJSONObject(AppConstants.KEY_PARAMS);
-                                        if (paramsJson != null) {
-
-                                            espNode.setParamData(paramsJson.toString());
-                                            espDatabase.getNodeDao().insertOrUpdate(espNode);
-
-                                            ArrayList<Device> devices = espNode.getDevices();
-                                            ArrayList<Service> services = espNode.getServices();
-                                            JSONObject scheduleJson = paramsJson.optJSONObject(AppConstants.KEY_SCHEDULE);
-                                            JSONObject timeJson = paramsJson.optJSONObject(AppConstants.KEY_TIME);
-                                            JSONObject localControlJson = paramsJson.optJSONObject(AppConstants.KEY_LOCAL_CONTROL);
-
-                                            // If node is available on local network then ignore param values received from cloud.
-                                            if (!espApp.localDeviceMap.containsKey(nodeId) && devices != null) {
-
-                                                for (int i = 0; i < devices.size(); i++) {
-
-                                                    ArrayList<Param> params = devices.get(i).getParams();
-                                                    String deviceName = devices.get(i).getDeviceName();
-                                                    JSONObject deviceJson = paramsJson.optJSONObject(deviceName);
-
-                                                    if (deviceJson != null) {
-
-                                                        for (int j = 0; j < params.size(); j++) {
-
-                                                            Param param = params.get(j);
-                                                            String key = param.getName();
-
-                                                            if (!param.isDynamicParam()) {
-                                                                continue;
-                                                            }
-
-                                                            if (deviceJson.has(key)) {
-                                                                JsonDataParser.setDeviceParamValue(deviceJson, devices.get(i), param);
-                                                            }
-                                                        }
-                                                    } else {
-                                                        Log.e(TAG, "Device JSON is null");
-                                                    }
-                                                }
-                                            } else {
-                                                Log.d(TAG, "Ignore param values for local node :" + nodeId);
-                                            }
-
-                                            // Schedules
-                                            if (scheduleJson != null) {
-
-                                                JSONArray scheduleArrayJson = scheduleJson.optJSONArray(AppConstants.KEY_SCHEDULES);
-
-                                                if (scheduleArrayJson != null) {
-
-                                                    for (int index = 0; index < scheduleArrayJson.length(); index++) {
-
-                                                        JSONObject schJson = scheduleArrayJson.getJSONObject(index);
-                                                        String scheduleId = schJson.optString(AppConstants.KEY_ID);
-                                                        String key = scheduleId;
-
-                                                        if (!TextUtils.isEmpty(scheduleId)) {
-
-                                                            String name = schJson.optString(AppConstants.KEY_NAME);
-                                                            key = key + "_" + name + "_" + schJson.optBoolean(AppConstants.KEY_ENABLED);
-
-                                                            HashMap<String, Integer> triggers = new HashMap<>();
-                                                            JSONArray triggerArray = schJson.optJSONArray(AppConstants.KEY_TRIGGERS);
-                                                            for (int t = 0; t < triggerArray.length(); t++) {
-                                                                JSONObject triggerJson = triggerArray.optJSONObject(t);
-                                                                int days = triggerJson.optInt(AppConstants.KEY_DAYS);
-                                                                int mins = triggerJson.optInt(AppConstants.KEY_MINUTES);
-                                                                triggers.put(AppConstants.KEY_DAYS, days);
-                                                                triggers.put(AppConstants.KEY_MINUTES, mins);
-                                                                key = key + "_" + days + "_" + mins;
-                                                            }
-
-                                                            Schedule schedule = scheduleMap.get(key);
-                                                            if (schedule == null) {
-                                                                schedule = new Schedule();
-                                                            }
-
-                                                            schedule.setId(scheduleId);
-                                                            schedule.setName(schJson.optString(AppConstants.KEY_NAME));
-                                                            schedule.setEnabled(schJson.optBoolean(AppConstants.KEY_ENABLED));
-
-                                                            scheduleIds.add(key);
-                                                            schedule.setTriggers(triggers);
-                                                            Log.d(TAG, "=============== Schedule : " + schedule.getName() + " ===============");
-
-                                                            // Actions
-                                                            JSONObject actionsSchJson = schJson.optJSONObject(AppConstants.KEY_ACTION);
-
-                                                            if (actionsSchJson != null) {
-
-                                                                ArrayList<Action> actions = schedule.getActions();
-                                                                if (actions == null) {
-                                                                    actions = new ArrayList<>();
-                                                                    schedule.setActions(actions);
-                                                                }
-
-                                                                for (int deviceIndex = 0; deviceIndex < devices.size(); deviceIndex++) {
-
-                                                                    Device d = new Device(devices.get(deviceIndex));
-                                                                    ArrayList<Param> params = d.getParams();
-                                                                    String deviceName = d.getDeviceName();
-                                                                    JSONObject deviceAction = actionsSchJson.optJSONObject(deviceName);
-
-                                                                    if (deviceAction != null) {
-
-                                                                        Action action = null;
-                                                                        Device actionDevice = null;
-                                                                        int actionIndex = -1;
-
-                                                                        for (int aIndex = 0; aIndex < actions.size(); aIndex++) {
-
-                                                                            Action a = actions.get(aIndex);
-                                                                            if (a.getDevice().getNodeId().equals(nodeId) && deviceName.equals(a.getDevice().getDeviceName())) {
-                                                                                action = actions.get(aIndex);
-                                                                                actionIndex = aIndex;
-                                                                            }
-                                                                        }
-
-                                                                        if (action == null) {
-                                                                            action = new Action();
-                                                                            action.setNodeId(nodeId);
-
-                                                                            for (int k = 0; k < devices.size(); k++) {
-
-                                                                                if (devices.get(k).getNodeId().equals(nodeId) && devices.get(k).getDeviceName().equals(deviceName)) {
-                                                                                    actionDevice = new Device(devices.get(k));
-                                                                                    actionDevice.setSelectedState(1);
-                                                                                    break;
-                                                                                }
-                                                                            }
-
-                                                                            if (actionDevice == null) {
-                                                                                actionDevice = new Device(nodeId);
-                                                                            }
-                                                                            action.setDevice(actionDevice);
-                                                                        } else {
-                                                                            actionDevice = action.getDevice();
-                                                                        }
-
-                                                                        ArrayList<Param> actionParams = new ArrayList<>();
-                                                                        if (params != null) {
-
-                                                                            Iterator<Param> iterator = params.iterator();
-                                                                            while (iterator.hasNext()) {
-                                                                                Param p = iterator.next();
-                                                                                actionParams.add(new Param(p));
-                                                                            }
-
-                                                                            Iterator itr = actionParams.iterator();
-
-                                                                            while (itr.hasNext()) {
-
-                                                                                Param p = (Param) itr.next();
-
-                                                                                if (!p.isDynamicParam()) {
-                                                                                    itr.remove();
-                                                                                } else if (p.getParamType() != null && p.getParamType().equals(AppConstants.PARAM_TYPE_NAME)) {
-                                                                                    itr.remove();
-                                                                                } else if (!p.getProperties().contains(AppConstants.KEY_PROPERTY_WRITE)) {
-                                                                                    itr.remove();
-                                                                                }
-                                                                            }
-                                                                        }
-                                                                        actionDevice.setParams(actionParams);
-
-                                                                        for (int paramIndex = 0; paramIndex < actionParams.size(); paramIndex++) {
-
-                                                                            Param p = actionParams.get(paramIndex);
-                                                                            String paramName = p.getName();
-
-                                                                            if (deviceAction.has(paramName)) {
-
-                                                                                p.setSelected(true);
-                                                                                JsonDataParser.setDeviceParamValue(deviceAction, devices.get(deviceIndex), p);
-                                                                            }
-                                                                        }
-
-                                                                        for (int paramIndex = 0; paramIndex < actionParams.size(); paramIndex++) {
-
-                                                                            if (!actionParams.get(paramIndex).isSelected()) {
-                                                                                actionDevice.setSelectedState(2); // Partially selected
-                                                                            }
-                                                                        }
-
-                                                                        if (actionIndex == -1) {
-                                                                            actions.add(action);
-                                                                        } else {
-                                                                            actions.set(actionIndex, action);
-                                                                        }
-                                                                        schedule.setActions(actions);
-
-                                                                    }
-                                                                }
-                                                            }
-                                                            scheduleMap.put(key, schedule);
-                                                        }
-                                                    }
-                                                }
-                                            } else {
-                                                Log.e(TAG, "Schedule JSON is null");
-                                            }
-
-                                            // Timezone
-                                            if (timeJson != null && services != null) {
-                                                for (int serviceIdx = 0; serviceIdx < services.size(); serviceIdx++) {
-                                                    Service service = services.get(serviceIdx);
-                                                    if (AppConstants.SERVICE_TYPE_TIME.equals(service.getType())) {
-                                                        ArrayList<Param> timeParams = service.getParams();
-                                                        if (timeParams != null) {
-                                                            for (int paramIdx = 0; paramIdx < timeParams.size(); paramIdx++) {
-                                                                Param timeParam = timeParams.get(paramIdx);
-                                                                String dataType = timeParam.getDataType();
-                                                                if (!TextUtils.isEmpty(dataType)) {
-                                                                    if (dataType.equalsIgnoreCase("string")) {
-                                                                        timeParam.setLabelValue(timeJson.optString(timeParam.getName()));
-                                                                    }
-                                                                }
-                                                            }
-                                                        }
-                                                    }
-                                                }
-                                            } else {
-                                                Log.e(TAG, "Time JSON is not available");
-                                            }
+                                // Parse nodes first and then merge them in application state.
+                                NodePageParser pageParser = new NodePageParser(nodeJsonArray, espApp.nodeMap,
+                                        new HashSet<>(espApp.localDeviceMap.keySet()));
+                                NodePageParser.ParsedNode[] parsedNodes = pageParser.parse();
 
-                                            // Local control
-                                            if (localControlJson != null && services != null) {
-                                                for (int serviceIdx = 0; serviceIdx < services.size(); serviceIdx++) {
-                                                    Service service = services.get(serviceIdx);
-                                                    if (AppConstants.SERVICE_TYPE_LOCAL_CONTROL.equals(service.getType())) {
-                                                        ArrayList<Param> localParams = service.getParams();
-                                                        if (localParams != null) {
-                                                            for (int paramIdx = 0; paramIdx < localParams.size(); paramIdx++) {
-                                                                Param localParam = localParams.get(paramIdx);
-                                                                String dataType = localParam.getDataType();
-                                                                if (!TextUtils.isEmpty(dataType)) {
-                                                                    if (dataType.equalsIgnoreCase("string")) {
-                                                                        localParam.setLabelValue(localControlJson.optString(localParam.getName()));
-                                                                    }
-                                                                    if (dataType.equalsIgnoreCase("int") || dataType.equalsIgnoreCase("integer")) {
-                                                                        localParam.setValue(localControlJson.optInt(localParam.getName()));
-                                                                    }
-                                                                }
-                                                            }
-                                                        }
-                                                    }
-                                                }
-                                            } else {
-                                                Log.e(TAG, "Local control JSON is not available");
-                                            }
-                                        }
+                                for (NodePageParser.ParsedNode parsedNode : parsedNodes) {
 
-                                        // Node Status
-                                        JSONObject statusJson = nodeJson.optJSONObject(AppConstants.KEY_STATUS);
+                                    if (parsedNode == null || parsedNode.node == null) {
+                                        continue;
+                                    }
 
-                                        if (statusJson != null && !espApp.localDeviceMap.containsKey(nodeId)) {
+                                    String nodeId = parsedNode.nodeId;
+                                    EspNode espNode = parsedNode.node;
+                                    nodeIds.add(nodeId);
+                                    pageNodeIds.add(nodeId);
 
-                                            JSONObject connectivityObject = statusJson.optJSONObject(AppConstants.KEY_CONNECTIVITY);
+                                    if (parsedNode.hasConfig) {
+                                        espApp.nodeMap.put(nodeId, espNode);
+                                    }
 
-                                            if (connectivityObject != null) {
+                                    if (parsedNode.paramsJson != null) {
 
-                                                boolean nodeStatus = connectivityObject.optBoolean(AppConstants.KEY_CONNECTED);
-                                                long timestamp = connectivityObject.optLong(AppConstants.KEY_TIMESTAMP);
-                                                espNode.setTimeStampOfStatus(timestamp);
+                                        espDatabase.getNodeDao().insertOrUpdate(espNode);
 
-                                                if (espNode.isOnline() != nodeStatus) {
-                                                    espNode.setOnline(nodeStatus);
-                                                }
-                                            } else {
-                                                Log.e(TAG, "Connectivity object is null");
-                                            }
+                                        // Schedules
+                                        JSONObject scheduleJson = parsedNode.paramsJson.optJSONObject(AppConstants.KEY_SCHEDULE);
+                                        if (scheduleJson != null) {
+                                            ArrayList<String> scheduleKeys = JsonDataParser.setSchedules(scheduleMap, nodeId,
+                                                    espNode.getDevices(), scheduleJson);
+                                            scheduleIds.addAll(scheduleKeys);
+                                            pageScheduleKeys.addAll(scheduleKeys);
                                         }
                                     }
                                 }
@@ -1096,43 +869,18 @@ public class ApiManager {
 
                             espApp.scheduleMap = scheduleMap;
                             String nextId = jsonObject.optString(AppConstants.KEY_NEXT_ID);
-                            Log.d(TAG, "Start next id : " + nextId);
-
-                            if (!TextUtils.isEmpty(nextId)) {
-                                getNodesFromCloud(nextId, listener);
-                            } else {
-                                Iterator<Map.Entry<String, EspNode>> itr = espApp.nodeMap.entrySet().iterator();
-
-                                // iterate and remove items simultaneously
-                                while (itr.hasNext()) {
-
-                                    Map.Entry<String, EspNode> entry = itr.next();
-                                    String key = entry.getKey();
-
-                                    if (!nodeIds.contains(key)) {
-                                        itr.remove();
-                                    }
-                                }
-
-                                Iterator<Map.Entry<String, Schedule>> schItr = espApp.scheduleMap.entrySet().iterator();
-
-                                // iterate and remove items simultaneously
-                                while (schItr.hasNext()) {
-
-                                    Map.Entry<String, Schedule> entry = schItr.next();
-                                    String key = entry.getKey();
 
-                                    if (!scheduleIds.contains(key)) {
-                                        schItr.remove();
-                                        Log.e(TAG, "Remove schedule for key : " + key + " and Size : " + espApp.scheduleMap.size());
-                                    }
-                                }
+                            // Store page information after parsing, because parsing of node config invalidates old entry.
+                            ConditionalRequestStore.Entry pageEntry = conditionalRequestStore.update(cacheKey,
+                                    response.headers().get(AppConstants.HEADER_ETAG), contentHash);
+                            pageEntry.nodeIds = pageNodeIds;
+                            pageEntry.scheduleKeys = pageScheduleKeys;
+                            pageEntry.nextId = nextId;
 
-                                listener.onSuccess(null);
-                            }
+                            onNodesPageProcessed(nextId, listener);
 
                         } else {
-                            Log.e(TAG, "Response received : null");
+                            EspLog.e(TAG, "Response received : null");
                             listener.onResponseFailure(new RuntimeException("Failed to get User device mapping"));
                         }
 
@@ -1157,6 +905,136 @@ public class ApiManager {
         });
     }
 
+    /**
+     * Page of nodes can be restored from memory only if all its nodes are still available in node map.
+     */
+    private boolean canRestoreNodesPage(String cacheKey) {
+
+        ConditionalRequestStore.Entry entry = conditionalRequestStore.get(cacheKey);
+
+        if (entry == null || entry.nodeIds == null || entry.scheduleKeys == null) {
+            return false;
+        }
+
+        for (String nodeId : entry.nodeIds) {
+            if (!espApp.nodeMap.containsKey(nodeId)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private HashMap<String, Schedule> getScheduleMapForPage(String startId) {
+
+        // Schedules of all pages are collected in one map.
+        if (TextUtils.isEmpty(startId) || espApp.scheduleMap == null) {
+            return new HashMap<>();
+        }
+        return espApp.scheduleMap;
+    }
+
+    /**
+     * This method is used to restore page of nodes which is not changed since last sync, without parsing it again.
+     */
+    private void restoreNodesPage(String startId, ConditionalRequestStore.Entry entry, ApiResponseListener listener) {
+
+        HashMap<String, Schedule> scheduleMap = getScheduleMapForPage(startId);
+        nodeIds.addAll(entry.nodeIds);
+        HashSet<String> pageNodeIds = new HashSet<>(entry.nodeIds);
+
+        for (String key : entry.scheduleKeys) {
+
+            Schedule previousSchedule = previousScheduleMap.get(key);
+            if (previousSchedule != null) {
+                mergeScheduleActions(scheduleMap, key, previousSchedule, pageNodeIds);
+            }
+            scheduleIds.add(key);
+        }
+        espApp.scheduleMap = scheduleMap;
+
+        // Local storage is cleared while processing first page, so nodes of this page needs to be stored again.
+        if (isNodeStorageCleared) {
+            for (String nodeId : entry.nodeIds) {
+                EspNode node = espApp.nodeMap.get(nodeId);
+                if (node != null) {
+                    espDatabase.getNodeDao().insertOrUpdate(node);
+                }
+            }
+        }
+        onNodesPageProcessed(entry.nextId, listener);
+    }
+
+    /**
+     * Schedule can have actions of nodes from different pages. Only actions of the nodes of restored page are
+     * taken from previous sync, other pages of this sync add their own actions in the same schedule.
+     * New schedule object is created, so that schedule objects of previous sync are not changed.
+     */
+    private void mergeScheduleActions(HashMap<String, Schedule> scheduleMap, String key, Schedule previousSchedule,
+                                      HashSet<String> pageNodeIds) {
+
+        Schedule schedule = scheduleMap.get(key);
+
+        if (schedule == null) {
+            schedule = new Schedule();
+            schedule.setId(previousSchedule.getId());
+            schedule.setName(previousSchedule.getName());
+            schedule.setEnabled(previousSchedule.isEnabled());
+            schedule.setTriggers(previousSchedule.getTriggers());
+            scheduleMap.put(key, schedule);
+        }
+
+        if (previousSchedule.getActions() == null) {
+            return;
+        }
+
+        for (Action action : previousSchedule.getActions()) {
+            Device device = action.getDevice();
+            if (device != null && pageNodeIds.contains(device.getNodeId())) {
+                schedule.putAction(action);
+            }
+        }
+    }
+
+    private void onNodesPageProcessed(String nextId, ApiResponseListener listener) {
+
+        EspLog.d(TAG, () -> "Start next id : " + nextId);
+
+        if (!TextUtils.isEmpty(nextId)) {
+            getNodesFromCloud(nextId, listener);
+        } else {
+            Iterator<Map.Entry<String, EspNode>> itr = espApp.nodeMap.entrySet().iterator();
+
+            // iterate and remove items simultaneously
+            while (itr.hasNext()) {
+
+                Map.Entry<String, EspNode> entry = itr.next();
+                String key = entry.getKey();
+
+                if (!nodeIds.contains(key)) {
+                    itr.remove();
+                    espDatabase.getNodeDao().delete(entry.getValue());
+                    conditionalRequestStore.invalidate(key);
+                }
+            }
+
+            Iterator<Map.Entry<String, Schedule>> schItr = espApp.scheduleMap.entrySet().iterator();
+
+            // iterate and remove items simultaneously
+            while (schItr.hasNext()) {
+
+                Map.Entry<String, Schedule> entry = schItr.next();
+                String key = entry.getKey();
+
+                if (!scheduleIds.contains(key)) {
+                    schItr.remove();
+                    EspLog.d(TAG, () -> "Remove schedule for key : " + key + " and Size : " + espApp.scheduleMap.size());
+                }
+            }
+
+            listener.onSuccess(null);
+        }
+    }
+
     /**
      * This method is used to get node details. This is a blocking call.
      *
@@ -1164,19 +1042,31 @@ public class ApiManager {
      */
     public void getNodeDetails(String nodeId) {
 
-        Log.d(TAG, "Get Node Details for id : " + nodeId);
+        EspLog.d(TAG, () -> "Get Node Details for id : " + nodeId);
+        String cacheKey = ConditionalRequestStore.keyForNode(nodeId);
+        String eTag = espApp.nodeMap.containsKey(nodeId) ? conditionalRequestStore.getETag(cacheKey) : null;
 
         try {
-            Response<ResponseBody> response = apiInterface.getNode(AppConstants.URL_USER_NODES, accessToken, nodeId).execute();
-            Log.d(TAG, "Get Node Details, Response code : " + response.code());
+            Response<ResponseBody> response = apiInterface.getNode(AppConstants.URL_USER_NODES, accessToken, nodeId, eTag).execute();
+            EspLog.d(TAG, () -> "Get Node Details, Response code : " + response.code());
 
             try {
-                if (response.isSuccessful()) {
+                if (response.code() == HttpURLConnection.HTTP_NOT_MODIFIED) {
+
+                    EspLog.d(TAG, () -> "Node details are not modified for id : " + nodeId);
+
+                } else if (response.isSuccessful()) {
 
                     if (response.body() != null) {
 
                         String jsonResponse = response.body().string();
-                        Log.e(TAG, "onResponse Success : " + jsonResponse);
+                        byte[] contentHash = ConditionalRequestStore.hash(jsonResponse);
+
+                        if (conditionalRequestStore.isUnchanged(cacheKey, contentHash) && espApp.nodeMap.containsKey(nodeId)) {
+                            EspLog.d(TAG, () -> "Node details are not changed for id : " + nodeId);
+                            return;
+                        }
+
                         JSONObject jsonObject = new JSONObject(jsonResponse);
                         JSONArray nodeJsonArray = jsonObject.optJSONArray(AppConstants.KEY_NODE_DETAILS);
 
@@ -1190,7 +1080,7 @@ public class ApiManager {
 
                                     // Node ID
                                     String id = nodeJson.optString(AppConstants.KEY_ID);
-                                    Log.d(TAG, "Node id : " + id);
+                                    EspLog.d(TAG, () -> "Node id : " + id);
                                     EspNode espNode;
 
                                     if (espApp.nodeMap.get(id) != null) {
@@ -1235,21 +1125,23 @@ public class ApiManager {
 
                                             if (espNode.isOnline() != nodeStatus) {
                                                 espNode.setOnline(nodeStatus);
+                                                GroupIndex.getInstance().onNodeChanged(nodeId);
                                                 EventBus.getDefault().post(new UpdateEvent(AppConstants.UpdateEventType.EVENT_DEVICE_STATUS_UPDATE));
                                             }
                                         } else {
-                                            Log.e(TAG, "Connectivity object is null");
+                                            EspLog.e(TAG, "Connectivity object is null");
                                         }
                                     }
                                 }
                             }
                         }
+                        conditionalRequestStore.update(cacheKey, response.headers().get(AppConstants.HEADER_ETAG), contentHash);
                     } else {
-                        Log.e(TAG, "Failed to get Node Details. Response received : null");
+                        EspLog.e(TAG, "Failed to get Node Details. Response received : null");
                     }
                 } else {
                     String jsonErrResponse = response.errorBody().string();
-                    Log.e(TAG, "Failed to get Node Details.");
+                    EspLog.e(TAG, "Failed to get Node Details.");
                 }
             } catch (JSONException e) {
                 e.printStackTrace();
@@ -1261,24 +1153,38 @@ public class ApiManager {
         }
     }
 
-    public void getNodeDetails(String nodeId, final ApiResponseListener listener) {
+    public void getNodeDetails(final String nodeId, final ApiResponseListener listener) {
 
-        Log.d(TAG, "Get Node Details for id : " + nodeId);
+        EspLog.d(TAG, () -> "Get Node Details for id : " + nodeId);
+        final String cacheKey = ConditionalRequestStore.keyForNode(nodeId);
+        String eTag = espApp.nodeMap.containsKey(nodeId) ? conditionalRequestStore.getETag(cacheKey) : null;
 
-        apiInterface.getNode(AppConstants.URL_USER_NODES, accessToken, nodeId).enqueue(new Callback<ResponseBody>() {
+        apiInterface.getNode(AppConstants.URL_USER_NODES, accessToken, nodeId, eTag).enqueue(new Callback<ResponseBody>() {
 
             @Override
             public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
 
-                Log.d(TAG, "Get Node Details, Response code : " + response.code());
+                EspLog.d(TAG, () -> "Get Node Details, Response code : " + response.code());
 
                 try {
-                    if (response.isSuccessful()) {
+                    if (response.code() == HttpURLConnection.HTTP_NOT_MODIFIED) {
+
+                        EspLog.d(TAG, () -> "Node details are not modified for id : " + nodeId);
+                        listener.onSuccess(null);
+
+                    } else if (response.isSuccessful()) {
 
                         if (response.body() != null) {
 
                             String jsonResponse = response.body().string();
-                            Log.e(TAG, "onResponse Success : " + jsonResponse);
+                            byte[] contentHash = ConditionalRequestStore.hash(jsonResponse);
+
+                            if (conditionalRequestStore.isUnchanged(cacheKey, contentHash) && espApp.nodeMap.containsKey(nodeId)) {
+                                EspLog.d(TAG, () -> "Node details are not changed for id : " + nodeId);
+                                listener.onSuccess(null);
+                                return;
+                            }
+
                             JSONObject jsonObject = new JSONObject(jsonResponse);
                             JSONArray nodeJsonArray = jsonObject.optJSONArray(AppConstants.KEY_NODE_DETAILS);
 
@@ -1292,7 +1198,7 @@ public class ApiManager {
 
                                         // Node ID
                                         String nodeId = nodeJson.optString(AppConstants.KEY_ID);
-                                        Log.d(TAG, "Node id : " + nodeId);
+                                        EspLog.d(TAG, () -> "Node id : " + nodeId);
                                         EspNode espNode;
 
                                         if (espApp.nodeMap.get(nodeId) != null) {
@@ -1337,20 +1243,22 @@ public class ApiManager {
 
                                                 if (espNode.isOnline() != nodeStatus) {
                                                     espNode.setOnline(nodeStatus);
+                                                    GroupIndex.getInstance().onNodeChanged(nodeId);
                                                     EventBus.getDefault().post(new UpdateEvent(AppConstants.UpdateEventType.EVENT_DEVICE_STATUS_UPDATE));
                                                 }
                                             } else {
-                                                Log.e(TAG, "Connectivity object is null");
+                                                EspLog.e(TAG, "Connectivity object is null");
                                             }
                                         }
                                     }
                                 }
                             }
 
+                            conditionalRequestStore.update(cacheKey, response.headers().get(AppConstants.HEADER_ETAG), contentHash);
                             listener.onSuccess(null);
 
                         } else {
-                            Log.e(TAG, "Response received : null");
+                            EspLog.e(TAG, "Response received : null");
                             listener.onResponseFailure(new RuntimeException("Failed to get Node Details"));
                         }
                     } else {
@@ -1376,14 +1284,14 @@ public class ApiManager {
 
     public void getNodeStatus(final String nodeId, final ApiResponseListener listener) {
 
-        Log.d(TAG, "Get Node connectivity status for id : " + nodeId);
+        EspLog.d(TAG, () -> "Get Node connectivity status for id : " + nodeId);
 
         apiInterface.getNodeStatus(AppConstants.URL_USER_NODE_STATUS, accessToken, nodeId).enqueue(new Callback<ResponseBody>() {
 
             @Override
             public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
 
-                Log.d(TAG, "Get Node status, Response code : " + response.code());
+                EspLog.d(TAG, () -> "Get Node status, Response code : " + response.code());
 
                 try {
                     if (response.isSuccessful()) {
@@ -1391,7 +1299,6 @@ public class ApiManager {
                         if (response.body() != null) {
 
                             String jsonResponse = response.body().string();
-                            Log.d(TAG, "onResponse Success : " + jsonResponse);
                             JSONObject nodeStatusJson = new JSONObject(jsonResponse);
                             EspNode espNode = espApp.nodeMap.get(nodeId);
 
@@ -1408,17 +1315,18 @@ public class ApiManager {
 
                                     if (espNode.isOnline() != nodeStatus) {
                                         espNode.setOnline(nodeStatus);
+                                        GroupIndex.getInstance().onNodeChanged(nodeId);
                                         EventBus.getDefault().post(new UpdateEvent(AppConstants.UpdateEventType.EVENT_DEVICE_STATUS_UPDATE));
                                     }
                                 } else {
-                                    Log.e(TAG, "Connectivity object is null");
+                                    EspLog.e(TAG, "Connectivity object is null");
                                 }
                             }
 
                             listener.onSuccess(null);
 
                         } else {
-                            Log.e(TAG, "Response received : null");
+                            EspLog.e(TAG, "Response received : null");
                             listener.onResponseFailure(new RuntimeException("Failed to get Node status"));
                         }
                     } else {
@@ -1452,7 +1360,7 @@ public class ApiManager {
     public void addNode(final String nodeId, String secretKey,
                         final ApiResponseListener listener) {
 
-        Log.d(TAG, "Add Node, nodeId : " + nodeId);
+        EspLog.d(TAG, () -> "Add Node, nodeId : " + nodeId);
 
         DeviceOperationRequest req = new DeviceOperationRequest();
         req.setNodeId(nodeId);
@@ -1464,7 +1372,7 @@ public class ApiManager {
             @Override
             public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
 
-                Log.d(TAG, "Add Node, Response code : " + response.code());
+                EspLog.d(TAG, () -> "Add Node, Response code : " + response.code());
 
                 try {
                     if (response.isSuccessful()) {
@@ -1472,11 +1380,11 @@ public class ApiManager {
                         if (response.body() != null) {
 
                             String jsonResponse = response.body().string();
-                            Log.e(TAG, "onResponse Success : " + jsonResponse);
+                            EspLog.d(TAG, () -> "onResponse Success : " + jsonResponse);
                             JSONObject jsonObject = new JSONObject(jsonResponse);
                             String reqId = jsonObject.optString(AppConstants.KEY_REQ_ID);
-                            requestIds.put(nodeId, reqId);
-                            handler.post(getUserNodeMappingStatusTask);
+                            addNodeRequestTracker.track(nodeId, reqId, SystemClock.elapsedRealtime());
+                            scheduleAddNodeStatusTick();
                             Bundle data = new Bundle();
                             data.putString(AppConstants.KEY_REQ_ID, reqId);
                             listener.onSuccess(data);
@@ -1514,7 +1422,7 @@ public class ApiManager {
      */
     public void removeNode(final String nodeId, final ApiResponseListener listener) {
 
-        Log.d(TAG, "Remove Node, nodeId : " + nodeId);
+        EspLog.d(TAG, () -> "Remove Node, nodeId : " + nodeId);
 
         DeviceOperationRequest req = new DeviceOperationRequest();
         req.setNodeId(nodeId);
@@ -1525,7 +1433,7 @@ public class ApiManager {
             @Override
             public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
 
-                Log.d(TAG, "Remove Node, response code : " + response.code());
+                EspLog.d(TAG, () -> "Remove Node, response code : " + response.code());
 
                 try {
                     if (response.isSuccessful()) {
@@ -1533,7 +1441,7 @@ public class ApiManager {
                         if (response.body() != null) {
 
                             String jsonResponse = response.body().string();
-                            Log.e(TAG, "onResponse Success : " + jsonResponse);
+                            EspLog.d(TAG, () -> "onResponse Success : " + jsonResponse);
                             listener.onSuccess(null);
 
                         } else {
@@ -1560,284 +1468,164 @@ public class ApiManager {
 
     public void getParamsValues(final String nodeId, final ApiResponseListener listener) {
 
-        Log.d(TAG, "Get Param values for node : " + nodeId);
+        EspLog.d(TAG, () -> "Get Param values for node : " + nodeId);
+        final String cacheKey = ConditionalRequestStore.keyForParams(nodeId);
+        String eTag = espApp.nodeMap.containsKey(nodeId) ? conditionalRequestStore.getETag(cacheKey) : null;
 
-        apiInterface.getParamValue(AppConstants.URL_USER_NODES_PARAMS, accessToken, nodeId).enqueue(new Callback<ResponseBody>() {
+        apiInterface.getParamValue(AppConstants.URL_USER_NODES_PARAMS, accessToken, nodeId, eTag).enqueue(new Callback<ResponseBody>() {
 
             @Override
             public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
 
-                Log.d(TAG, "Get Params Values, Response code : " + response.code());
+                EspLog.d(TAG, () -> "Get Params Values, Response code : " + response.code());
 
                 try {
 
-                    if (response.isSuccessful()) {
+                    if (response.code() == HttpURLConnection.HTTP_NOT_MODIFIED) {
+
+                        EspLog.d(TAG, () -> "Param values are not modified for node : " + nodeId);
+                        listener.onSuccess(null);
+
+                    } else if (response.isSuccessful()) {
 
                         if (response.body() != null) {
 
                             String jsonResponse = response.body().string();
-                            Log.e(TAG, "onResponse Success : " + jsonResponse);
-                            JSONObject jsonObject = new JSONObject(jsonResponse);
-                            JSONObject scheduleJson = jsonObject.optJSONObject(AppConstants.KEY_SCHEDULE);
+                            byte[] contentHash = ConditionalRequestStore.hash(jsonResponse);
+
+                            if (conditionalRequestStore.isUnchanged(cacheKey, contentHash) && espApp.nodeMap.containsKey(nodeId)) {
+                                EspLog.d(TAG, () -> "Param values are not changed for node : " + nodeId);
+                                listener.onSuccess(null);
+                                return;
+                            }
 
+                            JSONObject jsonObject = new JSONObject(jsonResponse);
                             EspNode node = espApp.nodeMap.get(nodeId);
 
                             if (node != null) {
 
-                                ArrayList<Device> devices = node.getDevices();
-
-                                // Node Params
-                                if (devices != null) {
-                                    for (int i = 0; i < devices.size(); i++) {
+                                if (espApp.scheduleMap == null) {
+                                    espApp.scheduleMap = new HashMap<>();
+                                }
+                                JsonDataParser.setNodeParams(node, jsonObject, espApp.scheduleMap, false);
+                                conditionalRequestStore.update(cacheKey, response.headers().get(AppConstants.HEADER_ETAG), contentHash);
+                            }
+                            listener.onSuccess(null);
 
-                                        ArrayList<Param> params = devices.get(i).getParams();
-                                        String deviceName = devices.get(i).getDeviceName();
-                                        JSONObject deviceJson = jsonObject.optJSONObject(deviceName);
+                        } else {
+                            listener.onResponseFailure(new RuntimeException("Failed to get param values"));
+                        }
 
-                                        if (deviceJson != null) {
+                    } else {
+                        String jsonErrResponse = response.errorBody().string();
+                        processError(jsonErrResponse, listener, "Failed to get param values");
+                    }
+                } catch (JSONException e) {
+                    e.printStackTrace();
+                    listener.onResponseFailure(e);
+                } catch (IOException e) {
+                    e.printStackTrace();
+                    listener.onResponseFailure(e);
+                }
+            }
 
-                                            for (int j = 0; j < params.size(); j++) {
+            @Override
+            public void onFailure(Call<ResponseBody> call, Throwable t) {
+                t.printStackTrace();
+                listener.onNetworkFailure(new Exception(t));
+            }
+        });
+    }
 
-                                                Param param = params.get(j);
-                                                String key = param.getName();
+    public void updateParamValue(final String nodeId, final JsonObject body, final ApiResponseListener listener) {
 
-                                                if (deviceJson.has(key)) {
-                                                    JsonDataParser.setDeviceParamValue(deviceJson, devices.get(i), param);
-                                                }
-                                            }
-                                        } else {
-                                            Log.e(TAG, "Device JSON is null");
-                                        }
-                                    }
-                                }
+        EspLog.d(TAG, "Updating param value");
+        conditionalRequestStore.invalidate(nodeId);
+        final Call<ResponseBody> call = apiInterface.updateParamValue(AppConstants.URL_USER_NODES_PARAMS, accessToken, nodeId, body);
 
-                                // Schedules
-                                if (scheduleJson != null) {
+        // Writes of the node are sent one by one in order, so that cloud does not receive older value after newer one.
+        nodeWriteQueue.submit(nodeId, new Runnable() {
 
-                                    JSONArray scheduleArrayJson = scheduleJson.optJSONArray(AppConstants.KEY_SCHEDULES);
+            @Override
+            public void run() {
 
-                                    if (scheduleArrayJson != null) {
+                WriteOutbox writeOutbox = WriteOutbox.getInstance(context);
+                Response<ResponseBody> response = null;
+                IOException networkError = null;
 
-                                        if (espApp.scheduleMap == null) {
-                                            espApp.scheduleMap = new HashMap<>();
-                                        }
+                // Request is sent with write lock of the node, so that pending write of the node
+                // sent by OutboxWorker can not reach cloud after this value.
+                synchronized (writeOutbox.getWriteLock(nodeId)) {
 
-                                        for (int index = 0; index < scheduleArrayJson.length(); index++) {
+                    writeOutbox.onDirectParamWrite(nodeId, body);
 
-                                            JSONObject schJson = scheduleArrayJson.getJSONObject(index);
-                                            String scheduleId = schJson.optString(AppConstants.KEY_ID);
-                                            String key = scheduleId;
+                    try {
+                        response = call.execute();
+                    } catch (IOException e) {
+                        e.printStackTrace();
+                        networkError = e;
+                        // Cloud is not reachable, send this value when network is available.
+                        writeOutbox.addParamWrite(nodeId, body);
+                    }
+                }
 
-                                            if (!TextUtils.isEmpty(scheduleId)) {
+                if (networkError != null) {
+                    postFailure(listener, new Exception(networkError), true);
+                    return;
+                }
 
-                                                String name = schJson.optString(AppConstants.KEY_NAME);
-                                                key = key + "_" + name + "_" + schJson.optBoolean(AppConstants.KEY_ENABLED);
+                EspLog.d(TAG, () -> "Update Params Value, Response code : " + response.code());
 
-                                                HashMap<String, Integer> triggers = new HashMap<>();
-                                                JSONArray triggerArray = schJson.optJSONArray(AppConstants.KEY_TRIGGERS);
-                                                for (int t = 0; t < triggerArray.length(); t++) {
-                                                    JSONObject triggerJson = triggerArray.optJSONObject(t);
-                                                    int days = triggerJson.optInt(AppConstants.KEY_DAYS);
-                                                    int mins = triggerJson.optInt(AppConstants.KEY_MINUTES);
-                                                    triggers.put(AppConstants.KEY_DAYS, days);
-                                                    triggers.put(AppConstants.KEY_MINUTES, mins);
-                                                    key = key + "_" + days + "_" + mins;
-                                                }
+                try {
 
-                                                Schedule schedule = espApp.scheduleMap.get(key);
-                                                if (schedule == null) {
-                                                    schedule = new Schedule();
-                                                }
+                    if (response.isSuccessful()) {
 
-                                                schedule.setId(scheduleId);
-                                                schedule.setName(schJson.optString(AppConstants.KEY_NAME));
-                                                schedule.setEnabled(schJson.optBoolean(AppConstants.KEY_ENABLED));
-                                                schedule.setTriggers(triggers);
+                        if (response.body() != null) {
 
-                                                // Actions
-                                                JSONObject actionsSchJson = schJson.optJSONObject(AppConstants.KEY_ACTION);
+                            final String jsonResponse = response.body().string();
+                            EspLog.d(TAG, () -> "onResponse Success : " + jsonResponse);
+                            handler.post(new Runnable() {
 
-                                                if (actionsSchJson != null) {
-
-                                                    ArrayList<Action> actions = schedule.getActions();
-                                                    if (actions == null) {
-                                                        actions = new ArrayList<>();
-                                                        schedule.setActions(actions);
-                                                    }
-
-                                                    for (int deviceIndex = 0; deviceIndex < devices.size(); deviceIndex++) {
-
-                                                        Device d = new Device(devices.get(deviceIndex));
-                                                        ArrayList<Param> params = d.getParams();
-                                                        String deviceName = d.getDeviceName();
-                                                        JSONObject deviceAction = actionsSchJson.optJSONObject(deviceName);
-
-                                                        if (deviceAction != null) {
-
-                                                            Action action = null;
-                                                            Device actionDevice = null;
-                                                            int actionIndex = -1;
-
-                                                            for (int aIndex = 0; aIndex < actions.size(); aIndex++) {
-
-                                                                Action a = actions.get(aIndex);
-                                                                if (a.getDevice().getNodeId().equals(nodeId) && deviceName.equals(a.getDevice().getDeviceName())) {
-                                                                    action = actions.get(aIndex);
-                                                                    actionIndex = aIndex;
-                                                                }
-                                                            }
-
-                                                            if (action == null) {
-                                                                action = new Action();
-                                                                action.setNodeId(nodeId);
-
-                                                                for (int k = 0; k < devices.size(); k++) {
-
-                                                                    if (devices.get(k).getNodeId().equals(nodeId) && devices.get(k).getDeviceName().equals(deviceName)) {
-                                                                        actionDevice = new Device(devices.get(k));
-                                                                        actionDevice.setSelectedState(1);
-                                                                        break;
-                                                                    }
-                                                                }
-
-                                                                if (actionDevice == null) {
-                                                                    actionDevice = new Device(nodeId);
-                                                                }
-                                                                action.setDevice(actionDevice);
-                                                            } else {
-                                                                actionDevice = action.getDevice();
-                                                            }
-
-                                                            ArrayList<Param> actionParams = new ArrayList<>();
-                                                            if (params != null) {
-
-                                                                Iterator<Param> iterator = params.iterator();
-                                                                while (iterator.hasNext()) {
-                                                                    Param p = iterator.next();
-                                                                    actionParams.add(new Param(p));
-                                                                }
-
-                                                                Iterator itr = actionParams.iterator();
-
-                                                                while (itr.hasNext()) {
-
-                                                                    Param p = (Param) itr.next();
-
-                                                                    if (!p.isDynamicParam()) {
-                                                                        itr.remove();
-                                                                    } else if (p.getParamType() != null && p.getParamType().equals(AppConstants.PARAM_TYPE_NAME)) {
-                                                                        itr.remove();
-                                                                    } else if (!p.getProperties().contains(AppConstants.KEY_PROPERTY_WRITE)) {
-                                                                        itr.remove();
-                                                                    }
-                                                                }
-                                                            }
-                                                            actionDevice.setParams(actionParams);
-
-                                                            for (int paramIndex = 0; paramIndex < actionParams.size(); paramIndex++) {
-
-                                                                Param p = actionParams.get(paramIndex);
-                                                                String paramName = p.getName();
-
-                                                                if (deviceAction.has(paramName)) {
-
-                                                                    p.setSelected(true);
-                                                                    JsonDataParser.setDeviceParamValue(deviceAction, devices.get(deviceIndex), p);
-                                                                }
-                                                            }
-
-                                                            for (int paramIndex = 0; paramIndex < actionParams.size(); paramIndex++) {
-
-                                                                if (!actionParams.get(paramIndex).isSelected()) {
-                                                                    actionDevice.setSelectedState(2); // Partially selected
-                                                                }
-                                                            }
-
-                                                            if (actionIndex == -1) {
-                                                                actions.add(action);
-                                                            } else {
-                                                                actions.set(actionIndex, action);
-                                                            }
-                                                            schedule.setActions(actions);
-
-                                                        }
-                                                    }
-                                                }
-                                                espApp.scheduleMap.put(key, schedule);
-                                            }
-                                        }
-                                    }
-                                } else {
-                                    Log.d(TAG, "Schedule JSON is null");
-                                }
-                            }
-                            listener.onSuccess(null);
+                                @Override
+                                public void run() {
+                                    listener.onSuccess(null);
+                                }
+                            });
 
                         } else {
-                            listener.onResponseFailure(new RuntimeException("Failed to get param values"));
+                            postFailure(listener, new RuntimeException("Failed to update param value"), false);
                         }
 
                     } else {
-                        String jsonErrResponse = response.errorBody().string();
-                        processError(jsonErrResponse, listener, "Failed to get param values");
+                        final String jsonErrResponse = response.errorBody().string();
+                        handler.post(new Runnable() {
+
+                            @Override
+                            public void run() {
+                                processError(jsonErrResponse, listener, "Failed to update param value");
+                            }
+                        });
                     }
-                } catch (JSONException e) {
-                    e.printStackTrace();
-                    listener.onResponseFailure(e);
                 } catch (IOException e) {
                     e.printStackTrace();
-                    listener.onResponseFailure(e);
+                    postFailure(listener, e, false);
                 }
             }
-
-            @Override
-            public void onFailure(Call<ResponseBody> call, Throwable t) {
-                t.printStackTrace();
-                listener.onNetworkFailure(new Exception(t));
-            }
         });
     }
 
-    public void updateParamValue(final String nodeId, JsonObject body, final ApiResponseListener listener) {
-
-        Log.d(TAG, "Updating param value");
+    private void postFailure(final ApiResponseListener listener, final Exception exception, final boolean isNetworkFailure) {
 
-        apiInterface.updateParamValue(AppConstants.URL_USER_NODES_PARAMS, accessToken, nodeId, body).enqueue(new Callback<ResponseBody>() {
+        handler.post(new Runnable() {
 
             @Override
-            public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
-
-                Log.d(TAG, "Update Params Value, Response code : " + response.code());
-
-                try {
-
-                    if (response.isSuccessful()) {
-
-                        if (response.body() != null) {
-
-                            String jsonResponse = response.body().string();
-                            Log.d(TAG, "onResponse Success : " + jsonResponse);
-                            listener.onSuccess(null);
-
-                        } else {
-                            listener.onResponseFailure(new RuntimeException("Failed to update param value"));
-                        }
-
-                    } else {
-                        String jsonErrResponse = response.errorBody().string();
-                        processError(jsonErrResponse, listener, "Failed to update param value");
-                    }
-                } catch (IOException e) {
-                    e.printStackTrace();
-                    listener.onResponseFailure(e);
+            public void run() {
+                if (isNetworkFailure) {
+                    listener.onNetworkFailure(exception);
+                } else {
+                    listener.onResponseFailure(exception);
                 }
             }
-
-            @Override
-            public void onFailure(Call<ResponseBody> call, Throwable t) {
-                t.printStackTrace();
-                listener.onNetworkFailure(new Exception(t));
-            }
         });
     }
 
@@ -1846,102 +1634,232 @@ public class ApiManager {
      *
      * @param map      Map of node id and its schedule JSON data.
      * @param listener Listener to send success or failure.
+     *                 If it is {@link ScheduleUpdateListener}, result of each node is also sent.
      */
-    @SuppressLint("CheckResult")
     public void updateSchedules(final HashMap<String, JsonObject> map,
                                 final ApiResponseListener listener) {
+        updateSchedules(map, SCHEDULE_UPDATE_CONCURRENCY, listener);
+    }
 
-        Log.d(TAG, "Updating Schedule");
-        List<Observable<ApiResponse>> requests = new ArrayList<>();
-        final ArrayList<ApiResponse> responses = new ArrayList<>();
-
-        for (Map.Entry<String, JsonObject> entry : map.entrySet()) {
-
-            final String nodeId = entry.getKey();
-            JsonObject jsonBody = entry.getValue();
+    /**
+     * This method is used to add , update or remove schedule.
+     * Requests are sent to at most given number of nodes at a time and failed requests are retried
+     * (with random delay) if cloud is not reachable or returns server error.
+     *
+     * @param map            Map of node id and its schedule JSON data.
+     * @param maxConcurrency Max number of requests in progress at a time.
+     * @param listener       Listener to send success or failure.
+     *                       If it is {@link ScheduleUpdateListener}, result of each node is also sent.
+     */
+    @SuppressLint("CheckResult")
+    public void updateSchedules(final HashMap<String, JsonObject> map, int maxConcurrency,
+                                final ApiResponseListener listener) {
 
-            requests.add(
-                    apiInterface.updateSchedules(AppConstants.URL_USER_NODES_PARAMS, accessToken, nodeId, jsonBody)
+        EspLog.d(TAG, () -> "Updating Schedule for " + map.size() + " nodes");
+        final int totalCount = map.size();
+        final ConcurrentHashMap<String, ApiResponse> responses = new ConcurrentHashMap<>();
+        final AtomicInteger completedCount = new AtomicInteger();
 
-                            .map(new Function<ResponseBody, ApiResponse>() {
+        Observable.fromIterable(new ArrayList<>(map.entrySet()))
+                .flatMap(new Function<Map.Entry<String, JsonObject>, Observable<ApiResponse>>() {
 
-                                @Override
-                                public ApiResponse apply(ResponseBody responseBody) throws Exception {
+                    @Override
+                    public Observable<ApiResponse> apply(Map.Entry<String, JsonObject> entry) throws Exception {
+                        return getScheduleUpdateRequest(entry.getKey(), entry.getValue());
+                    }
+                }, Math.max(1, maxConcurrency))
+                .subscribeOn(Schedulers.io())
+                .subscribe(new Consumer<ApiResponse>() {
 
-                                    ApiResponse apiResponse = new ApiResponse();
-                                    apiResponse.responseBody = responseBody;
-                                    apiResponse.isSuccessful = true;
-                                    apiResponse.nodeId = nodeId;
-                                    return apiResponse;
-                                }
-                            })
-                            .onErrorReturn(new Function<Throwable, ApiResponse>() {
+                    @Override
+                    public void accept(ApiResponse apiResponse) throws Exception {
 
-                                @Override
-                                public ApiResponse apply(Throwable throwable) throws Exception {
+                        EspLog.d(TAG, () -> "Schedule update response for node : " + apiResponse.nodeId + ", success : " + apiResponse.isSuccessful);
+                        responses.put(apiResponse.nodeId, apiResponse);
+                        int count = completedCount.incrementAndGet();
 
-                                    ApiResponse apiResponse = new ApiResponse();
-                                    apiResponse.isSuccessful = false;
-                                    apiResponse.throwable = throwable;
-                                    apiResponse.nodeId = nodeId;
-                                    return apiResponse;
-                                }
-                            }));
-        }
+                        if (listener instanceof ScheduleUpdateListener) {
+                            ((ScheduleUpdateListener) listener).onNodeUpdated(apiResponse.nodeId, apiResponse.isSuccessful,
+                                    apiResponse.isQueued, count, totalCount);
+                        }
+                    }
+                }, new Consumer<Throwable>() {
 
-        Observable.merge(requests)
-                .take(requests.size())
-                .doFinally(new io.reactivex.functions.Action() {
+                    @Override
+                    public void accept(Throwable throwable) throws Exception {
+                        EspLog.e(TAG, "Update schedule requests failed : " + throwable);
+                        listener.onResponseFailure(new RuntimeException("Failed to update schedule for few devices"));
+                    }
+                }, new io.reactivex.functions.Action() {
 
                     @Override
                     public void run() throws Exception {
 
-                        Log.d(TAG, "Update schedule requests completed.");
-                        boolean isAllReqSuccessful = true;
+                        EspLog.d(TAG, "Update schedule requests completed.");
+                        ArrayList<String> failedNodeIds = new ArrayList<>();
+                        ArrayList<String> queuedNodeIds = new ArrayList<>();
 
-                        for (int i = 0; i < responses.size(); i++) {
-
-                            if (!responses.get(i).isSuccessful) {
-                                isAllReqSuccessful = false;
-                                break;
+                        for (ApiResponse apiResponse : responses.values()) {
+                            if (apiResponse.isQueued) {
+                                queuedNodeIds.add(apiResponse.nodeId);
+                            } else if (!apiResponse.isSuccessful) {
+                                failedNodeIds.add(apiResponse.nodeId);
                             }
                         }
 
-                        if (isAllReqSuccessful) {
-                            listener.onSuccess(null);
+                        if (failedNodeIds.isEmpty()) {
+                            // Requests stored in outbox will be sent when cloud is reachable, so they are not failed.
+                            Bundle data = null;
+                            if (!queuedNodeIds.isEmpty()) {
+                                data = new Bundle();
+                                data.putStringArrayList(AppConstants.KEY_QUEUED_NODE_IDS, queuedNodeIds);
+                            }
+                            listener.onSuccess(data);
                         } else {
+                            EspLog.e(TAG, "Failed to update schedule for nodes : " + failedNodeIds);
                             listener.onResponseFailure(new RuntimeException("Failed to update schedule for few devices"));
                         }
                     }
+                });
+    }
+
+    private Observable<ApiResponse> getScheduleUpdateRequest(final String nodeId, final JsonObject jsonBody) {
+
+        conditionalRequestStore.invalidate(nodeId);
+
+        return Observable.defer(new Callable<Observable<ResponseBody>>() {
+
+            @Override
+            public Observable<ResponseBody> call() throws Exception {
+                // Access token may be refreshed between retries.
+                return apiInterface.updateSchedules(AppConstants.URL_USER_NODES_PARAMS, accessToken, nodeId, jsonBody);
+            }
+        })
+                .retryWhen(getRetryHandler("schedule update", nodeId))
+                .map(new Function<ResponseBody, ApiResponse>() {
+
+                    @Override
+                    public ApiResponse apply(ResponseBody responseBody) throws Exception {
+
+                        ApiResponse apiResponse = new ApiResponse();
+                        apiResponse.responseBody = responseBody;
+                        apiResponse.isSuccessful = true;
+                        apiResponse.nodeId = nodeId;
+                        return apiResponse;
+                    }
                 })
-                .subscribeOn(Schedulers.io())
-                .subscribe(new Consumer<ApiResponse>() {
+                .onErrorReturn(new Function<Throwable, ApiResponse>() {
 
                     @Override
-                    public void accept(ApiResponse apiResponse) throws Exception {
+                    public ApiResponse apply(Throwable throwable) throws Exception {
+
+                        ApiResponse apiResponse = new ApiResponse();
 
-                        Log.d(TAG, "Response : " + apiResponse.nodeId);
-                        Log.d(TAG, "Response : " + apiResponse.isSuccessful);
-                        responses.add(apiResponse);
+                        if (throwable instanceof IOException) {
+                            // Cloud is not reachable, send this schedule when network is available.
+                            WriteOutbox.getInstance(context).addScheduleWrite(nodeId, jsonBody);
+                            apiResponse.isQueued = true;
+                        }
+
+                        apiResponse.isSuccessful = false;
+                        apiResponse.throwable = throwable;
+                        apiResponse.nodeId = nodeId;
+                        return apiResponse;
                     }
-                }, new Consumer<Throwable>() {
+                });
+    }
+
+    /**
+     * Handler for retryWhen operator. Request is retried (with random delay) if cloud is not reachable or returns server error.
+     *
+     * @param operation Name of the operation, used for logs and retry metrics.
+     * @param target    Node id(s) of the request, used for logs.
+     */
+    private Function<Observable<Throwable>, Observable<Long>> getRetryHandler(final String operation, final String target) {
+
+        return new Function<Observable<Throwable>, Observable<Long>>() {
+
+            @Override
+            public Observable<Long> apply(Observable<Throwable> errors) throws Exception {
+
+                final AtomicInteger retryCount = new AtomicInteger();
+                return errors.flatMap(new Function<Throwable, Observable<Long>>() {
+
                     @Override
-                    public void accept(Throwable throwable) throws Exception {
-                        Log.e("onSubscribe", "Throwable: " + throwable);
+                    public Observable<Long> apply(Throwable throwable) throws Exception {
+
+                        int attempt = retryCount.incrementAndGet();
+                        if (attempt > SCHEDULE_UPDATE_MAX_RETRIES || !isRetryableError(throwable)) {
+                            return Observable.error(throwable);
+                        }
+                        long delay = (SCHEDULE_UPDATE_RETRY_DELAY_MS << (attempt - 1))
+                                + random.nextInt(SCHEDULE_UPDATE_RETRY_DELAY_MS);
+                        EspLog.d(TAG, () -> "Retry " + operation + " for : " + target + " after " + delay + " ms");
+                        RequestMetrics.getInstance().recordRetry(operation);
+                        return Observable.timer(delay, TimeUnit.MILLISECONDS);
                     }
                 });
+            }
+        };
+    }
+
+    private boolean isRetryableError(Throwable throwable) {
+
+        if (throwable instanceof IOException) {
+            return true;
+        }
+        if (throwable instanceof HttpException) {
+            int code = ((HttpException) throwable).code();
+            return code >= 500 || code == 429;
+        }
+        return false;
+    }
+
+    /**
+     * This method is used to send the write stored in outbox. This is a blocking call.
+     *
+     * @param writeType Type of the write.
+     * @param targetId  Node id or group id.
+     * @param body      JSON body of the request.
+     * @return Returns response code received from cloud or -1 if cloud is not reachable.
+     */
+    public int sendPendingWrite(int writeType, String targetId, JsonObject body) {
+
+        EspLog.d(TAG, () -> "Send pending write of type : " + writeType + " for : " + targetId);
+        Call<ResponseBody> call;
+
+        if (writeType == AppConstants.WRITE_TYPE_GROUP) {
+            call = apiInterface.updateGroup(AppConstants.URL_USER_NODE_GROUP, accessToken, targetId, body);
+        } else {
+            conditionalRequestStore.invalidate(targetId);
+            call = apiInterface.updateParamValue(AppConstants.URL_USER_NODES_PARAMS, accessToken, targetId, body);
+        }
+
+        try {
+            Response<ResponseBody> response = call.execute();
+            EspLog.d(TAG, () -> "Send pending write, Response code : " + response.code());
+
+            if (!response.isSuccessful() && response.errorBody() != null) {
+                EspLog.e(TAG, "Error Response : " + response.errorBody().string());
+            }
+            return response.code();
+
+        } catch (IOException e) {
+            e.printStackTrace();
+            return -1;
+        }
     }
 
     private void getAddNodeRequestStatus(final String nodeId, String requestId) {
 
-        Log.d(TAG, "Get Node mapping status");
+        EspLog.d(TAG, "Get Node mapping status");
 
         apiInterface.getAddNodeRequestStatus(AppConstants.URL_USER_NODE_MAPPING, accessToken, requestId, true).enqueue(new Callback<ResponseBody>() {
 
             @Override
             public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
 
-                Log.d(TAG, "Get Node mapping status, Response code : " + response.code());
+                EspLog.d(TAG, () -> "Get Node mapping status, Response code : " + response.code());
 
                 if (response.isSuccessful()) {
 
@@ -1949,23 +1867,21 @@ public class ApiManager {
                         try {
 
                             String jsonResponse = response.body().string();
-                            Log.e(TAG, "onResponse Success : " + jsonResponse);
                             JSONObject jsonObject = new JSONObject(jsonResponse);
                             String reqStatus = jsonObject.optString(AppConstants.KEY_REQ_STATUS);
 
                             if (!TextUtils.isEmpty(reqStatus) && reqStatus.equals(AppConstants.KEY_REQ_CONFIRMED)) {
 
-                                requestIds.remove(nodeId);
-
-                                // Send event for update UI
-                                EventBus.getDefault().post(new UpdateEvent(AppConstants.UpdateEventType.EVENT_DEVICE_ADDED));
+                                // Event is not sent again if request is already completed by node added event.
+                                if (addNodeRequestTracker.complete(nodeId)) {
+                                    postAddNodeEvent(AppConstants.UpdateEventType.EVENT_DEVICE_ADDED, nodeId);
+                                }
 
                             } else if (!TextUtils.isEmpty(reqStatus) && reqStatus.equals(AppConstants.KEY_REQ_TIMEDOUT)) {
 
-                                requestIds.remove(nodeId);
-
-                                // Send event for update UI
-                                EventBus.getDefault().post(new UpdateEvent(AppConstants.UpdateEventType.EVENT_ADD_DEVICE_TIME_OUT));
+                                if (addNodeRequestTracker.complete(nodeId)) {
+                                    postAddNodeEvent(AppConstants.UpdateEventType.EVENT_ADD_DEVICE_TIME_OUT, nodeId);
+                                }
                             }
 
                         } catch (IOException e) {
@@ -1974,11 +1890,11 @@ public class ApiManager {
                             e.printStackTrace();
                         }
                     } else {
-                        Log.e(TAG, "Get node mapping status failed");
+                        EspLog.e(TAG, "Get node mapping status failed");
                     }
 
                 } else {
-                    Log.e(TAG, "Get node mapping status failed");
+                    EspLog.e(TAG, "Get node mapping status failed");
                 }
             }
 
@@ -1989,42 +1905,80 @@ public class ApiManager {
         });
     }
 
-    private void getUserNodeMappingStatus() {
+    private void postAddNodeEvent(AppConstants.UpdateEventType eventType, String nodeId) {
 
-        handler.postDelayed(getUserNodeMappingStatusTask, REQ_STATUS_TIME);
+        Bundle data = new Bundle();
+        data.putString(AppConstants.KEY_NODE_ID, nodeId);
+        UpdateEvent updateEvent = new UpdateEvent(eventType);
+        updateEvent.setData(data);
+        EventBus.getDefault().post(updateEvent);
     }
 
-    private Runnable getUserNodeMappingStatusTask = new Runnable() {
+    /**
+     * This method is used to complete pending add node request when node added event is received in push notification.
+     * It avoids waiting for next status check of the request.
+     *
+     * @param nodeId Node id.
+     */
+    public void onNodeAddedEvent(String nodeId) {
+
+        if (addNodeRequestTracker.complete(nodeId)) {
+            EspLog.d(TAG, () -> "Add node request completed by node added event, node id : " + nodeId);
+            postAddNodeEvent(AppConstants.UpdateEventType.EVENT_DEVICE_ADDED, nodeId);
+            handler.post(new Runnable() {
+
+                @Override
+                public void run() {
+                    scheduleAddNodeStatusTick();
+                }
+            });
+        }
+    }
+
+    private void scheduleAddNodeStatusTick() {
+
+        handler.removeCallbacks(addNodeStatusTickTask);
+        long delay = addNodeRequestTracker.getNextTickDelay(SystemClock.elapsedRealtime());
+
+        if (delay >= 0) {
+            handler.postDelayed(addNodeStatusTickTask, delay);
+        } else {
+            EspLog.i(TAG, "No request id is available to check status");
+        }
+    }
+
+    private Runnable addNodeStatusTickTask = new Runnable() {
 
         @Override
         public void run() {
 
-            if (requestIds.size() > 0) {
+            long now = SystemClock.elapsedRealtime();
 
-                for (String key : requestIds.keySet()) {
+            for (String nodeId : addNodeRequestTracker.removeExpired(now)) {
+                EspLog.e(TAG, "Add node request is not confirmed in time, node id : " + nodeId);
+                postAddNodeEvent(AppConstants.UpdateEventType.EVENT_ADD_DEVICE_TIME_OUT, nodeId);
+            }
 
-                    String nodeId = key;
-                    String requestId = requestIds.get(nodeId);
-                    getAddNodeRequestStatus(nodeId, requestId);
-                }
-                getUserNodeMappingStatus();
-            } else {
-                Log.i(TAG, "No request id is available to check status");
-                handler.removeCallbacks(getUserNodeMappingStatusTask);
+            ArrayList<AddNodeRequestTracker.Request> dueRequests = addNodeRequestTracker.getDueRequests(now);
+            EspLog.d(TAG, () -> "Check status of " + dueRequests.size() + " add node request(s)");
+
+            for (AddNodeRequestTracker.Request request : dueRequests) {
+                getAddNodeRequestStatus(request.nodeId, request.requestId);
             }
+            scheduleAddNodeStatusTick();
         }
     };
 
     public void initiateClaim(JsonObject body, final ApiResponseListener listener) {
 
-        Log.d(TAG, "Initiate Claiming...");
+        EspLog.d(TAG, "Initiate Claiming...");
 
         apiInterface.initiateClaiming(AppConstants.URL_CLAIM_INITIATE, accessToken, body).enqueue(new Callback<ResponseBody>() {
 
             @Override
             public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
 
-                Log.d(TAG, "onResponse code  : " + response.code());
+                EspLog.d(TAG, () -> "onResponse code  : " + response.code());
 
                 try {
                     if (response.isSuccessful()) {
@@ -2054,14 +2008,14 @@ public class ApiManager {
 
     public void verifyClaiming(JsonObject body, final ApiResponseListener listener) {
 
-        Log.d(TAG, "Verifying Claiming...");
+        EspLog.d(TAG, "Verifying Claiming...");
 
         apiInterface.verifyClaiming(AppConstants.URL_CLAIM_VERIFY, accessToken, body).enqueue(new Callback<ResponseBody>() {
 
             @Override
             public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
 
-                Log.d(TAG, "Verify Claiming, Response code  : " + response.code());
+                EspLog.d(TAG, () -> "Verify Claiming, Response code  : " + response.code());
 
                 try {
                     if (response.isSuccessful()) {
@@ -2091,14 +2045,14 @@ public class ApiManager {
 
     public void createGroup(JsonObject body, final ApiResponseListener listener) {
 
-        Log.d(TAG, "Create Group...");
+        EspLog.d(TAG, "Create Group...");
 
         apiInterface.createGroup(AppConstants.URL_USER_NODE_GROUP, accessToken, body).enqueue(new Callback<ResponseBody>() {
 
             @Override
             public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
 
-                Log.d(TAG, "Create Group, Response code  : " + response.code());
+                EspLog.d(TAG, () -> "Create Group, Response code  : " + response.code());
 
                 try {
                     if (response.isSuccessful()) {
@@ -2124,16 +2078,16 @@ public class ApiManager {
         });
     }
 
-    public void updateGroup(final String groupId, JsonObject body, final ApiResponseListener listener) {
+    public void updateGroup(final String groupId, final JsonObject body, final ApiResponseListener listener) {
 
-        Log.d(TAG, "Update Group for group id : " + groupId);
+        EspLog.d(TAG, () -> "Update Group for group id : " + groupId);
 
         apiInterface.updateGroup(AppConstants.URL_USER_NODE_GROUP, accessToken, groupId, body).enqueue(new Callback<ResponseBody>() {
 
             @Override
             public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
 
-                Log.d(TAG, "Update Group, Response code  : " + response.code());
+                EspLog.d(TAG, () -> "Update Group, Response code  : " + response.code());
 
                 try {
                     if (response.isSuccessful()) {
@@ -2154,6 +2108,9 @@ public class ApiManager {
             @Override
             public void onFailure(Call<ResponseBody> call, Throwable t) {
                 t.printStackTrace();
+                if (t instanceof IOException) {
+                    WriteOutbox.getInstance(context).addGroupWrite(groupId, body);
+                }
                 listener.onNetworkFailure(new RuntimeException("Failed to update group"));
             }
         });
@@ -2161,14 +2118,14 @@ public class ApiManager {
 
     public void removeGroup(final String groupId, final ApiResponseListener listener) {
 
-        Log.d(TAG, "Remove Group, group id : " + groupId);
+        EspLog.d(TAG, () -> "Remove Group, group id : " + groupId);
 
         apiInterface.removeGroup(AppConstants.URL_USER_NODE_GROUP, accessToken, groupId).enqueue(new Callback<ResponseBody>() {
 
             @Override
             public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
 
-                Log.d(TAG, "Remove Group, Response code  : " + response.code());
+                EspLog.d(TAG, () -> "Remove Group, Response code  : " + response.code());
 
                 try {
                     if (response.isSuccessful()) {
@@ -2176,6 +2133,7 @@ public class ApiManager {
                         String jsonResponse = response.body().string();
                         espDatabase.getGroupDao().delete(espApp.groupMap.get(groupId));
                         espApp.groupMap.remove(groupId);
+                        GroupIndex.getInstance().onGroupRemoved(groupId);
                         listener.onSuccess(null);
 
                     } else {
@@ -2190,7 +2148,7 @@ public class ApiManager {
 
             @Override
             public void onFailure(Call<ResponseBody> call, Throwable t) {
-                Log.e(TAG, "ON FAILURE");
+                EspLog.e(TAG, "ON FAILURE");
                 t.printStackTrace();
                 listener.onNetworkFailure(new RuntimeException("Failed to remove group"));
             }
@@ -2199,14 +2157,14 @@ public class ApiManager {
 
     public void getUserGroups(final String groupId, final ApiResponseListener listener) {
 
-        Log.d(TAG, "Get user groups...");
+        EspLog.d(TAG, "Get user groups...");
 
         apiInterface.getUserGroups(AppConstants.URL_USER_NODE_GROUP, accessToken, groupId, true).enqueue(new Callback<ResponseBody>() {
 
             @Override
             public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
 
-                Log.d(TAG, "Get Groups, Response code  : " + response.code());
+                EspLog.d(TAG, () -> "Get Groups, Response code  : " + response.code());
 
                 try {
                     if (response.isSuccessful()) {
@@ -2269,7 +2227,7 @@ public class ApiManager {
 
     public void getSharingRequests(boolean isPrimaryUser, final ApiResponseListener listener) {
 
-        Log.d(TAG, "Get sharing requests");
+        EspLog.d(TAG, "Get sharing requests");
         ArrayList<SharingRequest> sharingRequests = new ArrayList<>();
         getSharingRequests("", "", isPrimaryUser, sharingRequests, listener);
     }
@@ -2277,20 +2235,20 @@ public class ApiManager {
     private void getSharingRequests(final String startReqId, final String startUserName, final boolean isPrimaryUser,
                                     final ArrayList<SharingRequest> sharingRequests, final ApiResponseListener listener) {
 
-        Log.d(TAG, "Get sharing request, start request id : " + startReqId);
+        EspLog.d(TAG, () -> "Get sharing request, start request id : " + startReqId);
         apiInterface.getSharingRequests(AppConstants.URL_USER_NODES_SHARING_REQUESTS, accessToken, isPrimaryUser,
                 startReqId, startUserName).enqueue(new Callback<ResponseBody>() {
 
             @Override
             public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
 
-                Log.d(TAG, "Get sharing requests, Response code : " + response.code());
+                EspLog.d(TAG, () -> "Get sharing requests, Response code : " + response.code());
 
                 try {
                     if (response.isSuccessful()) {
                         if (response.body() != null) {
                             String jsonResponse = response.body().string();
-                            Log.d(TAG, "Response : " + jsonResponse);
+                            EspLog.d(TAG, () -> "Response : " + jsonResponse);
                             JSONObject jsonObject = new JSONObject(jsonResponse);
                             JSONArray nodeJsonArray = jsonObject.optJSONArray(AppConstants.KEY_SHARING_REQUESTS);
 
@@ -2338,13 +2296,13 @@ public class ApiManager {
                                 getSharingRequests(nextId, nextUserName, isPrimaryUser, sharingRequests, listener);
                             } else {
                                 Bundle data = new Bundle();
-                                Log.d(TAG, "Number of sharing request : " + sharingRequests.size());
+                                EspLog.d(TAG, () -> "Number of sharing request : " + sharingRequests.size());
                                 data.putParcelableArrayList(AppConstants.KEY_SHARING_REQUESTS, sharingRequests);
                                 listener.onSuccess(data);
                             }
 
                         } else {
-                            Log.e(TAG, "Response received : null");
+                            EspLog.e(TAG, "Response received : null");
                             listener.onResponseFailure(new RuntimeException("Failed to get sharing requests"));
                         }
 
@@ -2371,7 +2329,7 @@ public class ApiManager {
 
     public void updateSharingRequest(final String requestId, final boolean requestAccepted, final ApiResponseListener listener) {
 
-        Log.d(TAG, "Update sharing request status with : " + requestAccepted + " for request id : " + requestId);
+        EspLog.d(TAG, () -> "Update sharing request status with : " + requestAccepted + " for request id : " + requestId);
 
         JsonObject body = new JsonObject();
         body.addProperty(AppConstants.KEY_REQ_ACCEPT, requestAccepted);
@@ -2382,12 +2340,12 @@ public class ApiManager {
             @Override
             public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
 
-                Log.d(TAG, "Update Sharing request, Response code  : " + response.code());
+                EspLog.d(TAG, () -> "Update Sharing request, Response code  : " + response.code());
 
                 try {
                     if (response.isSuccessful()) {
                         String jsonResponse = response.body().string();
-                        Log.e(TAG, "onResponse Success : " + jsonResponse);
+                        EspLog.d(TAG, () -> "onResponse Success : " + jsonResponse);
                         listener.onSuccess(null);
                     } else {
                         String jsonErrResponse = response.errorBody().string();
@@ -2409,14 +2367,14 @@ public class ApiManager {
 
     public void removeSharingRequest(final String requestId, final ApiResponseListener listener) {
 
-        Log.d(TAG, "Remove sharing request : " + requestId);
+        EspLog.d(TAG, () -> "Remove sharing request : " + requestId);
 
         apiInterface.removeSharingRequest(AppConstants.URL_USER_NODES_SHARING_REQUESTS, accessToken, requestId).enqueue(new Callback<ResponseBody>() {
 
             @Override
             public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
 
-                Log.d(TAG, "Remove Sharing request, Response code  : " + response.code());
+                EspLog.d(TAG, () -> "Remove Sharing request, Response code  : " + response.code());
 
                 try {
                     if (response.isSuccessful()) {
@@ -2442,7 +2400,7 @@ public class ApiManager {
 
     public void shareNodeWithUser(final String nodeId, final String email, final ApiResponseListener listener) {
 
-        Log.d(TAG, "Share Node " + nodeId + " with + User " + email);
+        EspLog.d(TAG, () -> "Share Node " + nodeId + " with + User " + email);
 
         JsonObject body = new JsonObject();
         JsonArray nodes = new JsonArray();
@@ -2470,7 +2428,7 @@ public class ApiManager {
             @Override
             public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
 
-                Log.d(TAG, "Share node, Response code  : " + response.code());
+                EspLog.d(TAG, () -> "Share node, Response code  : " + response.code());
                 try {
                     if (response.isSuccessful()) {
                         String jsonResponse = response.body().string();
@@ -2501,20 +2459,20 @@ public class ApiManager {
 
     public void getNodeSharing(final String nodeId, final ApiResponseListener listener) {
 
-        Log.d(TAG, "Get Node Sharing information for node : " + nodeId);
+        EspLog.d(TAG, () -> "Get Node Sharing information for node : " + nodeId);
 
         apiInterface.getNodeSharing(AppConstants.URL_USER_NODES_SHARING, accessToken, nodeId).enqueue(new Callback<ResponseBody>() {
 
             @Override
             public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
 
-                Log.d(TAG, "Get node sharing info, Response code  : " + response.code());
+                EspLog.d(TAG, () -> "Get node sharing info, Response code  : " + response.code());
 
                 try {
                     if (response.isSuccessful()) {
 
                         String jsonResponse = response.body().string();
-                        Log.e(TAG, "Sharing response : " + jsonResponse);
+                        EspLog.d(TAG, () -> "Sharing response : " + jsonResponse);
                         JSONObject jsonObject = new JSONObject(jsonResponse);
                         JSONArray nodeSharingJsonArray = jsonObject.optJSONArray(AppConstants.KEY_NODE_SHARING);
 
@@ -2582,14 +2540,14 @@ public class ApiManager {
 
     public void removeSharing(final String nodeId, final String email, final ApiResponseListener listener) {
 
-        Log.d(TAG, "Remove user : " + email + " from sharing, for nodes : " + nodeId);
+        EspLog.d(TAG, () -> "Remove user : " + email + " from sharing, for nodes : " + nodeId);
 
         apiInterface.removeSharing(AppConstants.URL_USER_NODES_SHARING, accessToken, nodeId, email).enqueue(new Callback<ResponseBody>() {
 
             @Override
             public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
 
-                Log.d(TAG, "Remove Sharing, Response code  : " + response.code());
+                EspLog.d(TAG, () -> "Remove Sharing, Response code  : " + response.code());
                 try {
                     if (response.isSuccessful()) {
 
@@ -2615,9 +2573,307 @@ public class ApiManager {
         });
     }
 
+    /**
+     * Share multiple nodes with the user. For example, all nodes of a group.
+     * Nodes are sent in one request (up to {@link #SHARING_NODES_PER_REQUEST} nodes per request)
+     * and requests are sent to at most {@link #SHARING_UPDATE_CONCURRENCY} at a time.
+     * If request for multiple nodes is rejected by cloud because of some node, nodes of that request are shared
+     * one by one, so that one invalid node does not fail sharing of other nodes. Other errors
+     * (e.g. 401/403 or invalid user) fail sharing of all nodes immediately.
+     * <p>
+     * Listener gets called on background thread. On success, bundle contains ids of the sharing requests
+     * with {@link AppConstants#KEY_REQ_IDS} key.
+     *
+     * @param nodeIds  Node ids.
+     * @param email    Email of the user.
+     * @param listener Listener to send success or failure.
+     *                 If it is {@link NodeSharingListener}, result of each node is also sent.
+     */
+    public void shareNodesWithUser(Collection<String> nodeIds, String email, ApiResponseListener listener) {
+        EspLog.d(TAG, () -> "Share " + nodeIds.size() + " nodes with user " + email);
+        updateSharing(nodeIds, email, true, listener);
+    }
+
+    /**
+     * Remove sharing of multiple nodes for the user.
+     * Requests are sent same as {@link #shareNodesWithUser(Collection, String, ApiResponseListener)}.
+     * Listener gets called on background thread.
+     *
+     * @param nodeIds  Node ids.
+     * @param email    Email of the user.
+     * @param listener Listener to send success or failure.
+     *                 If it is {@link NodeSharingListener}, result of each node is also sent.
+     */
+    public void removeSharing(Collection<String> nodeIds, String email, ApiResponseListener listener) {
+        EspLog.d(TAG, () -> "Remove user : " + email + " from sharing of " + nodeIds.size() + " nodes");
+        updateSharing(nodeIds, email, false, listener);
+    }
+
+    @SuppressLint("CheckResult")
+    private void updateSharing(Collection<String> nodeIds, final String email, final boolean isShare,
+                               final ApiResponseListener listener) {
+
+        final ArrayList<String> nodeIdList = new ArrayList<>(new LinkedHashSet<>(nodeIds));
+        final int totalCount = nodeIdList.size();
+        final ConcurrentHashMap<String, ApiResponse> responses = new ConcurrentHashMap<>();
+        final ArrayList<String> requestIds = new ArrayList<>();
+        final AtomicInteger completedCount = new AtomicInteger();
+        final String failureMsg = isShare ? "Node sharing failed for few devices" : "Failed to remove sharing for few devices";
+
+        ArrayList<ArrayList<String>> batches = new ArrayList<>();
+        for (int i = 0; i < totalCount; i += SHARING_NODES_PER_REQUEST) {
+            batches.add(new ArrayList<>(nodeIdList.subList(i, Math.min(i + SHARING_NODES_PER_REQUEST, totalCount))));
+        }
+
+        Observable.fromIterable(batches)
+                .flatMap(new Function<ArrayList<String>, Observable<ApiResponse>>() {
+
+                    @Override
+                    public Observable<ApiResponse> apply(ArrayList<String> batch) throws Exception {
+                        return getSharingUpdateRequest(batch, email, isShare, requestIds);
+                    }
+                }, SHARING_UPDATE_CONCURRENCY)
+                .subscribeOn(Schedulers.io())
+                .subscribe(new Consumer<ApiResponse>() {
+
+                    @Override
+                    public void accept(ApiResponse apiResponse) throws Exception {
+
+                        responses.put(apiResponse.nodeId, apiResponse);
+                        int count = completedCount.incrementAndGet();
+
+                        if (listener instanceof NodeSharingListener) {
+                            ((NodeSharingListener) listener).onNodeSharingUpdated(apiResponse.nodeId, apiResponse.isSuccessful,
+                                    count, totalCount);
+                        }
+                    }
+                }, new Consumer<Throwable>() {
+
+                    @Override
+                    public void accept(Throwable throwable) throws Exception {
+                        EspLog.e(TAG, "Sharing requests failed : " + throwable);
+                        if (throwable instanceof CloudException) {
+                            listener.onResponseFailure((CloudException) throwable);
+                        } else {
+                            listener.onResponseFailure(new RuntimeException(failureMsg));
+                        }
+                    }
+                }, new io.reactivex.functions.Action() {
+
+                    @Override
+                    public void run() throws Exception {
+
+                        ArrayList<String> failedNodeIds = new ArrayList<>();
+
+                        for (ApiResponse apiResponse : responses.values()) {
+                            if (!apiResponse.isSuccessful) {
+                                failedNodeIds.add(apiResponse.nodeId);
+                            }
+                        }
+
+                        if (failedNodeIds.isEmpty()) {
+                            Bundle data = new Bundle();
+                            synchronized (requestIds) {
+                                data.putStringArrayList(AppConstants.KEY_REQ_IDS, new ArrayList<>(requestIds));
+                            }
+                            listener.onSuccess(data);
+                        } else {
+                            EspLog.e(TAG, "Sharing update failed for nodes : " + failedNodeIds);
+                            listener.onResponseFailure(new RuntimeException(failureMsg));
+                        }
+                    }
+                });
+    }
+
+    private Observable<ApiResponse> getSharingUpdateRequest(final ArrayList<String> nodeIds, final String email,
+                                                            final boolean isShare, final ArrayList<String> requestIds) {
+
+        return Observable.defer(new Callable<Observable<ResponseBody>>() {
+
+            @Override
+            public Observable<ResponseBody> call() throws Exception {
+
+                // Access token may be refreshed between retries.
+                if (isShare) {
+                    return apiInterface.shareNodesWithUser(AppConstants.URL_USER_NODES_SHARING, accessToken,
+                            getShareNodesBody(nodeIds, email));
+                } else {
+                    return apiInterface.removeSharingOfNodes(AppConstants.URL_USER_NODES_SHARING, accessToken,
+                            TextUtils.join(",", nodeIds), email);
+                }
+            }
+        })
+                .retryWhen(getRetryHandler("sharing update", nodeIds.toString()))
+                .flatMap(new Function<ResponseBody, Observable<ApiResponse>>() {
+
+                    @Override
+                    public Observable<ApiResponse> apply(ResponseBody responseBody) throws Exception {
+
+                        String jsonResponse = responseBody.string();
+
+                        if (isShare) {
+                            String requestId = new JSONObject(jsonResponse).optString(AppConstants.KEY_REQ_ID);
+                            if (!TextUtils.isEmpty(requestId)) {
+                                synchronized (requestIds) {
+                                    requestIds.add(requestId);
+                                }
+                            }
+                        }
+
+                        if (!isShare) {
+                            // Secondary users are shown by UI, so update them on main thread.
+                            handler.post(new Runnable() {
+
+                                @Override
+                                public void run() {
+                                    for (String nodeId : nodeIds) {
+                                        EspNode node = espApp.nodeMap.get(nodeId);
+                                        if (node != null && node.getSecondaryUsers() != null) {
+                                            node.getSecondaryUsers().remove(email);
+                                        }
+                                    }
+                                }
+                            });
+                        }
+
+                        ArrayList<ApiResponse> apiResponses = new ArrayList<>();
+                        for (String nodeId : nodeIds) {
+
+                            SharingRepository.getInstance(context).invalidate(nodeId);
+
+                            ApiResponse apiResponse = new ApiResponse();
+                            apiResponse.isSuccessful = true;
+                            apiResponse.nodeId = nodeId;
+                            apiResponses.add(apiResponse);
+                        }
+                        return Observable.fromIterable(apiResponses);
+                    }
+                })
+                .onErrorResumeNext(new Function<Throwable, Observable<ApiResponse>>() {
+
+                    @Override
+                    public Observable<ApiResponse> apply(final Throwable throwable) throws Exception {
+
+                        if (nodeIds.size() > 1 && throwable instanceof HttpException && !isRetryableError(throwable)) {
+
+                            HttpException httpException = (HttpException) throwable;
+                            String errorDescription = getErrorDescription(httpException);
+
+                            if (!isNodeSpecificError(httpException.code(), errorDescription, nodeIds)) {
+                                // Error is not about a node (e.g. invalid token, unknown user),
+                                // so other nodes will fail in the same way. Fail the whole request immediately.
+                                EspLog.e(TAG, "Sharing update failed, code : " + httpException.code() + ", error : " + errorDescription);
+                                if (!TextUtils.isEmpty(errorDescription)) {
+                                    return Observable.error(new CloudException(errorDescription));
+                                }
+                                return Observable.error(throwable);
+                            }
+
+                            // Cloud rejected the request because of some node, try each node separately.
+                            EspLog.w(TAG, "Sharing update rejected for " + nodeIds.size() + " nodes, updating one by one");
+                            return Observable.fromIterable(nodeIds)
+                                    .flatMap(new Function<String, Observable<ApiResponse>>() {
+
+                                        @Override
+                                        public Observable<ApiResponse> apply(String nodeId) throws Exception {
+                                            ArrayList<String> singleNode = new ArrayList<>();
+                                            singleNode.add(nodeId);
+                                            return getSharingUpdateRequest(singleNode, email, isShare, requestIds);
+                                        }
+                                    }, SHARING_UPDATE_CONCURRENCY);
+                        }
+
+                        ArrayList<ApiResponse> apiResponses = new ArrayList<>();
+                        for (String nodeId : nodeIds) {
+                            apiResponses.add(getFailedSharingResponse(nodeId, throwable));
+                        }
+                        return Observable.fromIterable(apiResponses);
+                    }
+                });
+    }
+
+    private ApiResponse getFailedSharingResponse(String nodeId, Throwable throwable) {
+
+        ApiResponse apiResponse = new ApiResponse();
+        apiResponse.isSuccessful = false;
+        apiResponse.throwable = throwable;
+        apiResponse.nodeId = nodeId;
+        return apiResponse;
+    }
+
+    /**
+     * Returns description of the failure response received from cloud or null if it is not available.
+     */
+    private String getErrorDescription(HttpException httpException) {
+
+        Response<?> response = httpException.response();
+        if (response == null || response.errorBody() == null) {
+            return null;
+        }
+        try {
+            String jsonErrResponse = response.errorBody().string();
+            EspLog.e(TAG, "Error Response : " + jsonErrResponse);
+            JSONObject jsonObject = new JSONObject(jsonErrResponse);
+            if (AppConstants.KEY_FAILURE_RESPONSE.equals(jsonObject.optString(AppConstants.KEY_STATUS))) {
+                return jsonObject.optString(AppConstants.KEY_DESCRIPTION, null);
+            }
+        } catch (IOException | JSONException e) {
+            e.printStackTrace();
+        }
+        return null;
+    }
+
+    /**
+     * Cloud rejects the whole request if any one node of the request is invalid.
+     * Such error is considered node specific only if it is a client error and cloud
+     * mentions one of the nodes of the request in the error description.
+     */
+    private boolean isNodeSpecificError(int code, String errorDescription, ArrayList<String> nodeIds) {
+
+        if ((code != HttpURLConnection.HTTP_BAD_REQUEST && code != HttpURLConnection.HTTP_NOT_FOUND)
+                || TextUtils.isEmpty(errorDescription)) {
+            return false;
+        }
+        for (String nodeId : nodeIds) {
+            if (errorDescription.contains(nodeId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private JsonObject getShareNodesBody(ArrayList<String> nodeIds, String email) {
+
+        JsonObject body = new JsonObject();
+        JsonArray nodes = new JsonArray();
+        JsonArray devicesJsonArr = new JsonArray();
+
+        for (String nodeId : nodeIds) {
+
+            nodes.add(nodeId);
+            EspNode node = espApp.nodeMap.get(nodeId);
+
+            if (node != null && node.getDevices() != null) {
+                for (Device device : node.getDevices()) {
+                    JsonObject deviceJson = new JsonObject();
+                    deviceJson.addProperty(AppConstants.KEY_NAME, device.getUserVisibleName());
+                    devicesJsonArr.add(deviceJson);
+                }
+            }
+        }
+
+        body.add(AppConstants.KEY_NODES, nodes);
+        body.addProperty(AppConstants.KEY_USER_NAME, email);
+
+        JsonObject metadataJson = new JsonObject();
+        metadataJson.add(AppConstants.KEY_DEVICES, devicesJsonArr);
+        body.add(AppConstants.KEY_METADATA, metadataJson);
+        return body;
+    }
+
     public void registerDeviceToken(final String deviceToken, final ApiResponseListener listener) {
 
-        Log.d(TAG, "Register device token : " + deviceToken);
+        EspLog.d(TAG, () -> "Register device token : " + deviceToken);
         String url = BuildConfig.BASE_URL + AppConstants.PATH_SEPARATOR
                 + AppConstants.CURRENT_VERSION + "/user/push_notification/mobile_platform_endpoint";
 
@@ -2630,12 +2886,12 @@ public class ApiManager {
             @Override
             public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
 
-                Log.e(TAG, "Register FCM token, Response code  : " + response.code());
+                EspLog.d(TAG, () -> "Register FCM token, Response code  : " + response.code());
 
                 try {
                     if (response.isSuccessful()) {
                         String jsonResponse = response.body().string();
-                        Log.e(TAG, "Response : " + jsonResponse);
+                        EspLog.d(TAG, () -> "Response : " + jsonResponse);
                         listener.onSuccess(null);
                     } else {
                         String jsonErrResponse = response.errorBody().string();
@@ -2657,7 +2913,7 @@ public class ApiManager {
 
     public void unregisterDeviceToken(final String deviceToken, final ApiResponseListener listener) {
 
-        Log.d(TAG, "Unregister FCM token...");
+        EspLog.d(TAG, "Unregister FCM token...");
         String url = BuildConfig.BASE_URL + AppConstants.PATH_SEPARATOR
                 + AppConstants.CURRENT_VERSION + "/user/push_notification/mobile_platform_endpoint";
 
@@ -2666,12 +2922,12 @@ public class ApiManager {
             @Override
             public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
 
-                Log.e(TAG, "Unregister FCM token, Response code  : " + response.code());
+                EspLog.d(TAG, () -> "Unregister FCM token, Response code  : " + response.code());
 
                 try {
                     if (response.isSuccessful()) {
                         String jsonResponse = response.body().string();
-                        Log.e(TAG, "Response : " + jsonResponse);
+                        EspLog.d(TAG, () -> "Response : " + jsonResponse);
                         listener.onSuccess(null);
                     } else {
                         String jsonErrResponse = response.errorBody().string();
@@ -2693,7 +2949,7 @@ public class ApiManager {
 
     private void processError(String jsonErrResponse, ApiResponseListener listener, String errMsg) {
 
-        Log.e(TAG, "Error Response : " + jsonErrResponse);
+        EspLog.e(TAG, "Error Response : " + jsonErrResponse);
         try {
             if (jsonErrResponse.contains(AppConstants.KEY_FAILURE_RESPONSE)) {
 
@@ -2713,19 +2969,4 @@ public class ApiManager {
             listener.onResponseFailure(new RuntimeException(errMsg));
         }
     }
-
-    private Runnable stopRequestStatusPollingTask = new Runnable() {
-
-        @Override
-        public void run() {
-            requestIds.clear();
-            Log.d(TAG, "Stopped Polling Task");
-            handler.removeCallbacks(getUserNodeMappingStatusTask);
-            EventBus.getDefault().post(new UpdateEvent(AppConstants.UpdateEventType.EVENT_ADD_DEVICE_TIME_OUT));
-        }
-    };
-
-    public void cancelRequestStatusPollingTask() {
-        handler.removeCallbacks(stopRequestStatusPollingTask);
-    }
 }
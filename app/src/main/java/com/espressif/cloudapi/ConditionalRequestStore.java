@@ -0,0 +1,172 @@
+// Copyright 2021 Espressif Systems (Shanghai) PTE LTD
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.espressif.cloudapi;
+
+import android.text.TextUtils;
+
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * This class keeps entity tags and content hashes of node responses received from cloud.
+ * ApiManager uses it to send conditional requests (If-None-Match) and to skip parsing
+ * of responses which are same as the one already applied to the node.
+ * <p>
+ * Any code which changes node state from other source (local control, notifications, etc.)
+ * should call {@link #invalidate(String)} so that next response from cloud gets parsed.
+ */
+public class ConditionalRequestStore {
+
+    private static final String KEY_PREFIX_NODE = "node_";
+    private static final String KEY_PREFIX_PARAMS = "params_";
+    private static final String KEY_PREFIX_NODES_PAGE = "nodes_page_";
+
+    private static ConditionalRequestStore store;
+
+    private final HashMap<String, Entry> entries = new HashMap<>();
+
+    /**
+     * Validators of one response.
+     * For pages of get nodes API, it also keeps the information required to restore the page without parsing it.
+     */
+    static class Entry {
+
+        String eTag;
+        byte[] contentHash;
+        String nextId;
+        ArrayList<String> nodeIds;
+        ArrayList<String> scheduleKeys;
+    }
+
+    public static synchronized ConditionalRequestStore getInstance() {
+
+        if (store == null) {
+            store = new ConditionalRequestStore();
+        }
+        return store;
+    }
+
+    private ConditionalRequestStore() {
+    }
+
+    static String keyForNode(String nodeId) {
+        return KEY_PREFIX_NODE + nodeId;
+    }
+
+    static String keyForParams(String nodeId) {
+        return KEY_PREFIX_PARAMS + nodeId;
+    }
+
+    static String keyForNodesPage(String startId) {
+        return KEY_PREFIX_NODES_PAGE + startId;
+    }
+
+    synchronized Entry get(String key) {
+        return entries.get(key);
+    }
+
+    synchronized String getETag(String key) {
+
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        return entry.eTag;
+    }
+
+    /**
+     * Check whether content of the response is same as the last stored response for the given key.
+     *
+     * @param key         Key of the request.
+     * @param contentHash Hash of the response body, received from {@link #hash(String)}.
+     * @return Returns true if content is not changed.
+     */
+    synchronized boolean isUnchanged(String key, byte[] contentHash) {
+
+        Entry entry = entries.get(key);
+        return entry != null && entry.contentHash != null && contentHash != null
+                && Arrays.equals(entry.contentHash, contentHash);
+    }
+
+    /**
+     * Store validators of received response.
+     * This should be called after response is applied, because parsing of node data invalidates the node validators.
+     *
+     * @param key         Key of the request.
+     * @param eTag        ETag header received from cloud. It can be null.
+     * @param contentHash Hash of the response body, received from {@link #hash(String)}.
+     * @return Entry for the given key. New entry is created if content is changed.
+     */
+    synchronized Entry update(String key, String eTag, byte[] contentHash) {
+
+        Entry entry = entries.get(key);
+
+        if (entry == null || entry.contentHash == null || !Arrays.equals(entry.contentHash, contentHash)) {
+            entry = new Entry();
+            entries.put(key, entry);
+        }
+        entry.eTag = TextUtils.isEmpty(eTag) ? null : eTag;
+        entry.contentHash = contentHash;
+        return entry;
+    }
+
+    synchronized void remove(String key) {
+        entries.remove(key);
+    }
+
+    /**
+     * Remove all validators related to given node, including pages of get nodes API which contain the node.
+     *
+     * @param nodeId Node id.
+     */
+    public synchronized void invalidate(String nodeId) {
+
+        entries.remove(keyForNode(nodeId));
+        entries.remove(keyForParams(nodeId));
+
+        Iterator<Map.Entry<String, Entry>> itr = entries.entrySet().iterator();
+        while (itr.hasNext()) {
+            Entry entry = itr.next().getValue();
+            if (entry.nodeIds != null && entry.nodeIds.contains(nodeId)) {
+                itr.remove();
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    static byte[] hash(String content) {
+
+        if (content == null) {
+            return null;
+        }
+
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return digest.digest(content.getBytes(Charset.forName("UTF-8")));
+        } catch (NoSuchAlgorithmException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+// Copyright 2021 Espressif Systems (Shanghai) PTE LTD
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.espressif.cloudapi;
+
+import com.espressif.RequestMetrics;
+
+import java.io.IOException;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * This interceptor records latency, payload size and result of each request sent on network.
+ * It is added as network interceptor, so responses served from cache are not recorded
+ * and each attempt (e.g. retry after token refresh) is recorded separately.
+ * Latency is measured till response headers are received.
+ */
+class MetricsInterceptor implements Interceptor {
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+
+        Request request = chain.request();
+        String endpoint = request.method() + " " + request.url().host() + request.url().encodedPath();
+        long bytesSent = request.body() != null ? request.body().contentLength() : 0;
+        long startTime = System.nanoTime();
+        Response response;
+
+        try {
+            response = chain.proceed(request);
+        } catch (IOException e) {
+            RequestMetrics.getInstance().recordRequest(endpoint, System.nanoTime() - startTime, bytesSent, -1, true);
+            throw e;
+        }
+
+        // Body is not read here, so size is known only if server has sent content length.
+        long bytesReceived = response.body() != null ? response.body().contentLength() : -1;
+        RequestMetrics.getInstance().recordRequest(endpoint, System.nanoTime() - startTime, bytesSent, bytesReceived,
+                !response.isSuccessful() && response.code() != 304);
+        return response;
+    }
+}
@@ -0,0 +1,211 @@
+// Copyright 2021 Espressif Systems (Shanghai) PTE LTD
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.espressif.cloudapi;
+
+import com.espressif.AppConstants;
+import com.espressif.EspLog;
+import com.espressif.JsonDataParser;
+import com.espressif.rainmaker.BuildConfig;
+import com.espressif.ui.models.EspNode;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.util.HashMap;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * This class parses nodes of one page of get nodes API.
+ * Node config and params of different nodes are independent, so they can be parsed in parallel
+ * (if enabled from build config). Parsed nodes are merged into application state by ApiManager in one step.
+ */
+class NodePageParser {
+
+    private static final String TAG = NodePageParser.class.getSimpleName();
+
+    // Minimum number of nodes in a page to parse it in parallel.
+    private static final int MIN_NODES_FOR_PARALLEL_PARSING = 16;
+    // Number of nodes parsed by one task.
+    private static final int NODES_PER_TASK = 4;
+
+    private static ForkJoinPool parserPool;
+
+    /**
+     * Node parsed from get nodes API response.
+     */
+    static class ParsedNode {
+
+        String nodeId;
+        EspNode node;
+        boolean hasConfig;
+        boolean isLocalNode;
+        JSONObject paramsJson;
+    }
+
+    private final JSONArray nodeJsonArray;
+    private final ParsedNode[] parsedNodes;
+
+    /**
+     * @param nodeJsonArray Node details array of get nodes API response.
+     * @param nodeMap       Current nodes of the user.
+     * @param localNodeIds  Node ids of nodes which are available on local network.
+     */
+    NodePageParser(JSONArray nodeJsonArray, HashMap<String, EspNode> nodeMap, Set<String> localNodeIds) {
+
+        this.nodeJsonArray = nodeJsonArray;
+        this.parsedNodes = new ParsedNode[nodeJsonArray.length()];
+
+        // Read application state before parsing, parser tasks don't access shared maps.
+        for (int i = 0; i < parsedNodes.length; i++) {
+
+            JSONObject nodeJson = nodeJsonArray.optJSONObject(i);
+            if (nodeJson == null) {
+                continue;
+            }
+
+            ParsedNode parsedNode = new ParsedNode();
+            parsedNode.nodeId = nodeJson.optString(AppConstants.KEY_ID);
+            parsedNode.node = nodeMap.get(parsedNode.nodeId);
+            parsedNode.isLocalNode = localNodeIds.contains(parsedNode.nodeId);
+            if (parsedNode.node == null) {
+                parsedNode.node = new EspNode(parsedNode.nodeId);
+            }
+            parsedNodes[i] = parsedNode;
+        }
+    }
+
+    /**
+     * Parse all nodes of the page.
+     *
+     * @return Parsed nodes in the same order as response. Entry is null (or its node is null) for invalid node JSON.
+     */
+    ParsedNode[] parse() {
+        return parse(BuildConfig.isParallelNodeParsingEnabled);
+    }
+
+    /**
+     * Parse all nodes of the page, in parallel if it is allowed and page has enough nodes.
+     *
+     * @param isParallelAllowed True if nodes can be parsed in parallel.
+     * @return Parsed nodes in the same order as response.
+     */
+    ParsedNode[] parse(boolean isParallelAllowed) {
+
+        if (isParallelAllowed && parsedNodes.length >= MIN_NODES_FOR_PARALLEL_PARSING
+                && Runtime.getRuntime().availableProcessors() > 1) {
+
+            long startTime = System.currentTimeMillis();
+            getParserPool().invoke(new ParseTask(0, parsedNodes.length));
+            EspLog.d(TAG, () -> "Parsed " + parsedNodes.length + " nodes in parallel in " + (System.currentTimeMillis() - startTime) + " ms");
+
+        } else {
+            parseNodes(0, parsedNodes.length);
+        }
+        return parsedNodes;
+    }
+
+    private void parseNodes(int start, int end) {
+
+        for (int i = start; i < end; i++) {
+            if (parsedNodes[i] != null) {
+                parseNode(nodeJsonArray.optJSONObject(i), parsedNodes[i]);
+            }
+        }
+    }
+
+    /**
+     * Parse config, params and status of one node. This doesn't parse schedules,
+     * because schedules of all nodes are merged in one map.
+     */
+    private void parseNode(JSONObject nodeJson, ParsedNode parsedNode) {
+
+        String nodeId = parsedNode.nodeId;
+        EspNode espNode = parsedNode.node;
+        EspLog.d(TAG, () -> "Node id : " + nodeId);
+
+        // User role
+        espNode.setUserRole(nodeJson.optString(AppConstants.KEY_ROLE));
+
+        // Node Config
+        JSONObject configJson = nodeJson.optJSONObject(AppConstants.KEY_CONFIG);
+        if (configJson != null) {
+
+            // If node is available on local network then ignore configuration received from cloud.
+            if (!parsedNode.isLocalNode) {
+                espNode = JsonDataParser.setNodeConfig(espNode, configJson);
+                parsedNode.node = espNode;
+                if (espNode == null) {
+                    EspLog.e(TAG, "Invalid node config for node : " + nodeId);
+                    return;
+                }
+            } else {
+                EspLog.d(TAG, () -> "Ignore config values for local node :" + nodeId);
+            }
+
+            espNode.setOnline(true);
+            espNode.setConfigData(configJson.toString());
+            parsedNode.hasConfig = true;
+        }
+
+        // Node Params values
+        JSONObject paramsJson = nodeJson.optJSONObject(AppConstants.KEY_PARAMS);
+        if (paramsJson != null) {
+
+            espNode.setParamData(paramsJson.toString());
+            // If node is available on local network then ignore param values received from cloud.
+            JsonDataParser.setNodeParams(espNode, paramsJson, null, parsedNode.isLocalNode);
+            parsedNode.paramsJson = paramsJson;
+        }
+
+        // Node Status
+        JSONObject statusJson = nodeJson.optJSONObject(AppConstants.KEY_STATUS);
+        if (statusJson != null && !parsedNode.isLocalNode) {
+            JsonDataParser.setNodeStatus(espNode, statusJson);
+        }
+    }
+
+    private static synchronized ForkJoinPool getParserPool() {
+
+        if (parserPool == null) {
+            parserPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        }
+        return parserPool;
+    }
+
+    private class ParseTask extends RecursiveAction {
+
+        private final int start;
+        private final int end;
+
+        ParseTask(int start, int end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+
+            if (end - start <= NODES_PER_TASK) {
+                parseNodes(start, end);
+                return;
+            }
+
+            int mid = (start + end) >>> 1;
+            invokeAll(new ParseTask(start, mid), new ParseTask(mid, end));
+        }
+    }
+}
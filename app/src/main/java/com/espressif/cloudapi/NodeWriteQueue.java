@@ -0,0 +1,89 @@
+// Copyright 2021 Espressif Systems (Shanghai) PTE LTD
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.espressif.cloudapi;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * This class runs write requests of each node one at a time, in the order in which they are submitted.
+ * Requests of different nodes run in parallel on the given executor.
+ * <p>
+ * Only one thread of the executor is used for a node at a time, so successive writes of a node
+ * (e.g. while user drags a slider) reach cloud in order and do not hold a thread each while they wait.
+ */
+class NodeWriteQueue {
+
+    private final Executor executor;
+    // Node id and writes of the node waiting to be sent. Node has an entry while its writes are being sent.
+    private final HashMap<String, ArrayDeque<Runnable>> queues = new HashMap<>();
+
+    NodeWriteQueue(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Run the write after all writes of the node submitted before it are completed.
+     *
+     * @param nodeId Node id.
+     * @param write  Task which sends the write request and waits for its response.
+     */
+    void submit(final String nodeId, Runnable write) {
+
+        synchronized (queues) {
+
+            ArrayDeque<Runnable> queue = queues.get(nodeId);
+            if (queue != null) {
+                queue.add(write);
+                return;
+            }
+            queue = new ArrayDeque<>();
+            queue.add(write);
+            queues.put(nodeId, queue);
+        }
+
+        executor.execute(new Runnable() {
+
+            @Override
+            public void run() {
+                drain(nodeId);
+            }
+        });
+    }
+
+    private void drain(String nodeId) {
+
+        while (true) {
+
+            Runnable write;
+            synchronized (queues) {
+                ArrayDeque<Runnable> queue = queues.get(nodeId);
+                write = queue.poll();
+                if (write == null) {
+                    queues.remove(nodeId);
+                    return;
+                }
+            }
+
+            try {
+                write.run();
+            } catch (RuntimeException e) {
+                // Next writes of the node should not get stuck because of this one.
+                e.printStackTrace();
+            }
+        }
+    }
+}
@@ -0,0 +1,34 @@
+// Copyright 2021 Espressif Systems (Shanghai) PTE LTD
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.espressif.cloudapi;
+
+/**
+ * Listener for schedule update requests of multiple nodes.
+ * In addition to final result, it receives result of each node as soon as it is available.
+ */
+public interface ScheduleUpdateListener extends ApiResponseListener {
+
+    /**
+     * Called when schedule request of one node is completed (after retries, if any).
+     * This gets called on background thread.
+     *
+     * @param nodeId         Node id.
+     * @param isSuccessful   True if schedule is updated for the node.
+     * @param isQueued       True if cloud is not reachable and request is stored in outbox, to be sent later.
+     * @param completedCount Number of nodes for which request is completed.
+     * @param totalCount     Total number of nodes.
+     */
+    void onNodeUpdated(String nodeId, boolean isSuccessful, boolean isQueued, int completedCount, int totalCount);
+}
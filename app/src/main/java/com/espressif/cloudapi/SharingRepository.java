@@ -0,0 +1,267 @@
+// Copyright 2021 Espressif Systems (Shanghai) PTE LTD
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.espressif.cloudapi;
+
+import android.content.Context;
+import android.os.Bundle;
+import android.os.SystemClock;
+
+import com.espressif.AppConstants;
+import com.espressif.EspApplication;
+import com.espressif.EspLog;
+import com.espressif.ui.models.EspNode;
+import com.espressif.ui.models.SharingRequest;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * This class provides sharing information of nodes (users of the node and pending sharing requests sent by primary user).
+ * Node sharing info and sharing requests are fetched from cloud concurrently and kept for {@link #SHARING_INFO_TTL},
+ * so that opening node details again is served without any request.
+ * <p>
+ * Pending requests are indexed by node id. Sharing requests API returns requests of all nodes of the user,
+ * so one response is used for all nodes.
+ */
+public class SharingRepository {
+
+    private static final String TAG = SharingRepository.class.getSimpleName();
+
+    public static final long SHARING_INFO_TTL = 30000;
+
+    private static SharingRepository repository;
+
+    private EspApplication espApp;
+    private ApiManager apiManager;
+
+    private final HashMap<String, Long> nodeSharingTime = new HashMap<>();
+    private final HashMap<String, ArrayList<SharingRequest>> pendingRequests = new HashMap<>();
+    private long sharingRequestsTime = -1;
+
+    public static synchronized SharingRepository getInstance(Context context) {
+
+        if (repository == null) {
+            repository = new SharingRepository(context);
+        }
+        return repository;
+    }
+
+    private SharingRepository(Context context) {
+        espApp = (EspApplication) context.getApplicationContext();
+        apiManager = ApiManager.getInstance(espApp);
+    }
+
+    /**
+     * Get sharing information of the node.
+     * Users of the node are updated in node object and pending requests (only for primary user)
+     * are given in bundle with {@link AppConstants#KEY_SHARING_REQUESTS} key.
+     * This method should be called on main thread.
+     *
+     * @param nodeId       Node id.
+     * @param forceRefresh True to fetch information from cloud even if cached information is available.
+     * @param listener     Listener to send success or failure.
+     */
+    public void getNodeSharingInfo(final String nodeId, boolean forceRefresh, final ApiResponseListener listener) {
+
+        EspNode node = espApp.nodeMap.get(nodeId);
+        final boolean isPrimaryUser = node != null && AppConstants.KEY_USER_ROLE_PRIMARY.equals(node.getUserRole());
+        final boolean shouldGetNodeSharing = forceRefresh || !isFresh(nodeSharingTime.get(nodeId));
+        final boolean shouldGetRequests = isPrimaryUser && (forceRefresh || !isFresh(sharingRequestsTime));
+
+        if (!shouldGetNodeSharing && !shouldGetRequests) {
+            EspLog.d(TAG, () -> "Sharing info of node " + nodeId + " is available in cache");
+            listener.onSuccess(getResult(nodeId, isPrimaryUser));
+            return;
+        }
+
+        // Both requests are independent, so those are sent together and listener is called after both responses.
+        final ResponseJoin join = new ResponseJoin((shouldGetNodeSharing ? 1 : 0) + (shouldGetRequests ? 1 : 0)) {
+
+            @Override
+            void onComplete() {
+                if (failure == null) {
+                    listener.onSuccess(getResult(nodeId, isPrimaryUser));
+                } else if (isNetworkFailure) {
+                    listener.onNetworkFailure(failure);
+                } else {
+                    listener.onResponseFailure(failure);
+                }
+            }
+        };
+
+        if (shouldGetNodeSharing) {
+
+            apiManager.getNodeSharing(nodeId, new ApiResponseListener() {
+
+                @Override
+                public void onSuccess(Bundle data) {
+                    synchronized (SharingRepository.this) {
+                        nodeSharingTime.put(nodeId, SystemClock.elapsedRealtime());
+                    }
+                    join.onResponse(null, false);
+                }
+
+                @Override
+                public void onResponseFailure(Exception exception) {
+                    join.onResponse(exception, false);
+                }
+
+                @Override
+                public void onNetworkFailure(Exception exception) {
+                    join.onResponse(exception, true);
+                }
+            });
+        }
+
+        if (shouldGetRequests) {
+
+            apiManager.getSharingRequests(true, new ApiResponseListener() {
+
+                @Override
+                public void onSuccess(Bundle data) {
+                    if (data != null) {
+                        ArrayList<SharingRequest> requests = data.getParcelableArrayList(AppConstants.KEY_SHARING_REQUESTS);
+                        updatePendingRequests(requests);
+                    }
+                    join.onResponse(null, false);
+                }
+
+                @Override
+                public void onResponseFailure(Exception exception) {
+                    join.onResponse(exception, false);
+                }
+
+                @Override
+                public void onNetworkFailure(Exception exception) {
+                    join.onResponse(exception, true);
+                }
+            });
+        }
+    }
+
+    /**
+     * Add sharing request sent by user, so that cached pending requests remain same as cloud.
+     */
+    public synchronized void addPendingRequest(String nodeId, SharingRequest request) {
+
+        ArrayList<SharingRequest> requests = pendingRequests.get(nodeId);
+        if (requests == null) {
+            requests = new ArrayList<>();
+            pendingRequests.put(nodeId, requests);
+        }
+        requests.add(request);
+    }
+
+    public synchronized void removePendingRequest(String nodeId, String reqId) {
+
+        ArrayList<SharingRequest> requests = pendingRequests.get(nodeId);
+        if (requests == null) {
+            return;
+        }
+
+        for (int i = 0; i < requests.size(); i++) {
+            if (requests.get(i).getReqId().equals(reqId)) {
+                requests.remove(i);
+                break;
+            }
+        }
+        if (requests.isEmpty()) {
+            pendingRequests.remove(nodeId);
+        }
+    }
+
+    public synchronized void invalidate(String nodeId) {
+        nodeSharingTime.remove(nodeId);
+        sharingRequestsTime = -1;
+    }
+
+    public synchronized void clear() {
+        nodeSharingTime.clear();
+        pendingRequests.clear();
+        sharingRequestsTime = -1;
+    }
+
+    private synchronized void updatePendingRequests(ArrayList<SharingRequest> requests) {
+
+        pendingRequests.clear();
+        sharingRequestsTime = SystemClock.elapsedRealtime();
+
+        if (requests == null) {
+            return;
+        }
+
+        for (SharingRequest request : requests) {
+
+            if (!AppConstants.KEY_REQ_STATUS_PENDING.equals(request.getReqStatus()) || request.getNodeIds() == null) {
+                continue;
+            }
+
+            for (String id : request.getNodeIds()) {
+                ArrayList<SharingRequest> nodeRequests = pendingRequests.get(id);
+                if (nodeRequests == null) {
+                    nodeRequests = new ArrayList<>();
+                    pendingRequests.put(id, nodeRequests);
+                }
+                nodeRequests.add(request);
+            }
+        }
+    }
+
+    private synchronized Bundle getResult(String nodeId, boolean isPrimaryUser) {
+
+        ArrayList<SharingRequest> requests = new ArrayList<>();
+        if (isPrimaryUser && pendingRequests.containsKey(nodeId)) {
+            requests.addAll(pendingRequests.get(nodeId));
+        }
+
+        Bundle data = new Bundle();
+        data.putParcelableArrayList(AppConstants.KEY_SHARING_REQUESTS, requests);
+        return data;
+    }
+
+    private boolean isFresh(Long time) {
+        return time != null && time >= 0 && SystemClock.elapsedRealtime() - time < SHARING_INFO_TTL;
+    }
+
+    /**
+     * Counts responses of concurrent requests. Callbacks of ApiManager are received on main thread.
+     */
+    private abstract static class ResponseJoin {
+
+        private int pendingCount;
+        Exception failure;
+        boolean isNetworkFailure;
+
+        ResponseJoin(int pendingCount) {
+            this.pendingCount = pendingCount;
+        }
+
+        void onResponse(Exception exception, boolean isNetworkFailure) {
+
+            if (exception != null && failure == null) {
+                failure = exception;
+                this.isNetworkFailure = isNetworkFailure;
+            }
+
+            pendingCount--;
+            if (pendingCount == 0) {
+                onComplete();
+            }
+        }
+
+        abstract void onComplete();
+    }
+}
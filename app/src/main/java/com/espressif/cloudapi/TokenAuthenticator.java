@@ -17,10 +17,11 @@ package com.espressif.cloudapi;
 import android.content.Context;
 import android.content.Intent;
 import android.text.TextUtils;
-import android.util.Log;
 
 import com.espressif.AppConstants;
 import com.espressif.EspApplication;
+import com.espressif.EspLog;
+import com.espressif.RequestMetrics;
 import com.espressif.ui.activities.MainActivity;
 
 import okhttp3.Authenticator;
@@ -41,12 +42,13 @@ public class TokenAuthenticator implements Authenticator {
     @Override
     public Request authenticate(Route route, Response response) {
 
-        Log.d(TAG, "=============== Authenticate callback ===============");
-        Log.d(TAG, "Response code : " + response.code());
+        EspLog.d(TAG, "=============== Authenticate callback ===============");
+        EspLog.d(TAG, () -> "Response code : " + response.code());
         String newToken = ApiManager.getInstance(context).getNewToken();
 
         if (!TextUtils.isEmpty(newToken)) {
-            Log.d(TAG, "Retrying with new token");
+            EspLog.d(TAG, "Retrying with new token");
+            RequestMetrics.getInstance().recordRetry("token refresh");
             // Add new header to rejected request and retry it
             return response.request().newBuilder()
                     .header(AppConstants.HEADER_AUTHORIZATION, newToken)
@@ -58,7 +60,7 @@ public class TokenAuthenticator implements Authenticator {
     }
 
     private void doLogout() {
-        Log.d(TAG, "Logout and display Login screen");
+        EspLog.d(TAG, "Logout and display Login screen");
         ((EspApplication) context).logout();
     }
 }
\ No newline at end of file
@@ -0,0 +1,307 @@
+// Copyright 2021 Espressif Systems (Shanghai) PTE LTD
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.espressif.cloudapi;
+
+import android.content.Context;
+
+import androidx.work.BackoffPolicy;
+import androidx.work.Constraints;
+import androidx.work.ExistingWorkPolicy;
+import androidx.work.NetworkType;
+import androidx.work.OneTimeWorkRequest;
+import androidx.work.WorkManager;
+
+import com.espressif.AppConstants;
+import com.espressif.EspLog;
+import com.espressif.OutboxWorker;
+import com.espressif.db.EspDatabase;
+import com.espressif.db.PendingWriteDao;
+import com.espressif.ui.models.PendingWrite;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Durable outbox for write requests which failed because cloud was not reachable.
+ * Writes are stored in local database and {@link OutboxWorker} sends them in the same order
+ * once network is available, with exponential backoff between the attempts.
+ * <p>
+ * Param writes are stored per param, so that newer value of a param replaces the pending one
+ * instead of sending all intermediate values on reconnect.
+ * <p>
+ * Direct writes and writes sent by {@link OutboxWorker} are sent while holding write lock of the node
+ * ({@link #getWriteLock(String)}), so that requests of a node do not overtake each other.
+ * Worker skips the writes of a node if direct write is sent after it has read the pending writes.
+ */
+public class WriteOutbox {
+
+    private static final String TAG = WriteOutbox.class.getSimpleName();
+
+    private static final long INITIAL_BACKOFF_SECONDS = 30;
+
+    private static WriteOutbox writeOutbox;
+
+    private Context context;
+    private EspDatabase espDatabase;
+
+    private final HashMap<String, Object> writeLocks = new HashMap<>();
+    private final HashMap<String, Long> directWriteCounts = new HashMap<>();
+
+    public static synchronized WriteOutbox getInstance(Context context) {
+
+        if (writeOutbox == null) {
+            writeOutbox = new WriteOutbox(context.getApplicationContext());
+        }
+        return writeOutbox;
+    }
+
+    private WriteOutbox(Context context) {
+        this.context = context;
+        espDatabase = EspDatabase.getInstance(context);
+    }
+
+    /**
+     * Store param write of a node. Pending writes of same params are replaced by new values.
+     *
+     * @param nodeId Node id.
+     * @param body   JSON body of update params request.
+     */
+    public void addParamWrite(String nodeId, JsonObject body) {
+
+        ArrayList<PendingWrite> writes = new ArrayList<>();
+
+        for (Map.Entry<String, JsonElement> deviceEntry : body.entrySet()) {
+
+            String deviceName = deviceEntry.getKey();
+            JsonElement deviceValue = deviceEntry.getValue();
+
+            if (deviceValue.isJsonObject()) {
+
+                for (Map.Entry<String, JsonElement> paramEntry : deviceValue.getAsJsonObject().entrySet()) {
+
+                    JsonObject paramJson = new JsonObject();
+                    paramJson.add(paramEntry.getKey(), paramEntry.getValue());
+                    JsonObject writeBody = new JsonObject();
+                    writeBody.add(deviceName, paramJson);
+                    writes.add(createWrite(AppConstants.WRITE_TYPE_PARAM, nodeId,
+                            getParamCollapseKey(nodeId, deviceName, paramEntry.getKey()), writeBody));
+                }
+            } else {
+                JsonObject writeBody = new JsonObject();
+                writeBody.add(deviceName, deviceValue);
+                writes.add(createWrite(AppConstants.WRITE_TYPE_PARAM, nodeId,
+                        getParamCollapseKey(nodeId, deviceName, null), writeBody));
+            }
+        }
+        addWrites(writes);
+    }
+
+    /**
+     * Store schedule write of a node. Schedule operations are not collapsed because each of them
+     * depends on the previous one (add, edit, remove of same schedule).
+     *
+     * @param nodeId Node id.
+     * @param body   JSON body of update schedules request.
+     */
+    public void addScheduleWrite(String nodeId, JsonObject body) {
+
+        ArrayList<PendingWrite> writes = new ArrayList<>();
+        writes.add(createWrite(AppConstants.WRITE_TYPE_SCHEDULE, nodeId, null, body));
+        addWrites(writes);
+    }
+
+    /**
+     * Store group update. Only group name change replaces the pending one,
+     * add / remove of nodes are sent in the same order.
+     *
+     * @param groupId Group id.
+     * @param body    JSON body of update group request.
+     */
+    public void addGroupWrite(String groupId, JsonObject body) {
+
+        String collapseKey = null;
+        if (body.size() == 1 && body.has(AppConstants.KEY_GROUP_NAME)) {
+            collapseKey = "group_" + groupId + "_" + AppConstants.KEY_GROUP_NAME;
+        }
+
+        ArrayList<PendingWrite> writes = new ArrayList<>();
+        writes.add(createWrite(AppConstants.WRITE_TYPE_GROUP, groupId, collapseKey, body));
+        addWrites(writes);
+    }
+
+    /**
+     * @param targetId Node id or group id.
+     * @return Returns lock which must be held while sending write request of the target.
+     */
+    public synchronized Object getWriteLock(String targetId) {
+
+        Object lock = writeLocks.get(targetId);
+        if (lock == null) {
+            lock = new Object();
+            writeLocks.put(targetId, lock);
+        }
+        return lock;
+    }
+
+    /**
+     * @return Returns number of direct param writes sent for each node.
+     */
+    public synchronized HashMap<String, Long> getDirectWriteCounts() {
+        return new HashMap<>(directWriteCounts);
+    }
+
+    public synchronized long getDirectWriteCount(String nodeId) {
+        Long count = directWriteCounts.get(nodeId);
+        return count == null ? 0 : count;
+    }
+
+    /**
+     * This must be called with write lock of the node, before sending new param values directly.
+     * It removes pending writes of the same params, so that old values are not sent later.
+     * This makes a blocking database call.
+     *
+     * @param nodeId Node id.
+     * @param body   JSON body of update params request.
+     */
+    public void onDirectParamWrite(String nodeId, JsonObject body) {
+
+        removeParamWrites(nodeId, body);
+
+        // Count is updated after removing pending writes. So worker which has read the count before this
+        // either reads pending writes after they are removed or finds that count is changed.
+        synchronized (this) {
+            directWriteCounts.put(nodeId, getDirectWriteCount(nodeId) + 1);
+        }
+    }
+
+    /**
+     * Remove pending writes of the params which are being written again.
+     *
+     * @param nodeId Node id.
+     * @param body   JSON body of update params request.
+     */
+    private void removeParamWrites(String nodeId, JsonObject body) {
+
+        final PendingWriteDao dao = espDatabase.getPendingWriteDao();
+        if (dao.getPendingWriteCount() == 0) {
+            return;
+        }
+
+        final ArrayList<String> collapseKeys = new ArrayList<>();
+
+        for (Map.Entry<String, JsonElement> deviceEntry : body.entrySet()) {
+
+            JsonElement deviceValue = deviceEntry.getValue();
+
+            if (deviceValue.isJsonObject()) {
+                for (String paramName : deviceValue.getAsJsonObject().keySet()) {
+                    collapseKeys.add(getParamCollapseKey(nodeId, deviceEntry.getKey(), paramName));
+                }
+            } else {
+                collapseKeys.add(getParamCollapseKey(nodeId, deviceEntry.getKey(), null));
+            }
+        }
+
+        espDatabase.runInTransaction(new Runnable() {
+
+            @Override
+            public void run() {
+                for (String collapseKey : collapseKeys) {
+                    dao.deleteByCollapseKey(collapseKey);
+                }
+            }
+        });
+    }
+
+    public boolean hasPendingWrites() {
+        return espDatabase.getPendingWriteDao().getPendingWriteCount() > 0;
+    }
+
+    /**
+     * Schedule the work to send pending writes. Work runs only when network is available.
+     * If the work is already scheduled, it will send the newly added writes as well.
+     */
+    public void scheduleReplay() {
+
+        Constraints constraints = new Constraints.Builder()
+                .setRequiredNetworkType(NetworkType.CONNECTED)
+                .build();
+
+        OneTimeWorkRequest workRequest = new OneTimeWorkRequest.Builder(OutboxWorker.class)
+                .setConstraints(constraints)
+                .setBackoffCriteria(BackoffPolicy.EXPONENTIAL, INITIAL_BACKOFF_SECONDS, TimeUnit.SECONDS)
+                .build();
+
+        WorkManager.getInstance(context).enqueueUniqueWork(AppConstants.OUTBOX_WORK_NAME,
+                ExistingWorkPolicy.KEEP, workRequest);
+    }
+
+    /**
+     * Remove all pending writes. It is used when user logs out.
+     */
+    public void clear() {
+        WorkManager.getInstance(context).cancelUniqueWork(AppConstants.OUTBOX_WORK_NAME);
+        espDatabase.getPendingWriteDao().deleteAll();
+    }
+
+    private void addWrites(final ArrayList<PendingWrite> writes) {
+
+        if (writes.isEmpty()) {
+            return;
+        }
+
+        final PendingWriteDao dao = espDatabase.getPendingWriteDao();
+
+        espDatabase.runInTransaction(new Runnable() {
+
+            @Override
+            public void run() {
+                for (PendingWrite write : writes) {
+                    if (write.getCollapseKey() != null) {
+                        dao.deleteByCollapseKey(write.getCollapseKey());
+                    }
+                    dao.insert(write);
+                }
+            }
+        });
+        EspLog.d(TAG, () -> "Added " + writes.size() + " write(s) in outbox");
+        scheduleReplay();
+    }
+
+    private PendingWrite createWrite(int writeType, String targetId, String collapseKey, JsonObject body) {
+
+        PendingWrite write = new PendingWrite();
+        write.setWriteType(writeType);
+        write.setTargetId(targetId);
+        write.setCollapseKey(collapseKey);
+        write.setBody(body.toString());
+        write.setTimestamp(System.currentTimeMillis());
+        return write;
+    }
+
+    private String getParamCollapseKey(String nodeId, String deviceName, String paramName) {
+
+        String key = "param_" + nodeId + "_" + deviceName;
+        if (paramName != null) {
+            key = key + "_" + paramName;
+        }
+        return key;
+    }
+}
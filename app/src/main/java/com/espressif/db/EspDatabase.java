@@ -27,8 +27,9 @@ import com.espressif.AppConstants;
 import com.espressif.ui.models.EspNode;
 import com.espressif.ui.models.Group;
 import com.espressif.ui.models.NotificationEvent;
+import com.espressif.ui.models.PendingWrite;
 
-@Database(entities = {EspNode.class, Group.class, NotificationEvent.class}, version = 3, exportSchema = false)
+@Database(entities = {EspNode.class, Group.class, NotificationEvent.class, PendingWrite.class}, version = 5, exportSchema = false)
 @TypeConverters({StringArrayListConverters.class})
 public abstract class EspDatabase extends RoomDatabase {
 
@@ -37,6 +38,7 @@ public abstract class EspDatabase extends RoomDatabase {
     public abstract NodeDao getNodeDao();
     public abstract GroupDao getGroupDao();
     public abstract NotificationDao getNotificationDao();
+    public abstract PendingWriteDao getPendingWriteDao();
 
     public static EspDatabase getInstance(Context context) {
         if (null == espDatabase) {
@@ -51,6 +53,8 @@ public abstract class EspDatabase extends RoomDatabase {
                 AppConstants.ESP_DATABASE_NAME)
                 .addMigrations(MIGRATION_2_3)
                 .addMigrations(MIGRATION_1_3)
+                .addMigrations(MIGRATION_3_4)
+                .addMigrations(MIGRATION_4_5)
                 .allowMainThreadQueries().build();
     }
 
@@ -72,4 +76,18 @@ public abstract class EspDatabase extends RoomDatabase {
             database.execSQL("CREATE TABLE IF NOT EXISTS `" + AppConstants.NOTIFICATION_TABLE + "` (`notificationId` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, `event_version` TEXT, `event_type` TEXT, `description` TEXT, `id` TEXT, `event_data` TEXT, `timestamp` INTEGER NOT NULL, `notification_msg` TEXT)");
         }
     };
+
+    static final Migration MIGRATION_3_4 = new Migration(3, 4) {
+        @Override
+        public void migrate(SupportSQLiteDatabase database) {
+            database.execSQL("CREATE TABLE IF NOT EXISTS `" + AppConstants.OUTBOX_TABLE + "` (`writeId` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, `write_type` INTEGER NOT NULL, `target_id` TEXT, `collapse_key` TEXT, `write_body` TEXT, `timestamp` INTEGER NOT NULL)");
+        }
+    };
+
+    static final Migration MIGRATION_4_5 = new Migration(4, 5) {
+        @Override
+        public void migrate(SupportSQLiteDatabase database) {
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_" + AppConstants.NOTIFICATION_TABLE + "_timestamp` ON `" + AppConstants.NOTIFICATION_TABLE + "` (`timestamp`)");
+        }
+    };
 }
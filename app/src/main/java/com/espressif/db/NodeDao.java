@@ -31,6 +31,15 @@ public interface NodeDao {
     @Query("SELECT * FROM " + AppConstants.NODE_TABLE)
     List<EspNode> getNodesFromStorage();
 
+    /**
+     * Get single node from database.
+     *
+     * @param nodeId Node id.
+     * @return Returns node if it is available in database, null otherwise.
+     */
+    @Query("SELECT * FROM " + AppConstants.NODE_TABLE + " WHERE nodeId = :nodeId")
+    EspNode getNode(String nodeId);
+
     /**
      * Update node if it exist in database, insert node otherwise.
      *
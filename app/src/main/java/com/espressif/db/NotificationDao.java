@@ -28,8 +28,27 @@ import java.util.List;
 @Dao
 public interface NotificationDao {
 
-    @Query("SELECT * FROM " + AppConstants.NOTIFICATION_TABLE + " ORDER BY " + AppConstants.KEY_TIMESTAMP + " DESC")
-    List<NotificationEvent> getNotificationsFromStorage();
+    /**
+     * Get first page of notifications, latest first.
+     *
+     * @param limit Page size.
+     */
+    @Query("SELECT * FROM " + AppConstants.NOTIFICATION_TABLE
+            + " ORDER BY " + AppConstants.KEY_TIMESTAMP + " DESC, notificationId DESC LIMIT :limit")
+    List<NotificationEvent> getNotifications(int limit);
+
+    /**
+     * Get next page of notifications which are older than the last notification of previous page.
+     *
+     * @param timestamp      Timestamp of the last notification of previous page.
+     * @param notificationId Id of the last notification of previous page.
+     * @param limit          Page size.
+     */
+    @Query("SELECT * FROM " + AppConstants.NOTIFICATION_TABLE
+            + " WHERE " + AppConstants.KEY_TIMESTAMP + " < :timestamp"
+            + " OR (" + AppConstants.KEY_TIMESTAMP + " = :timestamp AND notificationId < :notificationId)"
+            + " ORDER BY " + AppConstants.KEY_TIMESTAMP + " DESC, notificationId DESC LIMIT :limit")
+    List<NotificationEvent> getNotificationsBefore(long timestamp, long notificationId, int limit);
 
     /**
      * Update group if it exist in database, insert group otherwise.
@@ -39,6 +58,14 @@ public interface NotificationDao {
     @Insert(onConflict = OnConflictStrategy.REPLACE)
     void insertOrUpdate(NotificationEvent notification);
 
+    /**
+     * Insert or update all notifications in one transaction.
+     *
+     * @param notifications Notification events to be inserted / updated.
+     */
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertAll(List<NotificationEvent> notifications);
+
     /**
      * Delete the notification from database.
      *
@@ -47,6 +74,24 @@ public interface NotificationDao {
     @Delete
     void delete(NotificationEvent notification);
 
+    /**
+     * Delete notifications which are older than given time.
+     *
+     * @param timestamp Notifications before this time will be deleted.
+     */
+    @Query("DELETE FROM " + AppConstants.NOTIFICATION_TABLE + " WHERE " + AppConstants.KEY_TIMESTAMP + " < :timestamp")
+    void deleteOlderThan(long timestamp);
+
+    /**
+     * Keep only latest notifications and delete the rest.
+     *
+     * @param maxCount Number of notifications to keep.
+     */
+    @Query("DELETE FROM " + AppConstants.NOTIFICATION_TABLE + " WHERE notificationId IN"
+            + " (SELECT notificationId FROM " + AppConstants.NOTIFICATION_TABLE
+            + " ORDER BY " + AppConstants.KEY_TIMESTAMP + " DESC, notificationId DESC LIMIT -1 OFFSET :maxCount)")
+    void trimToCount(int maxCount);
+
     /**
      * Delete all notifications from the table.
      */
@@ -0,0 +1,64 @@
+// Copyright 2021 Espressif Systems (Shanghai) PTE LTD
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.espressif.db;
+
+import androidx.room.Dao;
+import androidx.room.Delete;
+import androidx.room.Insert;
+import androidx.room.Query;
+
+import com.espressif.AppConstants;
+import com.espressif.ui.models.PendingWrite;
+
+import java.util.List;
+
+@Dao
+public interface PendingWriteDao {
+
+    /**
+     * Get all pending writes in the order they were made.
+     */
+    @Query("SELECT * FROM " + AppConstants.OUTBOX_TABLE + " ORDER BY writeId ASC")
+    List<PendingWrite> getPendingWrites();
+
+    @Query("SELECT COUNT(*) FROM " + AppConstants.OUTBOX_TABLE)
+    int getPendingWriteCount();
+
+    @Insert
+    long insert(PendingWrite pendingWrite);
+
+    /**
+     * Delete writes which are superseded by a newer write with same collapse key.
+     *
+     * @param collapseKey Collapse key of the write.
+     */
+    @Query("DELETE FROM " + AppConstants.OUTBOX_TABLE + " WHERE " + AppConstants.KEY_COLLAPSE_KEY + " = :collapseKey")
+    void deleteByCollapseKey(String collapseKey);
+
+    /**
+     * Delete the writes from outbox.
+     *
+     * @param pendingWrites Writes to be deleted.
+     */
+    @Delete
+    void delete(List<PendingWrite> pendingWrites);
+
+    /**
+     * Delete all writes from outbox table.
+     */
+    @Query("DELETE FROM " + AppConstants.OUTBOX_TABLE)
+    void deleteAll();
+}
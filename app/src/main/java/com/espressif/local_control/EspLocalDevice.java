@@ -14,8 +14,7 @@
 
 package com.espressif.local_control;
 
-import android.util.Log;
-
+import com.espressif.EspLog;
 import com.espressif.provisioning.listeners.ResponseListener;
 import com.espressif.provisioning.security.Security;
 import com.espressif.provisioning.security.Security0;
@@ -40,12 +39,12 @@ public class EspLocalDevice {
 
     private void initSession(final ResponseListener listener) {
 
-        Log.d(TAG, "========= Init Session for local device =========");
+        EspLog.d(TAG, "========= Init Session for local device =========");
         final String url = "http://" + getIpAddr() + ":" + getPort();
         Security security = null;
         if (securityType == 1) {
             security = new Security1(pop);
-            Log.e(TAG, "Created security 1 with pop : " + pop);
+            EspLog.d(TAG, "Created security 1");
         } else if (securityType == 0) {
             security = new Security0();
         } else {
@@ -53,16 +52,15 @@ public class EspLocalDevice {
             security = new Security0();
 //            listener.onFailure(new RuntimeException("Security type " + securityType + " not supported"));
         }
-        Log.d(TAG, "POP : " + pop);
-        Log.d(TAG, "Type : " + securityType);
-        EspLocalTransport transport = new EspLocalTransport(url);
+        EspLog.d(TAG, () -> "Type : " + securityType);
+        MeteredTransport transport = new MeteredTransport(new EspLocalTransport(url));
         session = new EspLocalSession(transport, security);
 
         session.init(null, new EspLocalSession.SessionListener() {
 
             @Override
             public void OnSessionEstablished() {
-                Log.d(TAG, "========= Session established on local network");
+                EspLog.d(TAG, "========= Session established on local network");
                 listener.onSuccess(null);
             }
 
@@ -75,7 +73,7 @@ public class EspLocalDevice {
 
     public void sendData(final String path, final byte[] data, final ResponseListener listener) {
 
-        Log.d(TAG, "Send data to device on path : " + path);
+        EspLog.d(TAG, () -> "Send data to device on path : " + path);
 
         if (session == null || !session.isEstablished()) {
 
@@ -95,7 +93,7 @@ public class EspLocalDevice {
                 }
             });
         } else {
-            Log.d(TAG, "Session is already created");
+            EspLog.d(TAG, "Session is already created");
             session.sendDataToDevice(path, data, new ResponseListener() {
                 @Override
                 public void onSuccess(byte[] returnData) {
@@ -108,7 +106,7 @@ public class EspLocalDevice {
 
                         @Override
                         public void onSuccess(byte[] returnData) {
-                            Log.d(TAG, "======== Session established again");
+                            EspLog.d(TAG, "======== Session established again");
                             sendData(path, data, listener);
                         }
 
@@ -170,7 +168,6 @@ public class EspLocalDevice {
     }
 
     public void setPop(String pop) {
-        Log.d(TAG, "========= Set POP : " + pop);
         this.pop = pop;
     }
 
@@ -179,7 +176,7 @@ public class EspLocalDevice {
     }
 
     public void setSecurityType(int securityType) {
-        Log.d(TAG, "========= Set Security Type : " + securityType);
+        EspLog.d(TAG, () -> "========= Set Security Type : " + securityType);
         this.securityType = securityType;
     }
 
@@ -15,8 +15,8 @@
 package com.espressif.local_control;
 
 import android.text.TextUtils;
-import android.util.Log;
 
+import com.espressif.EspLog;
 import com.espressif.provisioning.listeners.ResponseListener;
 import com.espressif.provisioning.transport.Transport;
 
@@ -58,7 +58,7 @@ public class EspLocalTransport implements Transport {
     private byte[] sendPostRequest(String path, byte[] data) throws IOException {
         byte[] responseBytes = null;
         URL url = new URL(baseUrl + "/" + path);
-        Log.e(TAG, "URL : " + url.toString());
+        EspLog.d(TAG, () -> "URL : " + url);
         HttpURLConnection urlConnection = (HttpURLConnection) url.openConnection();
         urlConnection.setDoOutput(true);
 
@@ -70,8 +70,6 @@ public class EspLocalTransport implements Transport {
 
         if (cookieManager.getCookieStore().getCookies().size() > 0) {
 
-            Log.d(TAG, "Cookie - Name : " + cookieManager.getCookieStore().getCookies().get(0).getName());
-            Log.d(TAG, "Cookie - Value : " + cookieManager.getCookieStore().getCookies().get(0).getValue());
             // While joining the Cookies, use ',' or ';' as needed. Most of the servers are using ';'
             urlConnection.setRequestProperty(COOKIE_HEADER,
                     TextUtils.join(";", cookieManager.getCookieStore().getCookies()));
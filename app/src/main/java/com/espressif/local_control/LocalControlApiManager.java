@@ -17,10 +17,10 @@ package com.espressif.local_control;
 import android.content.Context;
 import android.os.Bundle;
 import android.text.TextUtils;
-import android.util.Log;
 
 import com.espressif.AppConstants;
 import com.espressif.EspApplication;
+import com.espressif.EspLog;
 import com.espressif.JsonDataParser;
 import com.espressif.cloudapi.ApiResponseListener;
 import com.espressif.provisioning.listeners.ResponseListener;
@@ -51,7 +51,7 @@ public class LocalControlApiManager {
 
     public void getNodeDetails(final String nodeId, final ApiResponseListener listener) {
 
-        Log.d(TAG, "Get Node details on local network for id : " + nodeId);
+        EspLog.d(TAG, () -> "Get Node details on local network for id : " + nodeId);
 
         if (espApp.localDeviceMap.containsKey(nodeId)) {
 
@@ -64,15 +64,15 @@ public class LocalControlApiManager {
                     @Override
                     public void onSuccess(Bundle data) {
 
-                        Log.d(TAG, "Get node detail - Success");
+                        EspLog.d(TAG, "Get node detail - Success");
 
                         if (data != null) {
 
                             String configData = data.getString(AppConstants.KEY_CONFIG);
                             String paramsData = data.getString(AppConstants.KEY_PARAMS);
 
-                            Log.d(TAG, "Config data : " + configData);
-                            Log.d(TAG, "Params data : " + paramsData);
+                            EspLog.d(TAG, () -> "Config data : " + configData);
+                            EspLog.d(TAG, () -> "Params data : " + paramsData);
 
                             if (!TextUtils.isEmpty(configData)) {
 
@@ -150,7 +150,7 @@ public class LocalControlApiManager {
 
     public void getParamsValues(final String nodeId, final ApiResponseListener listener) {
 
-        Log.d(TAG, "Get param values on local network for node : " + nodeId);
+        EspLog.d(TAG, () -> "Get param values on local network for node : " + nodeId);
 
         if (espApp.localDeviceMap.containsKey(nodeId)) {
 
@@ -163,13 +163,13 @@ public class LocalControlApiManager {
                     @Override
                     public void onSuccess(Bundle data) {
 
-                        Log.d(TAG, "Get param values - Success");
+                        EspLog.d(TAG, "Get param values - Success");
 
                         if (data != null) {
 
                             String configData = data.getString(AppConstants.KEY_CONFIG);
                             String paramsData = data.getString(AppConstants.KEY_PARAMS);
-                            Log.e(TAG, "Params data : " + paramsData);
+                            EspLog.d(TAG, () -> "Params data : " + paramsData);
 
                             if (!TextUtils.isEmpty(configData)) {
 
@@ -246,7 +246,7 @@ public class LocalControlApiManager {
 
     public void updateParamValue(final String nodeId, JsonObject body, final ApiResponseListener listener) {
 
-        Log.d(TAG, "Update param values on local network");
+        EspLog.d(TAG, "Update param values on local network");
 
         if (espApp.localDeviceMap.containsKey(nodeId)) {
 
@@ -260,7 +260,7 @@ public class LocalControlApiManager {
                 @Override
                 public void onSuccess(byte[] returnData) {
 
-                    Log.d(TAG, "Update param values - Success");
+                    EspLog.d(TAG, "Update param values - Success");
 
                     if (returnData != null) {
 
@@ -280,7 +280,7 @@ public class LocalControlApiManager {
                         }
 
                     } else {
-                        Log.e(TAG, "returnData is null");
+                        EspLog.e(TAG, "returnData is null");
                         listener.onResponseFailure(new RuntimeException("Response not received."));
                     }
                 }
@@ -310,7 +310,7 @@ public class LocalControlApiManager {
                     bundle.putInt(AppConstants.KEY_PROPERTY_COUNT, count);
                     listener.onSuccess(bundle);
                 } else {
-                    Log.e("TAG", "returnData is null");
+                    EspLog.e(TAG, "returnData is null");
                 }
             }
 
@@ -0,0 +1,59 @@
+// Copyright 2021 Espressif Systems (Shanghai) PTE LTD
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.espressif.local_control;
+
+import com.espressif.RequestMetrics;
+import com.espressif.provisioning.listeners.ResponseListener;
+import com.espressif.provisioning.transport.Transport;
+
+/**
+ * Transport wrapper which records latency, payload size and result of each request
+ * sent to local device in {@link RequestMetrics}.
+ */
+public class MeteredTransport implements Transport {
+
+    private static final String ENDPOINT_PREFIX = "LOCAL POST /";
+
+    private Transport transport;
+
+    public MeteredTransport(Transport transport) {
+        this.transport = transport;
+    }
+
+    @Override
+    public void sendConfigData(final String path, final byte[] data, final ResponseListener listener) {
+
+        final long startTime = System.nanoTime();
+        final long bytesSent = data == null ? 0 : data.length;
+
+        transport.sendConfigData(path, data, new ResponseListener() {
+
+            @Override
+            public void onSuccess(byte[] returnData) {
+                RequestMetrics.getInstance().recordRequest(ENDPOINT_PREFIX + path, System.nanoTime() - startTime,
+                        bytesSent, returnData == null ? 0 : returnData.length, false);
+                listener.onSuccess(returnData);
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                RequestMetrics.getInstance().recordRequest(ENDPOINT_PREFIX + path, System.nanoTime() - startTime,
+                        bytesSent, -1, true);
+                listener.onFailure(e);
+            }
+        });
+    }
+}
@@ -17,10 +17,10 @@ package com.espressif.local_control;
 import android.content.Context;
 import android.net.nsd.NsdManager;
 import android.net.nsd.NsdServiceInfo;
-import android.util.Log;
 
 import com.espressif.AppConstants;
 import com.espressif.EspApplication;
+import com.espressif.EspLog;
 
 import java.net.InetAddress;
 import java.util.ArrayList;
@@ -73,7 +73,7 @@ public class mDNSManager {
 
     // Initialize Listeners
     public void initializeNsd() {
-        Log.d(TAG, "Initialize Network service discovery");
+        EspLog.d(TAG, "Initialize Network service discovery");
         // Initialize only resolve listener
         initializeResolveListener();
     }
@@ -81,7 +81,7 @@ public class mDNSManager {
     // Start discovering services on the network
     public void discoverServices() {
 
-        Log.d(TAG, "Discover Services");
+        EspLog.d(TAG, "Discover Services");
         // Cancel any existing discovery request
         stopDiscovery();
 
@@ -94,7 +94,7 @@ public class mDNSManager {
     // Stop DNS-SD service discovery
     public void stopDiscovery() {
 
-        Log.d(TAG, "Stop Discovery");
+        EspLog.d(TAG, "Stop Discovery");
         if (discoveryListener != null) {
             try {
                 mNsdManager.stopServiceDiscovery(discoveryListener);
@@ -112,15 +112,13 @@ public class mDNSManager {
             // Called as soon as service discovery begins.
             @Override
             public void onDiscoveryStarted(String regType) {
-                Log.e(TAG, "Service discovery started : " + regType);
+                EspLog.d(TAG, () -> "Service discovery started : " + regType);
             }
 
             @Override
             public void onServiceFound(NsdServiceInfo serviceInfo) {
 
                 // A service was found! Do something with it
-                Log.e(TAG, "Service discovery success : " + serviceInfo);
-
                 if (serviceInfo.getServiceType().equals(serviceType)) {
 
                     // If the resolver is free, resolve the service to get all the details
@@ -148,12 +146,12 @@ public class mDNSManager {
                         if (!isExist) {
                             pendingNsdServices.add(serviceInfo);
                         } else {
-                            Log.e(TAG, "Service is already available in queue");
+                            EspLog.d(TAG, "Service is already available in queue");
                         }
                     }
 
                 } else {
-                    Log.e(TAG, "Unknown Service Type: " + serviceInfo.getServiceType());
+                    EspLog.w(TAG, () -> "Unknown Service Type: " + serviceInfo.getServiceType());
                 }
             }
 
@@ -161,11 +159,10 @@ public class mDNSManager {
             public void onServiceLost(NsdServiceInfo service) {
                 // When the network service is no longer available.
                 // Internal bookkeeping code goes here.
-                Log.e(TAG, "Service lost : " + service);
+                EspLog.d(TAG, () -> "Service lost : " + service.getServiceName());
 
                 String serviceName = service.getServiceName();
                 EspApplication espApp = (EspApplication) context.getApplicationContext();
-                Log.i(TAG, "Local device list size before remove : " + espApp.localDeviceMap.size());
                 Iterator<Map.Entry<String, EspLocalDevice>> itr = espApp.localDeviceMap.entrySet().iterator();
 
                 while (itr.hasNext()) {
@@ -177,13 +174,13 @@ public class mDNSManager {
 
                     // Check if this value is the required value
                     if (device.getServiceName().equals(serviceName)) {
-                        Log.e(TAG, "Service Name Matched. Removed lost service");
+                        EspLog.d(TAG, () -> "Removed lost service of node : " + nodeId);
                         // Remove this entry from HashMap
                         itr.remove();
                     }
                 }
 
-                Log.i(TAG, "Local device list size after remove : " + espApp.localDeviceMap.size());
+                EspLog.d(TAG, () -> "Local device list size after remove : " + espApp.localDeviceMap.size());
 
                 // If the lost service was in the queue of pending services, remove it
                 Iterator<NsdServiceInfo> iterator = pendingNsdServices.iterator();
@@ -206,18 +203,18 @@ public class mDNSManager {
 
             @Override
             public void onDiscoveryStopped(String serviceType) {
-                Log.e(TAG, "Discovery stopped: " + serviceType);
+                EspLog.d(TAG, () -> "Discovery stopped: " + serviceType);
             }
 
             @Override
             public void onStartDiscoveryFailed(String serviceType, int errorCode) {
-                Log.e(TAG, "Discovery failed: Error code:" + errorCode);
+                EspLog.e(TAG, "Discovery failed: Error code:" + errorCode);
                 stopDiscovery();
             }
 
             @Override
             public void onStopDiscoveryFailed(String serviceType, int errorCode) {
-                Log.e(TAG, "Discovery failed: Error code:" + errorCode);
+                EspLog.e(TAG, "Discovery failed: Error code:" + errorCode);
                 mNsdManager.stopServiceDiscovery(this);
             }
         };
@@ -232,7 +229,7 @@ public class mDNSManager {
             public void onResolveFailed(NsdServiceInfo serviceInfo, int errorCode) {
 
                 // Called when the resolve fails. Use the error code to debug.
-                Log.e(TAG, "Resolve failed " + errorCode);
+                EspLog.e(TAG, "Resolve failed " + errorCode);
 
                 // Process the next service waiting to be resolved
                 resolveNextInQueue();
@@ -241,8 +238,6 @@ public class mDNSManager {
             @Override
             public void onServiceResolved(NsdServiceInfo serviceInfo) {
 
-                Log.d(TAG, "Resolve Succeeded. " + serviceInfo.getHost());
-
                 // Register the newly resolved service into our list of resolved services
                 resolvedNsdServices.add(serviceInfo);
 
@@ -251,7 +246,7 @@ public class mDNSManager {
                 InetAddress hostAddress = serviceInfo.getHost();
                 int hostPort = serviceInfo.getPort();
 
-                Log.d(TAG, "Host address : " + hostAddress + " and port : " + hostPort);
+                EspLog.d(TAG, () -> "Resolved service, host address : " + hostAddress + " and port : " + hostPort);
                 Map<String, byte[]> attr = serviceInfo.getAttributes();
                 HashMap<String, String> endPointList = new HashMap<>();
                 String nodeId = "";
@@ -259,9 +254,6 @@ public class mDNSManager {
                 for (Map.Entry<String, byte[]> entry : attr.entrySet()) {
                     String key = entry.getKey();
                     byte[] value = entry.getValue();
-                    Log.i(TAG, "Key : " + key);
-                    Log.i(TAG, "Value : " + new String(value));
-
                     if (key.equals(AppConstants.KEY_NODE_ID)) {
                         nodeId = new String(value);
                     } else {
@@ -287,7 +279,6 @@ public class mDNSManager {
     // Resolve next NSD service pending resolution
     private void resolveNextInQueue() {
 
-        Log.d(TAG, "resolveNextInQueue");
         // Get the next NSD service waiting to be resolved from the queue
         NsdServiceInfo nextNsdService = pendingNsdServices.poll();
         if (nextNsdService != null) {
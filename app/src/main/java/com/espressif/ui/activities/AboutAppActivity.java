@@ -14,6 +14,7 @@
 
 package com.espressif.ui.activities;
 
+import android.content.Intent;
 import android.content.pm.PackageInfo;
 import android.content.pm.PackageManager;
 import android.os.Bundle;
@@ -71,6 +72,15 @@ public class AboutAppActivity extends AppCompatActivity {
         }
         tvAppVersion.setText(version);
 
+        // Long press on app version opens request diagnostics
+        tvAppVersion.setOnLongClickListener(new View.OnLongClickListener() {
+            @Override
+            public boolean onLongClick(View v) {
+                startActivity(new Intent(AboutAppActivity.this, DiagnosticsActivity.class));
+                return true;
+            }
+        });
+
         // Set documentation URL
         linkDoc.setMovementMethod(LinkMovementMethod.getInstance());
         String docUrl = "<a href='" + BuildConfig.DOCUMENTATION_URL + "'>" + getString(R.string.documentation) + "</a>";
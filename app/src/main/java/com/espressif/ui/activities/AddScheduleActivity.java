@@ -44,8 +44,9 @@ import androidx.core.widget.ContentLoadingProgressBar;
 import com.aventrix.jnanoid.jnanoid.NanoIdUtils;
 import com.espressif.AppConstants;
 import com.espressif.EspApplication;
+import com.espressif.ScheduleDiff;
 import com.espressif.cloudapi.ApiManager;
-import com.espressif.cloudapi.ApiResponseListener;
+import com.espressif.cloudapi.ScheduleUpdateListener;
 import com.espressif.rainmaker.R;
 import com.espressif.ui.models.Action;
 import com.espressif.ui.models.Device;
@@ -55,17 +56,13 @@ import com.espressif.ui.models.Schedule;
 import com.espressif.ui.models.Service;
 import com.google.android.material.appbar.MaterialToolbar;
 import com.google.android.material.card.MaterialCardView;
-import com.google.gson.Gson;
-import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Random;
-import java.util.Set;
 
 public class AddScheduleActivity extends AppCompatActivity {
 
@@ -86,7 +83,7 @@ public class AddScheduleActivity extends AppCompatActivity {
 
     private String scheduleName = "";
     private StringBuilder days;
-    private HashMap<String, String> actions;
+    private ScheduleDiff scheduleDiff;
     private boolean isRepeatOptionsVisible = false;
     private EspApplication espApp;
     private ApiManager apiManager;
@@ -145,7 +142,7 @@ public class AddScheduleActivity extends AppCompatActivity {
                     itr.remove();
                 } else if (p.getParamType() != null && p.getParamType().equals(AppConstants.PARAM_TYPE_NAME)) {
                     itr.remove();
-                } else if (!p.getProperties().contains(AppConstants.KEY_PROPERTY_WRITE)) {
+                } else if (!p.isWritable()) {
                     itr.remove();
                 }
             }
@@ -282,6 +279,10 @@ public class AddScheduleActivity extends AppCompatActivity {
                 selectedDevices.add(actions.get(i).getDevice());
             }
 
+            // Keep current state of schedule to find changes when it is saved.
+            scheduleDiff = new ScheduleDiff(schedule.getId(), schedule.getName(), daysValue, mins,
+                    ScheduleDiff.getNodeActions(selectedDevices));
+
             setRepeatDaysText();
             setActionDevicesNames();
         }
@@ -484,67 +485,81 @@ public class AddScheduleActivity extends AppCompatActivity {
 
     private void removeSchedule() {
 
-        if (schedule == null) {
+        if (schedule == null || scheduleDiff == null) {
             Log.e(TAG, "Schedule is null");
             return;
         }
 
         showRemoveScheduleLoading();
-        Set<String> nodeIdList = new HashSet<>();
-        ArrayList<Action> actions = schedule.getActions();
-        String operation = AppConstants.KEY_OPERATION_REMOVE;
-
-        for (int i = 0; i < actions.size(); i++) {
-
-            final String nodeId = actions.get(i).getNodeId();
-            final String deviceName = actions.get(i).getDevice().getDeviceName();
+        final ArrayList<String> removedNodeIds = new ArrayList<>();
+        apiManager.updateSchedules(scheduleDiff.getRemoveRequests(), new ScheduleUpdateListener() {
 
-            if (!nodeIdList.contains(nodeId)) {
-
-                nodeIdList.add(nodeId);
-
-                JsonObject scheduleJson = new JsonObject();
-                scheduleJson.addProperty(AppConstants.KEY_ID, schedule.getId());
-                scheduleJson.addProperty(AppConstants.KEY_OPERATION, operation);
+            @Override
+            public void onNodeUpdated(final String nodeId, final boolean isSuccessful, final boolean isQueued,
+                                      int completedCount, int totalCount) {
 
-                JsonArray schArr = new JsonArray();
-                schArr.add(scheduleJson);
+                runOnUiThread(new Runnable() {
 
-                JsonObject finalBody = new JsonObject();
-                finalBody.add(AppConstants.KEY_SCHEDULES, schArr);
+                    @Override
+                    public void run() {
+                        if (isSuccessful || isQueued) {
+                            removedNodeIds.add(nodeId);
+                        }
+                    }
+                });
+            }
 
-                JsonObject body = new JsonObject();
-                body.add(AppConstants.KEY_SCHEDULE, finalBody);
+            @Override
+            public void onSuccess(final Bundle data) {
 
-                apiManager.updateParamValue(nodeId, body, new ApiResponseListener() {
+                Log.d(TAG, "Schedule remove request sent successfully.");
+                runOnUiThread(new Runnable() {
 
                     @Override
-                    public void onSuccess(Bundle data) {
-                        Log.e(TAG, "Schedule remove request sent successfully.");
+                    public void run() {
+                        if (data != null && data.containsKey(AppConstants.KEY_QUEUED_NODE_IDS)) {
+                            Toast.makeText(AddScheduleActivity.this, R.string.msg_schedule_queued, Toast.LENGTH_LONG).show();
+                        }
                         hideRemoveScheduleLoading();
                         finish();
                     }
+                });
+            }
+
+            @Override
+            public void onResponseFailure(Exception exception) {
+
+                Log.e(TAG, "Failed to remove schedule for few devices");
+                exception.printStackTrace();
+                runOnUiThread(new Runnable() {
 
                     @Override
-                    public void onResponseFailure(Exception exception) {
-                        Log.e(TAG, "Failure");
-                        exception.printStackTrace();
+                    public void run() {
+                        // Remove request is sent again only to the nodes which still have the schedule.
+                        scheduleDiff.onNodesRemoved(removedNodeIds);
                         hideRemoveScheduleLoading();
-                        String errMsg = getString(R.string.error_schedule_remove) + " " + deviceName;
-                        Toast.makeText(AddScheduleActivity.this, errMsg, Toast.LENGTH_LONG).show();
+                        Toast.makeText(AddScheduleActivity.this, R.string.error_schedule_remove, Toast.LENGTH_LONG).show();
                     }
+                });
+            }
+
+            @Override
+            public void onNetworkFailure(Exception exception) {
+
+                Log.e(TAG, "Failed to remove schedule for few devices");
+                exception.printStackTrace();
+                runOnUiThread(new Runnable() {
 
                     @Override
-                    public void onNetworkFailure(Exception exception) {
-                        Log.e(TAG, "Failure");
-                        exception.printStackTrace();
+                    public void run() {
+                        // Remove request is sent again only to the nodes which still have the schedule.
+                        scheduleDiff.onNodesRemoved(removedNodeIds);
                         hideRemoveScheduleLoading();
-                        String errMsg = getString(R.string.error_schedule_remove) + " " + deviceName;
-                        Toast.makeText(AddScheduleActivity.this, errMsg, Toast.LENGTH_LONG).show();
+                        Toast.makeText(AddScheduleActivity.this, R.string.error_schedule_remove, Toast.LENGTH_LONG).show();
                     }
                 });
             }
-        }
+        });
     }
 
     private void gotoActionsScreen() {
@@ -593,110 +608,8 @@ public class AddScheduleActivity extends AppCompatActivity {
         }
     }
 
-    private HashMap<String, String> prepareJson() {
-
-        HashMap<String, JsonObject> nodeJsonActionsMap = new HashMap<String, JsonObject>();
-
-        for (int i = 0; i < selectedDevices.size(); i++) {
-
-            Device device = selectedDevices.get(i);
-            JsonObject actionJsonBody = null;
-
-            actionJsonBody = nodeJsonActionsMap.get(device.getNodeId());
-
-            if (actionJsonBody == null) {
-                actionJsonBody = new JsonObject();
-            }
-            JsonObject jsonParam = new JsonObject();
-            ArrayList<Param> params = device.getParams();
-
-            for (int j = 0; j < params.size(); j++) {
-
-                Param param = params.get(j);
-
-                if (param.isSelected()) {
-
-                    String dataType = param.getDataType();
-
-                    if (AppConstants.UI_TYPE_SLIDER.equalsIgnoreCase(param.getUiType())) {
-
-                        if (dataType.equalsIgnoreCase("int")
-                                || dataType.equalsIgnoreCase("integer")) {
-
-                            int max = param.getMaxBounds();
-                            int min = param.getMinBounds();
-
-                            if ((min < max)) {
-                                int value = (int) param.getValue();
-                                jsonParam.addProperty(param.getName(), value);
-                            } else {
-
-                                int value = Integer.parseInt(param.getLabelValue());
-                                jsonParam.addProperty(param.getName(), value);
-                            }
-                        } else if (dataType.equalsIgnoreCase("float")
-                                || dataType.equalsIgnoreCase("double")) {
-
-                            int max = param.getMaxBounds();
-                            int min = param.getMinBounds();
-
-                            if ((min < max)) {
-                                jsonParam.addProperty(param.getName(), param.getValue());
-                            } else {
-
-                                float value = Float.parseFloat(param.getLabelValue());
-                                jsonParam.addProperty(param.getName(), value);
-                            }
-                        }
-                    } else if (AppConstants.UI_TYPE_TRIGGER.equalsIgnoreCase(param.getUiType())
-                            && dataType.equalsIgnoreCase("bool")
-                            || dataType.equalsIgnoreCase("boolean")) {
-
-                        jsonParam.addProperty(param.getName(), true);
-
-                    } else {
-                        if (dataType.equalsIgnoreCase("bool")
-                                || dataType.equalsIgnoreCase("boolean")) {
-
-                            jsonParam.addProperty(param.getName(), param.getSwitchStatus());
-
-                        } else if (dataType.equalsIgnoreCase("int")
-                                || dataType.equalsIgnoreCase("integer")) {
-
-                            int value = (int) param.getValue();
-                            jsonParam.addProperty(param.getName(), value);
-
-                        } else if (dataType.equalsIgnoreCase("float")
-                                || dataType.equalsIgnoreCase("double")) {
-
-                            jsonParam.addProperty(param.getName(), param.getValue());
-
-                        } else if (dataType.equalsIgnoreCase("string")) {
-
-                            jsonParam.addProperty(param.getName(), param.getLabelValue());
-                        }
-                    }
-                }
-            }
-            actionJsonBody.add(device.getDeviceName(), jsonParam);
-            nodeJsonActionsMap.put(device.getNodeId(), actionJsonBody);
-        }
-
-        HashMap<String, String> nodeActionsMap = new HashMap<>();
-
-        for (Map.Entry<String, JsonObject> entry : nodeJsonActionsMap.entrySet()) {
-
-            String nodeId = entry.getKey();
-            JsonObject action = entry.getValue();
-            nodeActionsMap.put(nodeId, action.toString());
-        }
-        actions = nodeActionsMap;
-        return nodeActionsMap;
-    }
-
     private void saveSchedule() {
 
-        JsonObject scheduleJson = new JsonObject();
         String progressMsg = "";
 
         // Schedule id
@@ -720,75 +633,76 @@ public class AddScheduleActivity extends AppCompatActivity {
         if (schedule == null) {
             schedule = new Schedule();
             schedule.setId(id);
-        } else {
-            id = schedule.getId();
+            scheduleDiff = new ScheduleDiff(id);
         }
 
-        scheduleJson.addProperty(AppConstants.KEY_OPERATION, operation);
         schedule.setName(scheduleName);
 
         // Time
         int hour = timePicker.getHour();
         int min = timePicker.getMinute();
-        int minValue = min + hour * 60;
+        final int minValue = min + hour * 60;
 
         // Repeat
         String daysStr = days.toString();
-        int daysValue = Integer.parseInt(daysStr, 2);
-
-        // Schedule JSON
-        scheduleJson.addProperty(AppConstants.KEY_ID, id);
-        scheduleJson.addProperty(AppConstants.KEY_NAME, scheduleName);
-
-        JsonObject jsonTrigger = new JsonObject();
-        jsonTrigger.addProperty(AppConstants.KEY_DAYS, daysValue);
-        jsonTrigger.addProperty(AppConstants.KEY_MINUTES, minValue);
+        final int daysValue = Integer.parseInt(daysStr, 2);
 
-        JsonArray triggerArr = new JsonArray();
-        triggerArr.add(jsonTrigger);
-        scheduleJson.add(AppConstants.KEY_TRIGGERS, triggerArr);
+        final String newName = scheduleName;
+        final HashMap<String, JsonObject> nodeActions = ScheduleDiff.getNodeActions(selectedDevices);
 
-        prepareJson();
+        if (nodeActions.size() > 0) {
 
-        if (actions != null && actions.size() > 0) {
+            // Send schedule only to nodes which are affected by this change.
+            HashMap<String, JsonObject> nodeIdJsonBodyMap = scheduleDiff.getUpdateRequests(scheduleName, daysValue,
+                    minValue, nodeActions);
 
-            HashMap<String, JsonObject> nodeIdJsonBodyMap = new HashMap<>();
-
-            for (Map.Entry<String, String> entry : actions.entrySet()) {
-
-                String nodeId = entry.getKey();
-                String actionStr = entry.getValue();
-                Gson gson = new Gson();
-                JsonObject actionsJson = gson.fromJson(actionStr, JsonObject.class);
-
-                JsonObject schJson = new Gson().fromJson(scheduleJson.toString(), JsonObject.class);
-                schJson.add(AppConstants.KEY_ACTION, actionsJson);
+            if (nodeIdJsonBodyMap.size() == 0) {
+                Log.d(TAG, "Schedule is not changed");
+                finish();
+                return;
+            }
 
-                JsonArray schArr = new JsonArray();
-                schArr.add(schJson);
+            showAddScheduleLoading(progressMsg);
+            final String loadingMsg = progressMsg;
+            final ArrayList<String> failedNodeIds = new ArrayList<>();
+            final ArrayList<String> updatedNodeIds = new ArrayList<>();
+            ApiManager apiManager = ApiManager.getInstance(getApplicationContext());
+            apiManager.updateSchedules(nodeIdJsonBodyMap, new ScheduleUpdateListener() {
 
-                JsonObject finalBody = new JsonObject();
-                finalBody.add(AppConstants.KEY_SCHEDULES, schArr);
+                @Override
+                public void onNodeUpdated(final String nodeId, final boolean isSuccessful, final boolean isQueued,
+                                          final int completedCount, final int totalCount) {
 
-                JsonObject body = new JsonObject();
-                body.add(AppConstants.KEY_SCHEDULE, finalBody);
+                    runOnUiThread(new Runnable() {
 
-                nodeIdJsonBodyMap.put(nodeId, body);
-            }
+                        @Override
+                        public void run() {
 
-            showAddScheduleLoading(progressMsg);
-            ApiManager apiManager = ApiManager.getInstance(getApplicationContext());
-            apiManager.updateSchedules(nodeIdJsonBodyMap, new ApiResponseListener() {
+                            // Queued request is sent by outbox later, so it must not be sent again on retry.
+                            if (isSuccessful || isQueued) {
+                                updatedNodeIds.add(nodeId);
+                            } else {
+                                failedNodeIds.add(nodeId);
+                            }
+                            if (totalCount > 1) {
+                                TextView progressText = findViewById(R.id.tv_loading_sch);
+                                progressText.setText(loadingMsg + " (" + completedCount + "/" + totalCount + ")");
+                            }
+                        }
+                    });
+                }
 
                 @Override
-                public void onSuccess(Bundle data) {
+                public void onSuccess(final Bundle data) {
 
                     runOnUiThread(new Runnable() {
 
                         @Override
                         public void run() {
 
-                            if (operation.equals(AppConstants.KEY_OPERATION_ADD)) {
+                            if (data != null && data.containsKey(AppConstants.KEY_QUEUED_NODE_IDS)) {
+                                Toast.makeText(AddScheduleActivity.this, R.string.msg_schedule_queued, Toast.LENGTH_LONG).show();
+                            } else if (operation.equals(AppConstants.KEY_OPERATION_ADD)) {
                                 Toast.makeText(AddScheduleActivity.this, R.string.msg_schedule_added, Toast.LENGTH_LONG).show();
                             } else {
                                 Toast.makeText(AddScheduleActivity.this, R.string.msg_schedule_updated, Toast.LENGTH_LONG).show();
@@ -808,7 +722,9 @@ public class AddScheduleActivity extends AppCompatActivity {
                         @Override
                         public void run() {
 
-                            Toast.makeText(AddScheduleActivity.this, R.string.error_schedule_add, Toast.LENGTH_LONG).show();
+                            // Nodes which are updated get only remaining changes if user saves again.
+                            scheduleDiff.onNodesUpdated(updatedNodeIds, newName, daysValue, minValue, nodeActions);
+                            Toast.makeText(AddScheduleActivity.this, getScheduleFailureMsg(failedNodeIds), Toast.LENGTH_LONG).show();
                             hideAddScheduleLoading();
                         }
                     });
@@ -823,7 +739,9 @@ public class AddScheduleActivity extends AppCompatActivity {
                         @Override
                         public void run() {
 
-                            Toast.makeText(AddScheduleActivity.this, R.string.error_schedule_add, Toast.LENGTH_LONG).show();
+                            // Nodes which are updated get only remaining changes if user saves again.
+                            scheduleDiff.onNodesUpdated(updatedNodeIds, newName, daysValue, minValue, nodeActions);
+                            Toast.makeText(AddScheduleActivity.this, getScheduleFailureMsg(failedNodeIds), Toast.LENGTH_LONG).show();
                             hideAddScheduleLoading();
                         }
                     });
@@ -835,6 +753,27 @@ public class AddScheduleActivity extends AppCompatActivity {
         }
     }
 
+    private String getScheduleFailureMsg(ArrayList<String> failedNodeIds) {
+
+        StringBuilder deviceNames = new StringBuilder();
+
+        for (int i = 0; i < selectedDevices.size(); i++) {
+
+            Device device = selectedDevices.get(i);
+            if (failedNodeIds.contains(device.getNodeId())) {
+                if (deviceNames.length() > 0) {
+                    deviceNames.append(", ");
+                }
+                deviceNames.append(device.getUserVisibleName());
+            }
+        }
+
+        if (deviceNames.length() == 0) {
+            return getString(R.string.error_schedule_add);
+        }
+        return getString(R.string.error_schedule_add) + " : " + deviceNames;
+    }
+
     private String generateScheduleId() {
 
         Random random = new Random();
@@ -92,9 +92,18 @@ public class AlexaAppLinkingActivity extends AppCompatActivity {
         String alexaRefreshToken = sharedPreferences.getString(AppConstants.KEY_ALEXA_REFRESH_TOKEN, "");
 
         initViews();
-        updateUi();
 
-        if (!TextUtils.isEmpty(alexaRefreshToken)) {
+        if (apiManager.isLinkStatusAvailable()) {
+
+            // Display cached status and update it in background.
+            Log.d(TAG, "Display cached linking status and refresh it");
+            isLinked = apiManager.isLinked();
+            updateUi();
+            refreshLinkingStatus();
+
+        } else if (!TextUtils.isEmpty(alexaRefreshToken)) {
+
+            updateUi();
 
             Log.d(TAG, "Get Linking Status....");
             appLinkingProgress = AppLinkingProgress.GET_ALEXA_TOKEN;
@@ -156,6 +165,8 @@ public class AlexaAppLinkingActivity extends AppCompatActivity {
                     Toast.makeText(AlexaAppLinkingActivity.this, R.string.msg_no_internet, Toast.LENGTH_LONG).show();
                 }
             });
+        } else {
+            updateUi();
         }
     }
 
@@ -349,6 +360,37 @@ public class AlexaAppLinkingActivity extends AppCompatActivity {
         }
     }
 
+    /**
+     * Get linking status without blocking UI. Cached status is displayed till status is received.
+     */
+    private void refreshLinkingStatus() {
+
+        Data inputData = new Data.Builder()
+                .putString(AppConstants.KEY_EVENT_TYPE, AppConstants.EVENT_GET_STATUS)
+                .build();
+
+        OneTimeWorkRequest workRequest = new OneTimeWorkRequest.Builder(AlexaLinkingWorker.class)
+                .setInputData(inputData)
+                .build();
+
+        WorkManager workManager = WorkManager.getInstance(getApplicationContext());
+        workManager.enqueue(workRequest);
+        workManager.getWorkInfoByIdLiveData(workRequest.getId())
+                .observe(AlexaAppLinkingActivity.this, new Observer<WorkInfo>() {
+
+                    @Override
+                    public void onChanged(@Nullable WorkInfo workInfo) {
+
+                        if (workInfo != null && workInfo.getState().isFinished()
+                                && appLinkingProgress.equals(AppLinkingProgress.NONE)) {
+                            // Cached status is retained if status request failed.
+                            isLinked = apiManager.isLinked();
+                            updateUi();
+                        }
+                    }
+                });
+    }
+
     private void updateUi() {
         if (isLinked) {
             layoutLink.setVisibility(View.GONE);
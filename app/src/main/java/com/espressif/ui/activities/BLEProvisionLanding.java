@@ -27,6 +27,7 @@ import android.content.SharedPreferences;
 import android.content.pm.PackageManager;
 import android.os.Bundle;
 import android.os.Handler;
+import android.os.SystemClock;
 import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.View;
@@ -44,6 +45,7 @@ import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.espressif.AppConstants;
+import com.espressif.BleScanAggregator;
 import com.espressif.provisioning.DeviceConnectionEvent;
 import com.espressif.provisioning.ESPConstants;
 import com.espressif.provisioning.ESPDevice;
@@ -64,7 +66,6 @@ import org.json.JSONException;
 import org.json.JSONObject;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 
 public class BLEProvisionLanding extends AppCompatActivity {
 
@@ -76,6 +77,8 @@ public class BLEProvisionLanding extends AppCompatActivity {
 
     // Time out
     private static final long DEVICE_CONNECT_TIMEOUT = 20000;
+    // Device list is refreshed at this interval while scanning, instead of on every scan result.
+    private static final long DEVICE_LIST_REFRESH_INTERVAL = 250;
 
     private MaterialCardView btnScan;
     private TextView btnPrefix;
@@ -88,10 +91,10 @@ public class BLEProvisionLanding extends AppCompatActivity {
     private BleDeviceListAdapter adapter;
     private BluetoothAdapter bleAdapter;
     private ArrayList<BleDevice> deviceList;
-    private HashMap<BluetoothDevice, String> bluetoothDevices;
+    private BleScanAggregator scanAggregator;
     private Handler handler;
 
-    private int position = -1;
+    private BleDevice selectedDevice;
     private boolean isDeviceConnected = false, isConnecting = false;
     private ESPProvisionManager provisionManager;
     private SharedPreferences sharedPreferences;
@@ -130,7 +133,7 @@ public class BLEProvisionLanding extends AppCompatActivity {
         isConnecting = false;
         isDeviceConnected = false;
         handler = new Handler();
-        bluetoothDevices = new HashMap<>();
+        scanAggregator = new BleScanAggregator(BuildConfig.DEVICE_NAME_PREFIX);
         deviceList = new ArrayList<>();
 
         provisionManager = ESPProvisionManager.getInstance(getApplicationContext());
@@ -176,6 +179,7 @@ public class BLEProvisionLanding extends AppCompatActivity {
 
     @Override
     protected void onDestroy() {
+        handler.removeCallbacks(refreshDeviceListTask);
         EventBus.getDefault().unregister(this);
         super.onDestroy();
     }
@@ -336,7 +340,10 @@ public class BLEProvisionLanding extends AppCompatActivity {
 
         isScanning = true;
         deviceList.clear();
-        bluetoothDevices.clear();
+        scanAggregator.clear();
+        adapter.notifyDataSetChanged();
+        handler.removeCallbacks(refreshDeviceListTask);
+        handler.postDelayed(refreshDeviceListTask, DEVICE_LIST_REFRESH_INTERVAL);
 
         if (ActivityCompat.checkSelfPermission(this, Manifest.permission.ACCESS_FINE_LOCATION) == PackageManager.PERMISSION_GRANTED) {
             provisionManager.searchBleEspDevices(deviceNamePrefix, bleScanListener);
@@ -350,6 +357,8 @@ public class BLEProvisionLanding extends AppCompatActivity {
     private void stopScan() {
 
         isScanning = false;
+        handler.removeCallbacks(refreshDeviceListTask);
+        refreshDeviceList();
 
         if (ActivityCompat.checkSelfPermission(this, Manifest.permission.ACCESS_FINE_LOCATION) == PackageManager.PERMISSION_GRANTED) {
             provisionManager.stopBleScan();
@@ -456,8 +465,6 @@ public class BLEProvisionLanding extends AppCompatActivity {
         @Override
         public void onClick(View v) {
 
-            bluetoothDevices.clear();
-            adapter.notifyDataSetChanged();
             startScan();
         }
     };
@@ -472,34 +479,22 @@ public class BLEProvisionLanding extends AppCompatActivity {
         @Override
         public void onPeripheralFound(BluetoothDevice device, ScanResult scanResult) {
 
-            Log.d(TAG, "====== onPeripheralFound ===== " + device.getName());
-            boolean deviceExists = false;
             String serviceUuid = "";
 
             if (scanResult.getScanRecord().getServiceUuids() != null && scanResult.getScanRecord().getServiceUuids().size() > 0) {
                 serviceUuid = scanResult.getScanRecord().getServiceUuids().get(0).toString();
             }
-            Log.d(TAG, "Add service UUID : " + serviceUuid);
 
-            if (bluetoothDevices.containsKey(device)) {
-                deviceExists = true;
-            }
-
-            if (!deviceExists) {
-                BleDevice bleDevice = new BleDevice();
-                bleDevice.setName(scanResult.getScanRecord().getDeviceName());
-                bleDevice.setBluetoothDevice(device);
-
-                rvBleDevices.setVisibility(View.VISIBLE);
-                bluetoothDevices.put(device, serviceUuid);
-                deviceList.add(bleDevice);
-                adapter.notifyDataSetChanged();
-            }
+            // UI is updated by refreshDeviceListTask.
+            scanAggregator.onScanResult(device, scanResult.getScanRecord().getDeviceName(), serviceUuid,
+                    scanResult.getRssi(), SystemClock.elapsedRealtime());
         }
 
         @Override
         public void scanCompleted() {
             isScanning = false;
+            handler.removeCallbacks(refreshDeviceListTask);
+            refreshDeviceList();
             updateProgressAndScanBtn();
         }
 
@@ -510,17 +505,49 @@ public class BLEProvisionLanding extends AppCompatActivity {
         }
     };
 
+    private Runnable refreshDeviceListTask = new Runnable() {
+
+        @Override
+        public void run() {
+
+            // Devices are expired only while scanning, so that list does not become empty after scan is completed.
+            scanAggregator.removeStaleDevices(SystemClock.elapsedRealtime());
+            refreshDeviceList();
+
+            if (isScanning) {
+                handler.postDelayed(refreshDeviceListTask, DEVICE_LIST_REFRESH_INTERVAL);
+            }
+        }
+    };
+
+    private void refreshDeviceList() {
+
+        if (!scanAggregator.isChanged()) {
+            return;
+        }
+
+        deviceList.clear();
+        deviceList.addAll(scanAggregator.getRankedDevices());
+        Log.d(TAG, "BLE devices found : " + deviceList.size());
+
+        if (deviceList.size() > 0 && !isConnecting) {
+            rvBleDevices.setVisibility(View.VISIBLE);
+        }
+        adapter.notifyDataSetChanged();
+    }
+
     public void deviceClick(int deviceClickedPosition) {
 
+        // Get clicked device before stopping scan, because list gets refreshed (and may be re-ordered) on stop.
+        BleDevice bleDevice = deviceList.get(deviceClickedPosition);
+        selectedDevice = bleDevice;
         stopScan();
         isConnecting = true;
         isDeviceConnected = false;
         btnScan.setVisibility(View.GONE);
         rvBleDevices.setVisibility(View.GONE);
         progressBar.setVisibility(View.VISIBLE);
-        this.position = deviceClickedPosition;
-        BleDevice bleDevice = deviceList.get(deviceClickedPosition);
-        String uuid = bluetoothDevices.get(bleDevice.getBluetoothDevice());
+        String uuid = bleDevice.getServiceUuid();
         Log.d(TAG, "=================== Connect to device : " + bleDevice.getName() + " UUID : " + uuid);
 
         if (ActivityCompat.checkSelfPermission(BLEProvisionLanding.this, Manifest.permission.ACCESS_FINE_LOCATION) == PackageManager.PERMISSION_GRANTED) {
@@ -611,7 +638,7 @@ public class BLEProvisionLanding extends AppCompatActivity {
     private void goToPopActivity() {
         finish();
         Intent popIntent = new Intent(getApplicationContext(), ProofOfPossessionActivity.class);
-        popIntent.putExtra(AppConstants.KEY_DEVICE_NAME, deviceList.get(position).getName());
+        popIntent.putExtra(AppConstants.KEY_DEVICE_NAME, selectedDevice.getName());
         popIntent.putExtra(AppConstants.KEY_SSID, getIntent().getStringExtra(AppConstants.KEY_SSID));
         startActivity(popIntent);
     }
@@ -619,7 +646,7 @@ public class BLEProvisionLanding extends AppCompatActivity {
     private void goToWifiScanListActivity() {
         finish();
         Intent wifiListIntent = new Intent(getApplicationContext(), WiFiScanActivity.class);
-        wifiListIntent.putExtra(AppConstants.KEY_DEVICE_NAME, deviceList.get(position).getName());
+        wifiListIntent.putExtra(AppConstants.KEY_DEVICE_NAME, selectedDevice.getName());
         wifiListIntent.putExtra(AppConstants.KEY_SSID, getIntent().getStringExtra(AppConstants.KEY_SSID));
         startActivity(wifiListIntent);
     }
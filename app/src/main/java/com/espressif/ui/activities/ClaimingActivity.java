@@ -31,6 +31,7 @@ import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
 
 import com.espressif.AppConstants;
+import com.espressif.ClaimTransfer;
 import com.espressif.cloudapi.ApiManager;
 import com.espressif.cloudapi.ApiResponseListener;
 import com.espressif.provisioning.DeviceConnectionEvent;
@@ -63,9 +64,7 @@ public class ClaimingActivity extends AppCompatActivity {
     private TextView tvClaimProgress, tvClaimError, tvClaimFailure, tvPleaseWait;
     private ImageView ivClaimingProgress;
 
-    private int dataCount = 0;
-    private String certificateData = "";
-    private StringBuilder csrData = new StringBuilder();
+    private ClaimTransfer claimTransfer;
     private boolean isClaimingAborted = false, shouldSendClaimAbortReq = false;
     private boolean hasTriedAgain = false;
 
@@ -278,6 +277,7 @@ public class ClaimingActivity extends AppCompatActivity {
     private void sendClaimInitRequest(String data) {
 
         Log.e(TAG, "Claim Init Request");
+        claimTransfer = new ClaimTransfer(provisionManager.getEspDevice().getTransportType());
         ByteString byteString = ByteString.copyFromUtf8(data);
         EspRmakerClaim.PayloadBuf payloadBuf = EspRmakerClaim.PayloadBuf.newBuilder()
                 .setOffset(0)
@@ -328,21 +328,12 @@ public class ClaimingActivity extends AppCompatActivity {
 
             if (response.getStatus() == EspRmakerClaim.RMakerClaimStatus.Success) {
 
-                String data = response.getBuf().getPayload().toStringUtf8();
                 int offset = response.getBuf().getOffset();
                 int totalLen = response.getBuf().getTotalLen();
                 Log.d(TAG, "Offset : " + offset + " and total length : " + totalLen);
 
-                if (offset == 0) {
-                    dataCount = data.length();
-                    csrData = new StringBuilder();
-                }
-                csrData.append(data);
-                Log.d(TAG, "Received CSR Length till now : " + csrData.length());
-                Log.d(TAG, "dataCount : " + dataCount);
-
-                if (csrData.length() >= totalLen) {
-                    sendCSRToAPI(csrData.toString());
+                if (claimTransfer.appendCsrChunk(response.getBuf().getPayload(), offset, totalLen)) {
+                    sendCSRToAPI(claimTransfer.getCsr());
                 } else {
                     requestCSRData();
                 }
@@ -419,35 +410,18 @@ public class ClaimingActivity extends AppCompatActivity {
         });
     }
 
-    private void sendCertificateToDevice(final int offset) {
+    private void sendCertificateToDevice() {
 
         if (isClaimingAborted) {
             return;
         }
+        int offset = claimTransfer.getCertificateOffset();
         Log.d(TAG, "Send certificate to device, offset : " + offset);
-        String data = "";
-
-        try {
-            int totalLen = certificateData.length();
-            int len = offset + dataCount;
-
-            Log.d(TAG, "Length : " + len + " and total len : " + totalLen);
 
-            if (len > totalLen) {
-                Log.d(TAG, "Actual end index : " + totalLen);
-                data = certificateData.substring(offset, totalLen);
-            } else {
-                Log.d(TAG, "Actual end index : " + len);
-                data = certificateData.substring(offset, len);
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-        ByteString byteString = ByteString.copyFromUtf8(data);
         EspRmakerClaim.PayloadBuf payloadBuf = EspRmakerClaim.PayloadBuf.newBuilder()
                 .setOffset(offset)
-                .setTotalLen(certificateData.length())
-                .setPayload(byteString)
+                .setTotalLen(claimTransfer.getCertificateLength())
+                .setPayload(claimTransfer.getNextCertificateChunk())
                 .build();
 
         EspRmakerClaim.RMakerClaimMsgType msgType = EspRmakerClaim.RMakerClaimMsgType.TypeCmdClaimVerify;
@@ -461,9 +435,15 @@ public class ClaimingActivity extends AppCompatActivity {
             @Override
             public void onSuccess(byte[] returnData) {
 
-                if ((offset + dataCount) >= certificateData.length()) {
+                if (!isCertificateChunkAccepted(returnData)) {
+                    onCertificateChunkFailed();
+                    return;
+                }
+
+                if (claimTransfer.onCertificateChunkSent()) {
 
                     Log.e(TAG, "Certificate Sent to device successfully.");
+                    Log.d(TAG, "Claiming transfer : " + claimTransfer.getTransferSummary());
                     ArrayList<String> deviceCaps = provisionManager.getEspDevice().getDeviceCapabilities();
 
                     if (deviceCaps.contains(AppConstants.CAPABILITY_WIFI_SACN)) {
@@ -473,8 +453,7 @@ public class ClaimingActivity extends AppCompatActivity {
                     }
 
                 } else {
-                    int newOffset = offset + dataCount;
-                    sendCertificateToDevice(newOffset);
+                    sendCertificateToDevice();
                 }
             }
 
@@ -483,17 +462,47 @@ public class ClaimingActivity extends AppCompatActivity {
 
                 Log.e(TAG, "Error : " + e.getMessage());
                 e.printStackTrace();
+                onCertificateChunkFailed();
+            }
+        });
+    }
 
-                runOnUiThread(new Runnable() {
+    /**
+     * Check verify response of the device for certificate chunk.
+     * Device can reject a chunk (e.g. chunk bigger than it supports) with error status instead of transport error.
+     */
+    private boolean isCertificateChunkAccepted(byte[] responseData) {
 
-                    @Override
-                    public void run() {
+        try {
+            EspRmakerClaim.RMakerClaimPayload payload = EspRmakerClaim.RMakerClaimPayload.parseFrom(responseData);
+            EspRmakerClaim.RMakerClaimStatus status = payload.getRespPayload().getStatus();
 
-                        tvClaimProgress.setText(R.string.error_claiming_progress);
-                        tvClaimError.setText(R.string.error_claiming_verify);
-                        displayError();
-                    }
-                });
+            if (status == EspRmakerClaim.RMakerClaimStatus.Success) {
+                return true;
+            }
+            Log.e(TAG, "Certificate chunk is not accepted by device, status : " + status);
+
+        } catch (InvalidProtocolBufferException e) {
+            e.printStackTrace();
+        }
+        return false;
+    }
+
+    private void onCertificateChunkFailed() {
+
+        if (claimTransfer.onCertificateChunkFailed()) {
+            sendCertificateToDevice();
+            return;
+        }
+
+        runOnUiThread(new Runnable() {
+
+            @Override
+            public void run() {
+
+                tvClaimProgress.setText(R.string.error_claiming_progress);
+                tvClaimError.setText(R.string.error_claiming_verify);
+                displayError();
             }
         });
     }
@@ -613,9 +622,9 @@ public class ClaimingActivity extends AppCompatActivity {
             public void onSuccess(Bundle data) {
 
                 if (data != null) {
-                    certificateData = data.getString(AppConstants.KEY_CLAIM_VERIFY_RESPONSE);
+                    claimTransfer.setCertificate(data.getString(AppConstants.KEY_CLAIM_VERIFY_RESPONSE));
                     Log.e(TAG, "Data send to cloud for verify");
-                    sendCertificateToDevice(0);
+                    sendCertificateToDevice();
                 }
             }
 
@@ -0,0 +1,120 @@
+// Copyright 2021 Espressif Systems (Shanghai) PTE LTD
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.espressif.ui.activities;
+
+import android.content.Intent;
+import android.os.Bundle;
+import android.view.Menu;
+import android.view.MenuItem;
+import android.view.View;
+import android.widget.TextView;
+
+import androidx.annotation.Nullable;
+import androidx.appcompat.app.AppCompatActivity;
+
+import com.espressif.EspLog;
+import com.espressif.RequestMetrics;
+import com.espressif.rainmaker.R;
+import com.google.android.material.appbar.MaterialToolbar;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Displays request metrics collected by RequestMetrics and recent logs kept by EspLog,
+ * to diagnose slow or failing requests.
+ */
+public class DiagnosticsActivity extends AppCompatActivity {
+
+    private static final int MENU_ITEM_SHARE = 1;
+    private static final int MENU_ITEM_RESET = 2;
+
+    private TextView tvReport;
+    private String report;
+
+    @Override
+    protected void onCreate(@Nullable Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        setContentView(R.layout.activity_diagnostics);
+        initViews();
+        updateUi();
+    }
+
+    @Override
+    public boolean onPrepareOptionsMenu(Menu menu) {
+        super.onPrepareOptionsMenu(menu);
+        menu.add(Menu.NONE, MENU_ITEM_SHARE, Menu.NONE, R.string.btn_share).setShowAsAction(MenuItem.SHOW_AS_ACTION_NEVER);
+        menu.add(Menu.NONE, MENU_ITEM_RESET, Menu.NONE, R.string.btn_reset_metrics).setShowAsAction(MenuItem.SHOW_AS_ACTION_NEVER);
+        return true;
+    }
+
+    @Override
+    public boolean onOptionsItemSelected(MenuItem item) {
+
+        switch (item.getItemId()) {
+
+            case MENU_ITEM_SHARE:
+                updateUi();
+                Intent intent = new Intent(Intent.ACTION_SEND);
+                intent.setType("text/plain");
+                intent.putExtra(Intent.EXTRA_SUBJECT, getString(R.string.title_activity_diagnostics));
+                intent.putExtra(Intent.EXTRA_TEXT, report);
+                startActivity(Intent.createChooser(intent, getString(R.string.btn_share)));
+                return true;
+
+            case MENU_ITEM_RESET:
+                RequestMetrics.getInstance().reset();
+                updateUi();
+                return true;
+
+            default:
+                return super.onOptionsItemSelected(item);
+        }
+    }
+
+    private void initViews() {
+
+        MaterialToolbar toolbar = findViewById(R.id.toolbar);
+        setSupportActionBar(toolbar);
+        getSupportActionBar().setDisplayHomeAsUpEnabled(true);
+        getSupportActionBar().setDisplayShowHomeEnabled(true);
+        getSupportActionBar().setTitle(R.string.title_activity_diagnostics);
+        toolbar.setNavigationIcon(R.drawable.ic_arrow_left);
+        toolbar.setNavigationOnClickListener(new View.OnClickListener() {
+            @Override
+            public void onClick(View v) {
+                finish();
+            }
+        });
+
+        tvReport = findViewById(R.id.tv_diagnostics_report);
+    }
+
+    private void updateUi() {
+
+        JSONObject reportJson = RequestMetrics.getInstance().getReport();
+        String metrics;
+
+        try {
+            metrics = reportJson.toString(2);
+        } catch (JSONException e) {
+            e.printStackTrace();
+            metrics = reportJson.toString();
+        }
+        report = metrics + "\n\n" + getString(R.string.diagnostics_recent_logs) + "\n" + EspLog.getBufferedLogs();
+        tvReport.setText(report);
+    }
+}
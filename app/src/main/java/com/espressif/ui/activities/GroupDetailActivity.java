@@ -41,10 +41,12 @@ import androidx.recyclerview.widget.SimpleItemAnimator;
 
 import com.espressif.AppConstants;
 import com.espressif.EspApplication;
+import com.espressif.GroupIndex;
 import com.espressif.cloudapi.ApiManager;
 import com.espressif.cloudapi.ApiResponseListener;
 import com.espressif.cloudapi.CloudException;
 import com.espressif.rainmaker.R;
+import com.espressif.ui.Utils;
 import com.espressif.ui.adapters.GroupDeviceAdapter;
 import com.espressif.ui.adapters.GroupNodeAdapter;
 import com.espressif.ui.models.Device;
@@ -64,7 +66,7 @@ public class GroupDetailActivity extends AppCompatActivity {
 
     private MaterialToolbar toolbar;
     private TextView tvGroupName;
-    private RelativeLayout rlGroupName, rlAddDevice, rlDevices;
+    private RelativeLayout rlGroupName, rlAddDevice, rlShareDevices, rlDevices;
     private CardView btnNext;
     private TextView txtNextBtn;
     private RecyclerView rvDevices, rvNodes;
@@ -132,6 +134,14 @@ public class GroupDetailActivity extends AppCompatActivity {
         }
     };
 
+    private View.OnClickListener shareDevicesClickListener = new View.OnClickListener() {
+
+        @Override
+        public void onClick(View v) {
+            askForUserEmail();
+        }
+    };
+
     private View.OnClickListener removeGroupBtnClickListener = new View.OnClickListener() {
 
         @Override
@@ -177,6 +187,7 @@ public class GroupDetailActivity extends AppCompatActivity {
         tvGroupName = findViewById(R.id.tv_group_name);
         rlGroupName = findViewById(R.id.rl_group_name);
         rlAddDevice = findViewById(R.id.rl_add_device);
+        rlShareDevices = findViewById(R.id.rl_share_devices);
         rlDevices = findViewById(R.id.rl_devices);
         rvDevices = findViewById(R.id.rv_device_list);
         rvNodes = findViewById(R.id.rv_node_list);
@@ -193,6 +204,7 @@ public class GroupDetailActivity extends AppCompatActivity {
         btnRemoveGroup.setVisibility(View.GONE);
 
         rlAddDevice.setOnClickListener(addDeviceClickListener);
+        rlShareDevices.setOnClickListener(shareDevicesClickListener);
         rlGroupName.setOnClickListener(groupNameClickListener);
         btnRemoveGroup.setOnClickListener(removeGroupBtnClickListener);
 
@@ -215,6 +227,7 @@ public class GroupDetailActivity extends AppCompatActivity {
         if (group == null) {
             getSupportActionBar().setTitle(R.string.title_activity_create_group);
             rlAddDevice.setVisibility(View.GONE);
+            rlShareDevices.setVisibility(View.GONE);
             rlDevices.setVisibility(View.GONE);
             btnRemoveGroup.setVisibility(View.GONE);
             btnNext.setVisibility(View.VISIBLE);
@@ -228,19 +241,13 @@ public class GroupDetailActivity extends AppCompatActivity {
             btnNext.setVisibility(View.GONE);
             devices.clear();
             nodes.clear();
-            ArrayList<String> nodeIds = group.getNodeList();
-
-            if (nodeIds != null && nodeIds.size() > 0) {
-                for (int i = 0; i < nodeIds.size(); i++) {
-                    EspNode node = espApp.nodeMap.get(nodeIds.get(i));
-                    if (node != null) {
-                        if (node.getDevices().size() == 1) {
-                            devices.add(new Device(node.getDevices().get(0)));
-                        } else if (node.getDevices().size() > 1) {
-                            nodes.add(new EspNode(node));
-                        }
-                    }
-                }
+            GroupIndex.GroupState groupState = GroupIndex.getInstance().getGroupState(group, espApp.nodeMap);
+
+            for (Device device : groupState.getDevices()) {
+                devices.add(new Device(device));
+            }
+            for (EspNode node : groupState.getNodes()) {
+                nodes.add(new EspNode(node));
             }
 
             if (nodes.size() > 0 || devices.size() > 0) {
@@ -249,6 +256,12 @@ public class GroupDetailActivity extends AppCompatActivity {
                 rlDevices.setVisibility(View.GONE);
             }
 
+            if (getSharableNodeIds().size() > 0) {
+                rlShareDevices.setVisibility(View.VISIBLE);
+            } else {
+                rlShareDevices.setVisibility(View.GONE);
+            }
+
             deviceAdapter.notifyDataSetChanged();
             nodeAdapter.notifyDataSetChanged();
         }
@@ -344,6 +357,116 @@ public class GroupDetailActivity extends AppCompatActivity {
         alertDialog.show();
     }
 
+    /**
+     * Only primary user of the node can share it, so returns ids of such nodes of the group.
+     */
+    private ArrayList<String> getSharableNodeIds() {
+
+        ArrayList<String> nodeIds = new ArrayList<>();
+        if (group == null || group.getNodeList() == null) {
+            return nodeIds;
+        }
+
+        for (String nodeId : group.getNodeList()) {
+            EspNode node = espApp.nodeMap.get(nodeId);
+            if (node != null && AppConstants.KEY_USER_ROLE_PRIMARY.equals(node.getUserRole())) {
+                nodeIds.add(nodeId);
+            }
+        }
+        return nodeIds;
+    }
+
+    private void askForUserEmail() {
+
+        AlertDialog.Builder builder = new AlertDialog.Builder(this);
+        LayoutInflater inflater = getLayoutInflater();
+        View dialogView = inflater.inflate(R.layout.dialog_user_email, null);
+        builder.setView(dialogView);
+        builder.setTitle(R.string.dialog_title_user_email);
+        final EditText etEmail = dialogView.findViewById(R.id.et_email);
+
+        builder.setPositiveButton(R.string.btn_share, new DialogInterface.OnClickListener() {
+
+            @Override
+            public void onClick(DialogInterface dialog, int which) {
+
+                final String email = etEmail.getText().toString();
+                if (TextUtils.isEmpty(email)) {
+                    etEmail.setError(getString(R.string.error_email_empty));
+                } else if (!Utils.isValidEmail(email)) {
+                    etEmail.setError(getString(R.string.error_invalid_email));
+                } else {
+                    dialog.dismiss();
+                    shareDevicesWithUser(email);
+                }
+            }
+        });
+
+        builder.setNegativeButton(R.string.btn_cancel, new DialogInterface.OnClickListener() {
+
+            @Override
+            public void onClick(DialogInterface dialog, int which) {
+                dialog.dismiss();
+            }
+        });
+
+        AlertDialog alertDialog = builder.create();
+        alertDialog.getWindow().setSoftInputMode(WindowManager.LayoutParams.SOFT_INPUT_STATE_VISIBLE);
+        alertDialog.show();
+    }
+
+    private void shareDevicesWithUser(String email) {
+
+        final ArrayList<String> nodeIds = getSharableNodeIds();
+        showLoading(getString(R.string.progress_share_group));
+
+        // Listener of bulk sharing is called on background thread.
+        apiManager.shareNodesWithUser(nodeIds, email, new ApiResponseListener() {
+
+            @Override
+            public void onSuccess(Bundle data) {
+
+                runOnUiThread(new Runnable() {
+
+                    @Override
+                    public void run() {
+                        hideLoading();
+                        Toast.makeText(GroupDetailActivity.this, getString(R.string.success_group_share, nodeIds.size()),
+                                Toast.LENGTH_LONG).show();
+                    }
+                });
+            }
+
+            @Override
+            public void onResponseFailure(final Exception exception) {
+                exception.printStackTrace();
+                onSharingFailed(exception);
+            }
+
+            @Override
+            public void onNetworkFailure(final Exception exception) {
+                exception.printStackTrace();
+                onSharingFailed(exception);
+            }
+        });
+    }
+
+    private void onSharingFailed(final Exception exception) {
+
+        runOnUiThread(new Runnable() {
+
+            @Override
+            public void run() {
+                hideLoading();
+                if (exception instanceof CloudException) {
+                    Toast.makeText(GroupDetailActivity.this, exception.getMessage(), Toast.LENGTH_SHORT).show();
+                } else {
+                    Toast.makeText(GroupDetailActivity.this, R.string.error_group_share, Toast.LENGTH_SHORT).show();
+                }
+            }
+        });
+    }
+
     private void setEnableNextBtn(boolean enable) {
 
         btnNext.setEnabled(enable);
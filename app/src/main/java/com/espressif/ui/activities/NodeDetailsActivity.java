@@ -37,6 +37,7 @@ import com.espressif.EspApplication;
 import com.espressif.cloudapi.ApiManager;
 import com.espressif.cloudapi.ApiResponseListener;
 import com.espressif.cloudapi.CloudException;
+import com.espressif.cloudapi.SharingRepository;
 import com.espressif.rainmaker.BuildConfig;
 import com.espressif.rainmaker.R;
 import com.espressif.ui.adapters.NodeDetailsAdapter;
@@ -110,6 +111,7 @@ public class NodeDetailsActivity extends AppCompatActivity {
 
     public void addPendingRequest(SharingRequest request) {
         pendingRequests.add(request);
+        SharingRepository.getInstance(getApplicationContext()).addPendingRequest(nodeId, request);
         setNodeInfo();
     }
 
@@ -225,50 +227,15 @@ public class NodeDetailsActivity extends AppCompatActivity {
 
     private void getNodeSharingInfo() {
 
-        apiManager.getNodeSharing(node.getNodeId(), new ApiResponseListener() {
-
-            @Override
-            public void onSuccess(Bundle data) {
-
-                String userRole = node.getUserRole();
-                if (!TextUtils.isEmpty(userRole) && userRole.equals(AppConstants.KEY_USER_ROLE_PRIMARY)) {
-                    getSharingRequests();
-                } else {
-                    setNodeInfo();
-                    progressBarNodeDetails.setVisibility(View.GONE);
-                }
-            }
-
-            @Override
-            public void onResponseFailure(Exception e) {
-                setNodeInfo();
-                progressBarNodeDetails.setVisibility(View.GONE);
-            }
-
-            @Override
-            public void onNetworkFailure(Exception exception) {
-                setNodeInfo();
-                progressBarNodeDetails.setVisibility(View.GONE);
-            }
-        });
-    }
-
-    private void getSharingRequests() {
-
-        apiManager.getSharingRequests(true, new ApiResponseListener() {
+        SharingRepository.getInstance(getApplicationContext()).getNodeSharingInfo(nodeId, false, new ApiResponseListener() {
 
             @Override
             public void onSuccess(Bundle data) {
 
                 if (data != null) {
                     ArrayList<SharingRequest> requests = data.getParcelableArrayList(AppConstants.KEY_SHARING_REQUESTS);
-                    if (requests != null && requests.size() > 0) {
-                        for (int i = 0; i < requests.size(); i++) {
-                            SharingRequest req = requests.get(i);
-                            if (req.getNodeIds().contains(nodeId) && AppConstants.KEY_REQ_STATUS_PENDING.equals(req.getReqStatus())) {
-                                pendingRequests.add(req);
-                            }
-                        }
+                    if (requests != null) {
+                        pendingRequests.addAll(requests);
                     }
                 }
                 setNodeInfo();
@@ -25,6 +25,7 @@ import android.widget.Toast;
 
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.core.widget.ContentLoadingProgressBar;
+import androidx.core.widget.NestedScrollView;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 import androidx.swiperefreshlayout.widget.SwipeRefreshLayout;
@@ -34,6 +35,7 @@ import com.espressif.cloudapi.ApiManager;
 import com.espressif.cloudapi.ApiResponseListener;
 import com.espressif.cloudapi.CloudException;
 import com.espressif.db.EspDatabase;
+import com.espressif.db.NotificationDao;
 import com.espressif.rainmaker.R;
 import com.espressif.ui.adapters.NotificationAdapter;
 import com.espressif.ui.adapters.SharingRequestAdapter;
@@ -47,6 +49,8 @@ public class NotificationsActivity extends AppCompatActivity {
 
     private static final String TAG = NotificationsActivity.class.getSimpleName();
 
+    private static final int NOTIFICATION_PAGE_SIZE = 30;
+
     private RelativeLayout rlSharingReq, rlNotifications;
     private RecyclerView rvSharingReq, rvNotifications;
     private TextView tvNoRequest;
@@ -61,6 +65,8 @@ public class NotificationsActivity extends AppCompatActivity {
     private ArrayList<SharingRequest> pendingRequests;
     private ArrayList<NotificationEvent> notifications;
     private ApiManager apiManager;
+    private NotificationDao notificationDao;
+    private boolean hasMoreNotifications;
 
     @Override
     public void onCreate(Bundle savedInstanceState) {
@@ -71,13 +77,7 @@ public class NotificationsActivity extends AppCompatActivity {
         pendingRequests = new ArrayList<>();
         notifications = new ArrayList<>();
         apiManager = ApiManager.getInstance(getApplicationContext());
-
-        EspDatabase espDatabase = EspDatabase.getInstance(getApplicationContext());
-        ArrayList<NotificationEvent> events = (ArrayList<NotificationEvent>) espDatabase.getNotificationDao().getNotificationsFromStorage();
-        if (events != null && events.size() > 0) {
-            notifications = events;
-        }
-        Log.e(TAG, "Notification list size : " + notifications.size());
+        notificationDao = EspDatabase.getInstance(getApplicationContext()).getNotificationDao();
         initViews();
     }
 
@@ -123,6 +123,21 @@ public class NotificationsActivity extends AppCompatActivity {
         notificationAdapter = new NotificationAdapter(this, notifications);
         rvNotifications.setAdapter(notificationAdapter);
 
+        NestedScrollView scrollView = findViewById(R.id.scroll_notifications);
+        scrollView.setOnScrollChangeListener(new NestedScrollView.OnScrollChangeListener() {
+
+            @Override
+            public void onScrollChange(NestedScrollView v, int scrollX, int scrollY, int oldScrollX, int oldScrollY) {
+
+                // Load next page when list is scrolled to the bottom.
+                View child = v.getChildAt(0);
+                if (child != null && scrollY > oldScrollY
+                        && scrollY >= (child.getMeasuredHeight() - v.getMeasuredHeight())) {
+                    loadMoreNotifications();
+                }
+            }
+        });
+
         swipeRefreshLayout.setOnRefreshListener(new SwipeRefreshLayout.OnRefreshListener() {
 
             @Override
@@ -222,15 +237,35 @@ public class NotificationsActivity extends AppCompatActivity {
         });
     }
 
+    /**
+     * Load first page of notifications. Next pages are loaded when user scrolls to the end of the list.
+     */
     private void getNotifications() {
-        EspDatabase espDatabase = EspDatabase.getInstance(getApplicationContext());
-        ArrayList<NotificationEvent> events = (ArrayList<NotificationEvent>) espDatabase.getNotificationDao().getNotificationsFromStorage();
-        if (events != null && events.size() > 0) {
-            notifications = events;
-        }
+
+        ArrayList<NotificationEvent> events = new ArrayList<>(notificationDao.getNotifications(NOTIFICATION_PAGE_SIZE));
+        hasMoreNotifications = events.size() == NOTIFICATION_PAGE_SIZE;
+        notifications = events;
+        Log.d(TAG, "Notification list size : " + notifications.size());
         notificationAdapter.updateList(notifications);
     }
 
+    private void loadMoreNotifications() {
+
+        if (!hasMoreNotifications || notifications.size() == 0) {
+            return;
+        }
+
+        // Use last loaded notification as a key for next page.
+        NotificationEvent lastEvent = notifications.get(notifications.size() - 1);
+        ArrayList<NotificationEvent> events = new ArrayList<>(notificationDao.getNotificationsBefore(lastEvent.getTimestamp(),
+                lastEvent.getNotificationId(), NOTIFICATION_PAGE_SIZE));
+        hasMoreNotifications = events.size() == NOTIFICATION_PAGE_SIZE;
+
+        if (events.size() > 0) {
+            notificationAdapter.addNotifications(events);
+        }
+    }
+
     public void showLoading(String msg) {
         rlPendingReq.setAlpha(0.3f);
         rlProgress.setVisibility(View.VISIBLE);
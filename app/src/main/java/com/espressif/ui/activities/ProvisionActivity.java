@@ -17,7 +17,6 @@ package com.espressif.ui.activities;
 import android.content.DialogInterface;
 import android.content.Intent;
 import android.os.Bundle;
-import android.os.Handler;
 import android.text.TextUtils;
 import android.util.Log;
 import android.view.View;
@@ -30,30 +29,25 @@ import androidx.appcompat.app.AppCompatActivity;
 import androidx.core.widget.ContentLoadingProgressBar;
 
 import com.espressif.AppConstants;
-import com.espressif.EspApplication;
+import com.espressif.ProvisioningPipeline;
 import com.espressif.cloudapi.ApiManager;
-import com.espressif.cloudapi.ApiResponseListener;
 import com.espressif.provisioning.DeviceConnectionEvent;
 import com.espressif.provisioning.ESPConstants;
 import com.espressif.provisioning.ESPProvisionManager;
 import com.espressif.provisioning.listeners.ProvisionListener;
 import com.espressif.provisioning.listeners.ResponseListener;
+import com.espressif.rainmaker.BuildConfig;
 import com.espressif.rainmaker.R;
-import com.espressif.ui.models.EspNode;
-import com.espressif.ui.models.Param;
-import com.espressif.ui.models.Service;
+import com.espressif.ui.models.ProvisioningResult;
 import com.espressif.ui.models.UpdateEvent;
 import com.google.android.material.appbar.MaterialToolbar;
 import com.google.android.material.card.MaterialCardView;
-import com.google.gson.JsonObject;
 import com.google.protobuf.InvalidProtocolBufferException;
 
 import org.greenrobot.eventbus.EventBus;
 import org.greenrobot.eventbus.Subscribe;
 import org.greenrobot.eventbus.ThreadMode;
 
-import java.util.ArrayList;
-import java.util.TimeZone;
 import java.util.UUID;
 
 import rainmaker.EspRmakerUserMapping;
@@ -62,23 +56,18 @@ public class ProvisionActivity extends AppCompatActivity {
 
     private static final String TAG = ProvisionActivity.class.getSimpleName();
 
-    private static final long ADD_DEVICE_REQ_TIME = 5000;
-    private static final long NODE_STATUS_REQ_TIME = 35000;
-
     private ImageView tick1, tick2, tick3, tick4, tick5;
     private ContentLoadingProgressBar progress1, progress2, progress3, progress4, progress5;
     private TextView tvErrAtStep1, tvErrAtStep2, tvErrAtStep3, tvErrAtStep4, tvErrAtStep5, tvProvError;
 
-    private MaterialCardView btnOk;
-    private TextView txtOkBtn;
+    private MaterialCardView btnOk, btnNextDevice;
+    private TextView txtOkBtn, txtNextDeviceBtn;
 
-    private int addDeviceReqCount = 0;
     private String ssidValue, passphraseValue = "";
     private String receivedNodeId, secretKey;
 
-    private ApiManager apiManager;
-    private Handler handler;
     private ESPProvisionManager provisionManager;
+    private ProvisioningPipeline provisioningPipeline;
     private boolean isProvisioningCompleted = false;
 
     @Override
@@ -91,9 +80,7 @@ public class ProvisionActivity extends AppCompatActivity {
         ssidValue = intent.getStringExtra(AppConstants.KEY_SSID);
         passphraseValue = intent.getStringExtra(AppConstants.KEY_PASSWORD);
         provisionManager = ESPProvisionManager.getInstance(getApplicationContext());
-
-        handler = new Handler();
-        apiManager = ApiManager.getInstance(getApplicationContext());
+        provisioningPipeline = ProvisioningPipeline.getInstance(getApplicationContext());
         initViews();
 
         Log.d(TAG, "Selected AP - " + ssidValue);
@@ -111,9 +98,7 @@ public class ProvisionActivity extends AppCompatActivity {
     @Override
     protected void onDestroy() {
 
-        apiManager.cancelRequestStatusPollingTask();
-        handler.removeCallbacks(getNodeStatusTask);
-        handler.removeCallbacks(nodeStatusReqFailed);
+        // Cloud steps are not stopped here, ProvisioningPipeline completes those in background.
         EventBus.getDefault().unregister(this);
         super.onDestroy();
     }
@@ -124,17 +109,11 @@ public class ProvisionActivity extends AppCompatActivity {
 
         switch (event.getEventType()) {
 
-            case EVENT_DEVICE_ADDED:
-                doStep5();
-                break;
-
-            case EVENT_ADD_DEVICE_TIME_OUT:
-                tick4.setImageResource(R.drawable.ic_error);
-                tick4.setVisibility(View.VISIBLE);
-                progress4.setVisibility(View.GONE);
-                tvErrAtStep4.setVisibility(View.VISIBLE);
-                tvErrAtStep4.setText(R.string.error_prov_step_4);
-                tvProvError.setVisibility(View.VISIBLE);
+            case EVENT_PROVISIONING_UPDATE:
+                String nodeId = event.getData() != null ? event.getData().getString(AppConstants.KEY_NODE_ID) : null;
+                if (receivedNodeId != null && receivedNodeId.equals(nodeId)) {
+                    displayCloudSteps(provisioningPipeline.getResult(nodeId));
+                }
                 break;
         }
     }
@@ -160,6 +139,19 @@ public class ProvisionActivity extends AppCompatActivity {
         @Override
         public void onClick(View v) {
             provisionManager.getEspDevice().disconnectDevice();
+            if (BuildConfig.isBulkProvisioningEnabled) {
+                startActivity(new Intent(ProvisionActivity.this, ProvisioningResultsActivity.class));
+            }
+            finish();
+        }
+    };
+
+    private View.OnClickListener nextDeviceBtnClickListener = new View.OnClickListener() {
+
+        @Override
+        public void onClick(View v) {
+            provisionManager.getEspDevice().disconnectDevice();
+            startActivity(new Intent(ProvisionActivity.this, AddDeviceActivity.class));
             finish();
         }
     };
@@ -192,11 +184,22 @@ public class ProvisionActivity extends AppCompatActivity {
         tvProvError = findViewById(R.id.tv_prov_error);
 
         btnOk = findViewById(R.id.btn_ok);
-        txtOkBtn = findViewById(R.id.text_btn);
+        txtOkBtn = btnOk.findViewById(R.id.text_btn);
         btnOk.findViewById(R.id.iv_arrow).setVisibility(View.GONE);
 
-        txtOkBtn.setText(R.string.btn_ok);
+        btnNextDevice = findViewById(R.id.btn_next_device);
+        txtNextDeviceBtn = btnNextDevice.findViewById(R.id.text_btn);
+        btnNextDevice.findViewById(R.id.iv_arrow).setVisibility(View.GONE);
+        btnNextDevice.setVisibility(View.GONE);
+
+        if (BuildConfig.isBulkProvisioningEnabled) {
+            txtOkBtn.setText(R.string.btn_view_results);
+        } else {
+            txtOkBtn.setText(R.string.btn_ok);
+        }
+        txtNextDeviceBtn.setText(R.string.btn_provision_next_device);
         btnOk.setOnClickListener(okBtnClickListener);
+        btnNextDevice.setOnClickListener(nextDeviceBtnClickListener);
     }
 
     private void doStep1() {
@@ -229,7 +232,71 @@ public class ProvisionActivity extends AppCompatActivity {
         tick3.setVisibility(View.GONE);
         progress3.setVisibility(View.VISIBLE);
 
-        handler.postDelayed(addDeviceTask, ADD_DEVICE_REQ_TIME);
+        String deviceName = provisionManager.getEspDevice().getDeviceName();
+        if (TextUtils.isEmpty(deviceName)) {
+            deviceName = receivedNodeId;
+        }
+        provisioningPipeline.startCloudSteps(receivedNodeId, secretKey, deviceName, isSuccessInStep2);
+
+        // Radio steps are done, so next device can be provisioned while cloud steps of this device are in progress.
+        if (BuildConfig.isBulkProvisioningEnabled) {
+            hideLoading();
+            if (BuildConfig.isQRCodeSupported) {
+                btnNextDevice.setVisibility(View.VISIBLE);
+            }
+        }
+    }
+
+    private void displayCloudSteps(ProvisioningResult result) {
+
+        if (result == null) {
+            return;
+        }
+
+        switch (result.getState()) {
+
+            case ADDING:
+                break;
+
+            case ADD_FAILED:
+                tick3.setImageResource(R.drawable.ic_error);
+                tick3.setVisibility(View.VISIBLE);
+                progress3.setVisibility(View.GONE);
+                tvErrAtStep3.setVisibility(View.VISIBLE);
+                tvErrAtStep3.setText(R.string.error_prov_step_3);
+                tvProvError.setVisibility(View.VISIBLE);
+                hideLoading();
+                break;
+
+            case CONFIRMING:
+                doStep4();
+                break;
+
+            case CONFIRM_FAILED:
+                tick4.setImageResource(R.drawable.ic_error);
+                tick4.setVisibility(View.VISIBLE);
+                progress4.setVisibility(View.GONE);
+                tvErrAtStep4.setVisibility(View.VISIBLE);
+                tvErrAtStep4.setText(R.string.error_prov_step_4);
+                tvProvError.setVisibility(View.VISIBLE);
+                break;
+
+            case SETTING_UP:
+                doStep5();
+                break;
+
+            case DONE:
+                tick5.setImageResource(R.drawable.ic_checkbox_on);
+                tick5.setVisibility(View.VISIBLE);
+                progress5.setVisibility(View.GONE);
+                break;
+
+            case DONE_WITH_WARNING:
+                tick5.setImageResource(R.drawable.ic_alert);
+                tick5.setVisibility(View.VISIBLE);
+                progress5.setVisibility(View.GONE);
+                break;
+        }
     }
 
     private void doStep4() {
@@ -251,28 +318,6 @@ public class ProvisionActivity extends AppCompatActivity {
         progress4.setVisibility(View.GONE);
         tick5.setVisibility(View.GONE);
         progress5.setVisibility(View.VISIBLE);
-        handler.postDelayed(nodeStatusReqFailed, NODE_STATUS_REQ_TIME);
-
-        apiManager.getNodeDetails(receivedNodeId, new ApiResponseListener() {
-
-            @Override
-            public void onSuccess(Bundle data) {
-                Log.e(TAG, "Get node details - success");
-                handler.postDelayed(getNodeStatusTask, 1000);
-            }
-
-            @Override
-            public void onResponseFailure(Exception exception) {
-                Log.e(TAG, "Get node details - failure");
-                handler.postDelayed(getNodeStatusTask, 1000);
-            }
-
-            @Override
-            public void onNetworkFailure(Exception exception) {
-                Log.e(TAG, "Get node details - failure");
-                handler.postDelayed(getNodeStatusTask, 1000);
-            }
-        });
     }
 
     private void provision() {
@@ -498,232 +543,6 @@ public class ProvisionActivity extends AppCompatActivity {
         }
     }
 
-    private void addDeviceToCloud(final ApiResponseListener responseListener) {
-
-        Log.d(TAG, "Add device to cloud, count : " + addDeviceReqCount);
-        apiManager.addNode(receivedNodeId, secretKey, new ApiResponseListener() {
-
-            @Override
-            public void onSuccess(Bundle data) {
-                responseListener.onSuccess(null);
-            }
-
-            @Override
-            public void onResponseFailure(Exception exception) {
-                exception.printStackTrace();
-                responseListener.onNetworkFailure(exception);
-            }
-
-            @Override
-            public void onNetworkFailure(Exception exception) {
-                exception.printStackTrace();
-                responseListener.onNetworkFailure(exception);
-            }
-        });
-    }
-
-    private Runnable addDeviceTask = new Runnable() {
-
-        @Override
-        public void run() {
-
-            addDeviceReqCount++;
-
-            addDeviceToCloud(new ApiResponseListener() {
-
-                @Override
-                public void onSuccess(Bundle data) {
-
-                    runOnUiThread(new Runnable() {
-
-                        @Override
-                        public void run() {
-                            doStep4();
-                        }
-                    });
-                }
-
-                @Override
-                public void onResponseFailure(Exception exception) {
-
-                    if (addDeviceReqCount == 7) {
-
-                        runOnUiThread(new Runnable() {
-
-                            @Override
-                            public void run() {
-
-                                tick3.setImageResource(R.drawable.ic_error);
-                                tick3.setVisibility(View.VISIBLE);
-                                progress3.setVisibility(View.GONE);
-                                tvErrAtStep3.setVisibility(View.VISIBLE);
-                                tvErrAtStep3.setText(R.string.error_prov_step_3);
-                                tvProvError.setVisibility(View.VISIBLE);
-                                hideLoading();
-                            }
-                        });
-                    } else {
-                        handler.postDelayed(addDeviceTask, ADD_DEVICE_REQ_TIME);
-                    }
-                }
-
-                @Override
-                public void onNetworkFailure(Exception exception) {
-
-                    if (addDeviceReqCount == 7) {
-
-                        runOnUiThread(new Runnable() {
-
-                            @Override
-                            public void run() {
-
-                                tick3.setImageResource(R.drawable.ic_error);
-                                tick3.setVisibility(View.VISIBLE);
-                                progress3.setVisibility(View.GONE);
-                                tvErrAtStep3.setVisibility(View.VISIBLE);
-                                tvErrAtStep3.setText(R.string.error_prov_step_3);
-                                tvProvError.setVisibility(View.VISIBLE);
-                                hideLoading();
-                            }
-                        });
-                    } else {
-                        handler.postDelayed(addDeviceTask, ADD_DEVICE_REQ_TIME);
-                    }
-                }
-            });
-        }
-    };
-
-    private Runnable getNodeStatusTask = new Runnable() {
-
-        @Override
-        public void run() {
-
-            if (isFinishing()) {
-                return;
-            }
-            apiManager.getNodeStatus(receivedNodeId, new ApiResponseListener() {
-
-                @Override
-                public void onSuccess(Bundle data) {
-
-                    runOnUiThread(new Runnable() {
-
-                        @Override
-                        public void run() {
-                            EspApplication espApp = (EspApplication) getApplicationContext();
-                            EspNode espNode = espApp.nodeMap.get(receivedNodeId);
-                            if (espNode != null && espNode.isOnline()) {
-
-                                // Send time zone to device.
-                                ArrayList<Service> services = espNode.getServices();
-                                boolean isTimeZoneServiceAvailable = false;
-                                String paramName = "";
-
-                                for (int i = 0; i < services.size(); i++) {
-
-                                    Service s = services.get(i);
-                                    if (!TextUtils.isEmpty(s.getType()) && s.getType().equals(AppConstants.SERVICE_TYPE_TIME)) {
-
-                                        ArrayList<Param> timeParams = s.getParams();
-                                        for (int index = 0; index < timeParams.size(); index++) {
-                                            if (AppConstants.PARAM_TYPE_TZ.equals(timeParams.get(index).getParamType())) {
-                                                isTimeZoneServiceAvailable = true;
-                                                paramName = timeParams.get(index).getName();
-                                                break;
-                                            }
-                                        }
-                                        if (isTimeZoneServiceAvailable) {
-                                            break;
-                                        }
-                                    }
-                                }
-
-                                if (isTimeZoneServiceAvailable) {
-
-                                    Log.e(TAG, "Time zone service is available");
-                                    TimeZone tz = TimeZone.getDefault();
-                                    String timeZoneId = tz.getID();
-                                    Log.e(TAG, "Time zone id : " + timeZoneId);
-
-                                    JsonObject body = new JsonObject();
-                                    JsonObject jsonParam = new JsonObject();
-                                    jsonParam.addProperty(paramName, timeZoneId);
-                                    body.add(AppConstants.KEY_TIME, jsonParam);
-                                    apiManager.updateParamValue(espNode.getNodeId(), body, new ApiResponseListener() {
-
-                                        @Override
-                                        public void onSuccess(Bundle data) {
-                                            tick5.setImageResource(R.drawable.ic_checkbox_on);
-                                            tick5.setVisibility(View.VISIBLE);
-                                            progress5.setVisibility(View.GONE);
-                                            handler.removeCallbacks(nodeStatusReqFailed);
-                                        }
-
-                                        @Override
-                                        public void onResponseFailure(Exception exception) {
-                                            Log.e(TAG, "Failed to send time zone value");
-                                            handler.removeCallbacks(getNodeStatusTask);
-                                            tick5.setImageResource(R.drawable.ic_alert);
-                                            tick5.setVisibility(View.VISIBLE);
-                                            progress5.setVisibility(View.GONE);
-                                        }
-
-                                        @Override
-                                        public void onNetworkFailure(Exception exception) {
-                                            Log.e(TAG, "Failed to send time zone value");
-                                            handler.removeCallbacks(getNodeStatusTask);
-                                            tick5.setImageResource(R.drawable.ic_alert);
-                                            tick5.setVisibility(View.VISIBLE);
-                                            progress5.setVisibility(View.GONE);
-                                        }
-                                    });
-                                } else {
-                                    Log.e(TAG, "Time zone service is not available");
-                                    tick5.setImageResource(R.drawable.ic_checkbox_on);
-                                    tick5.setVisibility(View.VISIBLE);
-                                    progress5.setVisibility(View.GONE);
-                                    handler.removeCallbacks(nodeStatusReqFailed);
-                                }
-                            } else {
-                                handler.removeCallbacks(getNodeStatusTask);
-                                handler.postDelayed(getNodeStatusTask, 2000);
-                            }
-                        }
-                    });
-                }
-
-                @Override
-                public void onResponseFailure(Exception exception) {
-                    handler.removeCallbacks(getNodeStatusTask);
-                    handler.postDelayed(getNodeStatusTask, 2000);
-                }
-
-                @Override
-                public void onNetworkFailure(Exception exception) {
-                    handler.removeCallbacks(getNodeStatusTask);
-                    handler.postDelayed(getNodeStatusTask, 2000);
-                }
-            });
-        }
-    };
-
-    private Runnable nodeStatusReqFailed = new Runnable() {
-
-        @Override
-        public void run() {
-
-            if (isFinishing()) {
-                return;
-            }
-            Log.d(TAG, "Stop node status polling. Timeout");
-            handler.removeCallbacks(getNodeStatusTask);
-            tick5.setImageResource(R.drawable.ic_alert);
-            tick5.setVisibility(View.VISIBLE);
-            progress5.setVisibility(View.GONE);
-        }
-    };
-
     private void showLoading() {
 
         btnOk.setEnabled(false);
@@ -0,0 +1,183 @@
+// Copyright 2021 Espressif Systems (Shanghai) PTE LTD
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.espressif.ui.activities;
+
+import android.content.Intent;
+import android.os.Bundle;
+import android.view.Menu;
+import android.view.MenuItem;
+import android.view.View;
+import android.widget.TextView;
+
+import androidx.annotation.Nullable;
+import androidx.appcompat.app.AppCompatActivity;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.espressif.ProvisioningPipeline;
+import com.espressif.rainmaker.BuildConfig;
+import com.espressif.rainmaker.R;
+import com.espressif.ui.adapters.ProvisioningResultAdapter;
+import com.espressif.ui.models.ProvisioningResult;
+import com.espressif.ui.models.UpdateEvent;
+import com.google.android.material.appbar.MaterialToolbar;
+import com.google.android.material.card.MaterialCardView;
+
+import org.greenrobot.eventbus.EventBus;
+import org.greenrobot.eventbus.Subscribe;
+import org.greenrobot.eventbus.ThreadMode;
+
+import java.util.ArrayList;
+
+/**
+ * Displays results of all devices provisioned in this session by ProvisioningPipeline.
+ */
+public class ProvisioningResultsActivity extends AppCompatActivity {
+
+    private static final int MENU_ITEM_CLEAR_COMPLETED = 1;
+
+    private RecyclerView rvResults;
+    private TextView tvSummary, tvNoResults;
+    private MaterialCardView btnNextDevice;
+
+    private ProvisioningPipeline provisioningPipeline;
+    private ProvisioningResultAdapter resultAdapter;
+    private ArrayList<ProvisioningResult> results;
+
+    @Override
+    protected void onCreate(@Nullable Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        setContentView(R.layout.activity_provisioning_results);
+
+        results = new ArrayList<>();
+        provisioningPipeline = ProvisioningPipeline.getInstance(getApplicationContext());
+        initViews();
+        updateUi();
+        EventBus.getDefault().register(this);
+    }
+
+    @Override
+    protected void onDestroy() {
+        EventBus.getDefault().unregister(this);
+        super.onDestroy();
+    }
+
+    @Override
+    public boolean onPrepareOptionsMenu(Menu menu) {
+        super.onPrepareOptionsMenu(menu);
+        menu.add(Menu.NONE, MENU_ITEM_CLEAR_COMPLETED, Menu.NONE, R.string.btn_clear_completed).setShowAsAction(MenuItem.SHOW_AS_ACTION_NEVER);
+        return true;
+    }
+
+    @Override
+    public boolean onOptionsItemSelected(MenuItem item) {
+
+        switch (item.getItemId()) {
+
+            case MENU_ITEM_CLEAR_COMPLETED:
+                provisioningPipeline.clearCompleted();
+                updateUi();
+                return true;
+
+            default:
+                return super.onOptionsItemSelected(item);
+        }
+    }
+
+    @Subscribe(threadMode = ThreadMode.MAIN)
+    public void onEvent(UpdateEvent event) {
+
+        switch (event.getEventType()) {
+
+            case EVENT_PROVISIONING_UPDATE:
+                updateUi();
+                break;
+        }
+    }
+
+    private void initViews() {
+
+        MaterialToolbar toolbar = findViewById(R.id.toolbar);
+        setSupportActionBar(toolbar);
+        getSupportActionBar().setDisplayHomeAsUpEnabled(true);
+        getSupportActionBar().setDisplayShowHomeEnabled(true);
+        getSupportActionBar().setTitle(R.string.title_activity_provisioning_results);
+        toolbar.setNavigationIcon(R.drawable.ic_arrow_left);
+        toolbar.setNavigationOnClickListener(new View.OnClickListener() {
+            @Override
+            public void onClick(View v) {
+                finish();
+            }
+        });
+
+        tvSummary = findViewById(R.id.tv_results_summary);
+        tvNoResults = findViewById(R.id.tv_no_results);
+        rvResults = findViewById(R.id.rv_result_list);
+
+        btnNextDevice = findViewById(R.id.btn_next_device);
+        TextView txtNextDeviceBtn = btnNextDevice.findViewById(R.id.text_btn);
+        txtNextDeviceBtn.setText(R.string.btn_provision_next_device);
+        btnNextDevice.findViewById(R.id.iv_arrow).setVisibility(View.GONE);
+
+        if (BuildConfig.isQRCodeSupported) {
+            btnNextDevice.setOnClickListener(new View.OnClickListener() {
+
+                @Override
+                public void onClick(View v) {
+                    startActivity(new Intent(ProvisioningResultsActivity.this, AddDeviceActivity.class));
+                    finish();
+                }
+            });
+        } else {
+            btnNextDevice.setVisibility(View.GONE);
+        }
+
+        resultAdapter = new ProvisioningResultAdapter(this, results);
+        rvResults.setLayoutManager(new LinearLayoutManager(this));
+        rvResults.setAdapter(resultAdapter);
+    }
+
+    private void updateUi() {
+
+        results.clear();
+        results.addAll(provisioningPipeline.getResults());
+
+        int inProgressCount = 0, doneCount = 0, failedCount = 0;
+
+        for (ProvisioningResult result : results) {
+
+            if (!result.isCompleted()) {
+                inProgressCount++;
+            } else if (result.getState() == ProvisioningResult.State.ADD_FAILED
+                    || result.getState() == ProvisioningResult.State.CONFIRM_FAILED) {
+                failedCount++;
+            } else {
+                doneCount++;
+            }
+        }
+
+        tvSummary.setText(getString(R.string.prov_result_in_progress, inProgressCount, doneCount, failedCount));
+
+        if (results.size() > 0) {
+            tvNoResults.setVisibility(View.GONE);
+            rvResults.setVisibility(View.VISIBLE);
+        } else {
+            tvNoResults.setVisibility(View.VISIBLE);
+            rvResults.setVisibility(View.GONE);
+        }
+        resultAdapter.notifyDataSetChanged();
+    }
+}
@@ -20,9 +20,11 @@ import android.os.Bundle;
 import android.text.TextUtils;
 import android.view.View;
 import android.widget.RelativeLayout;
+import android.widget.TextView;
 
 import androidx.appcompat.app.AppCompatActivity;
 
+import com.espressif.cloudapi.AlexaApiManager;
 import com.espressif.rainmaker.BuildConfig;
 import com.espressif.rainmaker.R;
 import com.google.android.material.appbar.MaterialToolbar;
@@ -30,6 +32,7 @@ import com.google.android.material.appbar.MaterialToolbar;
 public class VoiceServicesActivity extends AppCompatActivity {
 
     private RelativeLayout rlAlexa, rlGva;
+    private TextView tvAlexaStatus;
 
     @Override
     public void onCreate(Bundle savedInstanceState) {
@@ -39,6 +42,12 @@ public class VoiceServicesActivity extends AppCompatActivity {
         initViews();
     }
 
+    @Override
+    protected void onResume() {
+        super.onResume();
+        updateAlexaStatus();
+    }
+
     private void initViews() {
 
         MaterialToolbar toolbar = findViewById(R.id.toolbar);
@@ -56,10 +65,24 @@ public class VoiceServicesActivity extends AppCompatActivity {
 
         rlAlexa = findViewById(R.id.rl_alexa);
         rlGva = findViewById(R.id.rl_gva);
+        tvAlexaStatus = findViewById(R.id.tv_alexa_status);
         rlAlexa.setOnClickListener(alexaClickListener);
         rlGva.setOnClickListener(gvaClickListener);
     }
 
+    /**
+     * Display cached link status of Alexa. Status is refreshed by Alexa app linking screen and in background.
+     */
+    private void updateAlexaStatus() {
+
+        AlexaApiManager alexaApiManager = AlexaApiManager.getInstance(getApplicationContext());
+        if (alexaApiManager.isLinkStatusAvailable() && alexaApiManager.isLinked()) {
+            tvAlexaStatus.setVisibility(View.VISIBLE);
+        } else {
+            tvAlexaStatus.setVisibility(View.GONE);
+        }
+    }
+
     private View.OnClickListener alexaClickListener = new View.OnClickListener() {
 
         @Override
@@ -50,6 +50,7 @@ import androidx.appcompat.app.AppCompatActivity;
 import androidx.core.app.ActivityCompat;
 
 import com.espressif.AppConstants;
+import com.espressif.WiFiScanCache;
 import com.espressif.provisioning.DeviceConnectionEvent;
 import com.espressif.provisioning.ESPConstants;
 import com.espressif.provisioning.ESPProvisionManager;
@@ -93,10 +94,11 @@ public class WiFiScanActivity extends AppCompatActivity {
     private ArrayList<WiFiAccessPoint> wifiAPList;
     private ArrayList<String> spinnerValues = new ArrayList<>();
     private ArrayAdapter<String> dataAdapter;
-    private SharedPreferences sharedPreferences;
+    private WiFiScanCache scanCache;
     private boolean shouldSavePassword;
     private Handler handler;
     private String previousNetwork;
+    private String site;
 
     @Override
     protected void onCreate(@Nullable Bundle savedInstanceState) {
@@ -107,10 +109,13 @@ public class WiFiScanActivity extends AppCompatActivity {
         shouldSavePassword = getSharedPreferences(AppConstants.ESP_PREFERENCES, Context.MODE_PRIVATE)
                 .getBoolean(AppConstants.KEY_SHOULD_SAVE_PWD, true);
 
-        sharedPreferences = getSharedPreferences(AppConstants.PREF_FILE_WIFI_NETWORKS, Context.MODE_PRIVATE);
+        scanCache = WiFiScanCache.getInstance(getApplicationContext());
         handler = new Handler();
         wifiAPList = new ArrayList<>();
         previousNetwork = getIntent().getStringExtra(AppConstants.KEY_SSID);
+        // Network to which phone was connected before connecting with device, is used to identify the site.
+        // Scan cache is not used if it is not known (empty or "<unknown ssid>").
+        site = TextUtils.isEmpty(previousNetwork) ? getConnectedNetwork() : previousNetwork;
         initViews();
         EventBus.getDefault().register(this);
         if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O
@@ -202,8 +207,8 @@ public class WiFiScanActivity extends AppCompatActivity {
             public void onItemSelected(AdapterView<?> parent, View view, int position, long id) {
                 ssid = spinnerValues.get(position);
                 if (shouldSavePassword) {
-                    if (sharedPreferences.contains(ssid)) {
-                        String password = sharedPreferences.getString(ssid, "");
+                    if (scanCache.isSaved(ssid)) {
+                        String password = scanCache.getSavedPassword(ssid);
                         etPassword.setText(password);
                         etPassword.setSelection(etPassword.getText().length());
                     } else {
@@ -252,7 +257,19 @@ public class WiFiScanActivity extends AppCompatActivity {
 
         updateProgressAndScanBtn(true);
         if (BuildConfig.WIFI_SCAN_SRC.equals(AppConstants.WIFI_SCAN_FROM_DEVICE)) {
-            showLoading();
+
+            ArrayList<WiFiAccessPoint> cachedList = scanCache.getScanResults(site);
+
+            if (cachedList != null) {
+                // Display previous results of this site, list will get updated when device sends scan results.
+                Log.d(TAG, "Display cached Wi-Fi list for site : " + site);
+                wifiAPList.clear();
+                wifiAPList.addAll(cachedList);
+                displayWifiList();
+                updateProgressAndScanBtn(true);
+            } else {
+                showLoading();
+            }
             startWifiScanUsingDevice();
         } else {
             displayWifiList();
@@ -272,13 +289,7 @@ public class WiFiScanActivity extends AppCompatActivity {
         mainPrefEditor.putBoolean(AppConstants.KEY_SHOULD_SAVE_PWD, cbSavePwd.isChecked());
         mainPrefEditor.apply();
 
-        SharedPreferences.Editor networksPrefEditor = sharedPreferences.edit();
-        if (cbSavePwd.isChecked()) {
-            networksPrefEditor.putString(ssid, password);
-        } else {
-            networksPrefEditor.remove(ssid);
-        }
-        networksPrefEditor.apply();
+        scanCache.setSavedPassword(ssid, cbSavePwd.isChecked() ? password : null);
 
         if (TextUtils.isEmpty(ssid) || ssid.equals(getString(R.string.select_network))) {
             Toast.makeText(WiFiScanActivity.this, R.string.error_network_select, Toast.LENGTH_LONG).show();
@@ -290,7 +301,6 @@ public class WiFiScanActivity extends AppCompatActivity {
     private void startWifiScanUsingDevice() {
 
         Log.d(TAG, "Start Wi-Fi Scan");
-        wifiAPList.clear();
         handler.postDelayed(stopScanningTask, 15000);
 
         provisionManager.getEspDevice().scanNetworks(new WiFiScanListener() {
@@ -300,7 +310,8 @@ public class WiFiScanActivity extends AppCompatActivity {
                 runOnUiThread(new Runnable() {
                     @Override
                     public void run() {
-                        wifiAPList.addAll(wifiList);
+                        wifiAPList.clear();
+                        wifiAPList.addAll(scanCache.putScanResults(site, wifiList));
                         displayWifiList();
                     }
                 });
@@ -376,6 +387,8 @@ public class WiFiScanActivity extends AppCompatActivity {
             public void run() {
 
                 hideLoading();
+                // Keep network selected by user, as list can be refreshed after cached results are displayed.
+                String selectedNetwork = (String) spinnerNetworks.getSelectedItem();
                 spinnerValues.clear();
                 handler.removeCallbacks(stopScanningTask);
                 ssid = getConnectedNetwork();
@@ -423,8 +436,14 @@ public class WiFiScanActivity extends AppCompatActivity {
                 }
                 dataAdapter.notifyDataSetChanged();
 
-                if (shouldSavePassword && sharedPreferences.contains(ssid)) {
-                    String password = sharedPreferences.getString(ssid, "");
+                int selectedIndex = spinnerValues.indexOf(selectedNetwork);
+                if (selectedIndex > 0 && !selectedNetwork.equals(getString(R.string.select_network))) {
+                    ssid = selectedNetwork;
+                    spinnerNetworks.setSelection(selectedIndex);
+                }
+
+                if (shouldSavePassword && scanCache.isSaved(ssid)) {
+                    String password = scanCache.getSavedPassword(ssid);
                     etPassword.setText(password);
                     etPassword.setSelection(etPassword.getText().length());
                 }
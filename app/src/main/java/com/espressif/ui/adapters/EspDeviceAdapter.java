@@ -32,6 +32,7 @@ import androidx.recyclerview.widget.RecyclerView;
 import com.aar.tapholdupbutton.TapHoldUpButton;
 import com.espressif.AppConstants;
 import com.espressif.EspApplication;
+import com.espressif.GroupIndex;
 import com.espressif.NetworkApiManager;
 import com.espressif.cloudapi.ApiResponseListener;
 import com.espressif.local_control.EspLocalDevice;
@@ -169,7 +170,7 @@ public class EspDeviceAdapter extends RecyclerView.Adapter<EspDeviceAdapter.Devi
                         deviceVh.ivDeviceStatus.setImageResource(R.drawable.ic_output_off);
                     }
 
-                    if (param.getProperties().contains(AppConstants.KEY_PROPERTY_WRITE)) {
+                    if (param.isWritable()) {
 
                         deviceVh.ivDeviceStatus.setOnClickListener(new View.OnClickListener() {
 
@@ -195,6 +196,7 @@ public class EspDeviceAdapter extends RecyclerView.Adapter<EspDeviceAdapter.Devi
                                     @Override
                                     public void onSuccess(Bundle data) {
                                         param.setSwitchStatus(!status);
+                                        GroupIndex.getInstance().onNodeChanged(device.getNodeId());
                                     }
 
                                     @Override
@@ -217,7 +219,7 @@ public class EspDeviceAdapter extends RecyclerView.Adapter<EspDeviceAdapter.Devi
                     deviceVh.tvStringValue.setVisibility(View.GONE);
                     deviceVh.btnTrigger.setVisibility(View.VISIBLE);
 
-                    if (param.getProperties().contains(AppConstants.KEY_PROPERTY_WRITE)) {
+                    if (param.isWritable()) {
 
                         deviceVh.btnTrigger.setAlpha(1f);
                         deviceVh.btnTrigger.setEnabled(true);
@@ -305,7 +307,7 @@ public class EspDeviceAdapter extends RecyclerView.Adapter<EspDeviceAdapter.Devi
                         deviceVh.ivDeviceStatus.setImageResource(R.drawable.ic_output_off);
                     }
 
-                    if (param.getProperties().contains(AppConstants.KEY_PROPERTY_WRITE)) {
+                    if (param.isWritable()) {
 
                         deviceVh.ivDeviceStatus.setOnClickListener(new View.OnClickListener() {
 
@@ -43,6 +43,7 @@ import androidx.swiperefreshlayout.widget.SwipeRefreshLayout;
 
 import com.espressif.AppConstants;
 import com.espressif.EspApplication;
+import com.espressif.GroupIndex;
 import com.espressif.provisioning.ESPConstants;
 import com.espressif.provisioning.ESPProvisionManager;
 import com.espressif.rainmaker.BuildConfig;
@@ -57,7 +58,6 @@ import com.espressif.ui.models.EspNode;
 import com.espressif.ui.models.Group;
 
 import java.util.ArrayList;
-import java.util.Map;
 
 public class GroupsPageAdapter extends RecyclerView.Adapter<GroupsPageAdapter.GroupPageViewHolder> {
 
@@ -88,8 +88,9 @@ public class GroupsPageAdapter extends RecyclerView.Adapter<GroupsPageAdapter.Gr
     public void onBindViewHolder(@NonNull final GroupPageViewHolder viewHolder, int position) {
 
         Group group = groups.get(position);
-        ArrayList<Device> devices = new ArrayList<>();
-        ArrayList<EspNode> nodes = new ArrayList<>();
+        GroupIndex.GroupState groupState = GroupIndex.getInstance().getGroupState(group, espApp.nodeMap);
+        ArrayList<Device> devices = groupState.getDevices();
+        ArrayList<EspNode> nodes = groupState.getNodes();
 
         GridLayoutManager linearLayoutManager = new GridLayoutManager(context, 2);
         viewHolder.rvDevices.setLayoutManager(linearLayoutManager);
@@ -114,43 +115,12 @@ public class GroupsPageAdapter extends RecyclerView.Adapter<GroupsPageAdapter.Gr
         NodeAdapter nodeAdapter = new NodeAdapter(context, nodes);
         viewHolder.rvNodes.setAdapter(nodeAdapter);
 
-        if (position == 0) {
-
-            for (Map.Entry<String, EspNode> entry : espApp.nodeMap.entrySet()) {
-
-                String key = entry.getKey();
-                EspNode node = entry.getValue();
-
-                if (node.getDevices().size() == 1) {
-                    devices.addAll(node.getDevices());
-                } else if (node.getDevices().size() > 1) {
-                    nodes.add(node);
-                }
-            }
-        } else {
-            ArrayList<String> nodeIds = group.getNodeList();
-
-            if (nodeIds != null && nodeIds.size() > 0) {
-                for (int i = 0; i < nodeIds.size(); i++) {
-                    EspNode node = espApp.nodeMap.get(nodeIds.get(i));
-                    if (node != null) {
-                        if (node.getDevices().size() == 1) {
-                            devices.addAll(node.getDevices());
-                        } else if (node.getDevices().size() > 1) {
-                            nodes.add(node);
-                        }
-                    }
-                }
-            }
-        }
-        Log.d(TAG, "Group : " + group.getGroupName() + ",  Device list size : " + devices.size());
-        Log.d(TAG, "Group : " + group.getGroupName() + ",  Node list size : " + nodes.size());
-
         if (devices.size() <= 0 && nodes.size() <= 0) {
 
             viewHolder.tvNoDevice.setText(R.string.no_devices);
             viewHolder.rlNoDevices.setVisibility(View.VISIBLE);
             viewHolder.tvNoDevice.setVisibility(View.VISIBLE);
+            viewHolder.tvGroupSummary.setVisibility(View.GONE);
             viewHolder.tvAddDevice.setVisibility(View.GONE);
             viewHolder.rvDevices.setVisibility(View.GONE);
             viewHolder.rvNodes.setVisibility(View.GONE);
@@ -197,6 +167,9 @@ public class GroupsPageAdapter extends RecyclerView.Adapter<GroupsPageAdapter.Gr
 
             viewHolder.rlNoDevices.setVisibility(View.GONE);
             viewHolder.btnAddDevice.setVisibility(View.GONE);
+            viewHolder.tvGroupSummary.setVisibility(View.VISIBLE);
+            viewHolder.tvGroupSummary.setText(context.getString(R.string.group_summary, groupState.getOnCount(),
+                    groupState.getDeviceCount(), groupState.getOnlineCount(), groupState.getNodeCount()));
 
             if (devices.size() > 0) {
                 viewHolder.rvDevices.setVisibility(View.VISIBLE);
@@ -230,7 +203,7 @@ public class GroupsPageAdapter extends RecyclerView.Adapter<GroupsPageAdapter.Gr
         private TextView txtAddDeviceBtn;
         private ImageView arrowImage;
 
-        private TextView tvNoDevice, tvAddDevice;
+        private TextView tvNoDevice, tvAddDevice, tvGroupSummary;
         private RelativeLayout rlNoDevices;
         private ImageView ivNoDevice;
         private RecyclerView rvDevices, rvNodes;
@@ -242,6 +215,7 @@ public class GroupsPageAdapter extends RecyclerView.Adapter<GroupsPageAdapter.Gr
             rlNoDevices = pageView.findViewById(R.id.rl_no_device);
             tvNoDevice = pageView.findViewById(R.id.tv_no_device);
             tvAddDevice = pageView.findViewById(R.id.tv_add_device);
+            tvGroupSummary = pageView.findViewById(R.id.tv_group_summary);
             ivNoDevice = pageView.findViewById(R.id.iv_no_device);
 
             btnAddDevice = pageView.findViewById(R.id.btn_add_device_1);
@@ -78,6 +78,13 @@ public class NotificationAdapter extends RecyclerView.Adapter<NotificationAdapte
         notifyDataSetChanged();
     }
 
+    public void addNotifications(ArrayList<NotificationEvent> notificationList) {
+
+        int startPosition = notifications.size();
+        notifications.addAll(notificationList);
+        notifyItemRangeInserted(startPosition, notificationList.size());
+    }
+
     @Override
     public int getItemCount() {
         return notifications.size();
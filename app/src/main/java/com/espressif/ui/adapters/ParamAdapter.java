@@ -44,6 +44,7 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.aar.tapholdupbutton.TapHoldUpButton;
 import com.espressif.AppConstants;
+import com.espressif.GroupIndex;
 import com.espressif.NetworkApiManager;
 import com.espressif.cloudapi.ApiResponseListener;
 import com.espressif.rainmaker.R;
@@ -225,7 +226,7 @@ public class ParamAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder>
                 switchViewHolder.ivSwitch.setImageResource(R.drawable.ic_switch_off);
             }
 
-            if (param.getProperties().contains(AppConstants.KEY_PROPERTY_WRITE)) {
+            if (param.isWritable()) {
 
                 if (((EspDeviceActivity) context).isNodeOnline()) {
 
@@ -250,6 +251,7 @@ public class ParamAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder>
                                 @Override
                                 public void onSuccess(Bundle data) {
                                     param.setSwitchStatus(!param.getSwitchStatus());
+                                    GroupIndex.getInstance().onNodeChanged(nodeId);
                                     ((EspDeviceActivity) context).startUpdateValueTask();
                                     ((EspDeviceActivity) context).hideParamUpdateLoading();
                                     if (param.getSwitchStatus()) {
@@ -307,7 +309,7 @@ public class ParamAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder>
             hueViewHolder.colorPickerView.setShowOldCenterColor(false);
             hueViewHolder.colorPickerView.setColor(mCurrentIntColor);
 
-            if (param.getProperties().contains(AppConstants.KEY_PROPERTY_WRITE)) {
+            if (param.isWritable()) {
 
                 if (((EspDeviceActivity) context).isNodeOnline()) {
 
@@ -448,7 +450,7 @@ public class ParamAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder>
         paramViewHolder.paletteBar.setColor((int) param.getValue());
         paramViewHolder.paletteBar.setThumbCircleRadius(17);
         paramViewHolder.paletteBar.setTrackMarkHeight(10);
-        if (param.getProperties().contains(AppConstants.KEY_PROPERTY_WRITE)) {
+        if (param.isWritable()) {
 
             if (((EspDeviceActivity) context).isNodeOnline()) {
 
@@ -550,7 +552,7 @@ public class ParamAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder>
                 paramViewHolder.intSlider.setProgress((int) sliderValue);
             }
 
-            if (param.getProperties().contains(AppConstants.KEY_PROPERTY_WRITE)) {
+            if (param.isWritable()) {
 
                 if (((EspDeviceActivity) context).isNodeOnline()) {
 
@@ -634,7 +636,7 @@ public class ParamAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder>
                 paramViewHolder.floatSlider.setProgress((float) sliderValue);
             }
 
-            if (param.getProperties().contains(AppConstants.KEY_PROPERTY_WRITE)) {
+            if (param.isWritable()) {
 
                 if (((EspDeviceActivity) context).isNodeOnline()) {
 
@@ -719,7 +721,7 @@ public class ParamAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder>
             paramViewHolder.tvSwitchStatus.setText(R.string.text_off);
         }
 
-        if (param.getProperties().contains(AppConstants.KEY_PROPERTY_WRITE)) {
+        if (param.isWritable()) {
 
             paramViewHolder.toggleSwitch.setVisibility(View.VISIBLE);
             paramViewHolder.toggleSwitch.setOnCheckedChangeListener(null);
@@ -791,7 +793,7 @@ public class ParamAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder>
 
         paramViewHolder.tvTriggerName.setText(param.getName());
 
-        if (param.getProperties().contains(AppConstants.KEY_PROPERTY_WRITE)) {
+        if (param.isWritable()) {
 
             if (((EspDeviceActivity) context).isNodeOnline()) {
 
@@ -887,7 +889,7 @@ public class ParamAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder>
         paramViewHolder.tvLabelName.setText(param.getName());
         paramViewHolder.tvLabelValue.setText(param.getLabelValue());
 
-        if (param.getProperties().contains(AppConstants.KEY_PROPERTY_WRITE) && ((EspDeviceActivity) context).isNodeOnline()) {
+        if (param.isWritable() && ((EspDeviceActivity) context).isNodeOnline()) {
 
             paramViewHolder.btnEdit.setVisibility(View.VISIBLE);
 
@@ -1024,7 +1026,7 @@ public class ParamAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder>
             }
         }
 
-        if (param.getProperties().contains(AppConstants.KEY_PROPERTY_WRITE) && ((EspDeviceActivity) context).isNodeOnline()) {
+        if (param.isWritable() && ((EspDeviceActivity) context).isNodeOnline()) {
 
             paramViewHolder.spinner.setSpinnerEventsListener(new EspDropDown.OnSpinnerEventsListener() {
 
@@ -0,0 +1,132 @@
+// Copyright 2021 Espressif Systems (Shanghai) PTE LTD
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.espressif.ui.adapters;
+
+import android.app.Activity;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.ImageView;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.core.widget.ContentLoadingProgressBar;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.espressif.rainmaker.R;
+import com.espressif.ui.models.ProvisioningResult;
+
+import java.util.ArrayList;
+
+public class ProvisioningResultAdapter extends RecyclerView.Adapter<ProvisioningResultAdapter.ResultViewHolder> {
+
+    private Activity context;
+    private ArrayList<ProvisioningResult> results;
+
+    public ProvisioningResultAdapter(Activity context, ArrayList<ProvisioningResult> results) {
+        this.context = context;
+        this.results = results;
+    }
+
+    @NonNull
+    @Override
+    public ResultViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+
+        LayoutInflater layoutInflater = LayoutInflater.from(context);
+        View v = layoutInflater.inflate(R.layout.item_provisioning_result, parent, false);
+        ResultViewHolder viewHolder = new ResultViewHolder(v);
+        return viewHolder;
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull ResultViewHolder resultViewHolder, int position) {
+
+        ProvisioningResult result = results.get(position);
+        resultViewHolder.tvDeviceName.setText(result.getDeviceName());
+
+        int stateText;
+        int statusIcon = 0;
+
+        switch (result.getState()) {
+
+            case ADDING:
+                stateText = R.string.prov_state_adding;
+                break;
+
+            case CONFIRMING:
+                stateText = R.string.prov_state_confirming;
+                break;
+
+            case SETTING_UP:
+                stateText = R.string.prov_state_setting_up;
+                break;
+
+            case DONE:
+                stateText = R.string.prov_state_done;
+                statusIcon = R.drawable.ic_checkbox_on;
+                break;
+
+            case DONE_WITH_WARNING:
+                stateText = R.string.prov_state_done_with_warning;
+                statusIcon = R.drawable.ic_alert;
+                break;
+
+            case ADD_FAILED:
+                stateText = R.string.prov_state_add_failed;
+                statusIcon = R.drawable.ic_error;
+                break;
+
+            case CONFIRM_FAILED:
+            default:
+                stateText = R.string.prov_state_confirm_failed;
+                statusIcon = R.drawable.ic_error;
+                break;
+        }
+
+        long seconds = result.getDuration() / 1000;
+        resultViewHolder.tvState.setText(context.getString(stateText) + " (" + seconds + " s)");
+
+        if (result.isCompleted()) {
+            resultViewHolder.progressBar.setVisibility(View.GONE);
+            resultViewHolder.ivStatus.setVisibility(View.VISIBLE);
+            resultViewHolder.ivStatus.setImageResource(statusIcon);
+        } else {
+            resultViewHolder.ivStatus.setVisibility(View.INVISIBLE);
+            resultViewHolder.progressBar.setVisibility(View.VISIBLE);
+        }
+    }
+
+    @Override
+    public int getItemCount() {
+        return results.size();
+    }
+
+    static class ResultViewHolder extends RecyclerView.ViewHolder {
+
+        TextView tvDeviceName, tvState;
+        ImageView ivStatus;
+        ContentLoadingProgressBar progressBar;
+
+        public ResultViewHolder(View itemView) {
+            super(itemView);
+
+            tvDeviceName = itemView.findViewById(R.id.tv_device_name);
+            tvState = itemView.findViewById(R.id.tv_result_state);
+            ivStatus = itemView.findViewById(R.id.iv_result_status);
+            progressBar = itemView.findViewById(R.id.result_progress_indicator);
+        }
+    }
+}
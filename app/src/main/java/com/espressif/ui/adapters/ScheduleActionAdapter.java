@@ -67,7 +67,7 @@ public class ScheduleActionAdapter extends RecyclerView.Adapter<ScheduleActionAd
                 itr.remove();
             } else if (p.getParamType() != null && p.getParamType().equals(AppConstants.PARAM_TYPE_NAME)) {
                 itr.remove();
-            } else if (!p.getProperties().contains(AppConstants.KEY_PROPERTY_WRITE)) {
+            } else if (!p.isWritable()) {
                 itr.remove();
             } else if (p.getUiType() != null && p.getUiType().equals(AppConstants.UI_TYPE_HIDDEN)) {
                 itr.remove();
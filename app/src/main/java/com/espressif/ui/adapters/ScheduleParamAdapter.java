@@ -225,7 +225,7 @@ public class ScheduleParamAdapter extends RecyclerView.Adapter<ScheduleParamAdap
         scheduleParamVH.paletteBar.setColor((int) param.getValue());
         scheduleParamVH.paletteBar.setThumbCircleRadius(12);
         scheduleParamVH.paletteBar.setTrackMarkHeight(6);
-        if (param.getProperties().contains(AppConstants.KEY_PROPERTY_WRITE)) {
+        if (param.isWritable()) {
 
             scheduleParamVH.paletteBar.setEnabled(true);
             scheduleParamVH.paletteBar.setListener(new PaletteBar.PaletteBarListener() {
@@ -521,7 +521,7 @@ public class ScheduleParamAdapter extends RecyclerView.Adapter<ScheduleParamAdap
             }
         }
 
-        if (param.getProperties().contains(AppConstants.KEY_PROPERTY_WRITE)) {
+        if (param.isWritable()) {
 
             scheduleParamVH.spinner.setOnItemSelectedListener(new AdapterView.OnItemSelectedListener() {
 
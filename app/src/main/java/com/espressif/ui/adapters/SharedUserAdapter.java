@@ -36,6 +36,7 @@ import com.espressif.AppConstants;
 import com.espressif.cloudapi.ApiManager;
 import com.espressif.cloudapi.ApiResponseListener;
 import com.espressif.cloudapi.CloudException;
+import com.espressif.cloudapi.SharingRepository;
 import com.espressif.rainmaker.R;
 import com.espressif.ui.Utils;
 import com.espressif.ui.activities.NodeDetailsActivity;
@@ -422,7 +423,7 @@ public class SharedUserAdapter extends RecyclerView.Adapter<RecyclerView.ViewHol
         });
     }
 
-    private void removeSharingRequest(final PendingRequestViewHolder memberViewHolder, SharingRequest sharingRequest) {
+    private void removeSharingRequest(final PendingRequestViewHolder memberViewHolder, final SharingRequest sharingRequest) {
 
         memberViewHolder.ivRemoveMember.setVisibility(View.GONE);
         memberViewHolder.loadingRemoveMember.setVisibility(View.VISIBLE);
@@ -433,6 +434,7 @@ public class SharedUserAdapter extends RecyclerView.Adapter<RecyclerView.ViewHol
             public void onSuccess(Bundle data) {
                 memberViewHolder.ivRemoveMember.setVisibility(View.VISIBLE);
                 memberViewHolder.loadingRemoveMember.setVisibility(View.GONE);
+                SharingRepository.getInstance(context).removePendingRequest(node.getNodeId(), sharingRequest.getReqId());
                 pendingRequests.remove(memberViewHolder.getAdapterPosition());
                 if (pendingRequests.size() == 0) {
                     ((NodeDetailsActivity) context).clearPendingRequest();
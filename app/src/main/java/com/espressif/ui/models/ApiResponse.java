@@ -21,5 +21,6 @@ public class ApiResponse {
     public String nodeId;
     public ResponseBody responseBody;
     public boolean isSuccessful;
+    public boolean isQueued;
     public Throwable throwable;
 }
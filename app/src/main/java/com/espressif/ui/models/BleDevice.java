@@ -20,6 +20,9 @@ public class BleDevice {
 
     private String name;
     private BluetoothDevice bluetoothDevice;
+    private String serviceUuid;
+    private int rssi;
+    private long lastSeenTime;
 
     public String getName() {
         return name;
@@ -36,4 +39,28 @@ public class BleDevice {
     public void setBluetoothDevice(BluetoothDevice bluetoothDevice) {
         this.bluetoothDevice = bluetoothDevice;
     }
+
+    public String getServiceUuid() {
+        return serviceUuid;
+    }
+
+    public void setServiceUuid(String serviceUuid) {
+        this.serviceUuid = serviceUuid;
+    }
+
+    public int getRssi() {
+        return rssi;
+    }
+
+    public void setRssi(int rssi) {
+        this.rssi = rssi;
+    }
+
+    public long getLastSeenTime() {
+        return lastSeenTime;
+    }
+
+    public void setLastSeenTime(long lastSeenTime) {
+        this.lastSeenTime = lastSeenTime;
+    }
 }
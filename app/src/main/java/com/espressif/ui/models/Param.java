@@ -17,41 +17,37 @@ package com.espressif.ui.models;
 import android.os.Parcel;
 import android.os.Parcelable;
 
+import com.espressif.ParamDecoder;
+
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 public class Param implements Parcelable {
 
+    private static final int FLAG_SWITCH_STATUS = 1;
+    private static final int FLAG_DYNAMIC_PARAM = 1 << 1;
+    private static final int FLAG_SELECTED = 1 << 2;
+    private static final int FLAG_NUMERIC_LABEL = 1 << 3;
+    private static final int FLAG_INTEGER_LABEL = 1 << 4;
+
     private String name;
-    private String paramType;
-    private String dataType;
-    private String uiType;
-    private ArrayList<String> properties;
-    private int minBounds;
-    private int maxBounds;
-    private float stepCount;
+    private ParamMetadata metadata;
     private double value;
-    private boolean switchStatus;
     private String labelValue;
-    private ArrayList<String> validStrings;
-    private boolean isDynamicParam;
-    private boolean isSelected;
+    // Label of numeric values is created only when it is required.
+    private double labelNumber;
+    private int flags;
 
     public Param(Param param) {
 
-        name = param.getName();
-        paramType = param.getParamType();
-        dataType = param.getDataType();
-        uiType = param.getUiType();
-        properties = param.getProperties();
-        minBounds = param.getMinBounds();
-        maxBounds = param.getMaxBounds();
-        stepCount = param.getStepCount();
-        value = param.getValue();
-        switchStatus = param.getSwitchStatus();
-        labelValue = param.getLabelValue();
-        validStrings = param.getValidStrings();
-        isDynamicParam = param.isDynamicParam();
-        isSelected = param.isSelected();
+        name = param.name;
+        // Only shared definition is never modified, so it can be used by both params.
+        metadata = param.metadata.isShared() ? param.metadata : new ParamMetadata(param.metadata);
+        value = param.value;
+        labelValue = param.labelValue;
+        labelNumber = param.labelNumber;
+        flags = param.flags;
     }
 
     public String getName() {
@@ -63,59 +59,76 @@ public class Param implements Parcelable {
     }
 
     public String getParamType() {
-        return paramType;
+        return metadata.paramType;
     }
 
     public void setParamType(String paramType) {
-        this.paramType = paramType;
+        ParamMetadata metadata = getEditableMetadata();
+        metadata.paramType = paramType;
+        metadata.resetDecoder();
     }
 
     public String getDataType() {
-        return dataType;
+        return metadata.dataType;
     }
 
     public void setDataType(String dataType) {
-        this.dataType = dataType;
+        ParamMetadata metadata = getEditableMetadata();
+        metadata.dataType = dataType;
+        metadata.resetDecoder();
     }
 
     public String getUiType() {
-        return uiType;
+        return metadata.uiType;
     }
 
     public void setUiType(String uiType) {
-        this.uiType = uiType;
+        ParamMetadata metadata = getEditableMetadata();
+        metadata.uiType = uiType;
+        metadata.resetDecoder();
+    }
+
+    /**
+     * Get properties of the param as bits of {@link ParamMetadata} PROPERTY_* constants.
+     */
+    public int getPropertyFlags() {
+        return metadata.propertyFlags;
+    }
+
+    public void setPropertyFlags(int propertyFlags) {
+        getEditableMetadata().propertyFlags = propertyFlags;
     }
 
-    public ArrayList<String> getProperties() {
-        return properties;
+    public boolean hasProperty(int propertyFlag) {
+        return (metadata.propertyFlags & propertyFlag) != 0;
     }
 
-    public void setProperties(ArrayList<String> properties) {
-        this.properties = properties;
+    public boolean isWritable() {
+        return (metadata.propertyFlags & ParamMetadata.PROPERTY_WRITE) != 0;
     }
 
     public int getMinBounds() {
-        return minBounds;
+        return metadata.minBounds;
     }
 
     public void setMinBounds(int minBounds) {
-        this.minBounds = minBounds;
+        getEditableMetadata().minBounds = minBounds;
     }
 
     public int getMaxBounds() {
-        return maxBounds;
+        return metadata.maxBounds;
     }
 
     public void setMaxBounds(int maxBounds) {
-        this.maxBounds = maxBounds;
+        getEditableMetadata().maxBounds = maxBounds;
     }
 
     public float getStepCount() {
-        return stepCount;
+        return metadata.stepCount;
     }
 
     public void setStepCount(float stepCount) {
-        this.stepCount = stepCount;
+        getEditableMetadata().stepCount = stepCount;
     }
 
     public double getValue() {
@@ -127,63 +140,123 @@ public class Param implements Parcelable {
     }
 
     public boolean getSwitchStatus() {
-        return switchStatus;
+        return (flags & FLAG_SWITCH_STATUS) != 0;
     }
 
     public void setSwitchStatus(boolean switchStatus) {
-        this.switchStatus = switchStatus;
+        setFlag(FLAG_SWITCH_STATUS, switchStatus);
     }
 
     public String getLabelValue() {
+
+        if (labelValue == null && (flags & FLAG_NUMERIC_LABEL) != 0) {
+            if ((flags & FLAG_INTEGER_LABEL) != 0) {
+                labelValue = String.valueOf((int) labelNumber);
+            } else {
+                labelValue = String.valueOf(labelNumber);
+            }
+        }
         return labelValue;
     }
 
     public void setLabelValue(String labelValue) {
         this.labelValue = labelValue;
+        setFlag(FLAG_NUMERIC_LABEL, false);
     }
 
-    public ArrayList<String> getValidStrings() {
-        return validStrings;
+    /**
+     * Set numeric label. Label string will be created when {@link #getLabelValue()} gets called.
+     *
+     * @param labelNumber Numeric value of the label.
+     * @param isInteger   True if label should be formatted as integer.
+     */
+    public void setNumericLabel(double labelNumber, boolean isInteger) {
+        this.labelValue = null;
+        this.labelNumber = labelNumber;
+        setFlag(FLAG_NUMERIC_LABEL, true);
+        setFlag(FLAG_INTEGER_LABEL, isInteger);
+    }
+
+    /**
+     * @return Returns read only list of valid strings, because definition may be shared by other params.
+     */
+    public List<String> getValidStrings() {
+        return metadata.validStrings != null ? Collections.unmodifiableList(metadata.validStrings) : null;
     }
 
     public void setValidStrings(ArrayList<String> validStrings) {
-        this.validStrings = validStrings;
+        getEditableMetadata().validStrings = validStrings != null ? new ArrayList<>(validStrings) : null;
     }
 
     public boolean isDynamicParam() {
-        return isDynamicParam;
+        return (flags & FLAG_DYNAMIC_PARAM) != 0;
     }
 
     public void setDynamicParam(boolean dynamicParam) {
-        isDynamicParam = dynamicParam;
+        setFlag(FLAG_DYNAMIC_PARAM, dynamicParam);
     }
 
     public boolean isSelected() {
-        return isSelected;
+        return (flags & FLAG_SELECTED) != 0;
     }
 
     public void setSelected(boolean selected) {
-        isSelected = selected;
+        setFlag(FLAG_SELECTED, selected);
+    }
+
+    /**
+     * Get decoder of param value. Decoder is resolved once for each param definition.
+     *
+     * @return Decoder of param value.
+     */
+    public ParamDecoder getDecoder() {
+        return metadata.getDecoder();
+    }
+
+    /**
+     * Share param definition with other params which have identical definition.
+     * This should be called once all definition fields are set.
+     */
+    public void internMetadata() {
+        metadata = ParamMetadata.intern(metadata);
+    }
+
+    private ParamMetadata getEditableMetadata() {
+
+        if (metadata.isShared()) {
+            metadata = new ParamMetadata(metadata);
+        }
+        return metadata;
+    }
+
+    private void setFlag(int flag, boolean isSet) {
+
+        if (isSet) {
+            flags |= flag;
+        } else {
+            flags &= ~flag;
+        }
     }
 
     public Param() {
+        metadata = new ParamMetadata();
     }
 
     protected Param(Parcel in) {
         name = in.readString();
-        paramType = in.readString();
-        dataType = in.readString();
-        uiType = in.readString();
-        properties = in.createStringArrayList();
-        minBounds = in.readInt();
-        maxBounds = in.readInt();
-        stepCount = in.readFloat();
+        metadata = new ParamMetadata();
+        metadata.paramType = in.readString();
+        metadata.dataType = in.readString();
+        metadata.uiType = in.readString();
+        metadata.propertyFlags = in.readInt();
+        metadata.minBounds = in.readInt();
+        metadata.maxBounds = in.readInt();
+        metadata.stepCount = in.readFloat();
+        metadata.validStrings = in.createStringArrayList();
+        metadata = ParamMetadata.intern(metadata);
         value = in.readDouble();
-        switchStatus = in.readByte() != 0;
         labelValue = in.readString();
-        validStrings = in.createStringArrayList();
-        isDynamicParam = in.readByte() != 0;
-        isSelected = in.readByte() != 0;
+        flags = in.readInt() & ~(FLAG_NUMERIC_LABEL | FLAG_INTEGER_LABEL);
     }
 
     public static final Creator<Param> CREATOR = new Creator<Param>() {
@@ -206,27 +279,25 @@ public class Param implements Parcelable {
     @Override
     public void writeToParcel(Parcel dest, int flags) {
         dest.writeString(name);
-        dest.writeString(paramType);
-        dest.writeString(dataType);
-        dest.writeString(uiType);
-        dest.writeStringList(properties);
-        dest.writeInt(minBounds);
-        dest.writeInt(maxBounds);
-        dest.writeFloat(stepCount);
+        dest.writeString(metadata.paramType);
+        dest.writeString(metadata.dataType);
+        dest.writeString(metadata.uiType);
+        dest.writeInt(metadata.propertyFlags);
+        dest.writeInt(metadata.minBounds);
+        dest.writeInt(metadata.maxBounds);
+        dest.writeFloat(metadata.stepCount);
+        dest.writeStringList(metadata.validStrings);
         dest.writeDouble(value);
-        dest.writeByte((byte) (switchStatus ? 1 : 0));
-        dest.writeString(labelValue);
-        dest.writeStringList(validStrings);
-        dest.writeByte((byte) (isDynamicParam ? 1 : 0));
-        dest.writeByte((byte) (isSelected ? 1 : 0));
+        dest.writeString(getLabelValue());
+        dest.writeInt(this.flags);
     }
 
     @Override
     public String toString() {
         return "Param {" +
                 "name = '" + name + '\'' +
-                ", dataType ='" + dataType + '\'' +
-                ", uiType ='" + uiType + '\'' +
+                ", dataType ='" + metadata.dataType + '\'' +
+                ", uiType ='" + metadata.uiType + '\'' +
                 '}';
     }
 }
@@ -0,0 +1,159 @@
+// Copyright 2021 Espressif Systems (Shanghai) PTE LTD
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.espressif.ui.models;
+
+import com.espressif.AppConstants;
+import com.espressif.ParamDecoder;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Objects;
+
+/**
+ * Definition of param (types, properties, bounds and valid strings) which doesn't change with param value.
+ * Same param definition is used by many devices of many nodes, so definitions are interned
+ * and identical definitions share one instance. Shared instance is never modified, {@link Param} makes a copy
+ * of it before changing any field.
+ */
+public class ParamMetadata {
+
+    public static final int PROPERTY_READ = 1;
+    public static final int PROPERTY_WRITE = 1 << 1;
+    public static final int PROPERTY_TIME_SERIES = 1 << 2;
+    public static final int PROPERTY_PERSIST = 1 << 3;
+
+    private static final HashMap<ParamMetadata, ParamMetadata> pool = new HashMap<>();
+
+    String paramType;
+    String dataType;
+    String uiType;
+    int propertyFlags;
+    int minBounds;
+    int maxBounds;
+    float stepCount;
+    ArrayList<String> validStrings;
+
+    private boolean isShared;
+    private ParamDecoder decoder;
+
+    ParamMetadata() {
+    }
+
+    ParamMetadata(ParamMetadata metadata) {
+
+        paramType = metadata.paramType;
+        dataType = metadata.dataType;
+        uiType = metadata.uiType;
+        propertyFlags = metadata.propertyFlags;
+        minBounds = metadata.minBounds;
+        maxBounds = metadata.maxBounds;
+        stepCount = metadata.stepCount;
+        validStrings = metadata.validStrings;
+        decoder = metadata.decoder;
+    }
+
+    boolean isShared() {
+        return isShared;
+    }
+
+    void resetDecoder() {
+        decoder = null;
+    }
+
+    ParamDecoder getDecoder() {
+
+        if (decoder == null) {
+            decoder = ParamDecoder.forTypes(uiType, dataType, paramType);
+        }
+        return decoder;
+    }
+
+    /**
+     * Get shared instance of given definition. Given instance becomes the shared instance if the definition
+     * is not available in the pool.
+     *
+     * @param metadata Param definition.
+     * @return Shared instance which is equal to given definition.
+     */
+    static synchronized ParamMetadata intern(ParamMetadata metadata) {
+
+        if (metadata.isShared) {
+            return metadata;
+        }
+
+        ParamMetadata sharedMetadata = pool.get(metadata);
+        if (sharedMetadata == null) {
+            metadata.isShared = true;
+            pool.put(metadata, metadata);
+            sharedMetadata = metadata;
+        }
+        return sharedMetadata;
+    }
+
+    public static synchronized void clearPool() {
+        pool.clear();
+    }
+
+    /**
+     * Get bit of given param property.
+     *
+     * @param property Property received in node config. e.g. "read", "write".
+     * @return Bit of the property. Returns 0 for unknown property.
+     */
+    public static int getPropertyFlag(String property) {
+
+        if (property == null) {
+            return 0;
+        }
+
+        switch (property) {
+            case "read":
+                return PROPERTY_READ;
+            case AppConstants.KEY_PROPERTY_WRITE:
+                return PROPERTY_WRITE;
+            case "time_series":
+                return PROPERTY_TIME_SERIES;
+            case "persist":
+                return PROPERTY_PERSIST;
+            default:
+                return 0;
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        ParamMetadata that = (ParamMetadata) o;
+        return propertyFlags == that.propertyFlags
+                && minBounds == that.minBounds
+                && maxBounds == that.maxBounds
+                && Float.compare(that.stepCount, stepCount) == 0
+                && Objects.equals(paramType, that.paramType)
+                && Objects.equals(dataType, that.dataType)
+                && Objects.equals(uiType, that.uiType)
+                && Objects.equals(validStrings, that.validStrings);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(paramType, dataType, uiType, propertyFlags, minBounds, maxBounds, stepCount, validStrings);
+    }
+}
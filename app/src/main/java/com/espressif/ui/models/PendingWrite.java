@@ -0,0 +1,101 @@
+// Copyright 2021 Espressif Systems (Shanghai) PTE LTD
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.espressif.ui.models;
+
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+import com.espressif.AppConstants;
+
+/**
+ * Write request (param value, schedule or group update) which could not reach the cloud.
+ * It is stored in outbox table and sent again when network is available.
+ */
+@Entity(tableName = AppConstants.OUTBOX_TABLE)
+public class PendingWrite {
+
+    @PrimaryKey(autoGenerate = true)
+    private long writeId;
+
+    @ColumnInfo(name = AppConstants.KEY_WRITE_TYPE)
+    private int writeType;
+
+    // Node id for param / schedule writes and group id for group writes.
+    @ColumnInfo(name = AppConstants.KEY_TARGET_ID)
+    private String targetId;
+
+    // Writes with same collapse key supersede each other. It is null for writes which can not be collapsed.
+    @ColumnInfo(name = AppConstants.KEY_COLLAPSE_KEY)
+    private String collapseKey;
+
+    @ColumnInfo(name = AppConstants.KEY_WRITE_BODY)
+    private String body;
+
+    @ColumnInfo(name = AppConstants.KEY_TIMESTAMP)
+    private long timestamp;
+
+    public PendingWrite() {
+    }
+
+    public long getWriteId() {
+        return writeId;
+    }
+
+    public void setWriteId(long writeId) {
+        this.writeId = writeId;
+    }
+
+    public int getWriteType() {
+        return writeType;
+    }
+
+    public void setWriteType(int writeType) {
+        this.writeType = writeType;
+    }
+
+    public String getTargetId() {
+        return targetId;
+    }
+
+    public void setTargetId(String targetId) {
+        this.targetId = targetId;
+    }
+
+    public String getCollapseKey() {
+        return collapseKey;
+    }
+
+    public void setCollapseKey(String collapseKey) {
+        this.collapseKey = collapseKey;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    public void setBody(String body) {
+        this.body = body;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(long timestamp) {
+        this.timestamp = timestamp;
+    }
+}
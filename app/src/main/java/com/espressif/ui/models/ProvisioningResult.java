@@ -0,0 +1,88 @@
+// Copyright 2021 Espressif Systems (Shanghai) PTE LTD
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.espressif.ui.models;
+
+/**
+ * Cloud side state of one provisioned device.
+ * Radio steps (user mapping and Wi-Fi credentials) are done by ProvisionActivity,
+ * remaining steps are done by ProvisioningPipeline and tracked in this object.
+ */
+public class ProvisioningResult {
+
+    public enum State {
+        ADDING,             // Configuring user-node association.
+        ADD_FAILED,
+        CONFIRMING,         // Confirming user-node association.
+        CONFIRM_FAILED,
+        SETTING_UP,         // Waiting for node to come online and setting time zone.
+        DONE,
+        DONE_WITH_WARNING   // Node did not come online in time or time zone was not set.
+    }
+
+    private String nodeId;
+    private String deviceName;
+    private boolean isWiFiConfigApplied;
+    private State state;
+    private long startTime;
+    private long endTime;
+
+    public ProvisioningResult(String nodeId, String deviceName, boolean isWiFiConfigApplied) {
+        this.nodeId = nodeId;
+        this.deviceName = deviceName;
+        this.isWiFiConfigApplied = isWiFiConfigApplied;
+        this.state = State.ADDING;
+        this.startTime = System.currentTimeMillis();
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public String getDeviceName() {
+        return deviceName;
+    }
+
+    public boolean isWiFiConfigApplied() {
+        return isWiFiConfigApplied;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public void setState(State state) {
+        this.state = state;
+        if (isCompleted()) {
+            endTime = System.currentTimeMillis();
+        }
+    }
+
+    public boolean isCompleted() {
+        return state == State.ADD_FAILED || state == State.CONFIRM_FAILED
+                || state == State.DONE || state == State.DONE_WITH_WARNING;
+    }
+
+    public long getStartTime() {
+        return startTime;
+    }
+
+    /**
+     * @return Returns time taken by cloud steps in milliseconds, till now if steps are not completed.
+     */
+    public long getDuration() {
+        return (isCompleted() ? endTime : System.currentTimeMillis()) - startTime;
+    }
+}
@@ -28,6 +28,10 @@ public class Schedule implements Parcelable {
     private ArrayList<Action> actions;
     private HashMap<String, Integer> triggers;
 
+    // Position of action in actions list, for node id and device name.
+    private HashMap<String, Integer> actionIndex;
+    private int indexedActionCount;
+
     public Schedule() {
     }
 
@@ -69,6 +73,86 @@ public class Schedule implements Parcelable {
 
     public void setActions(ArrayList<Action> actions) {
         this.actions = actions;
+        this.actionIndex = null;
+    }
+
+    /**
+     * Get action of given device.
+     * Actions added with {@link #putAction(Action)} are found without scanning the actions list.
+     *
+     * @param nodeId     Node id.
+     * @param deviceName Device name.
+     * @return Action of the device. Returns null if schedule doesn't have action for the device.
+     */
+    public Action getAction(String nodeId, String deviceName) {
+
+        if (actions == null) {
+            return null;
+        }
+
+        // Actions list can be changed directly by UI, build index again in that case.
+        if (actionIndex == null || indexedActionCount != actions.size()) {
+            buildActionIndex();
+        }
+
+        Integer position = actionIndex.get(getActionKey(nodeId, deviceName));
+        if (position == null) {
+            return null;
+        }
+
+        Action action = actions.get(position);
+        if (!isActionOfDevice(action, nodeId, deviceName)) {
+            buildActionIndex();
+            position = actionIndex.get(getActionKey(nodeId, deviceName));
+            return position == null ? null : actions.get(position);
+        }
+        return action;
+    }
+
+    /**
+     * Add action to this schedule. Existing action of the same device gets replaced.
+     *
+     * @param action Action to be added.
+     */
+    public void putAction(Action action) {
+
+        if (actions == null) {
+            actions = new ArrayList<>();
+        }
+
+        Device device = action.getDevice();
+        String key = getActionKey(device.getNodeId(), device.getDeviceName());
+        Action existingAction = getAction(device.getNodeId(), device.getDeviceName());
+
+        if (existingAction != null) {
+            actions.set(actionIndex.get(key), action);
+        } else {
+            actions.add(action);
+            actionIndex.put(key, actions.size() - 1);
+            indexedActionCount = actions.size();
+        }
+    }
+
+    private void buildActionIndex() {
+
+        actionIndex = new HashMap<>();
+        for (int i = 0; i < actions.size(); i++) {
+            Device device = actions.get(i).getDevice();
+            if (device != null) {
+                actionIndex.put(getActionKey(device.getNodeId(), device.getDeviceName()), i);
+            }
+        }
+        indexedActionCount = actions.size();
+    }
+
+    private static boolean isActionOfDevice(Action action, String nodeId, String deviceName) {
+
+        Device device = action.getDevice();
+        return device != null && nodeId.equals(device.getNodeId()) && deviceName.equals(device.getDeviceName());
+    }
+
+    private static String getActionKey(String nodeId, String deviceName) {
+        return nodeId + "/" + deviceName;
     }
 
     public HashMap<String, Integer> getTriggers() {
@@ -0,0 +1,167 @@
+// Copyright 2021 Espressif Systems (Shanghai) PTE LTD
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.espressif;
+
+import com.espressif.ui.models.BleDevice;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of BleScanAggregator, driven by synthetic scan results.
+ */
+public class BleScanAggregatorTest {
+
+    private static final String PREFIX = "PROV_";
+
+    private BleScanAggregator aggregator;
+
+    @Before
+    public void setUp() {
+        aggregator = new BleScanAggregator(PREFIX);
+    }
+
+    @Test
+    public void repeatedResultsOfDeviceAreMerged() {
+
+        aggregator.onScanResult("AA:01", null, "PROV_01", "uuid", -70, 0);
+        aggregator.onScanResult("AA:01", null, "PROV_01", "uuid", -60, 100);
+        aggregator.onScanResult("AA:01", null, null, null, -65, 200);
+
+        ArrayList<BleDevice> devices = aggregator.getRankedDevices();
+        assertEquals(1, devices.size());
+        assertEquals("PROV_01", devices.get(0).getName());
+        assertEquals("uuid", devices.get(0).getServiceUuid());
+        // Smoothed RSSI has not moved far enough from first result
+        assertEquals(-70, devices.get(0).getRssi());
+        assertEquals(200, devices.get(0).getLastSeenTime());
+    }
+
+    @Test
+    public void devicesAreRankedByPrefixAndSignalStrength() {
+
+        aggregator.onScanResult("AA:01", null, "OTHER_01", "uuid", -40, 0);
+        aggregator.onScanResult("AA:02", null, "PROV_02", "uuid", -80, 0);
+        aggregator.onScanResult("AA:03", null, "PROV_03", "uuid", -50, 0);
+        aggregator.onScanResult("AA:04", null, "OTHER_04", "uuid", -90, 0);
+
+        ArrayList<BleDevice> devices = aggregator.getRankedDevices();
+        assertEquals("PROV_03", devices.get(0).getName());
+        assertEquals("PROV_02", devices.get(1).getName());
+        assertEquals("OTHER_01", devices.get(2).getName());
+        assertEquals("OTHER_04", devices.get(3).getName());
+
+        // Ranking changes when signal strength changes consistently
+        for (int i = 1; i <= 10; i++) {
+            aggregator.onScanResult("AA:02", null, "PROV_02", "uuid", -45, i * 100);
+        }
+        devices = aggregator.getRankedDevices();
+        assertEquals("PROV_02", devices.get(0).getName());
+        assertEquals("PROV_03", devices.get(1).getName());
+    }
+
+    @Test
+    public void changeFlagIsSetOnlyForVisibleChanges() {
+
+        aggregator.onScanResult("AA:01", null, "PROV_01", "uuid", -70, 0);
+        assertTrue(aggregator.isChanged());
+        aggregator.getRankedDevices();
+        assertFalse(aggregator.isChanged());
+
+        // Same RSSI, only last seen time is updated
+        aggregator.onScanResult("AA:01", null, "PROV_01", "uuid", -70, 100);
+        assertFalse(aggregator.isChanged());
+
+        // Small RSSI change is not a visible change
+        aggregator.onScanResult("AA:01", null, "PROV_01", "uuid", -71, 200);
+        assertFalse(aggregator.isChanged());
+
+        aggregator.onScanResult("AA:01", null, "PROV_01", "uuid", -90, 300);
+        assertTrue(aggregator.isChanged());
+        assertEquals(-75, aggregator.getRankedDevices().get(0).getRssi());
+    }
+
+    @Test
+    public void rssiJitterDoesNotReorderDevices() {
+
+        aggregator.onScanResult("AA:01", null, "PROV_01", "uuid", -60, 0);
+        aggregator.onScanResult("AA:02", null, "PROV_02", "uuid", -64, 0);
+        aggregator.getRankedDevices();
+
+        // Both devices jitter by +/-5 dBm, raw RSSI of PROV_02 is often higher than PROV_01
+        Random random = new Random(1);
+        for (int i = 1; i <= 1000; i++) {
+            aggregator.onScanResult("AA:01", null, "PROV_01", "uuid", -60 + random.nextInt(11) - 5, i * 10L);
+            aggregator.onScanResult("AA:02", null, "PROV_02", "uuid", -64 + random.nextInt(11) - 5, i * 10L);
+            assertFalse("Jitter must not mark list as changed", aggregator.isChanged());
+        }
+
+        ArrayList<BleDevice> devices = aggregator.getRankedDevices();
+        assertEquals("PROV_01", devices.get(0).getName());
+        assertEquals("PROV_02", devices.get(1).getName());
+    }
+
+    @Test
+    public void staleDevicesAreRemoved() {
+
+        aggregator.onScanResult("AA:01", null, "PROV_01", "uuid", -70, 0);
+        aggregator.onScanResult("AA:02", null, "PROV_02", "uuid", -70, 5000);
+        aggregator.getRankedDevices();
+
+        aggregator.removeStaleDevices(BleScanAggregator.STALE_DEVICE_TIMEOUT);
+        assertFalse(aggregator.isChanged());
+        assertEquals(2, aggregator.getDeviceCount());
+
+        aggregator.removeStaleDevices(BleScanAggregator.STALE_DEVICE_TIMEOUT + 1);
+        assertTrue(aggregator.isChanged());
+        assertEquals(1, aggregator.getDeviceCount());
+        assertEquals("PROV_02", aggregator.getRankedDevices().get(0).getName());
+    }
+
+    @Test
+    public void scanStreamKeepsOneEntryPerDevice() {
+
+        int deviceCount = 20;
+        Random random = new Random(1);
+
+        for (int i = 0; i < 5000; i++) {
+            int index = random.nextInt(deviceCount);
+            String name = (index % 2 == 0 ? PREFIX : "OTHER_") + index;
+            aggregator.onScanResult("AA:" + index, null, name, "uuid", -30 - random.nextInt(70), i * 10L);
+        }
+
+        ArrayList<BleDevice> devices = aggregator.getRankedDevices();
+        assertEquals(deviceCount, devices.size());
+
+        for (int i = 1; i < devices.size(); i++) {
+            BleDevice previous = devices.get(i - 1);
+            BleDevice current = devices.get(i);
+            boolean isPreviousMatch = previous.getName().startsWith(PREFIX);
+            boolean isCurrentMatch = current.getName().startsWith(PREFIX);
+            assertFalse("Prefix match must come first", !isPreviousMatch && isCurrentMatch);
+            if (isPreviousMatch == isCurrentMatch) {
+                assertTrue("Devices must be sorted by RSSI", previous.getRssi() >= current.getRssi());
+            }
+        }
+    }
+}
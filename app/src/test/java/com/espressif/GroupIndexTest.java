@@ -0,0 +1,184 @@
+// Copyright 2021 Espressif Systems (Shanghai) PTE LTD
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.espressif;
+
+import com.espressif.ui.models.Device;
+import com.espressif.ui.models.EspNode;
+import com.espressif.ui.models.Group;
+import com.espressif.ui.models.Param;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Tests of GroupIndex entries, their staleness and aggregate state.
+ */
+public class GroupIndexTest {
+
+    private GroupIndex groupIndex;
+    private HashMap<String, EspNode> nodeMap;
+    private Group livingRoom, bedroom;
+
+    @Before
+    public void setUp() {
+
+        groupIndex = GroupIndex.getInstance();
+        groupIndex.clear();
+        nodeMap = new HashMap<>();
+        nodeMap.put("node_1", createNode("node_1", true, true));
+        nodeMap.put("node_2", createNode("node_2", true, false, false));
+        nodeMap.put("node_3", createNode("node_3", false, true));
+
+        livingRoom = createGroup("group_1", "node_1", "node_2");
+        bedroom = createGroup("group_2", "node_2", "node_3");
+    }
+
+    @Test
+    public void entryHasDevicesAndAggregateState() {
+
+        GroupIndex.GroupState state = groupIndex.getGroupState(livingRoom, nodeMap);
+
+        assertEquals(Arrays.asList(nodeMap.get("node_1").getDevices().get(0)), state.getDevices());
+        assertEquals(Arrays.asList(nodeMap.get("node_2")), state.getNodes());
+        assertEquals(2, state.getNodeCount());
+        assertEquals(3, state.getDeviceCount());
+        assertEquals(1, state.getOnCount());
+        assertEquals(2, state.getOnlineCount());
+        assertSame(state, groupIndex.getGroupState(livingRoom, nodeMap));
+    }
+
+    @Test
+    public void nodeChangeUpdatesAggregateOfAllItsGroups() {
+
+        GroupIndex.GroupState livingRoomState = groupIndex.getGroupState(livingRoom, nodeMap);
+        GroupIndex.GroupState bedroomState = groupIndex.getGroupState(bedroom, nodeMap);
+
+        EspNode node2 = nodeMap.get("node_2");
+        node2.getDevices().get(1).getParams().get(0).setSwitchStatus(true);
+        node2.setOnline(false);
+        groupIndex.onNodeChanged("node_2");
+
+        assertEquals(2, livingRoomState.getOnCount());
+        assertEquals(1, livingRoomState.getOnlineCount());
+        assertEquals(2, bedroomState.getOnCount());
+        assertEquals(0, bedroomState.getOnlineCount());
+        // Entries are updated in place, not rebuilt.
+        assertSame(livingRoomState, groupIndex.getGroupState(livingRoom, nodeMap));
+        assertSame(bedroomState, groupIndex.getGroupState(bedroom, nodeMap));
+    }
+
+    @Test
+    public void changeOfOtherNodeDoesNotUpdateAggregate() {
+
+        GroupIndex.GroupState state = groupIndex.getGroupState(livingRoom, nodeMap);
+        nodeMap.get("node_3").getDevices().get(0).getParams().get(0).setSwitchStatus(true);
+        groupIndex.onNodeChanged("node_3");
+        groupIndex.onNodeChanged("unknown_node");
+
+        assertEquals(1, state.getOnCount());
+    }
+
+    @Test
+    public void replacedDevicesMakeEntryStale() {
+
+        GroupIndex.GroupState state = groupIndex.getGroupState(livingRoom, nodeMap);
+        Device oldDevice = state.getDevices().get(0);
+
+        // Node config is parsed again into the same node object.
+        EspNode node1 = nodeMap.get("node_1");
+        node1.setDevices(createNode("node_1", true, false).getDevices());
+
+        GroupIndex.GroupState newState = groupIndex.getGroupState(livingRoom, nodeMap);
+        assertNotSame(state, newState);
+        assertNotSame(oldDevice, newState.getDevices().get(0));
+        assertSame(node1.getDevices().get(0), newState.getDevices().get(0));
+        assertEquals(0, newState.getOnCount());
+    }
+
+    @Test
+    public void replacedOrRemovedNodeMakesEntryStale() {
+
+        GroupIndex.GroupState state = groupIndex.getGroupState(bedroom, nodeMap);
+        nodeMap.put("node_3", createNode("node_3", true, true));
+        GroupIndex.GroupState newState = groupIndex.getGroupState(bedroom, nodeMap);
+        assertNotSame(state, newState);
+        assertEquals(2, newState.getOnlineCount());
+
+        nodeMap.remove("node_2");
+        newState = groupIndex.getGroupState(bedroom, nodeMap);
+        assertEquals(2, newState.getNodeCount());
+        assertEquals(1, newState.getDeviceCount());
+        assertEquals(1, newState.getOnlineCount());
+    }
+
+    @Test
+    public void removedGroupIsNotUpdated() {
+
+        GroupIndex.GroupState state = groupIndex.getGroupState(livingRoom, nodeMap);
+        groupIndex.onGroupRemoved("group_1");
+
+        nodeMap.get("node_1").setOnline(false);
+        groupIndex.onNodeChanged("node_1");
+        assertEquals(2, state.getOnlineCount());
+
+        GroupIndex.GroupState newState = groupIndex.getGroupState(livingRoom, nodeMap);
+        assertNotSame(state, newState);
+        assertEquals(1, newState.getOnlineCount());
+    }
+
+    private static Group createGroup(String groupId, String... nodeIds) {
+
+        Group group = new Group(groupId);
+        group.setGroupId(groupId);
+        group.setNodeList(new ArrayList<>(Arrays.asList(nodeIds)));
+        return group;
+    }
+
+    /**
+     * Create node with one device for each given power value.
+     */
+    private static EspNode createNode(String nodeId, boolean isOnline, boolean... powerValues) {
+
+        EspNode node = new EspNode(nodeId);
+        node.setOnline(isOnline);
+        ArrayList<Device> devices = new ArrayList<>();
+
+        for (int i = 0; i < powerValues.length; i++) {
+
+            Param param = new Param();
+            param.setName("Power");
+            param.setUiType(AppConstants.UI_TYPE_TOGGLE);
+            param.setSwitchStatus(powerValues[i]);
+            ArrayList<Param> params = new ArrayList<>();
+            params.add(param);
+
+            Device device = new Device(nodeId);
+            device.setDeviceName("Device " + i);
+            device.setPrimaryParamName("Power");
+            device.setParams(params);
+            devices.add(device);
+        }
+        node.setDevices(devices);
+        return node;
+    }
+}
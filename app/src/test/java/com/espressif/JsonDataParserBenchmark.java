@@ -0,0 +1,93 @@
+// Copyright 2021 Espressif Systems (Shanghai) PTE LTD
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.espressif;
+
+import com.espressif.ui.models.EspNode;
+import com.espressif.ui.models.Schedule;
+
+import org.json.JSONObject;
+import org.junit.Before;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Benchmark of node ingestion of JsonDataParser over recorded payloads.
+ * Timing depends on the machine, so it is not run with unit tests. Remove {@link Ignore} to run it.
+ */
+@Ignore("Benchmark")
+public class JsonDataParserBenchmark {
+
+    private static final String SCHEDULE_KEY = "A1B2_Evening_true_127_1110";
+    private static final int BENCHMARK_NODE_COUNT = 200;
+    private static final int BENCHMARK_ROUNDS = 20;
+    private static final long MAX_TIME_PER_PAGE_US = 200000;
+
+    private JSONObject lightbulbJson;
+    private JSONObject multiDeviceJson;
+
+    @Before
+    public void setUp() throws Exception {
+        lightbulbJson = TestPayloads.load(TestPayloads.NODE_LIGHTBULB);
+        multiDeviceJson = TestPayloads.load(TestPayloads.NODE_MULTI_DEVICE);
+    }
+
+    /**
+     * Ingests a page of recorded nodes: config, params, schedules and status of each node.
+     */
+    @Test
+    public void nodeIngestionBenchmark() throws Exception {
+
+        ArrayList<JSONObject> nodeJsons = new ArrayList<>();
+        for (int i = 0; i < BENCHMARK_NODE_COUNT; i++) {
+            JSONObject recordedNode = i % 2 == 0 ? lightbulbJson : multiDeviceJson;
+            nodeJsons.add(TestPayloads.copyNode(recordedNode, "NODE_" + i));
+        }
+
+        // Warm up
+        ingestNodes(nodeJsons, BENCHMARK_ROUNDS);
+
+        long startTime = System.nanoTime();
+        HashMap<String, Schedule> scheduleMap = ingestNodes(nodeJsons, BENCHMARK_ROUNDS);
+        long timeTaken = System.nanoTime() - startTime;
+
+        long timePerPage = timeTaken / BENCHMARK_ROUNDS / 1000;
+
+        assertEquals(BENCHMARK_NODE_COUNT, scheduleMap.get(SCHEDULE_KEY).getActions().size());
+        assertTrue("Ingest " + BENCHMARK_NODE_COUNT + " recorded nodes : " + timePerPage + " us per page",
+                timePerPage < MAX_TIME_PER_PAGE_US);
+    }
+
+    private HashMap<String, Schedule> ingestNodes(ArrayList<JSONObject> nodeJsons, int rounds) {
+
+        HashMap<String, Schedule> scheduleMap = null;
+
+        for (int round = 0; round < rounds; round++) {
+
+            scheduleMap = new HashMap<>();
+            for (JSONObject nodeJson : nodeJsons) {
+                EspNode node = JsonDataParser.setNodeConfig(null, nodeJson.optJSONObject("config"));
+                JsonDataParser.setNodeParams(node, nodeJson.optJSONObject("params"), scheduleMap, false);
+                JsonDataParser.setNodeStatus(node, nodeJson.optJSONObject("status"));
+            }
+        }
+        return scheduleMap;
+    }
+}
@@ -0,0 +1,201 @@
+// Copyright 2021 Espressif Systems (Shanghai) PTE LTD
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.espressif;
+
+import com.espressif.ui.models.Action;
+import com.espressif.ui.models.Device;
+import com.espressif.ui.models.EspNode;
+import com.espressif.ui.models.Param;
+import com.espressif.ui.models.Schedule;
+import com.espressif.ui.models.Service;
+
+import org.json.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of node config, param and schedule parsing of JsonDataParser over recorded payloads.
+ */
+public class JsonDataParserTest {
+
+    private static final String SCHEDULE_KEY = "A1B2_Evening_true_127_1110";
+
+    private JSONObject lightbulbJson;
+    private JSONObject multiDeviceJson;
+
+    @Before
+    public void setUp() throws Exception {
+        lightbulbJson = TestPayloads.load(TestPayloads.NODE_LIGHTBULB);
+        multiDeviceJson = TestPayloads.load(TestPayloads.NODE_MULTI_DEVICE);
+    }
+
+    @Test
+    public void nodeConfigIsParsed() {
+
+        EspNode node = JsonDataParser.setNodeConfig(null, lightbulbJson.optJSONObject("config"));
+
+        assertNotNull(node);
+        assertEquals("7CDFA1E2B3C4", node.getNodeId());
+        assertEquals("ESP RainMaker Device", node.getNodeName());
+        assertEquals("1.0", node.getFwVersion());
+        assertEquals("0123456789", node.getAttributes().get(0).getLabelValue());
+
+        Device device = node.getDevices().get(0);
+        assertEquals(1, node.getDevices().size());
+        assertEquals("Light", device.getDeviceName());
+        assertEquals("Power", device.getPrimaryParamName());
+        // Five dynamic params and one attribute
+        assertEquals(6, device.getParams().size());
+
+        Param brightness = findParam(device.getParams(), "Brightness");
+        assertEquals(AppConstants.UI_TYPE_SLIDER, brightness.getUiType());
+        assertEquals(100, brightness.getMaxBounds());
+        assertTrue(brightness.isWritable());
+        assertEquals(ParamDecoder.INT_VALUE, brightness.getDecoder());
+
+        assertEquals(3, node.getServices().size());
+    }
+
+    @Test
+    public void nodeStatusIsApplied() {
+
+        EspNode node = JsonDataParser.setNodeConfig(null, lightbulbJson.optJSONObject("config"));
+        JsonDataParser.setNodeStatus(node, lightbulbJson.optJSONObject("status"));
+
+        assertTrue(node.isOnline());
+        assertEquals(1634567890123L, node.getTimeStampOfStatus());
+    }
+
+    @Test
+    public void nodesWithSameConfigDoNotShareValues() throws Exception {
+
+        EspNode node1 = JsonDataParser.setNodeConfig(null, lightbulbJson.optJSONObject("config"));
+        EspNode node2 = JsonDataParser.setNodeConfig(null, TestPayloads.copyNode(lightbulbJson, "NODE_2").optJSONObject("config"));
+        JsonDataParser.setNodeParams(node1, lightbulbJson.optJSONObject("params"), null, false);
+        JsonDataParser.setNodeParams(node2, lightbulbJson.optJSONObject("params"), null, false);
+
+        Param brightness1 = findParam(node1.getDevices().get(0).getParams(), "Brightness");
+        Param brightness2 = findParam(node2.getDevices().get(0).getParams(), "Brightness");
+        assertEquals("NODE_2", node2.getDevices().get(0).getNodeId());
+
+        brightness2.setValue(80);
+        assertEquals(25, brightness1.getValue(), 0);
+        assertEquals(80, brightness2.getValue(), 0);
+    }
+
+    @Test
+    public void nodeParamsAreApplied() {
+
+        EspNode node = JsonDataParser.setNodeConfig(null, multiDeviceJson.optJSONObject("config"));
+        HashMap<String, Schedule> scheduleMap = new HashMap<>();
+
+        ArrayList<String> scheduleKeys = JsonDataParser.setNodeParams(node, multiDeviceJson.optJSONObject("params"),
+                scheduleMap, false);
+
+        Device fan = node.getDevices().get(1);
+        assertEquals("Ceiling Fan", fan.getUserVisibleName());
+        assertTrue(findParam(fan.getParams(), "Power").getSwitchStatus());
+        assertEquals(3, findParam(fan.getParams(), "Speed").getValue(), 0);
+        assertEquals("26.5", findParam(node.getDevices().get(2).getParams(), "Temperature").getLabelValue());
+
+        assertEquals("Asia/Kolkata", findParam(findService(node, AppConstants.SERVICE_TYPE_TIME).getParams(), "TZ").getLabelValue());
+        Service localControl = findService(node, AppConstants.SERVICE_TYPE_LOCAL_CONTROL);
+        assertEquals("efgh5678", findParam(localControl.getParams(), "POP").getLabelValue());
+        assertEquals(1, findParam(localControl.getParams(), "Type").getValue(), 0);
+
+        assertEquals(1, scheduleKeys.size());
+        assertEquals(SCHEDULE_KEY, scheduleKeys.get(0));
+        assertFalse(node.isOnline());
+    }
+
+    @Test
+    public void deviceParamsAreIgnoredForLocalNode() throws Exception {
+
+        EspNode node = JsonDataParser.setNodeConfig(null, lightbulbJson.optJSONObject("config"));
+        JsonDataParser.setNodeParams(node, lightbulbJson.optJSONObject("params"), null, false);
+        JSONObject paramsJson = new JSONObject(lightbulbJson.optJSONObject("params").toString());
+        paramsJson.getJSONObject("Light").put("Brightness", 90);
+        HashMap<String, Schedule> scheduleMap = new HashMap<>();
+
+        JsonDataParser.setNodeParams(node, paramsJson, scheduleMap, true);
+
+        assertEquals(25, findParam(node.getDevices().get(0).getParams(), "Brightness").getValue(), 0);
+        assertTrue(scheduleMap.containsKey(SCHEDULE_KEY));
+    }
+
+    @Test
+    public void schedulesOfNodesAreMerged() {
+
+        EspNode lightbulb = JsonDataParser.setNodeConfig(null, lightbulbJson.optJSONObject("config"));
+        EspNode multiDevice = JsonDataParser.setNodeConfig(null, multiDeviceJson.optJSONObject("config"));
+        HashMap<String, Schedule> scheduleMap = new HashMap<>();
+
+        JsonDataParser.setNodeParams(lightbulb, lightbulbJson.optJSONObject("params"), scheduleMap, false);
+        JsonDataParser.setNodeParams(multiDevice, multiDeviceJson.optJSONObject("params"), scheduleMap, false);
+
+        assertEquals(1, scheduleMap.size());
+        Schedule schedule = scheduleMap.get(SCHEDULE_KEY);
+        assertEquals("Evening", schedule.getName());
+        assertEquals(Integer.valueOf(1110), schedule.getTriggers().get(AppConstants.KEY_MINUTES));
+        assertEquals(Integer.valueOf(127), schedule.getTriggers().get(AppConstants.KEY_DAYS));
+        assertEquals(2, schedule.getActions().size());
+
+        Action lightAction = schedule.getAction("7CDFA1E2B3C4", "Light");
+        ArrayList<Param> actionParams = lightAction.getDevice().getParams();
+        // Name param is not part of action.
+        assertNull(findParam(actionParams, "Name"));
+        assertTrue(findParam(actionParams, "Power").isSelected());
+        assertEquals(60, findParam(actionParams, "Brightness").getValue(), 0);
+        assertFalse(findParam(actionParams, "Hue").isSelected());
+        // Partially selected
+        assertEquals(2, lightAction.getDevice().getSelectedState());
+
+        Action fanAction = schedule.getAction("24A1608B9C0D", "Fan");
+        assertFalse(findParam(fanAction.getDevice().getParams(), "Power").getSwitchStatus());
+        assertNull(schedule.getAction("24A1608B9C0D", "Switch"));
+
+        // Values of devices are not changed by schedule actions.
+        assertEquals(25, findParam(lightbulb.getDevices().get(0).getParams(), "Brightness").getValue(), 0);
+    }
+
+    private Param findParam(ArrayList<Param> params, String name) {
+
+        for (Param param : params) {
+            if (name.equals(param.getName())) {
+                return param;
+            }
+        }
+        return null;
+    }
+
+    private Service findService(EspNode node, String type) {
+
+        for (Service service : node.getServices()) {
+            if (type.equals(service.getType())) {
+                return service;
+            }
+        }
+        return null;
+    }
+}
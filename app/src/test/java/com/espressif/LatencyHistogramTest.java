@@ -0,0 +1,147 @@
+// Copyright 2021 Espressif Systems (Shanghai) PTE LTD
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.espressif;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of LatencyHistogram bucket boundaries, recording and percentiles.
+ */
+public class LatencyHistogramTest {
+
+    private static final int BUCKET_COUNT = 200;
+
+    @Test
+    public void smallValuesHaveOwnBuckets() {
+
+        for (int value = 0; value < 8; value++) {
+            assertEquals(value, LatencyHistogram.getBucketIndex(value));
+            assertEquals(value, LatencyHistogram.getBucketUpperBound(value));
+        }
+    }
+
+    @Test
+    public void bucketIndexAtMagnitudeBoundaries() {
+
+        assertEquals(8, LatencyHistogram.getBucketIndex(8));
+        assertEquals(15, LatencyHistogram.getBucketIndex(15));
+        assertEquals(16, LatencyHistogram.getBucketIndex(16));
+        assertEquals(16, LatencyHistogram.getBucketIndex(17));
+        assertEquals(17, LatencyHistogram.getBucketIndex(18));
+        assertEquals(24, LatencyHistogram.getBucketIndex(32));
+        assertEquals(24, LatencyHistogram.getBucketIndex(35));
+        assertEquals(25, LatencyHistogram.getBucketIndex(36));
+        assertEquals(BUCKET_COUNT - 1, LatencyHistogram.getBucketIndex(LatencyHistogram.MAX_VALUE));
+    }
+
+    @Test
+    public void bucketUpperBoundAtMagnitudeBoundaries() {
+
+        assertEquals(8, LatencyHistogram.getBucketUpperBound(8));
+        assertEquals(15, LatencyHistogram.getBucketUpperBound(15));
+        assertEquals(17, LatencyHistogram.getBucketUpperBound(16));
+        assertEquals(19, LatencyHistogram.getBucketUpperBound(17));
+        assertEquals(35, LatencyHistogram.getBucketUpperBound(24));
+        assertEquals(LatencyHistogram.MAX_VALUE, LatencyHistogram.getBucketUpperBound(BUCKET_COUNT - 1));
+    }
+
+    @Test
+    public void bucketsAreContiguousWithBoundedWidth() {
+
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+
+            long upperBound = LatencyHistogram.getBucketUpperBound(i);
+            long lowerBound = i == 0 ? 0 : LatencyHistogram.getBucketUpperBound(i - 1) + 1;
+
+            assertEquals(i, LatencyHistogram.getBucketIndex(lowerBound));
+            assertEquals(i, LatencyHistogram.getBucketIndex(upperBound));
+            if (i < BUCKET_COUNT - 1) {
+                assertEquals(i + 1, LatencyHistogram.getBucketIndex(upperBound + 1));
+            }
+            // Width of bucket is within 1/8 of its values.
+            assertTrue("Bucket : " + i, (upperBound - lowerBound) * 8 <= Math.max(lowerBound, 1));
+        }
+    }
+
+    @Test
+    public void recordedValuesAreClamped() {
+
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+        histogram.record(LatencyHistogram.MAX_VALUE + 1000);
+
+        assertEquals(2, histogram.getCount());
+        assertEquals(0, histogram.getMin());
+        assertEquals(LatencyHistogram.MAX_VALUE, histogram.getMax());
+        assertEquals(0, histogram.getValueAtPercentile(50));
+        assertEquals(LatencyHistogram.MAX_VALUE, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    public void emptyHistogramReturnsZero() {
+
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMin());
+        assertEquals(0, histogram.getMax());
+        assertEquals(0, histogram.getMean());
+        assertEquals(0, histogram.getValueAtPercentile(99));
+    }
+
+    @Test
+    public void percentilesAreWithinBucketError() {
+
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i * 1000);
+        }
+
+        assertEquals(100, histogram.getCount());
+        assertEquals(1000, histogram.getMin());
+        assertEquals(100000, histogram.getMax());
+        assertEquals(50500, histogram.getMean());
+
+        double[] percentiles = {1, 50, 90, 99};
+        for (double percentile : percentiles) {
+            long exactValue = (long) percentile * 1000;
+            long value = histogram.getValueAtPercentile(percentile);
+            assertTrue("p" + percentile + " : " + value, value >= exactValue && value <= exactValue + exactValue / 8);
+        }
+        // Upper bound of the last bucket is limited by max value.
+        assertEquals(100000, histogram.getValueAtPercentile(100));
+        assertEquals(100000, histogram.getValueAtPercentile(150));
+        assertEquals(1023, histogram.getValueAtPercentile(0));
+    }
+
+    @Test
+    public void resetRemovesAllValues() {
+
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(1000);
+        histogram.record(2000);
+        histogram.reset();
+
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMax());
+        assertEquals(0, histogram.getValueAtPercentile(50));
+
+        histogram.record(300);
+        assertEquals(300, histogram.getMin());
+        assertEquals(300, histogram.getMean());
+    }
+}
@@ -0,0 +1,119 @@
+// Copyright 2021 Espressif Systems (Shanghai) PTE LTD
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.espressif;
+
+import com.espressif.ui.models.Device;
+import com.espressif.ui.models.Param;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.util.ArrayList;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Benchmark of ParamDecoder over a node set of 1000 params.
+ * Timing depends on the machine, so it is not run with unit tests. Remove {@link Ignore} to run it.
+ */
+@Ignore("Benchmark")
+public class ParamDecoderBenchmark {
+
+    private static final int BENCHMARK_DEVICE_COUNT = 250;
+    private static final int BENCHMARK_ROUNDS = 200;
+
+    /**
+     * Decodes values of 1000 params with cached decoders and with decoders resolved on every value,
+     * which is how values were decoded before decoders were cached in params.
+     */
+    @Test
+    public void decodeThousandParamsBenchmark() throws JSONException {
+
+        ArrayList<Device> devices = new ArrayList<>();
+        ArrayList<JSONObject> deviceJsons = new ArrayList<>();
+
+        for (int i = 0; i < BENCHMARK_DEVICE_COUNT; i++) {
+
+            Device device = new Device("Light");
+            ArrayList<Param> params = new ArrayList<>();
+            params.add(createParam("Name", "esp.ui.text", "string", AppConstants.PARAM_TYPE_NAME));
+            params.add(createParam("Power", AppConstants.UI_TYPE_TOGGLE, "bool", null));
+            params.add(createParam("Brightness", AppConstants.UI_TYPE_SLIDER, "int", null));
+            params.add(createParam("Temperature", AppConstants.UI_TYPE_SLIDER, "float", null));
+            device.setParams(params);
+            devices.add(device);
+
+            deviceJsons.add(new JSONObject()
+                    .put("Name", "Light " + i)
+                    .put("Power", i % 2 == 0)
+                    .put("Brightness", i % 100)
+                    .put("Temperature", 20 + i / 10.0));
+        }
+
+        // Warm up both paths before measuring.
+        decodeAll(devices, deviceJsons, true, BENCHMARK_ROUNDS);
+        decodeAll(devices, deviceJsons, false, BENCHMARK_ROUNDS);
+
+        long resolvingTime = decodeAll(devices, deviceJsons, false, BENCHMARK_ROUNDS);
+        long cachedTime = decodeAll(devices, deviceJsons, true, BENCHMARK_ROUNDS);
+        int paramCount = BENCHMARK_DEVICE_COUNT * 4;
+
+        assertTrue("Decode " + paramCount + " params x " + BENCHMARK_ROUNDS + " rounds, resolve on every value : "
+                        + resolvingTime / 1000000 + " ms, cached decoder : " + cachedTime / 1000000 + " ms",
+                cachedTime <= resolvingTime);
+
+        for (int i = 0; i < BENCHMARK_DEVICE_COUNT; i++) {
+            ArrayList<Param> params = devices.get(i).getParams();
+            assertEquals("Light " + i, devices.get(i).getUserVisibleName());
+            assertEquals(i % 2 == 0, params.get(1).getSwitchStatus());
+            assertEquals(String.valueOf(i % 100), params.get(2).getLabelValue());
+            assertFalse(params.get(3).getLabelValue().isEmpty());
+        }
+    }
+
+    private long decodeAll(ArrayList<Device> devices, ArrayList<JSONObject> deviceJsons, boolean useCachedDecoder,
+                           int rounds) {
+
+        long startTime = System.nanoTime();
+
+        for (int round = 0; round < rounds; round++) {
+            for (int i = 0; i < devices.size(); i++) {
+
+                Device device = devices.get(i);
+                JSONObject deviceJson = deviceJsons.get(i);
+
+                for (Param param : device.getParams()) {
+                    ParamDecoder decoder = useCachedDecoder ? param.getDecoder() : ParamDecoder.forParam(param);
+                    decoder.decode(deviceJson, device, param);
+                }
+            }
+        }
+        return System.nanoTime() - startTime;
+    }
+
+    private Param createParam(String name, String uiType, String dataType, String paramType) {
+
+        Param param = new Param();
+        param.setName(name);
+        param.setUiType(uiType);
+        param.setDataType(dataType);
+        param.setParamType(paramType);
+        return param;
+    }
+}
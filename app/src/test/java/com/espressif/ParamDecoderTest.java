@@ -0,0 +1,120 @@
+// Copyright 2021 Espressif Systems (Shanghai) PTE LTD
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.espressif;
+
+import com.espressif.ui.models.Device;
+import com.espressif.ui.models.Param;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of ParamDecoder resolution and decoding.
+ */
+public class ParamDecoderTest {
+
+    @Test
+    public void decoderIsResolvedFromParamTypes() {
+
+        assertSame(ParamDecoder.INT_VALUE, ParamDecoder.forTypes(AppConstants.UI_TYPE_SLIDER, "int", null));
+        assertSame(ParamDecoder.INT_VALUE, ParamDecoder.forTypes(AppConstants.UI_TYPE_HUE_SLIDER, "Integer", null));
+        assertSame(ParamDecoder.DOUBLE_VALUE, ParamDecoder.forTypes(AppConstants.UI_TYPE_SLIDER, "float", null));
+        assertSame(ParamDecoder.STRING_LABEL, ParamDecoder.forTypes(AppConstants.UI_TYPE_SLIDER, "string", null));
+        assertSame(ParamDecoder.SWITCH, ParamDecoder.forTypes(AppConstants.UI_TYPE_TOGGLE, "bool", null));
+        assertSame(ParamDecoder.SWITCH, ParamDecoder.forTypes(AppConstants.UI_TYPE_TRIGGER, "bool", null));
+        assertSame(ParamDecoder.INT_VALUE, ParamDecoder.forTypes(AppConstants.UI_TYPE_DROP_DOWN, "int", null));
+        assertSame(ParamDecoder.STRING_LABEL, ParamDecoder.forTypes(AppConstants.UI_TYPE_DROP_DOWN, "string", null));
+        assertSame(ParamDecoder.BOOLEAN_LABEL, ParamDecoder.forTypes(null, "bool", null));
+        assertSame(ParamDecoder.INT_LABEL, ParamDecoder.forTypes(null, "int", null));
+        assertSame(ParamDecoder.DOUBLE_LABEL, ParamDecoder.forTypes("esp.ui.text", "double", null));
+        assertSame(ParamDecoder.NAME, ParamDecoder.forTypes("esp.ui.text", "string", AppConstants.PARAM_TYPE_NAME));
+        assertSame(ParamDecoder.STRING_LABEL, ParamDecoder.forTypes(null, null, null));
+    }
+
+    @Test
+    public void decoderIsResolvedAgainWhenTypeChanges() {
+
+        Param param = createParam("Power", AppConstants.UI_TYPE_TOGGLE, "bool", null);
+        assertSame(ParamDecoder.SWITCH, param.getDecoder());
+
+        param.setUiType(AppConstants.UI_TYPE_SLIDER);
+        param.setDataType("int");
+        assertSame(ParamDecoder.INT_VALUE, param.getDecoder());
+    }
+
+    @Test
+    public void valuesAreDecoded() throws JSONException {
+
+        JSONObject json = new JSONObject()
+                .put("Brightness", 42)
+                .put("Temperature", 21.5)
+                .put("Power", true)
+                .put("Enabled", false)
+                .put("Name", "Kitchen light")
+                .put("Mode", "Auto");
+
+        Device device = new Device("Light");
+        Param brightness = createParam("Brightness", AppConstants.UI_TYPE_SLIDER, "int", null);
+        Param temperature = createParam("Temperature", AppConstants.UI_TYPE_SLIDER, "float", null);
+        Param power = createParam("Power", AppConstants.UI_TYPE_TOGGLE, "bool", null);
+        Param enabled = createParam("Enabled", null, "bool", null);
+        Param name = createParam("Name", "esp.ui.text", "string", AppConstants.PARAM_TYPE_NAME);
+        Param mode = createParam("Mode", AppConstants.UI_TYPE_DROP_DOWN, "string", null);
+
+        for (Param param : new Param[]{brightness, temperature, power, enabled, name, mode}) {
+            param.getDecoder().decode(json, device, param);
+        }
+
+        assertEquals(42, brightness.getValue(), 0);
+        assertEquals("42", brightness.getLabelValue());
+        assertEquals(21.5, temperature.getValue(), 0);
+        assertEquals("21.5", temperature.getLabelValue());
+        assertTrue(power.getSwitchStatus());
+        assertEquals("false", enabled.getLabelValue());
+        assertEquals("Kitchen light", name.getLabelValue());
+        assertEquals("Kitchen light", device.getUserVisibleName());
+        assertEquals("Auto", mode.getLabelValue());
+    }
+
+    @Test
+    public void labelIsUpdatedWithNewValue() throws JSONException {
+
+        Device device = new Device("Light");
+        Param brightness = createParam("Brightness", AppConstants.UI_TYPE_SLIDER, "int", null);
+
+        brightness.getDecoder().decode(new JSONObject().put("Brightness", 10), device, brightness);
+        assertEquals("10", brightness.getLabelValue());
+
+        brightness.getDecoder().decode(new JSONObject().put("Brightness", 20), device, brightness);
+        assertEquals(20, brightness.getValue(), 0);
+        assertEquals("20", brightness.getLabelValue());
+    }
+
+    private Param createParam(String name, String uiType, String dataType, String paramType) {
+
+        Param param = new Param();
+        param.setName(name);
+        param.setUiType(uiType);
+        param.setDataType(dataType);
+        param.setParamType(paramType);
+        return param;
+    }
+}
@@ -0,0 +1,504 @@
+// Copyright 2021 Espressif Systems (Shanghai) PTE LTD
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.espressif;
+
+import com.espressif.cloudapi.ApiResponseListener;
+import com.espressif.ui.models.EspNode;
+import com.espressif.ui.models.Param;
+import com.espressif.ui.models.ProvisioningResult;
+import com.espressif.ui.models.Service;
+import com.google.gson.JsonObject;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.TimeZone;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of ProvisioningPipeline cloud steps, run on a virtual clock with a fake transport for radio steps
+ * and a mock cloud.
+ */
+public class ProvisioningPipelineTest {
+
+    private static final String TZ_PARAM_NAME = "TZ";
+
+    private FakeScheduler scheduler;
+    private MockCloud cloud;
+    private ProvisioningPipeline pipeline;
+    private FakeTransport transport;
+
+    @Before
+    public void setUp() {
+        scheduler = new FakeScheduler();
+        cloud = new MockCloud(scheduler);
+        pipeline = new ProvisioningPipeline(cloud, scheduler);
+        cloud.pipeline = pipeline;
+        transport = new FakeTransport(scheduler, pipeline);
+    }
+
+    @Test
+    public void deviceIsSetUpAfterAssociationIsConfirmed() {
+
+        String nodeId = transport.provision("Light", true);
+        ProvisioningResult result = pipeline.getResult(nodeId);
+        assertEquals(ProvisioningResult.State.ADDING, result.getState());
+        assertTrue(result.isWiFiConfigApplied());
+
+        scheduler.advanceBy(5200);
+        assertEquals(ProvisioningResult.State.CONFIRMING, result.getState());
+        assertEquals(transport.getSecretKey(nodeId), cloud.secretKeys.get(nodeId));
+
+        scheduler.advanceBy(MockCloud.CONFIRM_DELAY);
+        assertEquals(ProvisioningResult.State.SETTING_UP, result.getState());
+
+        scheduler.advanceBy(30000);
+        assertEquals(ProvisioningResult.State.DONE, result.getState());
+        assertEquals(1, cloud.getCount(cloud.addNodeCalls, nodeId));
+        // Node comes online after first status request.
+        assertEquals(2, cloud.getCount(cloud.nodeStatusCalls, nodeId));
+
+        JsonObject body = cloud.paramUpdates.get(nodeId);
+        assertEquals(TimeZone.getDefault().getID(), body.getAsJsonObject(AppConstants.KEY_TIME).get(TZ_PARAM_NAME).getAsString());
+        assertEquals(0, pipeline.getInProgressCount());
+    }
+
+    @Test
+    public void addDeviceIsRetriedOnFailure() {
+
+        cloud.addFailures.put("node_1", 3);
+        String nodeId = transport.provision("Light", true);
+
+        scheduler.advanceBy(60000);
+        assertEquals(4, cloud.getCount(cloud.addNodeCalls, nodeId));
+        assertEquals(ProvisioningResult.State.DONE, pipeline.getResult(nodeId).getState());
+    }
+
+    @Test
+    public void addDeviceFailsAfterMaxRetries() {
+
+        cloud.addFailures.put("node_1", Integer.MAX_VALUE);
+        String nodeId = transport.provision("Light", true);
+
+        scheduler.advanceBy(120000);
+        assertEquals(7, cloud.getCount(cloud.addNodeCalls, nodeId));
+        assertEquals(ProvisioningResult.State.ADD_FAILED, pipeline.getResult(nodeId).getState());
+        assertFalse(scheduler.hasPendingTasks());
+    }
+
+    @Test
+    public void associationTimeOutFailsOnlyThatDevice() {
+
+        cloud.associationResults.put("node_1", false);
+        String nodeId1 = transport.provision("Light", true);
+        String nodeId2 = transport.provision("Switch", true);
+
+        scheduler.advanceBy(60000);
+        assertEquals(ProvisioningResult.State.CONFIRM_FAILED, pipeline.getResult(nodeId1).getState());
+        assertEquals(ProvisioningResult.State.DONE, pipeline.getResult(nodeId2).getState());
+        assertEquals(0, cloud.getCount(cloud.nodeStatusCalls, nodeId1));
+    }
+
+    @Test
+    public void eventWithoutNodeIdCompletesAllConfirmingDevices() {
+
+        cloud.associationResults.put("node_1", null);
+        cloud.associationResults.put("node_2", null);
+        String nodeId1 = transport.provision("Light", true);
+        String nodeId2 = transport.provision("Switch", true);
+        scheduler.advanceBy(60000);
+        assertEquals(ProvisioningResult.State.CONFIRMING, pipeline.getResult(nodeId1).getState());
+        assertEquals(ProvisioningResult.State.CONFIRMING, pipeline.getResult(nodeId2).getState());
+
+        pipeline.onAssociationStatus(null, false);
+        assertEquals(ProvisioningResult.State.CONFIRM_FAILED, pipeline.getResult(nodeId1).getState());
+        assertEquals(ProvisioningResult.State.CONFIRM_FAILED, pipeline.getResult(nodeId2).getState());
+    }
+
+    @Test
+    public void offlineNodeIsDoneWithWarningAfterStatusTimeout() {
+
+        cloud.onlineDelays.put("node_1", Long.MAX_VALUE / 2);
+        String nodeId = transport.provision("Light", true);
+
+        scheduler.advanceBy(5200 + MockCloud.CONFIRM_DELAY + 34000);
+        assertEquals(ProvisioningResult.State.SETTING_UP, pipeline.getResult(nodeId).getState());
+
+        scheduler.advanceBy(2000);
+        assertEquals(ProvisioningResult.State.DONE_WITH_WARNING, pipeline.getResult(nodeId).getState());
+        int statusCalls = cloud.getCount(cloud.nodeStatusCalls, nodeId);
+        assertTrue(statusCalls > 10);
+
+        // Polling is stopped.
+        scheduler.advanceBy(60000);
+        assertEquals(statusCalls, cloud.getCount(cloud.nodeStatusCalls, nodeId));
+        assertFalse(cloud.paramUpdates.containsKey(nodeId));
+    }
+
+    @Test
+    public void nodeWithoutTimeServiceIsDoneWithoutTimeZone() {
+
+        cloud.nodesWithoutTimeService.add("node_1");
+        String nodeId = transport.provision("Light", true);
+
+        scheduler.advanceBy(60000);
+        assertEquals(ProvisioningResult.State.DONE, pipeline.getResult(nodeId).getState());
+        assertFalse(cloud.paramUpdates.containsKey(nodeId));
+    }
+
+    @Test
+    public void timeZoneFailureIsDoneWithWarning() {
+
+        cloud.isParamUpdateFailed = true;
+        String nodeId = transport.provision("Light", false);
+
+        scheduler.advanceBy(60000);
+        ProvisioningResult result = pipeline.getResult(nodeId);
+        assertEquals(ProvisioningResult.State.DONE_WITH_WARNING, result.getState());
+        assertFalse(result.isWiFiConfigApplied());
+    }
+
+    @Test
+    public void provisioningSameNodeAgainRestartsItsCloudSteps() {
+
+        String nodeId = transport.provision("Light", true);
+        scheduler.advanceBy(1000);
+        pipeline.startCloudSteps(nodeId, "new_secret_key", "Light", true);
+
+        scheduler.advanceBy(60000);
+        assertEquals(1, cloud.getCount(cloud.addNodeCalls, nodeId));
+        assertEquals("new_secret_key", cloud.secretKeys.get(nodeId));
+        assertEquals(1, pipeline.getResults().size());
+        assertEquals(ProvisioningResult.State.DONE, pipeline.getResult(nodeId).getState());
+    }
+
+    @Test
+    public void clearStopsAllCloudSteps() {
+
+        String nodeId1 = transport.provision("Light", true);
+        String nodeId2 = transport.provision("Switch", true);
+        pipeline.clear();
+
+        scheduler.advanceBy(60000);
+        assertNull(pipeline.getResult(nodeId1));
+        assertNull(pipeline.getResult(nodeId2));
+        assertEquals(0, cloud.getCount(cloud.addNodeCalls, nodeId2));
+        assertFalse(scheduler.hasPendingTasks());
+    }
+
+    @Test
+    public void bulkDevicesAreConfirmedWhileNextDevicesAreProvisioned() {
+
+        // Time taken by one device, from start of radio steps till cloud steps are done.
+        long startTime = scheduler.now;
+        String singleNodeId = transport.provision("Single", true);
+        while (!pipeline.getResult(singleNodeId).isCompleted()) {
+            scheduler.advanceBy(100);
+        }
+        long singleDeviceTime = scheduler.now - startTime;
+        pipeline.clearCompleted();
+        assertTrue(pipeline.getResults().isEmpty());
+
+        int deviceCount = 5;
+        // Third and last device of the bulk, node_1 is the single device above.
+        cloud.addFailures.put("node_4", 2);
+        cloud.associationResults.put("node_6", false);
+        startTime = scheduler.now;
+        ArrayList<String> nodeIds = new ArrayList<>();
+
+        for (int i = 0; i < deviceCount; i++) {
+            nodeIds.add(transport.provision("Device " + i, true));
+        }
+        // Radio steps of the last device are completed, earlier devices are being confirmed in cloud.
+        assertTrue(pipeline.getInProgressCount() > 1);
+        assertEquals(ProvisioningResult.State.DONE, pipeline.getResult(nodeIds.get(0)).getState());
+
+        while (pipeline.getInProgressCount() > 0) {
+            scheduler.advanceBy(100);
+        }
+        long bulkTime = scheduler.now - startTime;
+
+        ArrayList<ProvisioningResult> results = pipeline.getResults();
+        assertEquals(deviceCount, results.size());
+        for (int i = 0; i < deviceCount - 1; i++) {
+            assertEquals(nodeIds.get(i), results.get(i).getNodeId());
+            assertEquals(ProvisioningResult.State.DONE, results.get(i).getState());
+        }
+        assertEquals(ProvisioningResult.State.CONFIRM_FAILED, results.get(deviceCount - 1).getState());
+        assertEquals(3, cloud.getCount(cloud.addNodeCalls, nodeIds.get(2)));
+        // Cloud steps overlap with radio steps of next devices, only cloud steps of the last device add up.
+        assertTrue("Bulk time : " + bulkTime + ", single device time : " + singleDeviceTime,
+                bulkTime < (deviceCount - 1) * FakeTransport.RADIO_STEPS_TIME + singleDeviceTime);
+    }
+
+    /**
+     * Runs delayed tasks on a virtual clock, in order of their time.
+     */
+    static class FakeScheduler implements ProvisioningPipeline.Scheduler {
+
+        private static class Task {
+
+            final long time;
+            final Runnable runnable;
+
+            Task(long time, Runnable runnable) {
+                this.time = time;
+                this.runnable = runnable;
+            }
+        }
+
+        long now = 0;
+        // Tasks in order of posting, so that tasks with same time run in that order.
+        private final ArrayList<Task> tasks = new ArrayList<>();
+
+        @Override
+        public void postDelayed(Runnable runnable, long delayMillis) {
+            tasks.add(new Task(now + delayMillis, runnable));
+        }
+
+        @Override
+        public void removeCallbacks(Runnable runnable) {
+            for (int i = tasks.size() - 1; i >= 0; i--) {
+                if (tasks.get(i).runnable == runnable) {
+                    tasks.remove(i);
+                }
+            }
+        }
+
+        boolean hasPendingTasks() {
+            return !tasks.isEmpty();
+        }
+
+        void advanceBy(long millis) {
+
+            long endTime = now + millis;
+
+            while (true) {
+                Task next = null;
+                for (Task task : tasks) {
+                    if (task.time <= endTime && (next == null || task.time < next.time)) {
+                        next = task;
+                    }
+                }
+                if (next == null) {
+                    break;
+                }
+                tasks.remove(next);
+                now = next.time;
+                next.runnable.run();
+            }
+            now = endTime;
+        }
+    }
+
+    /**
+     * Cloud which responds after fixed latency and confirms user-node association like push event.
+     * Node comes online after some delay from its association.
+     */
+    static class MockCloud implements ProvisioningPipeline.Cloud {
+
+        static final long LATENCY = 200;
+        static final long CONFIRM_DELAY = 3000;
+        static final long ONLINE_DELAY = 2000;
+
+        private final FakeScheduler scheduler;
+        ProvisioningPipeline pipeline;
+
+        // Number of failed add node responses before success.
+        final HashMap<String, Integer> addFailures = new HashMap<>();
+        // Association result of the node, null to not send any event. Association is confirmed by default.
+        final HashMap<String, Boolean> associationResults = new HashMap<>();
+        final HashMap<String, Long> onlineDelays = new HashMap<>();
+        final HashSet<String> nodesWithoutTimeService = new HashSet<>();
+        boolean isParamUpdateFailed;
+
+        final HashMap<String, Integer> addNodeCalls = new HashMap<>();
+        final HashMap<String, Integer> nodeStatusCalls = new HashMap<>();
+        final HashMap<String, String> secretKeys = new HashMap<>();
+        final HashMap<String, JsonObject> paramUpdates = new HashMap<>();
+
+        private final HashMap<String, Long> onlineTimes = new HashMap<>();
+        private final HashMap<String, EspNode> nodeMap = new HashMap<>();
+
+        MockCloud(FakeScheduler scheduler) {
+            this.scheduler = scheduler;
+        }
+
+        int getCount(HashMap<String, Integer> calls, String nodeId) {
+            Integer count = calls.get(nodeId);
+            return count == null ? 0 : count;
+        }
+
+        @Override
+        public void addNode(final String nodeId, String secretKey, final ApiResponseListener listener) {
+
+            final int count = getCount(addNodeCalls, nodeId) + 1;
+            addNodeCalls.put(nodeId, count);
+            secretKeys.put(nodeId, secretKey);
+            final Integer failures = addFailures.get(nodeId);
+
+            scheduler.postDelayed(new Runnable() {
+
+                @Override
+                public void run() {
+
+                    if (failures != null && count <= failures) {
+                        listener.onNetworkFailure(new Exception("Add node failed"));
+                        return;
+                    }
+                    listener.onSuccess(null);
+
+                    final Boolean isAdded = associationResults.containsKey(nodeId) ? associationResults.get(nodeId) : Boolean.TRUE;
+                    if (isAdded == null) {
+                        return;
+                    }
+                    scheduler.postDelayed(new Runnable() {
+
+                        @Override
+                        public void run() {
+                            if (isAdded) {
+                                Long onlineDelay = onlineDelays.get(nodeId);
+                                onlineTimes.put(nodeId, scheduler.now + (onlineDelay == null ? ONLINE_DELAY : onlineDelay));
+                            }
+                            pipeline.onAssociationStatus(nodeId, isAdded);
+                        }
+                    }, CONFIRM_DELAY);
+                }
+            }, LATENCY);
+        }
+
+        @Override
+        public void getNodeDetails(final String nodeId, final ApiResponseListener listener) {
+
+            scheduler.postDelayed(new Runnable() {
+
+                @Override
+                public void run() {
+                    nodeMap.put(nodeId, createNode(nodeId, !nodesWithoutTimeService.contains(nodeId)));
+                    listener.onSuccess(null);
+                }
+            }, LATENCY);
+        }
+
+        @Override
+        public void getNodeStatus(final String nodeId, final ApiResponseListener listener) {
+
+            nodeStatusCalls.put(nodeId, getCount(nodeStatusCalls, nodeId) + 1);
+
+            scheduler.postDelayed(new Runnable() {
+
+                @Override
+                public void run() {
+                    EspNode node = nodeMap.get(nodeId);
+                    if (node != null) {
+                        node.setOnline(scheduler.now >= onlineTimes.get(nodeId));
+                    }
+                    listener.onSuccess(null);
+                }
+            }, LATENCY);
+        }
+
+        @Override
+        public void updateParamValue(final String nodeId, final JsonObject body, final ApiResponseListener listener) {
+
+            scheduler.postDelayed(new Runnable() {
+
+                @Override
+                public void run() {
+                    if (isParamUpdateFailed) {
+                        listener.onResponseFailure(new Exception("Param update failed"));
+                    } else {
+                        paramUpdates.put(nodeId, body);
+                        listener.onSuccess(null);
+                    }
+                }
+            }, LATENCY);
+        }
+
+        @Override
+        public EspNode getNode(String nodeId) {
+            return nodeMap.get(nodeId);
+        }
+
+        private static EspNode createNode(String nodeId, boolean hasTimeService) {
+
+            EspNode node = new EspNode(nodeId);
+            ArrayList<Service> services = new ArrayList<>();
+
+            if (hasTimeService) {
+                Param tzParam = new Param();
+                tzParam.setName(TZ_PARAM_NAME);
+                tzParam.setParamType(AppConstants.PARAM_TYPE_TZ);
+                ArrayList<Param> params = new ArrayList<>();
+                params.add(tzParam);
+
+                Service service = new Service(nodeId);
+                service.setName("Time");
+                service.setType(AppConstants.SERVICE_TYPE_TIME);
+                service.setParams(params);
+                services.add(service);
+            }
+            node.setServices(services);
+            return node;
+        }
+    }
+
+    /**
+     * Does radio steps of devices one at a time, the way ProvisionActivity does with device connection,
+     * and hands over each device to the pipeline.
+     */
+    static class FakeTransport {
+
+        // User mapping and Wi-Fi credentials.
+        static final long RADIO_STEPS_TIME = 8000;
+
+        private final FakeScheduler scheduler;
+        private final ProvisioningPipeline pipeline;
+        private final HashMap<String, String> secretKeys = new HashMap<>();
+        private int deviceCount = 0;
+
+        FakeTransport(FakeScheduler scheduler, ProvisioningPipeline pipeline) {
+            this.scheduler = scheduler;
+            this.pipeline = pipeline;
+        }
+
+        /**
+         * @return Returns node id received from device in user mapping response.
+         */
+        String provision(String deviceName, boolean isWiFiConfigApplied) {
+
+            deviceCount++;
+            String nodeId = "node_" + deviceCount;
+            String secretKey = UUID.randomUUID().toString();
+            secretKeys.put(nodeId, secretKey);
+
+            scheduler.advanceBy(RADIO_STEPS_TIME);
+            pipeline.startCloudSteps(nodeId, secretKey, deviceName, isWiFiConfigApplied);
+            return nodeId;
+        }
+
+        String getSecretKey(String nodeId) {
+            return secretKeys.get(nodeId);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+// Copyright 2021 Espressif Systems (Shanghai) PTE LTD
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.espressif;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of RequestMetrics recording and report.
+ */
+public class RequestMetricsTest {
+
+    private static final String GET_NODES = "GET /v1/user/nodes";
+    private static final String PUT_PARAMS = "PUT /v1/user/nodes/params";
+
+    private RequestMetrics metrics;
+
+    @Before
+    public void setUp() {
+        metrics = RequestMetrics.getInstance();
+        metrics.reset();
+    }
+
+    @Test
+    public void requestsAreRecordedPerEndpoint() throws JSONException {
+
+        metrics.recordRequest(GET_NODES, TimeUnit.MILLISECONDS.toNanos(100), 0, 2048, false);
+        metrics.recordRequest(GET_NODES, TimeUnit.MILLISECONDS.toNanos(300), 0, 1024, true);
+        metrics.recordRequest(PUT_PARAMS, TimeUnit.MILLISECONDS.toNanos(50), 64, -1, false);
+
+        JSONObject endpoints = metrics.getReport().getJSONObject(RequestMetrics.KEY_ENDPOINTS);
+        assertEquals(2, endpoints.length());
+
+        JSONObject getNodes = endpoints.getJSONObject(GET_NODES);
+        assertEquals(2, getNodes.getLong(RequestMetrics.KEY_COUNT));
+        assertEquals(1, getNodes.getLong(RequestMetrics.KEY_ERRORS));
+        assertEquals(0, getNodes.getLong(RequestMetrics.KEY_BYTES_SENT));
+        assertEquals(3072, getNodes.getLong(RequestMetrics.KEY_BYTES_RECEIVED));
+
+        JSONObject putParams = endpoints.getJSONObject(PUT_PARAMS);
+        assertEquals(1, putParams.getLong(RequestMetrics.KEY_COUNT));
+        assertEquals(0, putParams.getLong(RequestMetrics.KEY_ERRORS));
+        assertEquals(64, putParams.getLong(RequestMetrics.KEY_BYTES_SENT));
+        // Unknown size is not added.
+        assertEquals(0, putParams.getLong(RequestMetrics.KEY_BYTES_RECEIVED));
+    }
+
+    @Test
+    public void latencyIsReportedInMilliseconds() throws JSONException {
+
+        metrics.recordRequest(GET_NODES, TimeUnit.MICROSECONDS.toNanos(1500), 0, 0, false);
+        metrics.recordRequest(GET_NODES, TimeUnit.MICROSECONDS.toNanos(2500), 0, 0, false);
+        metrics.recordRequest(GET_NODES, TimeUnit.MICROSECONDS.toNanos(3000), 0, 0, false);
+
+        JSONObject latency = metrics.getReport().getJSONObject(RequestMetrics.KEY_ENDPOINTS)
+                .getJSONObject(GET_NODES).getJSONObject(RequestMetrics.KEY_LATENCY_MS);
+
+        assertEquals(1.5, latency.getDouble(RequestMetrics.KEY_MIN), 0);
+        assertEquals(2.3, latency.getDouble(RequestMetrics.KEY_MEAN), 0);
+        assertEquals(3.0, latency.getDouble(RequestMetrics.KEY_MAX), 0);
+        // 2500 us is in bucket 2304 - 2559 us.
+        assertEquals(2.6, latency.getDouble(RequestMetrics.KEY_P50), 0);
+        assertEquals(3.0, latency.getDouble(RequestMetrics.KEY_P90), 0);
+        assertEquals(3.0, latency.getDouble(RequestMetrics.KEY_P99), 0);
+    }
+
+    @Test
+    public void endpointsAfterLimitAreRecordedAsOther() throws JSONException {
+
+        for (int i = 0; i < 120; i++) {
+            metrics.recordRequest("GET /endpoint/" + i, 1000, 0, 0, false);
+        }
+        // Existing endpoint is still recorded separately.
+        metrics.recordRequest("GET /endpoint/0", 1000, 0, 0, true);
+
+        JSONObject endpoints = metrics.getReport().getJSONObject(RequestMetrics.KEY_ENDPOINTS);
+        assertEquals(101, endpoints.length());
+        assertFalse(endpoints.has("GET /endpoint/100"));
+        assertEquals(2, endpoints.getJSONObject("GET /endpoint/0").getLong(RequestMetrics.KEY_COUNT));
+        assertEquals(1, endpoints.getJSONObject("GET /endpoint/0").getLong(RequestMetrics.KEY_ERRORS));
+        assertEquals(20, endpoints.getJSONObject("other").getLong(RequestMetrics.KEY_COUNT));
+    }
+
+    @Test
+    public void retriesAndPathsAreCounted() throws JSONException {
+
+        metrics.recordRetry("schedule_update");
+        metrics.recordRetry("schedule_update");
+        metrics.recordRetry("token_refresh");
+        metrics.recordPath(true);
+        metrics.recordPath(true);
+        metrics.recordPath(false);
+        metrics.recordLocalFallback();
+
+        JSONObject report = metrics.getReport();
+        JSONObject retries = report.getJSONObject(RequestMetrics.KEY_RETRIES);
+        assertEquals(2, retries.getLong("schedule_update"));
+        assertEquals(1, retries.getLong("token_refresh"));
+
+        JSONObject path = report.getJSONObject(RequestMetrics.KEY_PATH);
+        assertEquals(2, path.getLong(RequestMetrics.KEY_LOCAL));
+        assertEquals(1, path.getLong(RequestMetrics.KEY_CLOUD));
+        assertEquals(1, path.getLong(RequestMetrics.KEY_LOCAL_FALLBACK));
+    }
+
+    @Test
+    public void resetRemovesAllMetrics() throws JSONException {
+
+        metrics.recordRequest(GET_NODES, 1000, 10, 10, true);
+        metrics.recordRetry("schedule_update");
+        metrics.recordPath(false);
+        metrics.reset();
+
+        JSONObject report = metrics.getReport();
+        assertTrue(report.has(RequestMetrics.KEY_UPTIME));
+        assertEquals(0, report.getJSONObject(RequestMetrics.KEY_ENDPOINTS).length());
+        assertEquals(0, report.getJSONObject(RequestMetrics.KEY_RETRIES).length());
+        assertEquals(0, report.getJSONObject(RequestMetrics.KEY_PATH).getLong(RequestMetrics.KEY_CLOUD));
+    }
+}
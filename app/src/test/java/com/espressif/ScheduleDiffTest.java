@@ -0,0 +1,216 @@
+// Copyright 2021 Espressif Systems (Shanghai) PTE LTD
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.espressif;
+
+import com.espressif.ui.models.Device;
+import com.espressif.ui.models.Param;
+import com.google.gson.JsonObject;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of ScheduleDiff requests for new, edited and removed schedules.
+ */
+public class ScheduleDiffTest {
+
+    private static final String SCHEDULE_ID = "A1B2";
+    private static final String NAME = "Evening";
+    private static final int DAYS = 127;
+    private static final int MINUTES = 1110;
+
+    private static final String NODE_1 = "node_1";
+    private static final String NODE_2 = "node_2";
+    private static final String NODE_3 = "node_3";
+
+    @Test
+    public void newScheduleAddsAllNodes() {
+
+        ScheduleDiff diff = new ScheduleDiff(SCHEDULE_ID);
+        HashMap<String, JsonObject> actions = actions(NODE_1, true, NODE_2, true);
+        HashMap<String, JsonObject> requests = diff.getUpdateRequests(NAME, DAYS, MINUTES, actions);
+
+        assertEquals(2, requests.size());
+        JsonObject schedule = getSchedule(requests.get(NODE_1));
+        assertEquals(SCHEDULE_ID, schedule.get(AppConstants.KEY_ID).getAsString());
+        assertEquals(AppConstants.KEY_OPERATION_ADD, schedule.get(AppConstants.KEY_OPERATION).getAsString());
+        assertEquals(NAME, schedule.get(AppConstants.KEY_NAME).getAsString());
+        assertEquals(actions.get(NODE_1), schedule.get(AppConstants.KEY_ACTION));
+
+        JsonObject trigger = schedule.getAsJsonArray(AppConstants.KEY_TRIGGERS).get(0).getAsJsonObject();
+        assertEquals(DAYS, trigger.get(AppConstants.KEY_DAYS).getAsInt());
+        assertEquals(MINUTES, trigger.get(AppConstants.KEY_MINUTES).getAsInt());
+    }
+
+    @Test
+    public void unchangedScheduleHasNoRequests() {
+
+        ScheduleDiff diff = new ScheduleDiff(SCHEDULE_ID, NAME, DAYS, MINUTES, actions(NODE_1, true, NODE_2, true));
+        assertTrue(diff.getUpdateRequests(NAME, DAYS, MINUTES, actions(NODE_1, true, NODE_2, true)).isEmpty());
+    }
+
+    @Test
+    public void nameChangeEditsOnlyName() {
+
+        ScheduleDiff diff = new ScheduleDiff(SCHEDULE_ID, NAME, DAYS, MINUTES, actions(NODE_1, true));
+        HashMap<String, JsonObject> requests = diff.getUpdateRequests("Night", DAYS, MINUTES, actions(NODE_1, true));
+
+        JsonObject schedule = getSchedule(requests.get(NODE_1));
+        assertEquals(AppConstants.KEY_OPERATION_EDIT, schedule.get(AppConstants.KEY_OPERATION).getAsString());
+        assertEquals("Night", schedule.get(AppConstants.KEY_NAME).getAsString());
+        assertFalse(schedule.has(AppConstants.KEY_TRIGGERS));
+        assertFalse(schedule.has(AppConstants.KEY_ACTION));
+    }
+
+    @Test
+    public void triggerChangeEditsOnlyTriggers() {
+
+        ScheduleDiff diff = new ScheduleDiff(SCHEDULE_ID, NAME, DAYS, MINUTES, actions(NODE_1, true));
+        HashMap<String, JsonObject> requests = diff.getUpdateRequests(NAME, 31, MINUTES, actions(NODE_1, true));
+
+        JsonObject schedule = getSchedule(requests.get(NODE_1));
+        assertEquals(AppConstants.KEY_OPERATION_EDIT, schedule.get(AppConstants.KEY_OPERATION).getAsString());
+        assertFalse(schedule.has(AppConstants.KEY_NAME));
+        assertFalse(schedule.has(AppConstants.KEY_ACTION));
+        JsonObject trigger = schedule.getAsJsonArray(AppConstants.KEY_TRIGGERS).get(0).getAsJsonObject();
+        assertEquals(31, trigger.get(AppConstants.KEY_DAYS).getAsInt());
+        assertEquals(MINUTES, trigger.get(AppConstants.KEY_MINUTES).getAsInt());
+    }
+
+    @Test
+    public void actionChangeEditsOnlyAffectedNode() {
+
+        ScheduleDiff diff = new ScheduleDiff(SCHEDULE_ID, NAME, DAYS, MINUTES, actions(NODE_1, true, NODE_2, true));
+        HashMap<String, JsonObject> newActions = actions(NODE_1, true, NODE_2, false);
+        HashMap<String, JsonObject> requests = diff.getUpdateRequests(NAME, DAYS, MINUTES, newActions);
+
+        assertEquals(Collections.singleton(NODE_2), requests.keySet());
+        JsonObject schedule = getSchedule(requests.get(NODE_2));
+        assertEquals(AppConstants.KEY_OPERATION_EDIT, schedule.get(AppConstants.KEY_OPERATION).getAsString());
+        assertEquals(newActions.get(NODE_2), schedule.get(AppConstants.KEY_ACTION));
+        assertFalse(schedule.has(AppConstants.KEY_NAME));
+        assertFalse(schedule.has(AppConstants.KEY_TRIGGERS));
+    }
+
+    @Test
+    public void nodeMembershipChangeAddsAndRemovesNodes() {
+
+        ScheduleDiff diff = new ScheduleDiff(SCHEDULE_ID, NAME, DAYS, MINUTES, actions(NODE_1, true, NODE_2, true));
+        HashMap<String, JsonObject> requests = diff.getUpdateRequests(NAME, DAYS, MINUTES, actions(NODE_1, true, NODE_3, true));
+
+        assertEquals(2, requests.size());
+        assertEquals(AppConstants.KEY_OPERATION_REMOVE, getOperation(requests.get(NODE_2)));
+        assertEquals(AppConstants.KEY_OPERATION_ADD, getOperation(requests.get(NODE_3)));
+    }
+
+    @Test
+    public void updatedNodesBecomeNewBaseline() {
+
+        ScheduleDiff diff = new ScheduleDiff(SCHEDULE_ID, NAME, DAYS, MINUTES, actions(NODE_1, true, NODE_2, true));
+        HashMap<String, JsonObject> newActions = actions(NODE_1, false, NODE_3, true);
+        assertEquals(3, diff.getUpdateRequests(NAME, DAYS, MINUTES, newActions).size());
+
+        // Request of node 1 and node 2 succeeded, node 3 failed.
+        diff.onNodesUpdated(Arrays.asList(NODE_1, NODE_2), NAME, DAYS, MINUTES, newActions);
+        HashMap<String, JsonObject> requests = diff.getUpdateRequests(NAME, DAYS, MINUTES, newActions);
+
+        assertEquals(Collections.singleton(NODE_3), requests.keySet());
+        assertEquals(AppConstants.KEY_OPERATION_ADD, getOperation(requests.get(NODE_3)));
+    }
+
+    @Test
+    public void removeRequestsCoverRemainingNodes() {
+
+        ScheduleDiff diff = new ScheduleDiff(SCHEDULE_ID, NAME, DAYS, MINUTES, actions(NODE_1, true, NODE_2, true));
+        HashMap<String, JsonObject> requests = diff.getRemoveRequests();
+        assertEquals(2, requests.size());
+        JsonObject schedule = getSchedule(requests.get(NODE_1));
+        assertEquals(SCHEDULE_ID, schedule.get(AppConstants.KEY_ID).getAsString());
+        assertEquals(AppConstants.KEY_OPERATION_REMOVE, schedule.get(AppConstants.KEY_OPERATION).getAsString());
+
+        diff.onNodesRemoved(Collections.singletonList(NODE_1));
+        assertEquals(Collections.singleton(NODE_2), diff.getRemoveRequests().keySet());
+    }
+
+    @Test
+    public void nodeActionsContainSelectedParamsOfEachDevice() {
+
+        ArrayList<Device> devices = new ArrayList<>();
+        devices.add(createDevice(NODE_1, "Light", createParam("Power", "bool", true, true),
+                createParam("Brightness", "int", true, false)));
+        devices.add(createDevice(NODE_1, "Fan", createParam("Power", "bool", true, true)));
+        devices.add(createDevice(NODE_2, "Switch", createParam("Power", "bool", false, true)));
+        devices.add(createDevice(NODE_2, "Plug", createParam("Power", "boolean", false, true)));
+
+        HashMap<String, JsonObject> actions = ScheduleDiff.getNodeActions(devices);
+
+        assertEquals(2, actions.size());
+        JsonObject node1 = actions.get(NODE_1);
+        assertTrue(node1.getAsJsonObject("Light").get("Power").getAsBoolean());
+        assertFalse(node1.getAsJsonObject("Light").has("Brightness"));
+        assertTrue(node1.getAsJsonObject("Fan").get("Power").getAsBoolean());
+        assertFalse(actions.get(NODE_2).getAsJsonObject("Switch").get("Power").getAsBoolean());
+        assertFalse(actions.get(NODE_2).getAsJsonObject("Plug").get("Power").getAsBoolean());
+    }
+
+    private static HashMap<String, JsonObject> actions(Object... nodeAndPower) {
+
+        HashMap<String, JsonObject> actions = new HashMap<>();
+        for (int i = 0; i < nodeAndPower.length; i += 2) {
+            JsonObject param = new JsonObject();
+            param.addProperty("Power", (Boolean) nodeAndPower[i + 1]);
+            JsonObject action = new JsonObject();
+            action.add("Light", param);
+            actions.put((String) nodeAndPower[i], action);
+        }
+        return actions;
+    }
+
+    private static JsonObject getSchedule(JsonObject body) {
+        return body.getAsJsonObject(AppConstants.KEY_SCHEDULE)
+                .getAsJsonArray(AppConstants.KEY_SCHEDULES).get(0).getAsJsonObject();
+    }
+
+    private static String getOperation(JsonObject body) {
+        return getSchedule(body).get(AppConstants.KEY_OPERATION).getAsString();
+    }
+
+    private static Device createDevice(String nodeId, String name, Param... params) {
+
+        Device device = new Device(nodeId);
+        device.setDeviceName(name);
+        device.setParams(new ArrayList<>(Arrays.asList(params)));
+        return device;
+    }
+
+    private static Param createParam(String name, String dataType, boolean value, boolean isSelected) {
+
+        Param param = new Param();
+        param.setName(name);
+        param.setDataType(dataType);
+        param.setUiType(AppConstants.UI_TYPE_TOGGLE);
+        param.setSwitchStatus(value);
+        param.setSelected(isSelected);
+        return param;
+    }
+}
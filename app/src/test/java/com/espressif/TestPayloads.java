@@ -0,0 +1,68 @@
+// Copyright 2021 Espressif Systems (Shanghai) PTE LTD
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.espressif;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Recorded payloads of cloud APIs, used by tests and benchmarks.
+ * Payloads are kept in test resources "payloads" directory.
+ */
+public class TestPayloads {
+
+    // Node details (config, params and status) of get nodes API.
+    public static final String NODE_LIGHTBULB = "node_details_lightbulb.json";
+    public static final String NODE_MULTI_DEVICE = "node_details_multi_device.json";
+
+    public static JSONObject load(String fileName) throws IOException, JSONException {
+
+        InputStream inputStream = TestPayloads.class.getClassLoader().getResourceAsStream("payloads/" + fileName);
+        if (inputStream == null) {
+            throw new IOException("Payload not found : " + fileName);
+        }
+
+        try {
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int length;
+            while ((length = inputStream.read(buffer)) != -1) {
+                outputStream.write(buffer, 0, length);
+            }
+            return new JSONObject(outputStream.toString("UTF-8"));
+        } finally {
+            inputStream.close();
+        }
+    }
+
+    /**
+     * Get copy of recorded node details with different node id.
+     *
+     * @param nodeJson Recorded node details.
+     * @param nodeId   New node id.
+     * @return Returns node details of new node.
+     */
+    public static JSONObject copyNode(JSONObject nodeJson, String nodeId) throws JSONException {
+
+        JSONObject copy = new JSONObject(nodeJson.toString());
+        copy.put("id", nodeId);
+        copy.getJSONObject("config").put("node_id", nodeId);
+        return copy;
+    }
+}
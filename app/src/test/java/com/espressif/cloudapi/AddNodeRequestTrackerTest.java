@@ -0,0 +1,148 @@
+// Copyright 2021 Espressif Systems (Shanghai) PTE LTD
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.espressif.cloudapi;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of AddNodeRequestTracker backoff, tick coalescing and expiry.
+ */
+public class AddNodeRequestTrackerTest {
+
+    private static final String NODE_1 = "node_1";
+    private static final String NODE_2 = "node_2";
+
+    @Test
+    public void firstCheckIsAfterInitialDelay() {
+
+        AddNodeRequestTracker tracker = new AddNodeRequestTracker();
+        assertEquals(-1, tracker.getNextTickDelay(0));
+
+        tracker.track(NODE_1, "req_1", 0);
+        assertTrue(tracker.isPending(NODE_1));
+        assertEquals(2000, tracker.getNextTickDelay(0));
+        assertEquals(500, tracker.getNextTickDelay(1500));
+
+        // Not due, even within coalesce window.
+        assertTrue(tracker.getDueRequests(500).isEmpty());
+        // Due within coalesce window.
+        assertEquals(1, tracker.getDueRequests(1000).size());
+    }
+
+    @Test
+    public void checkIntervalBacksOffUpToMaxInterval() {
+
+        AddNodeRequestTracker tracker = new AddNodeRequestTracker();
+        tracker.track(NODE_1, "req_1", 0);
+
+        long now = 2000;
+        long[] expectedIntervals = {3000, 4500, 6750, 10000, 10000};
+
+        for (int i = 0; i < expectedIntervals.length; i++) {
+            long expectedInterval = expectedIntervals[i];
+            ArrayList<AddNodeRequestTracker.Request> due = tracker.getDueRequests(now);
+            assertEquals(1, due.size());
+            assertEquals(i + 1, due.get(0).checkCount);
+            assertEquals(now + expectedInterval, due.get(0).nextCheckTime);
+            assertEquals(expectedInterval, tracker.getNextTickDelay(now));
+            now += expectedInterval;
+        }
+    }
+
+    @Test
+    public void requestsDueInSameWindowAreCheckedTogether() {
+
+        AddNodeRequestTracker tracker = new AddNodeRequestTracker();
+        tracker.track(NODE_1, "req_1", 0);
+        tracker.track(NODE_2, "req_2", 800);
+
+        ArrayList<AddNodeRequestTracker.Request> due = tracker.getDueRequests(2000);
+        assertEquals(2, due.size());
+        assertEquals(NODE_1, due.get(0).nodeId);
+        assertEquals("req_2", due.get(1).requestId);
+        assertTrue(tracker.getDueRequests(2000).isEmpty());
+    }
+
+    @Test
+    public void completedRequestIsNotChecked() {
+
+        AddNodeRequestTracker tracker = new AddNodeRequestTracker();
+        tracker.track(NODE_1, "req_1", 0);
+        tracker.track(NODE_2, "req_2", 0);
+
+        assertTrue(tracker.complete(NODE_1));
+        assertFalse(tracker.complete(NODE_1));
+        assertFalse(tracker.isPending(NODE_1));
+
+        ArrayList<AddNodeRequestTracker.Request> due = tracker.getDueRequests(2000);
+        assertEquals(1, due.size());
+        assertEquals(NODE_2, due.get(0).nodeId);
+    }
+
+    @Test
+    public void trackingSameNodeAgainRestartsRequest() {
+
+        AddNodeRequestTracker tracker = new AddNodeRequestTracker();
+        tracker.track(NODE_1, "req_1", 0);
+        tracker.getDueRequests(2000);
+        tracker.track(NODE_1, "req_2", 5000);
+
+        assertEquals(2000, tracker.getNextTickDelay(5000));
+        ArrayList<AddNodeRequestTracker.Request> due = tracker.getDueRequests(7000);
+        assertEquals(1, due.size());
+        assertEquals("req_2", due.get(0).requestId);
+    }
+
+    @Test
+    public void expiredRequestsAreRemoved() {
+
+        AddNodeRequestTracker tracker = new AddNodeRequestTracker();
+        tracker.track(NODE_1, "req_1", 0);
+        tracker.track(NODE_2, "req_2", 60000);
+
+        assertTrue(tracker.removeExpired(119999).isEmpty());
+        assertEquals(Collections.singletonList(NODE_1), tracker.removeExpired(120000));
+        assertFalse(tracker.isPending(NODE_1));
+        assertTrue(tracker.isPending(NODE_2));
+
+        // Expiry of the remaining request limits the next tick delay, even though its check is far away.
+        AddNodeRequestTracker.Request request = tracker.getDueRequests(179000).get(0);
+        assertEquals(NODE_2, request.nodeId);
+        assertEquals(1000, tracker.getNextTickDelay(179000));
+        assertEquals(Arrays.asList(NODE_2), tracker.removeExpired(180000));
+        assertEquals(-1, tracker.getNextTickDelay(180000));
+    }
+
+    @Test
+    public void clearRemovesAllRequests() {
+
+        AddNodeRequestTracker tracker = new AddNodeRequestTracker();
+        tracker.track(NODE_1, "req_1", 0);
+        tracker.track(NODE_2, "req_2", 0);
+        tracker.clear();
+
+        assertFalse(tracker.isPending(NODE_1));
+        assertTrue(tracker.getDueRequests(2000).isEmpty());
+        assertEquals(-1, tracker.getNextTickDelay(0));
+    }
+}
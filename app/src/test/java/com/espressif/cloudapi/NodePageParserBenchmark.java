@@ -0,0 +1,98 @@
+// Copyright 2021 Espressif Systems (Shanghai) PTE LTD
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.espressif.cloudapi;
+
+import com.espressif.TestPayloads;
+import com.espressif.ui.models.EspNode;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Before;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Benchmark of sequential and parallel parsing of a page of 500 nodes by NodePageParser.
+ * Timing depends on the machine, so it is not run with unit tests. Remove {@link Ignore} to run it.
+ */
+@Ignore("Benchmark")
+public class NodePageParserBenchmark {
+
+    private static final int BENCHMARK_PAGE_SIZE = 500;
+    private static final int BENCHMARK_ROUNDS = 10;
+
+    private JSONObject lightbulbJson;
+    private JSONObject multiDeviceJson;
+
+    @Before
+    public void setUp() throws Exception {
+        lightbulbJson = TestPayloads.load(TestPayloads.NODE_LIGHTBULB);
+        multiDeviceJson = TestPayloads.load(TestPayloads.NODE_MULTI_DEVICE);
+    }
+
+    /**
+     * Parses a page of 500 recorded nodes sequentially and in parallel and compares their timing.
+     * Speedup depends on number of cores of the machine running the benchmark.
+     */
+    @Test
+    public void parallelParsingBenchmark() throws Exception {
+
+        JSONArray page = createPage(BENCHMARK_PAGE_SIZE);
+
+        // Warm up
+        parsePage(page, false, BENCHMARK_ROUNDS * 3);
+        parsePage(page, true, BENCHMARK_ROUNDS * 3);
+
+        long sequentialTime = parsePage(page, false, BENCHMARK_ROUNDS);
+        long parallelTime = parsePage(page, true, BENCHMARK_ROUNDS);
+
+        int cores = Runtime.getRuntime().availableProcessors();
+
+        assertTrue("Parse " + BENCHMARK_PAGE_SIZE + " nodes on " + cores
+                        + " cores, sequential : " + sequentialTime / BENCHMARK_ROUNDS / 1000000 + " ms"
+                        + ", parallel : " + parallelTime / BENCHMARK_ROUNDS / 1000000 + " ms"
+                        + ", speedup : " + String.format("%.2f", (double) sequentialTime / parallelTime),
+                cores == 1 || parallelTime <= sequentialTime);
+    }
+
+    private long parsePage(JSONArray page, boolean isParallel, int rounds) {
+
+        long startTime = System.nanoTime();
+
+        for (int round = 0; round < rounds; round++) {
+
+            NodePageParser.ParsedNode[] parsedNodes = new NodePageParser(page, new HashMap<String, EspNode>(),
+                    Collections.<String>emptySet()).parse(isParallel);
+            assertEquals(page.length(), parsedNodes.length);
+        }
+        return System.nanoTime() - startTime;
+    }
+
+    private JSONArray createPage(int nodeCount) throws Exception {
+
+        JSONArray page = new JSONArray();
+        for (int i = 0; i < nodeCount; i++) {
+            JSONObject recordedNode = i % 2 == 0 ? lightbulbJson : multiDeviceJson;
+            page.put(TestPayloads.copyNode(recordedNode, "NODE_" + i));
+        }
+        return page;
+    }
+}
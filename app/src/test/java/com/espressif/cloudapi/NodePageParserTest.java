@@ -0,0 +1,163 @@
+// Copyright 2021 Espressif Systems (Shanghai) PTE LTD
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.espressif.cloudapi;
+
+import com.espressif.TestPayloads;
+import com.espressif.ui.models.EspNode;
+import com.espressif.ui.models.Param;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of NodePageParser over recorded payloads.
+ */
+public class NodePageParserTest {
+
+    private static final int PAGE_SIZE = 50;
+
+    private JSONObject lightbulbJson;
+    private JSONObject multiDeviceJson;
+
+    @Before
+    public void setUp() throws Exception {
+        lightbulbJson = TestPayloads.load(TestPayloads.NODE_LIGHTBULB);
+        multiDeviceJson = TestPayloads.load(TestPayloads.NODE_MULTI_DEVICE);
+    }
+
+    @Test
+    public void nodesAreParsedInResponseOrder() throws Exception {
+
+        NodePageParser.ParsedNode[] parsedNodes = new NodePageParser(createPage(PAGE_SIZE),
+                new HashMap<String, EspNode>(), Collections.<String>emptySet()).parse(false);
+
+        assertEquals(PAGE_SIZE, parsedNodes.length);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            assertParsedNode(parsedNodes[i], i);
+        }
+    }
+
+    @Test
+    public void existingNodeObjectIsUpdated() throws Exception {
+
+        HashMap<String, EspNode> nodeMap = new HashMap<>();
+        EspNode existingNode = new EspNode("NODE_0");
+        nodeMap.put("NODE_0", existingNode);
+
+        NodePageParser.ParsedNode[] parsedNodes = new NodePageParser(createPage(2), nodeMap,
+                Collections.<String>emptySet()).parse(false);
+
+        assertSame(existingNode, parsedNodes[0].node);
+        assertEquals("ESP RainMaker Device", existingNode.getNodeName());
+    }
+
+    @Test
+    public void cloudValuesAreIgnoredForLocalNode() throws Exception {
+
+        HashMap<String, EspNode> nodeMap = new HashMap<>();
+        EspNode localNode = new EspNode("NODE_0");
+        nodeMap.put("NODE_0", localNode);
+        HashSet<String> localNodeIds = new HashSet<>();
+        localNodeIds.add("NODE_0");
+
+        NodePageParser.ParsedNode[] parsedNodes = new NodePageParser(createPage(1), nodeMap, localNodeIds).parse(false);
+
+        assertSame(localNode, parsedNodes[0].node);
+        assertTrue(parsedNodes[0].hasConfig);
+        assertNull(localNode.getNodeName());
+        assertNotNull(parsedNodes[0].paramsJson);
+    }
+
+    @Test
+    public void invalidNodeIsSkipped() throws Exception {
+
+        JSONArray page = createPage(2);
+        page.put(1, "invalid");
+
+        NodePageParser.ParsedNode[] parsedNodes = new NodePageParser(page, new HashMap<String, EspNode>(),
+                Collections.<String>emptySet()).parse(false);
+
+        assertParsedNode(parsedNodes[0], 0);
+        assertNull(parsedNodes[1]);
+    }
+
+    /**
+     * Page is parsed sequentially if machine running the test has single core.
+     */
+    @Test
+    public void parallelParsingGivesSameResult() throws Exception {
+
+        NodePageParser.ParsedNode[] parsedNodes = new NodePageParser(createPage(PAGE_SIZE),
+                new HashMap<String, EspNode>(), Collections.<String>emptySet()).parse(true);
+
+        assertEquals(PAGE_SIZE, parsedNodes.length);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            assertParsedNode(parsedNodes[i], i);
+        }
+    }
+
+    private JSONArray createPage(int nodeCount) throws Exception {
+
+        JSONArray page = new JSONArray();
+        for (int i = 0; i < nodeCount; i++) {
+            JSONObject recordedNode = i % 2 == 0 ? lightbulbJson : multiDeviceJson;
+            page.put(TestPayloads.copyNode(recordedNode, "NODE_" + i));
+        }
+        return page;
+    }
+
+    private void assertParsedNode(NodePageParser.ParsedNode parsedNode, int index) {
+
+        EspNode node = parsedNode.node;
+        assertEquals("NODE_" + index, parsedNode.nodeId);
+        assertEquals("NODE_" + index, node.getNodeId());
+        assertEquals("primary", node.getUserRole());
+        assertTrue(parsedNode.hasConfig);
+        assertNotNull(parsedNode.paramsJson);
+
+        if (index % 2 == 0) {
+            assertEquals(1, node.getDevices().size());
+            assertTrue(node.isOnline());
+            assertEquals(25, getParam(node, 0, "Brightness").getValue(), 0);
+        } else {
+            assertEquals(3, node.getDevices().size());
+            assertFalse(node.isOnline());
+            assertEquals("Ceiling Fan", node.getDevices().get(1).getUserVisibleName());
+        }
+    }
+
+    private Param getParam(EspNode node, int deviceIndex, String name) {
+
+        for (Param param : node.getDevices().get(deviceIndex).getParams()) {
+            if (name.equals(param.getName())) {
+                return param;
+            }
+        }
+        return null;
+    }
+}
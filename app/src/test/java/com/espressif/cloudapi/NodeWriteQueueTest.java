@@ -0,0 +1,145 @@
+// Copyright 2021 Espressif Systems (Shanghai) PTE LTD
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.espressif.cloudapi;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of NodeWriteQueue ordering and parallelism.
+ */
+public class NodeWriteQueueTest {
+
+    private static final int WRITE_COUNT = 200;
+
+    private ExecutorService executor;
+    private NodeWriteQueue writeQueue;
+
+    @Before
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(8);
+        writeQueue = new NodeWriteQueue(executor);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void writesOfNodeRunInOrderOneAtATime() throws InterruptedException {
+
+        final List<Integer> sentValues = Collections.synchronizedList(new ArrayList<Integer>());
+        final AtomicInteger runningCount = new AtomicInteger();
+        final AtomicInteger maxRunningCount = new AtomicInteger();
+        final CountDownLatch latch = new CountDownLatch(WRITE_COUNT);
+
+        for (int i = 0; i < WRITE_COUNT; i++) {
+
+            final int value = i;
+            writeQueue.submit("node_1", new Runnable() {
+
+                @Override
+                public void run() {
+                    int running = runningCount.incrementAndGet();
+                    maxRunningCount.set(Math.max(maxRunningCount.get(), running));
+                    Thread.yield();
+                    sentValues.add(value);
+                    runningCount.decrementAndGet();
+                    latch.countDown();
+                }
+            });
+        }
+
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        assertEquals(1, maxRunningCount.get());
+        for (int i = 0; i < WRITE_COUNT; i++) {
+            assertEquals(i, (int) sentValues.get(i));
+        }
+    }
+
+    @Test
+    public void writesOfDifferentNodesRunInParallel() throws InterruptedException {
+
+        final CountDownLatch bothStarted = new CountDownLatch(2);
+        final CountDownLatch done = new CountDownLatch(2);
+
+        for (String nodeId : new String[]{"node_1", "node_2"}) {
+
+            writeQueue.submit(nodeId, new Runnable() {
+
+                @Override
+                public void run() {
+                    bothStarted.countDown();
+                    try {
+                        // Write of one node waits for write of the other node, which is possible only in parallel.
+                        if (bothStarted.await(5, TimeUnit.SECONDS)) {
+                            done.countDown();
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            });
+        }
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void failedWriteDoesNotBlockNextWrites() throws InterruptedException {
+
+        final CountDownLatch latch = new CountDownLatch(1);
+
+        writeQueue.submit("node_1", new Runnable() {
+
+            @Override
+            public void run() {
+                throw new IllegalStateException("Write failed");
+            }
+        });
+        writeQueue.submit("node_1", new Runnable() {
+
+            @Override
+            public void run() {
+                latch.countDown();
+            }
+        });
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+
+        // Queue of the node is started again for writes submitted after it became idle.
+        final CountDownLatch nextLatch = new CountDownLatch(1);
+        writeQueue.submit("node_1", new Runnable() {
+
+            @Override
+            public void run() {
+                nextLatch.countDown();
+            }
+        });
+        assertTrue(nextLatch.await(10, TimeUnit.SECONDS));
+    }
+}
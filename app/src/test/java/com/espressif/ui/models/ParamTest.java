@@ -0,0 +1,94 @@
+// Copyright 2021 Espressif Systems (Shanghai) PTE LTD
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.espressif.ui.models;
+
+import com.espressif.AppConstants;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests of param definitions shared between params.
+ */
+public class ParamTest {
+
+    @After
+    public void tearDown() {
+        ParamMetadata.clearPool();
+    }
+
+    @Test
+    public void copyOfParamDoesNotShareEditableDefinition() {
+
+        Param param = createParam();
+        Param copy = new Param(param);
+
+        copy.setMaxBounds(200);
+        copy.setUiType(AppConstants.UI_TYPE_TOGGLE);
+
+        assertEquals(100, param.getMaxBounds());
+        assertEquals(AppConstants.UI_TYPE_SLIDER, param.getUiType());
+        assertEquals(200, copy.getMaxBounds());
+    }
+
+    @Test
+    public void copyOfInternedParamIsEditedSeparately() {
+
+        Param param = createParam();
+        param.internMetadata();
+        Param copy = new Param(param);
+
+        copy.setMaxBounds(200);
+
+        assertEquals(100, param.getMaxBounds());
+        assertEquals(200, copy.getMaxBounds());
+    }
+
+    @Test
+    public void validStringsCannotBeChangedFromOutside() {
+
+        ArrayList<String> validStrings = new ArrayList<>(Arrays.asList("Low", "High"));
+        Param param = createParam();
+        param.setValidStrings(validStrings);
+        param.internMetadata();
+
+        validStrings.add("Medium");
+        assertEquals(2, param.getValidStrings().size());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void validStringsAreReadOnly() {
+
+        Param param = createParam();
+        param.setValidStrings(new ArrayList<>(Arrays.asList("Low", "High")));
+        param.getValidStrings().add("Medium");
+    }
+
+    private Param createParam() {
+
+        Param param = new Param();
+        param.setName("Brightness");
+        param.setDataType("int");
+        param.setUiType(AppConstants.UI_TYPE_SLIDER);
+        param.setMinBounds(0);
+        param.setMaxBounds(100);
+        return param;
+    }
+}